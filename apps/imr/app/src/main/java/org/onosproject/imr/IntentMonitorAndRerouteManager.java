@@ -608,6 +608,9 @@ public class IntentMonitorAndRerouteManager implements IntentMonitorAndRerouteSe
                         statsStore.updateFlowStatistic((FlowEntry) rule);
                     }
                     break;
+                case RULE_STATS_UPDATED:
+                    event.entries().forEach(statsStore::updateFlowStatistic);
+                    break;
                 case RULE_REMOVED:
                     // In case of rule removal, flow statistics are removed from the store
                     log.info("Rule removed: {}", rule.id());
@@ -20,6 +20,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -62,6 +64,9 @@ public class DefaultRouteTable implements RouteTable {
     private final ExecutorService executor;
     private final RouteTableListener listener = new RouteTableListener();
 
+    // Local index of the stored routes by next hop; kept current by the listener
+    private volatile Map<IpAddress, Set<RawRoute>> routesByNextHop = new ConcurrentHashMap<>();
+
     private final Consumer<DistributedPrimitive.Status> statusChangeListener;
 
     /**
@@ -81,14 +86,44 @@ public class DefaultRouteTable implements RouteTable {
 
         statusChangeListener = status -> {
             if (status.equals(DistributedPrimitive.Status.ACTIVE)) {
-                executor.execute(this::notifyExistingRoutes);
+                executor.execute(() -> {
+                    indexExistingRoutes();
+                    notifyExistingRoutes();
+                });
             }
         };
         routes.addStatusChangeListener(statusChangeListener);
 
+        // Index existing routes on the executor ahead of any change delivered
+        // to the listener, so that changes are applied on top of the index
+        executor.execute(this::indexExistingRoutes);
+        routes.addListener(listener, executor);
+
         notifyExistingRoutes();
+    }
 
-        routes.addListener(listener, executor);
+    // Rebuilds the next hop index from the stored routes; this runs on the
+    // executor and so does not race with the listener.
+    private void indexExistingRoutes() {
+        Map<IpAddress, Set<RawRoute>> index = new ConcurrentHashMap<>();
+        routes.stream().map(Map.Entry::getValue).forEach(route -> indexRoute(index, route));
+        routesByNextHop = index;
+    }
+
+    private void indexRoute(RawRoute route) {
+        indexRoute(routesByNextHop, route);
+    }
+
+    private static void indexRoute(Map<IpAddress, Set<RawRoute>> index, RawRoute route) {
+        index.computeIfAbsent(IpAddress.valueOf(route.nextHop()), ip -> ConcurrentHashMap.newKeySet())
+                .add(route);
+    }
+
+    private void unindexRoute(RawRoute route) {
+        routesByNextHop.computeIfPresent(IpAddress.valueOf(route.nextHop()), (ip, indexed) -> {
+            indexed.remove(route);
+            return indexed.isEmpty() ? null : indexed;
+        });
     }
 
     private void notifyExistingRoutes() {
@@ -173,9 +208,11 @@ public class DefaultRouteTable implements RouteTable {
 
     @Override
     public Collection<Route> getRoutesForNextHop(IpAddress nextHop) {
-        return routes.stream()
-            .map(Map.Entry::getValue)
-            .filter(r -> IpAddress.valueOf(r.nextHop()).equals(nextHop))
+        Set<RawRoute> indexed = routesByNextHop.get(nextHop);
+        if (indexed == null) {
+            return Collections.emptySet();
+        }
+        return indexed.stream()
             .map(RawRoute::route)
             .collect(Collectors.toSet());
     }
@@ -197,9 +234,11 @@ public class DefaultRouteTable implements RouteTable {
             InternalRouteEvent ire = null;
             switch (event.type()) {
             case INSERT:
+                indexRoute(event.newValue());
                 ire = createRouteEvent(InternalRouteEvent.Type.ROUTE_ADDED, event);
                 break;
             case REMOVE:
+                unindexRoute(event.oldValue());
                 ire = createRouteEvent(InternalRouteEvent.Type.ROUTE_REMOVED, event);
                 break;
             default:
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice.store;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.routeservice.Route;
+import org.onosproject.routeservice.RouteTableId;
+import org.onosproject.store.service.AsyncConsistentMultimap;
+import org.onosproject.store.service.ConsistentMultimap;
+import org.onosproject.store.service.ConsistentMultimapBuilder;
+import org.onosproject.store.service.MultimapEvent;
+import org.onosproject.store.service.MultimapEventListener;
+import org.onosproject.store.service.StorageServiceAdapter;
+import org.onosproject.store.service.TestConsistentMultimap;
+import org.onosproject.store.service.Versioned;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * Unit tests for the next hop index of the default route table.
+ */
+public class DefaultRouteTableTest {
+
+    private static final RouteTableId TABLE_ID = new RouteTableId("ipv4");
+    private static final IpPrefix PREFIX1 = IpPrefix.valueOf("1.1.1.0/24");
+    private static final IpPrefix PREFIX2 = IpPrefix.valueOf("2.2.2.0/24");
+    private static final IpAddress NEXT_HOP1 = IpAddress.valueOf("192.168.1.1");
+    private static final IpAddress NEXT_HOP2 = IpAddress.valueOf("192.168.2.1");
+
+    private TestRouteMultimap<Object, Object> routeMap;
+    private QueuedExecutor executor;
+
+    @Before
+    public void setUp() {
+        routeMap = new TestRouteMultimap<>();
+        executor = new QueuedExecutor();
+    }
+
+    private DefaultRouteTable createTable() {
+        return new DefaultRouteTable(TABLE_ID, event -> { }, new TestStorageService(), executor);
+    }
+
+    private static Route route(IpPrefix prefix, IpAddress nextHop) {
+        return new Route(Route.Source.STATIC, prefix, nextHop);
+    }
+
+    /**
+     * Tests that the next hop index follows routes being added, updated and
+     * removed.
+     */
+    @Test
+    public void testNextHopIndex() {
+        DefaultRouteTable table = createTable();
+        executor.runAll();
+
+        Route route1 = route(PREFIX1, NEXT_HOP1);
+        Route route2 = route(PREFIX2, NEXT_HOP1);
+        table.update(route1);
+        table.update(route2);
+        executor.runAll();
+        assertThat(table.getRoutesForNextHop(NEXT_HOP1), containsInAnyOrder(route1, route2));
+        assertThat(table.getRoutesForNextHop(NEXT_HOP2), empty());
+
+        Route route1Updated = route(PREFIX1, NEXT_HOP2);
+        table.replace(route1Updated);
+        executor.runAll();
+        assertThat(table.getRoutesForNextHop(NEXT_HOP1), containsInAnyOrder(route2));
+        assertThat(table.getRoutesForNextHop(NEXT_HOP2), containsInAnyOrder(route1Updated));
+
+        table.remove(route2);
+        table.remove(route1Updated);
+        executor.runAll();
+        assertThat(table.getRoutesForNextHop(NEXT_HOP1), empty());
+        assertThat(table.getRoutesForNextHop(NEXT_HOP2), empty());
+    }
+
+    /**
+     * Tests that routes stored before the table is created are indexed, and
+     * that changes made while the index is being built are not lost.
+     */
+    @Test
+    public void testExistingRoutesIndexed() {
+        Route route1 = route(PREFIX1, NEXT_HOP1);
+        Route route2 = route(PREFIX2, NEXT_HOP1);
+        Route route3 = route(PREFIX2, NEXT_HOP2);
+        DefaultRouteTable existing = createTable();
+        existing.update(route1);
+        existing.update(route2);
+        existing.shutdown();
+        executor.runAll();
+
+        DefaultRouteTable table = createTable();
+        // Changes notified before the index is built
+        table.remove(route1);
+        table.update(route3);
+        executor.runAll();
+
+        assertThat(table.getRoutesForNextHop(NEXT_HOP1), containsInAnyOrder(route2));
+        assertThat(table.getRoutesForNextHop(NEXT_HOP2), containsInAnyOrder(route3));
+    }
+
+    /**
+     * Executor queueing tasks until explicitly run, in submission order.
+     */
+    private static class QueuedExecutor extends AbstractExecutorService {
+        private final List<Runnable> tasks = Lists.newArrayList();
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    /**
+     * Multimap notifying its listeners of inserted and removed values.
+     */
+    private static class TestRouteMultimap<K, V> extends TestConsistentMultimap<K, V> {
+        private final SetMultimap<K, V> map = HashMultimap.create();
+        private final Map<MultimapEventListener<K, V>, Executor> listeners = Maps.newHashMap();
+
+        private void notifyListeners(K key, V newValue, V oldValue) {
+            MultimapEvent<K, V> event = new MultimapEvent<>(name(), key, newValue, oldValue);
+            listeners.forEach((listener, executor) -> executor.execute(() -> listener.event(event)));
+        }
+
+        @Override
+        public boolean put(K key, V value) {
+            if (map.put(key, value)) {
+                notifyListeners(key, value, null);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean remove(K key, V value) {
+            if (map.remove(key, value)) {
+                notifyListeners(key, null, value);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Versioned<Collection<? extends V>> replaceValues(K key, Collection<V> values) {
+            Set<V> oldValues = map.replaceValues(key, values);
+            oldValues.stream().filter(v -> !values.contains(v))
+                    .forEach(v -> notifyListeners(key, null, v));
+            values.stream().filter(v -> !oldValues.contains(v))
+                    .forEach(v -> notifyListeners(key, v, null));
+            return new Versioned<>(oldValues, 0);
+        }
+
+        @Override
+        public Versioned<Collection<? extends V>> get(K key) {
+            return map.containsKey(key) ? new Versioned<>(ImmutableSet.copyOf(map.get(key)), 0) : null;
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return ImmutableList.copyOf(map.entries()).iterator();
+        }
+
+        @Override
+        public void addListener(MultimapEventListener<K, V> listener, Executor executor) {
+            listeners.put(listener, executor);
+        }
+
+        @Override
+        public void removeListener(MultimapEventListener<K, V> listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    private class TestStorageService extends StorageServiceAdapter {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> ConsistentMultimapBuilder<K, V> consistentMultimapBuilder() {
+            return new ConsistentMultimapBuilder<K, V>() {
+                @Override
+                public AsyncConsistentMultimap<K, V> buildMultimap() {
+                    return null;
+                }
+
+                @Override
+                public ConsistentMultimap<K, V> build() {
+                    return (ConsistentMultimap<K, V>) routeMap;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.routescale;
+
+import org.apache.karaf.shell.api.action.Argument;
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onosproject.cli.AbstractShellCommand;
+
+import java.util.LongSummaryStatistics;
+
+/**
+ * Measures the latency of resolving routes upon host changes.
+ */
+@Service
+@Command(scope = "onos", name = "scale-route-resolution",
+        description = "Measures the latency of finding routes affected by host changes")
+public class MeasureRouteResolution extends AbstractShellCommand {
+
+    private static final String FORMAT = "samples=%d, min=%dus, avg=%.1fus, max=%dus";
+
+    @Argument(index = 0, name = "samples", description = "Number of host changes to measure")
+    int samples = 100;
+
+    @Override
+    protected void doExecute() {
+        ScaleTestManager manager = get(ScaleTestManager.class);
+        LongSummaryStatistics stats = manager.measureHostChangeResolution(samples);
+        if (stats.getCount() == 0) {
+            print("No hosts to measure");
+            return;
+        }
+        print(FORMAT, stats.getCount(), stats.getMin(), stats.getAverage(), stats.getMax());
+    }
+
+}
@@ -44,6 +44,7 @@ import org.onosproject.net.host.HostAdminService;
 import org.onosproject.net.link.LinkService;
 import org.onosproject.routeservice.Route;
 import org.onosproject.routeservice.RouteAdminService;
+import org.onosproject.routeservice.RouteStore;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -54,10 +55,13 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.Dictionary;
 import java.util.List;
+import java.util.LongSummaryStatistics;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.onlab.util.Tools.get;
@@ -96,6 +100,9 @@ public class ScaleTestManager {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected RouteAdminService routeAdminService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected RouteStore routeStore;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ComponentConfigService componentConfigService;
 
@@ -249,6 +256,29 @@ public class ScaleTestManager {
         routeAdminService.update(routes.build());
     }
 
+    /**
+     * Measures how long it takes to find the routes affected by a change of
+     * randomly chosen hosts, using the same lookups as the route manager does
+     * when resolving routes upon host events.
+     *
+     * @param samples number of host changes to measure
+     * @return statistics of the resolution latency in microseconds
+     */
+    public LongSummaryStatistics measureHostChangeResolution(int samples) {
+        List<Host> hosts = ImmutableList.copyOf(hostAdminService.getHosts());
+        LongSummaryStatistics stats = new LongSummaryStatistics();
+        for (int i = 0; i < samples && !hosts.isEmpty(); i++) {
+            Host host = hosts.get(random.nextInt(hosts.size()));
+            long start = System.nanoTime();
+            for (IpAddress ip : host.ipAddresses()) {
+                Collection<Route> routes = routeStore.getRoutesForNextHop(ip);
+                routes.forEach(route -> routeStore.getRoutes(route.prefix()));
+            }
+            stats.accept(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        return stats;
+    }
+
     // Removes the specified number of routes chosen at random.
     private void removeRoutes(int routeCount) {
         log.warn("Not implemented yet");
@@ -75,6 +75,7 @@ import org.slf4j.Logger;
 
 import java.util.Dictionary;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -611,25 +612,23 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
             if ((event.type() == FlowRuleEvent.Type.RULE_ADDED) ||
                     (event.type() == FlowRuleEvent.Type.RULE_UPDATED)) {
                 if (frm.isVirtualIngressRule(event.subject())) {
-                    NetworkId networkId = frm.getVirtualNetworkId(event.subject());
                     FlowEntry vEntry = getVirtualFlowEntry(event.subject());
-
                     if (vEntry == null) {
                         return;
                     }
-
-                    frm.addOrUpdateFlowEntry(networkId, vEntry.deviceId(), vEntry);
-
-                    VirtualFlowRuleProviderService providerService =
-                            (VirtualFlowRuleProviderService) providerRegistryService
-                                    .getProviderService(networkId,
-                                                        VirtualFlowRuleProvider.class);
-
-                    ImmutableList.Builder<FlowEntry> builder = ImmutableList.builder();
-                    builder.addAll(frm.getFlowEntries(networkId, vEntry.deviceId()));
-
-                    providerService.pushFlowMetrics(vEntry.deviceId(), builder.build());
+                    updateVirtualFlowEntries(frm.getVirtualNetworkId(event.subject()),
+                                             ImmutableList.of(vEntry));
                 }
+            } else if (event.type() == FlowRuleEvent.Type.RULE_STATS_UPDATED) {
+                // the refreshed entries are the stored ones, no need to look them up
+                Map<NetworkId, List<FlowEntry>> vEntries = Maps.newHashMap();
+                event.entries().stream()
+                        .filter(frm::isVirtualIngressRule)
+                        .forEach(entry -> vEntries
+                                .computeIfAbsent(frm.getVirtualNetworkId(entry),
+                                                 n -> Lists.newArrayList())
+                                .add(virtualize(entry)));
+                vEntries.forEach(this::updateVirtualFlowEntries);
             } else if (event.type() == FlowRuleEvent.Type.RULE_REMOVED) {
                 if (frm.isVirtualIngressRule(event.subject())) {
                     //FIXME confirm all physical rules are removed
@@ -652,6 +651,25 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
             }
         }
 
+        // Stores the given virtual flow entries, then pushes the metrics of
+        // each of their virtual devices once.
+        private void updateVirtualFlowEntries(NetworkId networkId, List<FlowEntry> vEntries) {
+            Set<DeviceId> deviceIds = Sets.newHashSet();
+            for (FlowEntry vEntry : vEntries) {
+                frm.addOrUpdateFlowEntry(networkId, vEntry.deviceId(), vEntry);
+                deviceIds.add(vEntry.deviceId());
+            }
+
+            VirtualFlowRuleProviderService providerService =
+                    (VirtualFlowRuleProviderService) providerRegistryService
+                            .getProviderService(networkId,
+                                                VirtualFlowRuleProvider.class);
+            for (DeviceId deviceId : deviceIds) {
+                providerService.pushFlowMetrics(
+                        deviceId, ImmutableList.copyOf(frm.getFlowEntries(networkId, deviceId)));
+            }
+        }
+
         private FlowEntry getVirtualFlowEntry(FlowRule rule) {
             FlowEntry entry = null;
             for (FlowEntry fe :
@@ -27,4 +27,20 @@ public interface EventListener<E extends Event> extends EventFilter<E> {
      */
     void event(E event);
 
+    /**
+     * Returns the capacity of the queue on which the listener wants to be
+     * delivered events, isolated from the shared event dispatch loop.
+     * <p>
+     * By default listeners are invoked directly from the dispatch loop; a
+     * positive value instead has them invoked from a dedicated thread, with
+     * events arriving while that many are already pending being dropped.
+     * Relevance of events is still evaluated on the dispatch loop.
+     * </p>
+     *
+     * @return event queue capacity; 0 for direct delivery
+     */
+    default int eventQueueSize() {
+        return 0;
+    }
+
 }
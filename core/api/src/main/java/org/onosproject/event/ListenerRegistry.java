@@ -15,23 +15,45 @@
  */
 package org.onosproject.event;
 
+import com.google.common.collect.ImmutableList;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.slf4j.Logger;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.util.Tools.groupedThreads;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Base implementation of an event sink and a registry capable of tracking
  * listeners and dispatching events to them as part of event sink processing.
+ * <p>
+ * Delivery statistics are kept for each listener and may be published via
+ * the metrics service. Listeners asking for an event queue of their own are
+ * invoked from a dedicated thread rather than from the dispatch loop.
+ * </p>
  */
 public class ListenerRegistry<E extends Event, L extends EventListener<E>>
         implements ListenerService<E, L>, EventSink<E> {
 
     private static final long LIMIT = 1_800; // ms
 
+    private static final String LATENCY = "latency";
+    private static final String QUEUE_TIME = "queueTime";
+    private static final String DROPPED = "dropped";
+
     private final Logger log = getLogger(getClass());
 
     private long lastStart;
@@ -42,9 +64,23 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
      */
     protected final Set<L> listeners = new CopyOnWriteArraySet<>();
 
+    private final Map<L, ListenerStatistics> statistics = new ConcurrentHashMap<>();
+    private final Map<L, ExecutorService> isolatedExecutors = new ConcurrentHashMap<>();
+
+    private volatile MetricsService metricsService;
+    private volatile MetricsComponent metricsComponent;
+
     @Override
     public void addListener(L listener) {
         checkNotNull(listener, "Listener cannot be null");
+        int queueSize = listener.eventQueueSize();
+        ListenerStatistics stats = new ListenerStatistics(listenerName(listener), queueSize > 0);
+        if (statistics.putIfAbsent(listener, stats) == null) {
+            if (stats.isIsolated()) {
+                isolatedExecutors.put(listener, newIsolatedExecutor(listener, queueSize));
+            }
+            publishMetrics(stats);
+        }
         listeners.add(listener);
     }
 
@@ -54,6 +90,14 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
         if (!listeners.remove(listener)) {
             log.warn("Listener {} not registered", listener);
         }
+        ExecutorService executor = isolatedExecutors.remove(listener);
+        if (executor != null) {
+            executor.shutdown();
+        }
+        ListenerStatistics stats = statistics.remove(listener);
+        if (stats != null) {
+            unpublishMetrics(stats);
+        }
     }
 
     @Override
@@ -63,7 +107,7 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
                 lastListener = listener;
                 lastStart = System.currentTimeMillis();
                 if (listener.isRelevant(event)) {
-                    listener.event(event);
+                    deliver(listener, event);
                 }
                 lastStart = 0;
             } catch (Exception error) {
@@ -72,6 +116,123 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
         }
     }
 
+    // Invokes the listener directly or hands the event off to its own queue
+    private void deliver(L listener, E event) {
+        ListenerStatistics stats = statistics.get(listener);
+        ExecutorService executor = isolatedExecutors.get(listener);
+        if (executor == null) {
+            invoke(listener, event, stats);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                // Events still queued when the listener is removed are dropped
+                if (isolatedExecutors.get(listener) != executor) {
+                    return;
+                }
+                try {
+                    invoke(listener, event, stats);
+                } catch (Exception error) {
+                    reportProblem(event, error);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stats.recordDrop();
+            log.debug("Event queue of listener {} is full; dropped {}", stats.name(), event);
+        }
+    }
+
+    private void invoke(L listener, E event, ListenerStatistics stats) {
+        if (stats == null) {
+            listener.event(event);
+            return;
+        }
+        long queueMillis = System.currentTimeMillis() - event.time();
+        long start = System.nanoTime();
+        try {
+            listener.event(event);
+        } finally {
+            stats.recordDelivery(queueMillis, System.nanoTime() - start);
+        }
+    }
+
+    private ExecutorService newIsolatedExecutor(L listener, int queueSize) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                      new LinkedBlockingQueue<>(queueSize),
+                                      groupedThreads("onos/event",
+                                                     "listener-" + listener.getClass().getSimpleName() + "-%d",
+                                                     log));
+    }
+
+    private static String listenerName(EventListener<?> listener) {
+        return listener.getClass().getName() + "@" +
+                Integer.toHexString(System.identityHashCode(listener));
+    }
+
+    /**
+     * Returns the delivery statistics of the registered listeners.
+     *
+     * @return collection of listener statistics
+     */
+    public Collection<ListenerStatistics> getListenerStatistics() {
+        return ImmutableList.copyOf(statistics.values());
+    }
+
+    /**
+     * Publishes the delivery statistics of the registered listeners, and of
+     * those registered later on, via the given metrics service. Each listener
+     * is published as a feature of a metrics component with the given name.
+     *
+     * @param metricsService metrics service
+     * @param name           metrics component name
+     */
+    public void publishMetrics(MetricsService metricsService, String name) {
+        checkNotNull(metricsService, "Metrics service cannot be null");
+        this.metricsComponent = metricsService.registerComponent(name);
+        this.metricsService = metricsService;
+        statistics.values().forEach(this::publishMetrics);
+    }
+
+    /**
+     * Withdraws the delivery statistics previously published via the
+     * metrics service.
+     */
+    public void unpublishMetrics() {
+        if (metricsService != null) {
+            statistics.values().forEach(this::unpublishMetrics);
+            metricsService = null;
+            metricsComponent = null;
+        }
+    }
+
+    private void publishMetrics(ListenerStatistics stats) {
+        MetricsService service = metricsService;
+        MetricsComponent component = metricsComponent;
+        if (service == null || component == null) {
+            return;
+        }
+        MetricsFeature feature = component.registerFeature(stats.name());
+        unpublishMetrics(service, component, feature);
+        service.registerMetric(component, feature, LATENCY, stats.latency());
+        service.registerMetric(component, feature, QUEUE_TIME, stats.queueTime());
+        service.registerMetric(component, feature, DROPPED, stats.dropped());
+    }
+
+    private void unpublishMetrics(ListenerStatistics stats) {
+        MetricsService service = metricsService;
+        MetricsComponent component = metricsComponent;
+        if (service != null && component != null) {
+            unpublishMetrics(service, component, component.registerFeature(stats.name()));
+        }
+    }
+
+    private static void unpublishMetrics(MetricsService service, MetricsComponent component,
+                                         MetricsFeature feature) {
+        service.removeMetric(component, feature, LATENCY);
+        service.removeMetric(component, feature, QUEUE_TIME);
+        service.removeMetric(component, feature, DROPPED);
+    }
+
     @Override
     public void onProcessLimit() {
         if (lastStart > 0) {
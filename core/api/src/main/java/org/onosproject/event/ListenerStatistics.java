@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.event;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Event delivery statistics of a single listener.
+ */
+public final class ListenerStatistics {
+
+    private final String name;
+    private final boolean isolated;
+    private final Timer latency = new Timer();
+    private final Histogram queueTime = new Histogram(new ExponentiallyDecayingReservoir());
+    private final Counter dropped = new Counter();
+
+    /**
+     * Creates statistics for a listener.
+     *
+     * @param name     listener name
+     * @param isolated whether the listener is delivered events on its own queue
+     */
+    ListenerStatistics(String name, boolean isolated) {
+        this.name = name;
+        this.isolated = isolated;
+    }
+
+    /**
+     * Returns the listener name.
+     *
+     * @return listener name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Indicates whether the listener is delivered events on its own queue.
+     *
+     * @return true if the listener is isolated
+     */
+    public boolean isIsolated() {
+        return isolated;
+    }
+
+    /**
+     * Returns the timer of event deliveries to the listener; its count is
+     * the number of events delivered.
+     *
+     * @return event delivery latency timer
+     */
+    public Timer latency() {
+        return latency;
+    }
+
+    /**
+     * Returns the histogram of the time, in milliseconds, from events being
+     * raised until their delivery to the listener.
+     *
+     * @return queue time histogram
+     */
+    public Histogram queueTime() {
+        return queueTime;
+    }
+
+    /**
+     * Returns the counter of events dropped because the listener's own queue
+     * was full.
+     *
+     * @return dropped event counter
+     */
+    public Counter dropped() {
+        return dropped;
+    }
+
+    void recordDelivery(long queueMillis, long latencyNanos) {
+        queueTime.update(Math.max(queueMillis, 0));
+        latency.update(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordDrop() {
+        dropped.inc();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("name", name)
+                .add("isolated", isolated)
+                .add("events", latency.getCount())
+                .add("dropped", dropped.getCount())
+                .toString();
+    }
+}
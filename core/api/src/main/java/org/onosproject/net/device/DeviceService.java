@@ -23,6 +23,7 @@ import org.onosproject.net.MastershipRole;
 import org.onosproject.net.Port;
 import org.onosproject.net.PortNumber;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -144,6 +145,22 @@ public interface DeviceService
         return null;
     }
 
+    /**
+     * Returns the port specific port delta statistics accumulated over the
+     * specified most recent period of time, from which the port rates over
+     * that period can be derived.
+     *
+     * @param deviceId device identifier
+     * @param portNumber port identifier
+     * @param window period of time preceding the present
+     * @return port delta statistics of specified port, with the duration
+     * actually covered; null if not available
+     */
+    default PortStatistics getDeltaStatisticsForPort(DeviceId deviceId, PortNumber portNumber,
+                                                     Duration window) {
+        return null;
+    }
+
     /**
      * Returns the port with the specified number and hosted by the given device.
      *
@@ -22,6 +22,7 @@ import org.onosproject.net.PortNumber;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.Store;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Stream;
@@ -188,6 +189,21 @@ public interface DeviceStore extends Store<DeviceEvent, DeviceStoreDelegate> {
         return null;
     }
 
+    /**
+     * Returns the port delta statistics of the specified device and port,
+     * accumulated over the specified most recent period of time.
+     *
+     * @param deviceId device identifier
+     * @param portNumber port identifier
+     * @param window period of time preceding the present
+     * @return port statistics of specific port of the device, with the duration
+     * covered by the retained samples; null if not supported or not available
+     */
+    default PortStatistics getDeltaStatisticsForPort(DeviceId deviceId, PortNumber portNumber,
+                                                     Duration window) {
+        return null;
+    }
+
     /**
      * Returns the specified device port.
      *
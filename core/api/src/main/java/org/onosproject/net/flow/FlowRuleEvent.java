@@ -15,13 +15,21 @@
  */
 package org.onosproject.net.flow;
 
+import com.google.common.collect.ImmutableList;
 import org.onosproject.event.AbstractEvent;
 
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Describes flow rule event.
  */
 public class FlowRuleEvent extends AbstractEvent<FlowRuleEvent.Type, FlowRule> {
 
+    private final List<FlowEntry> entries;
+
     /**
      * Type of flow rule events.
      */
@@ -41,6 +49,13 @@ public class FlowRuleEvent extends AbstractEvent<FlowRuleEvent.Type, FlowRule> {
          */
         RULE_UPDATED,
 
+        /**
+         * Signifies that the statistics of a number of flow rules of a device
+         * have been refreshed; the refreshed entries are available via
+         * {@link FlowRuleEvent#entries()}.
+         */
+        RULE_STATS_UPDATED,
+
         // internal event between Manager <-> Store
 
         /*
@@ -62,6 +77,7 @@ public class FlowRuleEvent extends AbstractEvent<FlowRuleEvent.Type, FlowRule> {
      */
     public FlowRuleEvent(Type type, FlowRule flowRule) {
         super(type, flowRule);
+        this.entries = ImmutableList.of();
     }
 
     /**
@@ -73,6 +89,34 @@ public class FlowRuleEvent extends AbstractEvent<FlowRuleEvent.Type, FlowRule> {
      */
     public FlowRuleEvent(Type type, FlowRule flowRule, long time) {
         super(type, flowRule, time);
+        this.entries = ImmutableList.of();
+    }
+
+    /**
+     * Creates an event of a given type summarizing the specified flow entries
+     * of a single device; the first entry serves as the event subject.
+     *
+     * @param type    flow rule event type
+     * @param entries flow entries summarized by the event
+     */
+    public FlowRuleEvent(Type type, Collection<FlowEntry> entries) {
+        super(type, first(entries));
+        this.entries = ImmutableList.copyOf(entries);
+    }
+
+    private static FlowEntry first(Collection<FlowEntry> entries) {
+        checkArgument(!entries.isEmpty(), "Entries cannot be empty");
+        return entries.iterator().next();
+    }
+
+    /**
+     * Returns the flow entries summarized by the event; empty for events
+     * pertaining solely to the subject flow rule.
+     *
+     * @return summarized flow entries
+     */
+    public List<FlowEntry> entries() {
+        return entries;
     }
 
 }
@@ -20,6 +20,8 @@ import org.onosproject.net.flow.oldbatch.FlowRuleBatchEvent;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchOperation;
 import org.onosproject.store.Store;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -113,6 +115,30 @@ public interface FlowRuleStore extends Store<FlowRuleBatchEvent, FlowRuleStoreDe
      */
     FlowRuleEvent addOrUpdateFlowRule(FlowEntry rule);
 
+    /**
+     * Refreshes the statistics of the given existing entries of a device
+     * in bulk, as if each was passed to {@link #addOrUpdateFlowRule(FlowEntry)}.
+     * <p>
+     * Stores may override this to apply the whole batch with fewer
+     * operations than updating the entries one by one.
+     * </p>
+     *
+     * @param deviceId device identifier
+     * @param rules    flow entries reported by the device
+     * @return flow_added or flow_updated events of the entries, omitting the
+     * entries for which no event was generated
+     */
+    default List<FlowRuleEvent> updateFlowStatistics(DeviceId deviceId, Collection<FlowEntry> rules) {
+        List<FlowRuleEvent> events = new ArrayList<>(rules.size());
+        for (FlowEntry rule : rules) {
+            FlowRuleEvent event = addOrUpdateFlowRule(rule);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
     /**
      * @param rule the flow entry to remove
      * @return flow_removed event, or null if nothing removed
@@ -80,4 +80,28 @@ public interface PacketProcessor {
      */
     void process(PacketContext context);
 
+    /**
+     * Indicates whether the specified inbound packet is of interest to this
+     * processor. Packets that are not are never given to the processor.
+     *
+     * @param context packet processing context
+     * @return true if the processor should process the packet
+     */
+    default boolean isRelevant(PacketContext context) {
+        return true;
+    }
+
+    /**
+     * Indicates whether the processor is independent of the other processors,
+     * i.e. it does not handle the packet and does not need to see it before
+     * any other processor does. Independent processors are given the packet
+     * on a separate worker pool, after the other processors have run, so
+     * that they do not hold up the thread delivering packets.
+     *
+     * @return true if the processor is independent
+     */
+    default boolean isIndependent() {
+        return false;
+    }
+
 }
@@ -55,4 +55,15 @@ public interface PacketProcessorEntry {
      * @return average time in nanos
      */
     long averageNanos();
+
+    /**
+     * Returns the time, in nanoseconds, within which the given fraction of
+     * the recently processed packets were processed.
+     *
+     * @param quantile fraction of packets, between 0 and 1
+     * @return time in nanos
+     */
+    default long quantileNanos(double quantile) {
+        return averageNanos();
+    }
 }
@@ -43,7 +43,20 @@ public interface PacketService {
      */
     void addProcessor(PacketProcessor processor, int priority);
 
-    // TODO allow processors to register for particular types of packets
+    /**
+     * Adds the specified processor to the list of packet processors, to be
+     * given only the packets matching the specified selector. Criteria that
+     * cannot be evaluated against an inbound packet are ignored, i.e. the
+     * processor may still see some packets that the selector does not match.
+     *
+     * @param processor processor to be added
+     * @param priority  priority in the reverse natural order
+     * @param selector  selector of the packets the processor is interested in
+     */
+    default void addProcessor(PacketProcessor processor, int priority,
+                              TrafficSelector selector) {
+        addProcessor(processor, priority);
+    }
 
     /**
      * Removes the specified processor from the processing pipeline.
@@ -140,6 +153,16 @@ public interface PacketService {
      */
     void emit(OutboundPacket packet);
 
+    /**
+     * Emits the specified outbound packets onto the network as one batch,
+     * such as the probes sent out of all the ports of a device.
+     *
+     * @param packets outbound packets
+     */
+    default void emit(List<OutboundPacket> packets) {
+        packets.forEach(this::emit);
+    }
+
     /**
      * Get the list of packet filters present in ONOS.
      *
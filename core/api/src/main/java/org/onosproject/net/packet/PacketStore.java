@@ -33,6 +33,16 @@ public interface PacketStore extends Store<PacketEvent, PacketStoreDelegate> {
      */
     void emit(OutboundPacket packet);
 
+    /**
+     * Decides which instance should emit each of the packets and forwards
+     * them to that instance, as {@link #emit(OutboundPacket)} does.
+     *
+     * @param packets the packets to emit
+     */
+    default void emit(List<OutboundPacket> packets) {
+        packets.forEach(this::emit);
+    }
+
     /**
      * Requests intercept of packets that match the given selector.
      *
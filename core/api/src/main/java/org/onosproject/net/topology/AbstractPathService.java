@@ -59,7 +59,7 @@ public abstract class AbstractPathService
     private static final PortNumber P0 = PortNumber.portNumber(0);
 
     protected static final LinkWeigher DEFAULT_WEIGHER =
-            new HopCountLinkWeigher();
+            HopCountLinkWeigher.DEFAULT_HOP_COUNT_WEIGHER;
 
     protected TopologyService topologyService;
 
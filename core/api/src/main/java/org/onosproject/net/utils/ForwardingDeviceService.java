@@ -17,6 +17,7 @@ package org.onosproject.net.utils;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.onosproject.net.Device;
@@ -112,6 +113,12 @@ public abstract class ForwardingDeviceService implements DeviceService {
         return delegate.getPortDeltaStatistics(deviceId);
     }
 
+    @Override
+    public PortStatistics getDeltaStatisticsForPort(DeviceId deviceId, PortNumber portNumber,
+                                                    Duration window) {
+        return delegate.getDeltaStatisticsForPort(deviceId, portNumber, window);
+    }
+
     @Override
     public Port getPort(DeviceId deviceId, PortNumber portNumber) {
         return delegate.getPort(deviceId, portNumber);
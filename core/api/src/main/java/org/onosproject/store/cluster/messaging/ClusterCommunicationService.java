@@ -186,4 +186,30 @@ public interface ClusterCommunicationService {
      * @param subject message subject
      */
     void removeSubscriber(MessageSubject subject);
+
+    /**
+     * Enables batching of the one-way messages sent on the specified subject.
+     * <p>
+     * Messages bound for the same node are then held back until either the
+     * specified number of them is pending or the specified time has passed
+     * since the first one, and are sent together in a single frame. The frame
+     * is unpacked by the receiving node into its subscriber for the subject,
+     * which observes the messages in the order they were sent.
+     * </p>
+     *
+     * @param subject     message subject
+     * @param maxMessages maximum number of messages sent in a single frame
+     * @param maxDelay    maximum time a message is held back
+     */
+    default void enableBatching(MessageSubject subject, int maxMessages, Duration maxDelay) {
+    }
+
+    /**
+     * Disables batching of the messages sent on the specified subject;
+     * messages held back already are still sent within their delay.
+     *
+     * @param subject message subject
+     */
+    default void disableBatching(MessageSubject subject) {
+    }
 }
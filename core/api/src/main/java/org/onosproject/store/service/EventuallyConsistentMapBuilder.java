@@ -190,6 +190,19 @@ public interface EventuallyConsistentMapBuilder<K, V> {
      */
     EventuallyConsistentMapBuilder<K, V> withPersistence();
 
+    /**
+     * Configure anti-entropy to compare a hash tree of the map entries with
+     * peers and to only exchange the digests of the entries that hash into
+     * diverging buckets. Suited to large maps, where advertising a digest
+     * for every entry each anti-entropy cycle is expensive.
+     * <p>
+     * The default behavior is to advertise the digests of all entries.
+     * </p>
+     *
+     * @return this EventuallyConsistentMapBuilder
+     */
+    EventuallyConsistentMapBuilder<K, V> withHashTreeAntiEntropy();
+
     /**
      * Builds an eventually consistent map based on the configuration options
      * supplied to this builder.
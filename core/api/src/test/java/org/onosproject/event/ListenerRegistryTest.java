@@ -15,11 +15,21 @@
  */
 package org.onosproject.event;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.junit.TestUtils;
 
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.onlab.junit.TestTools.assertAfter;
 
 /**
  * Unit tests for {@link ListenerRegistry}.
@@ -71,4 +81,89 @@ public class ListenerRegistryTest {
         assertTrue("BAR not processed", secondListener.events.contains(BAR_EVENT));
     }
 
+    @Test
+    public void statistics() {
+        manager.addListener(listener);
+        manager.process(FOO_EVENT);
+        manager.process(BAR_EVENT);
+
+        ListenerStatistics stats = manager.getListenerStatistics().iterator().next();
+        assertFalse("listener isolated", stats.isIsolated());
+        assertEquals("incorrect invocation count", 2, stats.latency().getCount());
+        assertEquals("incorrect queue time count", 2, stats.queueTime().getCount());
+        assertEquals("incorrect drop count", 0, stats.dropped().getCount());
+
+        manager.removeListener(listener);
+        assertTrue("statistics not removed", manager.getListenerStatistics().isEmpty());
+    }
+
+    @Test
+    public void isolatedListener() throws InterruptedException {
+        BlockingListener slow = new BlockingListener();
+        manager.addListener(slow);
+        manager.addListener(secondListener);
+
+        ListenerStatistics stats = manager.getListenerStatistics().stream()
+                .filter(ListenerStatistics::isIsolated).findFirst().orElse(null);
+        assertNotNull("slow listener not isolated", stats);
+
+        // one event is being processed, two are queued and the rest dropped
+        for (int i = 0; i < 5; i++) {
+            manager.process(FOO_EVENT);
+        }
+        assertTrue("slow listener not invoked", slow.started.await(5, TimeUnit.SECONDS));
+        manager.process(BAR_EVENT);
+        assertEquals("shared delivery held up", 6, secondListener.events.size());
+        assertEquals("incorrect drop count", 3, stats.dropped().getCount());
+
+        slow.release.countDown();
+        assertAfter(5_000, () ->
+                assertEquals("incorrect invocation count", 3, stats.latency().getCount()));
+        assertEquals("incorrect delivered events", 3, slow.events.size());
+        manager.removeListener(slow);
+    }
+
+    @Test
+    public void removedIsolatedListener() throws Exception {
+        BlockingListener slow = new BlockingListener();
+        manager.addListener(slow);
+        Map<TestListener, ExecutorService> executors = TestUtils.getField(manager, "isolatedExecutors");
+        ExecutorService executor = executors.get(slow);
+
+        // one event is being processed and two are queued
+        manager.process(FOO_EVENT);
+        assertTrue("slow listener not invoked", slow.started.await(5, TimeUnit.SECONDS));
+        manager.process(BAR_EVENT);
+        manager.process(BAR_EVENT);
+
+        manager.removeListener(slow);
+        slow.release.countDown();
+        assertTrue("listener queue not shut down", executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals("events delivered after removal", ImmutableList.of(FOO_EVENT), slow.events);
+    }
+
+    /**
+     * Listener which asks for its own queue and blocks until released.
+     */
+    private static class BlockingListener extends TestListener {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public int eventQueueSize() {
+            return 2;
+        }
+
+        @Override
+        public void event(TestEvent event) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.event(event);
+        }
+    }
+
 }
@@ -18,10 +18,15 @@ package org.onosproject.common;
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSetMultimap.Builder;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.onlab.graph.DefaultEdgeWeigher;
 import org.onlab.graph.DijkstraGraphSearch;
 import org.onlab.graph.DisjointPathPair;
@@ -59,10 +64,17 @@ import org.onosproject.net.topology.TopologyVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -71,6 +83,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
 import static org.onlab.util.Tools.isNullOrEmpty;
 import static org.onosproject.core.CoreService.CORE_PROVIDER_ID;
+import static org.onosproject.net.Link.State.ACTIVE;
 import static org.onosproject.net.Link.State.INACTIVE;
 import static org.onosproject.net.Link.Type.INDIRECT;
 
@@ -97,6 +110,7 @@ public class DefaultTopology extends AbstractModel implements Topology {
     private static int defaultMaxPaths = ALL_PATHS;
     private static LinkWeigher defaultLinkWeigher = null;
     private static GraphPathSearch<TopologyVertex, TopologyEdge> defaultGraphPathSearch = null;
+    private static int defaultPathCacheSize = 0;
 
     private final long time;
     private final long creationTime;
@@ -105,12 +119,13 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     private final LinkWeigher hopCountWeigher;
 
-    private final Supplier<SccResult<TopologyVertex, TopologyEdge>> clusterResults;
+    private final Supplier<ClusterSets> clusterResults;
     private final Supplier<ImmutableMap<ClusterId, TopologyCluster>> clusters;
     private final Supplier<ImmutableSet<ConnectPoint>> infrastructurePoints;
     private final Supplier<ImmutableSetMultimap<ClusterId, ConnectPoint>> broadcastSets;
     private final Function<ConnectPoint, Boolean> broadcastFunction;
     private final Supplier<ClusterIndexes> clusterIndexes;
+    private final Cache<PathKey, Set<Path>> pathCache;
 
     /**
      * Sets the default maximum path count to be used when computing paths. If
@@ -148,6 +163,18 @@ public class DefaultTopology extends AbstractModel implements Topology {
         defaultGraphPathSearch = graphPathSearch;
     }
 
+    /**
+     * Sets the maximum number of path sets computed on-demand to be retained
+     * by each subsequently created topology. If 0 is specified, computed paths
+     * are not retained.
+     *
+     * @param size new default path cache size
+     */
+    public static synchronized void setDefaultPathCacheSize(int size) {
+        checkArgument(size >= 0, "Path cache size must not be negative");
+        log.info("Setting new default path cache size to {}", size);
+        defaultPathCacheSize = size;
+    }
 
     /**
      * Creates a topology descriptor attributed to the specified provider.
@@ -158,6 +185,28 @@ public class DefaultTopology extends AbstractModel implements Topology {
      */
     public DefaultTopology(ProviderId providerId, GraphDescription description,
                            Function<ConnectPoint, Boolean> broadcastFunction) {
+        this(providerId, description, broadcastFunction, null);
+    }
+
+    /**
+     * Creates a topology descriptor attributed to the specified provider.
+     * <p>
+     * If a previous topology is given, the clusters, broadcast sets and
+     * infrastructure points are derived from those of the previous topology
+     * by applying the difference between the two graphs, so that only the
+     * clusters touched by the change are recomputed. If the change cannot be
+     * applied incrementally, e.g. because it may merge clusters, everything
+     * is computed from scratch as usual.
+     * </p>
+     *
+     * @param providerId        identity of the provider
+     * @param description       data describing the new topology
+     * @param broadcastFunction broadcast point function
+     * @param previous          previous topology; null to compute from scratch
+     */
+    public DefaultTopology(ProviderId providerId, GraphDescription description,
+                           Function<ConnectPoint, Boolean> broadcastFunction,
+                           DefaultTopology previous) {
         super(providerId);
         this.broadcastFunction = broadcastFunction;
         this.time = description.timestamp();
@@ -166,15 +215,26 @@ public class DefaultTopology extends AbstractModel implements Topology {
         // Build the graph
         this.graph = new DefaultTopologyGraph(description.vertexes(),
                                               description.edges());
-
-        this.clusterResults = Suppliers.memoize(this::searchForClusters);
-        this.clusters = Suppliers.memoize(this::buildTopologyClusters);
-
-        this.clusterIndexes = Suppliers.memoize(this::buildIndexes);
-
         this.hopCountWeigher = new HopCountLinkWeigher(graph.getVertexes().size());
-        this.broadcastSets = Suppliers.memoize(this::buildBroadcastSets);
-        this.infrastructurePoints = Suppliers.memoize(this::findInfrastructurePoints);
+
+        TopologyDelta delta = previous != null ? new TopologyDelta(previous.graph, graph) : null;
+        ClusterDelta clusterDelta = delta != null ? deriveClusters(previous, delta) : null;
+        if (clusterDelta != null) {
+            this.clusterResults = Suppliers.ofInstance(clusterDelta.clusterSets);
+            this.clusters = Suppliers.ofInstance(buildTopologyClusters());
+            this.clusterIndexes = Suppliers.memoize(this::buildIndexes);
+            this.broadcastSets = Suppliers.ofInstance(deriveBroadcastSets(previous, clusterDelta));
+            this.infrastructurePoints = Suppliers.ofInstance(deriveInfrastructurePoints(previous, delta));
+        } else {
+            this.clusterResults = Suppliers.memoize(this::searchForClusters);
+            this.clusters = Suppliers.memoize(this::buildTopologyClusters);
+            this.clusterIndexes = Suppliers.memoize(this::buildIndexes);
+            this.broadcastSets = Suppliers.memoize(this::buildBroadcastSets);
+            this.infrastructurePoints = Suppliers.memoize(this::findInfrastructurePoints);
+        }
+        this.pathCache = defaultPathCacheSize > 0 ?
+                CacheBuilder.newBuilder().maximumSize(defaultPathCacheSize)
+                        .recordStats().build() : null;
         this.computeCost = Math.max(0, System.nanoTime() - time);
     }
 
@@ -397,13 +457,16 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
-        GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
-                graphPathSearch().search(graph, srcV, dstV, weigher, maxPaths);
-        ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
-        for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
-            builder.add(networkPath(path));
-        }
-        return builder.build();
+        GraphPathSearch<TopologyVertex, TopologyEdge> search = graphPathSearch();
+        return cachedPaths(new PathKey(search, src, dst, weigher, maxPaths), () -> {
+            GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
+                    search.search(graph, srcV, dstV, weigher, maxPaths);
+            ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
+            for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
+                builder.add(networkPath(path));
+            }
+            return builder.build();
+        });
     }
 
     /**
@@ -445,10 +508,53 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
-        return KSHORTEST.search(graph, srcV, dstV, weigher, maxPaths)
-                .paths().stream()
-                .map(this::networkPath)
-                .collect(ImmutableSet.toImmutableSet());
+        return cachedPaths(new PathKey(KSHORTEST, src, dst, weigher, maxPaths), () ->
+                KSHORTEST.search(graph, srcV, dstV, weigher, maxPaths)
+                        .paths().stream()
+                        .map(this::networkPath)
+                        .collect(ImmutableSet.toImmutableSet()));
+    }
+
+    /**
+     * Returns the number of path computations answered from the path cache of
+     * this topology.
+     *
+     * @return path cache hit count
+     */
+    public long pathCacheHits() {
+        return pathCache == null ? 0 : pathCache.stats().hitCount();
+    }
+
+    /**
+     * Returns the number of path computations not found in the path cache of
+     * this topology.
+     *
+     * @return path cache miss count
+     */
+    public long pathCacheMisses() {
+        return pathCache == null ? 0 : pathCache.stats().missCount();
+    }
+
+    // Returns the paths retained in the path cache or computes them. Only
+    // paths computed with the default weigher of this topology or with the
+    // shared hop-count weigher are cached, as any other weigher may be
+    // stateful or short-lived.
+    private Set<Path> cachedPaths(PathKey key, Supplier<Set<Path>> compute) {
+        if (pathCache == null || !isCacheable(key.weigher)) {
+            return compute.get();
+        }
+        try {
+            return pathCache.get(key, compute::get);
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private boolean isCacheable(LinkWeigher weigher) {
+        return weigher == linkWeight() || weigher == HopCountLinkWeigher.DEFAULT_HOP_COUNT_WEIGHER;
     }
 
     /**
@@ -640,15 +746,17 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     // Searches for SCC clusters in the network topology graph using Tarjan
     // algorithm.
-    private SccResult<TopologyVertex, TopologyEdge> searchForClusters() {
-        return TARJAN.search(graph, new NoIndirectLinksWeigher());
+    private ClusterSets searchForClusters() {
+        SccResult<TopologyVertex, TopologyEdge> result =
+                TARJAN.search(graph, new NoIndirectLinksWeigher());
+        return new ClusterSets(result.clusterVertexes(), result.clusterEdges());
     }
 
     // Builds the topology clusters and returns the id-cluster bindings.
     private ImmutableMap<ClusterId, TopologyCluster> buildTopologyClusters() {
         ImmutableMap.Builder<ClusterId, TopologyCluster> clusterBuilder =
                 ImmutableMap.builder();
-        SccResult<TopologyVertex, TopologyEdge> results = clusterResults.get();
+        ClusterSets results = clusterResults.get();
 
         // Extract both vertexes and edges from the results; the lists form
         // pairs along the same index.
@@ -771,6 +879,210 @@ public class DefaultTopology extends AbstractModel implements Topology {
                                   linksBuilder.build());
     }
 
+    // Derives the clusters of this topology from those of the previous one.
+    // Returns null if the change cannot be applied incrementally.
+    private ClusterDelta deriveClusters(DefaultTopology previous, TopologyDelta delta) {
+        // Indirect and inactive links are weighed differently by the cluster
+        // and broadcast tree searches; leave those topologies to a full build.
+        if (!isPlain(previous.graph) || !isPlain(graph)) {
+            return null;
+        }
+
+        Map<DeviceId, TopologyCluster> prevClusters = previous.clustersByDevice();
+        Set<ClusterId> grown = new HashSet<>();
+        Set<ClusterId> shrunk = new HashSet<>();
+
+        // Added edges keep the clusters intact only if they stay within one;
+        // otherwise they may merge clusters together.
+        for (TopologyEdge edge : delta.addedEdges) {
+            TopologyCluster src = prevClusters.get(edge.src().deviceId());
+            TopologyCluster dst = prevClusters.get(edge.dst().deviceId());
+            if (src == null || dst == null || !src.id().equals(dst.id())) {
+                return null;
+            }
+            grown.add(src.id());
+        }
+
+        // Removed edges and vertexes may split the clusters they were in.
+        for (TopologyEdge edge : delta.removedEdges) {
+            TopologyCluster src = prevClusters.get(edge.src().deviceId());
+            TopologyCluster dst = prevClusters.get(edge.dst().deviceId());
+            if (src != null && dst != null && src.id().equals(dst.id())) {
+                shrunk.add(src.id());
+            }
+        }
+        for (TopologyVertex vertex : delta.removedVertexes) {
+            TopologyCluster cluster = prevClusters.get(vertex.deviceId());
+            if (cluster != null) {
+                shrunk.add(cluster.id());
+            }
+        }
+
+        ClusterSets prevSets = previous.clusterResults.get();
+        List<Set<TopologyVertex>> clusterVertexes = new ArrayList<>();
+        List<Set<TopologyEdge>> clusterEdges = new ArrayList<>();
+        List<ClusterId> origins = new ArrayList<>();
+
+        for (int i = 0, n = prevSets.clusterCount(); i < n; i++) {
+            ClusterId cid = ClusterId.clusterId(i);
+            Set<TopologyVertex> vertexes = prevSets.clusterVertexes().get(i);
+
+            if (!grown.contains(cid) && !shrunk.contains(cid)) {
+                // Untouched cluster; carry it over together with its tree.
+                clusterVertexes.add(vertexes);
+                clusterEdges.add(prevSets.clusterEdges().get(i));
+                origins.add(cid);
+                continue;
+            }
+
+            Set<TopologyVertex> remaining = Sets.difference(vertexes, delta.removedVertexes).immutableCopy();
+            Set<TopologyEdge> edges = findEdgesWithin(remaining);
+            if (remaining.size() == vertexes.size() &&
+                    isStillConnected(delta.removedEdges, remaining)) {
+                // Same vertexes, only the edges between them changed.
+                clusterVertexes.add(remaining);
+                clusterEdges.add(edges);
+                origins.add(!grown.contains(cid) &&
+                                    !touchesTree(delta.removedEdges, previous.broadcastPoints(cid)) ?
+                                    cid : null);
+                continue;
+            }
+
+            // The cluster may have split; search only its own subgraph.
+            SccResult<TopologyVertex, TopologyEdge> result =
+                    TARJAN.search(new DefaultTopologyGraph(remaining, edges), new NoIndirectLinksWeigher());
+            for (int j = 0; j < result.clusterCount(); j++) {
+                clusterVertexes.add(result.clusterVertexes().get(j));
+                clusterEdges.add(result.clusterEdges().get(j));
+                origins.add(null);
+            }
+        }
+
+        // Any edges of the added vertexes would have been rejected above,
+        // so each one of them forms a cluster of its own.
+        for (TopologyVertex vertex : delta.addedVertexes) {
+            clusterVertexes.add(ImmutableSet.of(vertex));
+            clusterEdges.add(ImmutableSet.of());
+            origins.add(null);
+        }
+
+        return new ClusterDelta(new ClusterSets(clusterVertexes, clusterEdges), origins);
+    }
+
+    // Indicates whether all edges are active and direct, in which case both
+    // the cluster and the broadcast tree searches see the same graph.
+    private static boolean isPlain(TopologyGraph graph) {
+        return graph.getEdges().stream()
+                .allMatch(e -> e.link().state() == ACTIVE && e.link().type() != INDIRECT);
+    }
+
+    // Finds all edges of this graph between the given vertexes.
+    private Set<TopologyEdge> findEdgesWithin(Set<TopologyVertex> vertexes) {
+        Set<TopologyEdge> edges = new HashSet<>();
+        for (TopologyVertex vertex : vertexes) {
+            for (TopologyEdge edge : graph.getEdgesFrom(vertex)) {
+                if (vertexes.contains(edge.dst())) {
+                    edges.add(edge);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    // Indicates whether the source of each removed edge within the given
+    // strongly connected vertexes can still reach its destination, in which
+    // case the vertexes remain strongly connected.
+    private boolean isStillConnected(Set<TopologyEdge> removedEdges,
+                                     Set<TopologyVertex> vertexes) {
+        for (TopologyEdge edge : removedEdges) {
+            if (vertexes.contains(edge.src()) && vertexes.contains(edge.dst()) &&
+                    !isReachable(edge.src(), edge.dst(), vertexes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Breadth-first search for the destination, staying within the given vertexes.
+    private boolean isReachable(TopologyVertex src, TopologyVertex dst,
+                                Set<TopologyVertex> vertexes) {
+        Set<TopologyVertex> seen = new HashSet<>();
+        Queue<TopologyVertex> queue = new ArrayDeque<>();
+        seen.add(src);
+        queue.add(src);
+        while (!queue.isEmpty()) {
+            for (TopologyEdge edge : graph.getEdgesFrom(queue.remove())) {
+                TopologyVertex next = edge.dst();
+                if (next.equals(dst)) {
+                    return true;
+                }
+                if (vertexes.contains(next) && seen.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Indicates whether any of the removed edges may have been part of the
+    // broadcast tree. Removing edges off the tree leaves it a valid
+    // shortest-path tree, since no other path can have become shorter.
+    private static boolean touchesTree(Set<TopologyEdge> removedEdges,
+                                       Set<ConnectPoint> treePoints) {
+        return removedEdges.stream()
+                .anyMatch(e -> treePoints.contains(e.link().src()) &&
+                        treePoints.contains(e.link().dst()));
+    }
+
+    // Builds the broadcast sets, reusing those of the previous topology for
+    // the clusters whose trees are still valid.
+    private ImmutableSetMultimap<ClusterId, ConnectPoint> deriveBroadcastSets(
+            DefaultTopology previous, ClusterDelta clusterDelta) {
+        Builder<ClusterId, ConnectPoint> builder = ImmutableSetMultimap.builder();
+        for (TopologyCluster cluster : clusters.get().values()) {
+            ClusterId origin = clusterDelta.origins.get(cluster.id().index());
+            if (origin != null) {
+                builder.putAll(cluster.id(), previous.broadcastPoints(origin));
+            } else {
+                addClusterBroadcastSet(cluster, builder);
+            }
+        }
+        return builder.build();
+    }
+
+    // Updates the infrastructure points of the previous topology with the
+    // end-points of the added and removed edges.
+    private ImmutableSet<ConnectPoint> deriveInfrastructurePoints(DefaultTopology previous,
+                                                                  TopologyDelta delta) {
+        Set<ConnectPoint> points = new HashSet<>(previous.infrastructurePoints.get());
+        for (TopologyEdge edge : delta.removedEdges) {
+            if (edge.link().type() != Type.EDGE) {
+                removeIfUnused(points, edge.link().src(), edge.src());
+                removeIfUnused(points, edge.link().dst(), edge.dst());
+            }
+        }
+        for (TopologyEdge edge : delta.addedEdges) {
+            if (edge.link().type() != Type.EDGE) {
+                points.add(edge.link().src());
+                points.add(edge.link().dst());
+            }
+        }
+        return ImmutableSet.copyOf(points);
+    }
+
+    // Removes the point unless another infrastructure edge still uses it.
+    private void removeIfUnused(Set<ConnectPoint> points, ConnectPoint point,
+                                TopologyVertex vertex) {
+        boolean used = Stream.concat(graph.getEdgesFrom(vertex).stream(),
+                                     graph.getEdgesTo(vertex).stream())
+                .map(TopologyEdge::link)
+                .anyMatch(l -> l.type() != Type.EDGE &&
+                        (l.src().equals(point) || l.dst().equals(point)));
+        if (!used) {
+            points.remove(point);
+        }
+    }
+
     private GraphPathSearch<TopologyVertex, TopologyEdge> graphPathSearch() {
         return defaultGraphPathSearch != null ? defaultGraphPathSearch : DIJKSTRA;
     }
@@ -779,6 +1091,46 @@ public class DefaultTopology extends AbstractModel implements Topology {
         return defaultLinkWeigher != null ? defaultLinkWeigher : hopCountWeigher;
     }
 
+    // Identifies a path computation; weighers and searches are compared by
+    // identity as they carry no notion of equality, so that paths computed
+    // with a previous default weigher or search are not reused.
+    private static final class PathKey {
+        private final Object search;
+        private final DeviceId src;
+        private final DeviceId dst;
+        private final LinkWeigher weigher;
+        private final int maxPaths;
+
+        private PathKey(Object search, DeviceId src, DeviceId dst,
+                        LinkWeigher weigher, int maxPaths) {
+            this.search = search;
+            this.src = src;
+            this.dst = dst;
+            this.weigher = weigher;
+            this.maxPaths = maxPaths;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(search), src, dst,
+                                System.identityHashCode(weigher), maxPaths);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PathKey)) {
+                return false;
+            }
+            PathKey that = (PathKey) obj;
+            return search == that.search && weigher == that.weigher &&
+                    maxPaths == that.maxPaths &&
+                    src.equals(that.src) && dst.equals(that.dst);
+        }
+    }
+
     // Link weight for preventing traversal over indirect links.
     private static class NoIndirectLinksWeigher
             extends DefaultEdgeWeigher<TopologyVertex, TopologyEdge>
@@ -791,6 +1143,58 @@ public class DefaultTopology extends AbstractModel implements Topology {
         }
     }
 
+    // Strongly connected vertex clusters and the edges within each of them;
+    // the lists form pairs along the same index.
+    static final class ClusterSets {
+        private final List<Set<TopologyVertex>> clusterVertexes;
+        private final List<Set<TopologyEdge>> clusterEdges;
+
+        ClusterSets(List<Set<TopologyVertex>> clusterVertexes,
+                    List<Set<TopologyEdge>> clusterEdges) {
+            this.clusterVertexes = Collections.unmodifiableList(clusterVertexes);
+            this.clusterEdges = Collections.unmodifiableList(clusterEdges);
+        }
+
+        int clusterCount() {
+            return clusterEdges.size();
+        }
+
+        List<Set<TopologyVertex>> clusterVertexes() {
+            return clusterVertexes;
+        }
+
+        List<Set<TopologyEdge>> clusterEdges() {
+            return clusterEdges;
+        }
+    }
+
+    // Vertexes and edges added and removed between two topology graphs.
+    static final class TopologyDelta {
+        final Set<TopologyVertex> addedVertexes;
+        final Set<TopologyVertex> removedVertexes;
+        final Set<TopologyEdge> addedEdges;
+        final Set<TopologyEdge> removedEdges;
+
+        TopologyDelta(TopologyGraph prevGraph, TopologyGraph graph) {
+            this.addedVertexes = Sets.difference(graph.getVertexes(), prevGraph.getVertexes()).immutableCopy();
+            this.removedVertexes = Sets.difference(prevGraph.getVertexes(), graph.getVertexes()).immutableCopy();
+            this.addedEdges = Sets.difference(graph.getEdges(), prevGraph.getEdges()).immutableCopy();
+            this.removedEdges = Sets.difference(prevGraph.getEdges(), graph.getEdges()).immutableCopy();
+        }
+    }
+
+    // Incrementally derived clusters, along with the identifiers of the
+    // previous clusters whose broadcast trees can be carried over.
+    static final class ClusterDelta {
+        final ClusterSets clusterSets;
+        final List<ClusterId> origins;
+
+        ClusterDelta(ClusterSets clusterSets, List<ClusterId> origins) {
+            this.clusterSets = clusterSets;
+            this.origins = origins;
+        }
+    }
+
     static final class ClusterIndexes {
         final ImmutableMap<DeviceId, TopologyCluster> clustersByDevice;
         final ImmutableSetMultimap<TopologyCluster, DeviceId> devicesByCluster;
@@ -16,6 +16,7 @@
 package org.onosproject.utils;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Timer;
 import com.google.common.collect.Maps;
 import org.onlab.metrics.MetricsComponent;
@@ -40,6 +41,7 @@ public class MeteringAgent {
     private MetricsFeature metricsFeature;
     private final Map<String, Timer> perObjOpTimers = Maps.newConcurrentMap();
     private final Map<String, Timer> perOpTimers = Maps.newConcurrentMap();
+    private final Map<String, Histogram> perObjOpHistograms = Maps.newConcurrentMap();
     private Timer perPrimitiveTimer;
     private Timer perObjTimer;
     private MetricsFeature wildcard;
@@ -87,6 +89,21 @@ public class MeteringAgent {
         return new Context(currTimer.time(), op);
     }
 
+    /**
+     * Records a value, such as a size, observed for a given operation.
+     *
+     * @param op Specific operation being metered
+     * @param value observed value
+     */
+    public void recordValue(String op, long value) {
+        if (!activated) {
+            return;
+        }
+        perObjOpHistograms.computeIfAbsent(op, o -> metricsService.createHistogram(metricsComponent,
+                                                                                   metricsFeature, o))
+                .update(value);
+    }
+
     /**
      * Get or creates operation timer specific to this agent's object.
      *
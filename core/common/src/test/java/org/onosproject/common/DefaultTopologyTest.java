@@ -15,6 +15,7 @@
  */
 package org.onosproject.common;
 
+import com.google.common.collect.Sets;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.graph.DefaultEdgeWeigher;
@@ -34,6 +35,7 @@ import org.onosproject.net.topology.ClusterId;
 import org.onosproject.net.topology.DefaultGraphDescription;
 import org.onosproject.net.topology.DefaultTopologyVertex;
 import org.onosproject.net.topology.GraphDescription;
+import org.onosproject.net.topology.HopCountLinkWeigher;
 import org.onosproject.net.topology.LinkWeigher;
 import org.onosproject.net.topology.TopologyCluster;
 import org.onosproject.net.topology.TopologyEdge;
@@ -79,6 +81,8 @@ public class DefaultTopologyTest {
 
 
     private DefaultTopology dt;
+    private Set<Device> devices;
+    private Set<Link> links;
 
     public static final ClusterId C0 = ClusterId.clusterId(0);
     public static final ClusterId C1 = ClusterId.clusterId(1);
@@ -86,13 +90,13 @@ public class DefaultTopologyTest {
     @Before
     public void setUp() {
         long now = System.currentTimeMillis();
-        Set<Device> devices = of(device("1"), device("2"),
-                                 device("3"), device("4"),
-                                 device("5"));
-        Set<Link> links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
-                             link("3", 2, "2", 2), link("2", 2, "3", 2),
-                             link("1", 3, "4", 3), link("4", 3, "1", 3),
-                             link("3", 4, "4", 4), link("4", 4, "3", 4));
+        devices = of(device("1"), device("2"),
+                     device("3"), device("4"),
+                     device("5"));
+        links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                   link("3", 2, "2", 2), link("2", 2, "3", 2),
+                   link("1", 3, "4", 3), link("4", 3, "1", 3),
+                   link("3", 4, "4", 4), link("4", 4, "3", 4));
         GraphDescription graphDescription =
                 new DefaultGraphDescription(now, System.currentTimeMillis(), devices, links);
 
@@ -128,6 +132,41 @@ public class DefaultTopologyTest {
 
     }
 
+    @Test
+    public void pathCache() {
+        DefaultTopology.setDefaultPathCacheSize(16);
+        try {
+            dt = new DefaultTopology(PID, new DefaultGraphDescription(System.nanoTime(),
+                                                                      System.currentTimeMillis(),
+                                                                      devices, links));
+            Set<Path> paths = dt.getPaths(D1, D3);
+            assertEquals("incorrect path count", 2, paths.size());
+            assertSame("paths not cached", paths, dt.getPaths(D1, D3));
+            assertEquals("incorrect path count", 2, dt.getKShortestPaths(D1, D3, 2).size());
+            assertEquals("incorrect path count", 2,
+                         dt.getPaths(D1, D3, HopCountLinkWeigher.DEFAULT_HOP_COUNT_WEIGHER).size());
+
+            // Paths computed with any other weigher are not cached.
+            assertEquals("incorrect path count", 1, dt.getPaths(D1, D3, WEIGHER).size());
+            assertEquals("incorrect path count", 1, dt.getPaths(D1, D3, WEIGHER).size());
+
+            assertEquals("incorrect hit count", 1, dt.pathCacheHits());
+            assertEquals("incorrect miss count", 3, dt.pathCacheMisses());
+
+            // Each topology has its own cache and counters.
+            DefaultTopology other = new DefaultTopology(
+                    PID, new DefaultGraphDescription(System.nanoTime(),
+                                                     System.currentTimeMillis(),
+                                                     devices, links));
+            assertEquals("incorrect path count", 2, other.getPaths(D1, D3).size());
+            assertEquals("incorrect hit count", 0, other.pathCacheHits());
+            assertEquals("incorrect miss count", 1, other.pathCacheMisses());
+            assertEquals("incorrect miss count", 3, dt.pathCacheMisses());
+        } finally {
+            DefaultTopology.setDefaultPathCacheSize(0);
+        }
+    }
+
     @Test
     public void pointRelated() {
         assertTrue("should be infrastructure point",
@@ -148,6 +187,82 @@ public class DefaultTopologyTest {
         assertFalse("cluster should not contain D5", devs.contains(D5));
     }
 
+    @Test
+    public void incrementalLinkRemoval() {
+        // Cluster stays connected through D2 and D3
+        Set<Link> newLinks = Sets.difference(links, of(link("1", 3, "4", 3),
+                                                       link("4", 3, "1", 3)));
+        DefaultTopology it = assertIncremental(devices, newLinks);
+        assertEquals("incorrect cluster count", 2, it.clusterCount());
+        assertFalse("should not be infrastructure point",
+                    it.isInfrastructure(new ConnectPoint(D1, portNumber(3))));
+    }
+
+    @Test
+    public void incrementalClusterSplit() {
+        // D1 is cut off from the rest of its cluster
+        Set<Link> newLinks = Sets.difference(links, of(link("1", 1, "2", 1),
+                                                       link("2", 1, "1", 1),
+                                                       link("1", 3, "4", 3),
+                                                       link("4", 3, "1", 3)));
+        DefaultTopology it = assertIncremental(devices, newLinks);
+        assertEquals("incorrect cluster count", 3, it.clusterCount());
+        assertEquals("incorrect cluster device count", 1,
+                     it.getClusterDevices(it.getCluster(D1)).size());
+    }
+
+    @Test
+    public void incrementalDeviceChanges() {
+        // Add an isolated device and remove a device from the large cluster
+        Set<Device> newDevices = Sets.union(Sets.difference(devices, of(device("4"))),
+                                            of(device("6"))).immutableCopy();
+        Set<Link> newLinks = Sets.difference(links, of(link("1", 3, "4", 3), link("4", 3, "1", 3),
+                                                       link("3", 4, "4", 4), link("4", 4, "3", 4)));
+        DefaultTopology it = assertIncremental(newDevices, newLinks);
+        assertEquals("incorrect cluster count", 3, it.clusterCount());
+    }
+
+    @Test
+    public void incrementalClusterMerge() {
+        // Linking D5 merges the two clusters; falls back to a full search
+        Set<Link> newLinks = Sets.union(links, of(link("5", 1, "4", 5),
+                                                  link("4", 5, "5", 1))).immutableCopy();
+        DefaultTopology it = assertIncremental(devices, newLinks);
+        assertEquals("incorrect cluster count", 1, it.clusterCount());
+    }
+
+    // Builds the topology both incrementally off the setup topology and from
+    // scratch and verifies that the two agree.
+    private DefaultTopology assertIncremental(Set<Device> newDevices, Set<Link> newLinks) {
+        GraphDescription description =
+                new DefaultGraphDescription(System.nanoTime(), System.currentTimeMillis(),
+                                            newDevices, newLinks);
+        DefaultTopology full = new DefaultTopology(PID, description);
+        DefaultTopology it = new DefaultTopology(PID, description, null, dt);
+
+        assertEquals("incorrect device count", full.deviceCount(), it.deviceCount());
+        assertEquals("incorrect link count", full.linkCount(), it.linkCount());
+        assertEquals("incorrect cluster count", full.clusterCount(), it.clusterCount());
+        for (Device device : newDevices) {
+            TopologyCluster fc = full.getCluster(device.id());
+            TopologyCluster ic = it.getCluster(device.id());
+            assertEquals("incorrect cluster devices",
+                         full.getClusterDevices(fc), it.getClusterDevices(ic));
+            assertEquals("incorrect cluster links",
+                         full.getClusterLinks(fc), it.getClusterLinks(ic));
+            assertEquals("incorrect root node", fc.root(), ic.root());
+            assertEquals("incorrect broadcast set size",
+                         full.broadcastSetSize(fc.id()), it.broadcastSetSize(ic.id()));
+        }
+        for (Link link : Sets.union(links, newLinks)) {
+            assertEquals("incorrect infrastructure point",
+                         full.isInfrastructure(link.src()), it.isInfrastructure(link.src()));
+            assertEquals("incorrect infrastructure point",
+                         full.isInfrastructure(link.dst()), it.isInfrastructure(link.dst()));
+        }
+        return it;
+    }
+
     // Short-hand for creating a link.
     public static Link link(String src, int sp, String dst, int dp) {
         return DefaultLink.builder().providerId(PID)
@@ -18,12 +18,14 @@ package org.onosproject.event.impl;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.SharedExecutors;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.DefaultEventSinkRegistry;
 import org.onosproject.event.Event;
 import org.onosproject.event.EventDeliveryService;
 import org.onosproject.event.EventSink;
+import org.onosproject.event.ListenerRegistry;
 import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.flow.FlowRuleEvent;
 import org.onosproject.net.host.HostEvent;
@@ -33,6 +35,9 @@ import org.onosproject.net.topology.TopologyEvent;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 
 import java.util.Map;
@@ -60,6 +65,11 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
 
     private final Logger log = getLogger(getClass());
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL,
+            bind = "bindMetricsService",
+            unbind = "unbindMetricsService",
+            policy = ReferencePolicy.DYNAMIC)
+    protected volatile MetricsService metricsService;
 
     private DispatchLoop topologyDispatcher = new DispatchLoop("topology");
     private DispatchLoop programmingDispatcher = new DispatchLoop("programming");
@@ -99,6 +109,58 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         return dispatcher;
     }
 
+    /**
+     * Hook for wiring optional reference to the metrics service; publishes
+     * the listener statistics of all registered sinks.
+     *
+     * @param service metrics service
+     */
+    protected void bindMetricsService(MetricsService service) {
+        if (metricsService == null) {
+            metricsService = service;
+            getSinks().forEach(eventClass -> publishMetrics(eventClass, getSink(eventClass)));
+        }
+    }
+
+    /**
+     * Hook for unwiring optional reference to the metrics service.
+     *
+     * @param service metrics service being withdrawn
+     */
+    protected void unbindMetricsService(MetricsService service) {
+        if (metricsService == service) {
+            getSinks().forEach(eventClass -> unpublishMetrics(getSink(eventClass)));
+            metricsService = null;
+        }
+    }
+
+    @Override
+    public <E extends Event> void addSink(Class<E> eventClass, EventSink<E> sink) {
+        super.addSink(eventClass, sink);
+        publishMetrics(eventClass, sink);
+    }
+
+    @Override
+    public <E extends Event> void removeSink(Class<E> eventClass) {
+        EventSink<E> sink = getSink(eventClass);
+        super.removeSink(eventClass);
+        unpublishMetrics(sink);
+    }
+
+    // Publishes per-listener statistics of listener registry sinks
+    private void publishMetrics(Class<? extends Event> eventClass, EventSink<?> sink) {
+        MetricsService service = metricsService;
+        if (service != null && sink instanceof ListenerRegistry) {
+            ((ListenerRegistry<?, ?>) sink).publishMetrics(service, eventClass.getSimpleName());
+        }
+    }
+
+    private void unpublishMetrics(EventSink<?> sink) {
+        if (sink instanceof ListenerRegistry) {
+            ((ListenerRegistry<?, ?>) sink).unpublishMetrics();
+        }
+    }
+
     @Override
     public void post(Event event) {
 
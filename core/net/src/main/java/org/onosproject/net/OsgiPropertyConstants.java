@@ -47,9 +47,15 @@ public final class OsgiPropertyConstants {
     public static final String POLL_FREQUENCY = "fallbackFlowPollFrequency";
     public static final int POLL_FREQUENCY_DEFAULT = 30;
 
+    public static final String POLL_NUM_THREADS = "fallbackFlowPollThreads";
+    public static final int POLL_NUM_THREADS_DEFAULT = 4;
+
     public static final String FOM_NUM_THREADS = "numThreads";
     public static final int FOM_NUM_THREADS_DEFAULT = 4;
 
+    public static final String PM_NUM_THREADS = "numThreads";
+    public static final int PM_NUM_THREADS_DEFAULT = 4;
+
     public static final String GM_POLL_FREQUENCY = "fallbackGroupPollFrequency";
     public static final int GM_POLL_FREQUENCY_DEFAULT = 30;
 
@@ -116,6 +122,9 @@ public final class OsgiPropertyConstants {
     public static final String IM_NUM_THREADS = "numThreads";
     public static final int IM_NUM_THREADS_DEFAULT = 12;
 
+    public static final String IM_MAX_BATCHES_IN_FLIGHT = "maxBatchesInFlight";
+    public static final int IM_MAX_BATCHES_IN_FLIGHT_DEFAULT = 1;
+
     public static final String MM_NUM_THREADS = "numThreads";
     public static final int MM_NUM_THREADS_DEFAULT = 12;
 
@@ -75,6 +75,7 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
@@ -319,6 +320,16 @@ public class DeviceManager
         return store.getDeltaStatisticsForPort(deviceId, portNumber);
     }
 
+    @Override
+    public PortStatistics getDeltaStatisticsForPort(DeviceId deviceId, PortNumber portNumber,
+                                                    Duration window) {
+        checkPermission(DEVICE_READ);
+        checkNotNull(deviceId, DEVICE_ID_NULL);
+        checkNotNull(portNumber, PORT_NUMBER_NULL);
+        checkNotNull(window, "Window cannot be null");
+        return store.getDeltaStatisticsForPort(deviceId, portNumber, window);
+    }
+
     @Override
     public Port getPort(DeviceId deviceId, PortNumber portNumber) {
         checkPermission(DEVICE_READ);
@@ -16,10 +16,15 @@
 
 package org.onosproject.net.flow.impl;
 
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
@@ -28,6 +33,7 @@ import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.flow.CompletedBatchOperation;
+import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.FlowRuleProgrammable;
 import org.onosproject.net.flow.FlowRuleProvider;
@@ -42,23 +48,35 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.collect.ImmutableSet.copyOf;
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_ADDED;
 import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_AVAILABILITY_CHANGED;
+import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_REMOVED;
 import static org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry.FlowRuleOperation.ADD;
 import static org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry.FlowRuleOperation.MODIFY;
 import static org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry.FlowRuleOperation.REMOVE;
 
 /**
  * Driver-based flow rule provider.
+ * <p>
+ * Each device is polled independently on a bounded pool of workers, so that
+ * slow devices do not delay polling of the others. Polls of the devices are
+ * spread over the poll interval using random offsets, and the interval of
+ * each device adapts to the churn of its flow entries.
+ * </p>
  */
 class FlowRuleDriverProvider extends AbstractProvider implements FlowRuleProvider {
 
@@ -68,20 +86,47 @@ class FlowRuleDriverProvider extends AbstractProvider implements FlowRuleProvide
     public static final String SCHEME = "default";
     public static final String PROVIDER_NAME = "org.onosproject.provider";
 
+    private static final String METRICS_COMPONENT = "FlowRuleDriverProvider";
+    private static final String POLL_DURATION = "pollDuration";
+
+    // Bounds of the poll interval of devices, relative to the poll frequency
+    private static final double MIN_INTERVAL_FACTOR = 0.5;
+    private static final double MAX_INTERVAL_FACTOR = 2.0;
+
+    // Fraction of the poll interval by which polls are randomly displaced
+    private static final double JITTER = 0.1;
+
     FlowRuleProviderService providerService;
     private DeviceService deviceService;
     private MastershipService mastershipService;
+    private MetricsService metricsService;
 
     private InternalDeviceListener deviceListener = new InternalDeviceListener();
-    private ScheduledExecutorService executor
-        = newSingleThreadScheduledExecutor(groupedThreads("FlowRuleDriverProvider", "%d", log));
+    private final ScheduledExecutorService executor;
+    private volatile ExecutorService pollExecutor = null;
+    private int pollThreads;
     private ScheduledFuture<?> poller = null;
+    private volatile long pollInterval;
+
+    private final Map<DeviceId, DevicePoller> devicePollers = Maps.newConcurrentMap();
 
     /**
      * Creates a new fallback flow rule provider.
      */
     FlowRuleDriverProvider() {
         super(new ProviderId(SCHEME, PROVIDER_NAME));
+        this.executor = newSingleThreadScheduledExecutor(groupedThreads("FlowRuleDriverProvider", "%d", log));
+    }
+
+    /**
+     * Creates a new fallback flow rule provider, scheduling polls and
+     * handling device events on the given executor.
+     *
+     * @param executor scheduled executor
+     */
+    FlowRuleDriverProvider(ScheduledExecutorService executor) {
+        super(new ProviderId(SCHEME, PROVIDER_NAME));
+        this.executor = executor;
     }
 
     /**
@@ -90,32 +135,61 @@ class FlowRuleDriverProvider extends AbstractProvider implements FlowRuleProvide
      * @param providerService   flow rule provider service
      * @param deviceService     device service
      * @param mastershipService mastership service
+     * @param metricsService    metrics service; null if not available
      * @param pollFrequency     flow entry poll frequency
+     * @param pollThreads       number of threads polling devices
      */
     void init(FlowRuleProviderService providerService,
               DeviceService deviceService, MastershipService mastershipService,
-              int pollFrequency) {
+              MetricsService metricsService, int pollFrequency, int pollThreads) {
         this.providerService = providerService;
         this.deviceService = deviceService;
         this.mastershipService = mastershipService;
+        this.metricsService = metricsService;
 
         deviceService.addListener(deviceListener);
 
         if (poller != null && !poller.isCancelled()) {
             poller.cancel(false);
         }
+        // Stopped on the scheduling thread, so that pollers being started
+        // with the prior configuration are stopped as well
+        executor.execute(() -> devicePollers.values().forEach(DevicePoller::stop));
+
+        if (pollExecutor == null || this.pollThreads != pollThreads) {
+            ExecutorService previous = pollExecutor;
+            pollExecutor = newPollExecutor(pollThreads);
+            this.pollThreads = pollThreads;
+            if (previous != null) {
+                previous.shutdown();
+            }
+        }
 
-        poller = executor.scheduleAtFixedRate(this::pollFlowEntries, pollFrequency,
+        pollInterval = TimeUnit.SECONDS.toMillis(pollFrequency);
+        poller = executor.scheduleAtFixedRate(this::schedulePolls, 0,
                                               pollFrequency, TimeUnit.SECONDS);
     }
 
+    /**
+     * Creates the pool of workers polling the devices.
+     *
+     * @param pollThreads number of threads polling devices
+     * @return poll executor
+     */
+    ExecutorService newPollExecutor(int pollThreads) {
+        return newFixedThreadPool(pollThreads, groupedThreads("FlowRuleDriverProvider", "poller-%d", log));
+    }
+
     void terminate() {
         deviceService.removeListener(deviceListener);
+        poller.cancel(true);
+        devicePollers.values().forEach(DevicePoller::stop);
         deviceService = null;
         providerService = null;
         mastershipService = null;
-        poller.cancel(true);
+        metricsService = null;
         executor.shutdown();
+        pollExecutor.shutdown();
     }
 
     @Override
@@ -188,11 +262,14 @@ class FlowRuleDriverProvider extends AbstractProvider implements FlowRuleProvide
         }
     }
 
-    private void pollDeviceFlowEntries(Device device) {
+    private Collection<FlowEntry> pollDeviceFlowEntries(Device device) {
         try {
-            providerService.pushFlowMetrics(device.id(), device.as(FlowRuleProgrammable.class).getFlowEntries());
+            Collection<FlowEntry> entries = device.as(FlowRuleProgrammable.class).getFlowEntries();
+            providerService.pushFlowMetrics(device.id(), entries);
+            return entries;
         } catch (Exception e) {
             log.warn("Exception thrown while polling {}", device.id(), e);
+            return null;
         }
     }
 
@@ -206,18 +283,147 @@ class FlowRuleDriverProvider extends AbstractProvider implements FlowRuleProvide
         }
     }
 
-    private void pollFlowEntries() {
+    private boolean isPollable(Device device) {
+        return mastershipService.isLocalMaster(device.id()) &&
+                (device.is(FlowRuleProgrammable.class) || device.is(TableStatisticsDiscovery.class));
+    }
+
+    // Starts polling the devices which are not polled yet, each at a random
+    // offset within the poll interval to avoid polling all at once.
+    private void schedulePolls() {
         try {
             deviceService.getAvailableDevices().forEach(device -> {
-                if (mastershipService.isLocalMaster(device.id()) && device.is(FlowRuleProgrammable.class)) {
-                    pollDeviceFlowEntries(device);
-                }
-                if (mastershipService.isLocalMaster(device.id()) && device.is(TableStatisticsDiscovery.class)) {
-                    pollTableStatistics(device);
+                if (!devicePollers.containsKey(device.id()) && isPollable(device)) {
+                    startPolling(device.id(), ThreadLocalRandom.current().nextLong(pollInterval + 1));
                 }
             });
         } catch (Exception e) {
-            log.warn("Exception thrown while polling flows", e);
+            log.warn("Exception thrown while scheduling flow polls", e);
+        }
+    }
+
+    private void startPolling(DeviceId deviceId, long delay) {
+        DevicePoller devicePoller = new DevicePoller(deviceId);
+        if (devicePollers.putIfAbsent(deviceId, devicePoller) == null) {
+            devicePoller.schedule(delay);
+        }
+    }
+
+    /**
+     * Periodic poller of the flow entries and table statistics of a device,
+     * which polls more often while the flow entries of the device churn.
+     */
+    private final class DevicePoller {
+        private final DeviceId deviceId;
+        private final MetricsService metrics = metricsService;
+        private final Timer pollDuration;
+        private final long minInterval = (long) (pollInterval * MIN_INTERVAL_FACTOR);
+        private final long maxInterval = (long) (pollInterval * MAX_INTERVAL_FACTOR);
+
+        private long interval = pollInterval;
+        private int lastCount = -1;
+        private long lastFingerprint;
+
+        private volatile boolean stopped;
+        private volatile ScheduledFuture<?> nextPoll;
+
+        private DevicePoller(DeviceId deviceId) {
+            this.deviceId = deviceId;
+            this.pollDuration = metrics != null ?
+                    metrics.createTimer(metricsComponent(), metricsFeature(), POLL_DURATION) : null;
+        }
+
+        private MetricsComponent metricsComponent() {
+            return metrics.registerComponent(METRICS_COMPONENT);
+        }
+
+        private MetricsFeature metricsFeature() {
+            return metricsComponent().registerFeature(deviceId.toString());
+        }
+
+        // Schedules the next poll on the poll workers after the given delay.
+        private void schedule(long delay) {
+            if (stopped) {
+                return;
+            }
+            nextPoll = executor.schedule(() -> {
+                try {
+                    pollExecutor.execute(this::poll);
+                } catch (RejectedExecutionException e) {
+                    log.debug("Poll of {} rejected", deviceId);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        // Moves the next poll forward, unless it is already under way.
+        private void pollNow() {
+            ScheduledFuture<?> future = nextPoll;
+            if (future != null && future.cancel(false)) {
+                schedule(0);
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            devicePollers.remove(deviceId, this);
+            ScheduledFuture<?> future = nextPoll;
+            if (future != null) {
+                future.cancel(false);
+            }
+            if (pollDuration != null) {
+                metrics.removeMetric(metricsComponent(), metricsFeature(), POLL_DURATION);
+            }
+        }
+
+        private void poll() {
+            if (stopped) {
+                return;
+            }
+            try {
+                Device device = deviceService.getDevice(deviceId);
+                if (device == null || !deviceService.isAvailable(deviceId) || !isPollable(device)) {
+                    stop();
+                    return;
+                }
+
+                long start = System.nanoTime();
+                if (device.is(FlowRuleProgrammable.class)) {
+                    Collection<FlowEntry> entries = pollDeviceFlowEntries(device);
+                    if (entries != null) {
+                        adaptInterval(entries);
+                    }
+                }
+                if (device.is(TableStatisticsDiscovery.class)) {
+                    pollTableStatistics(device);
+                }
+                if (pollDuration != null) {
+                    pollDuration.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } catch (Exception e) {
+                log.warn("Exception thrown while polling {}", deviceId, e);
+            }
+
+            long jitter = (long) (interval * JITTER);
+            schedule(interval + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1));
+        }
+
+        // Halves the poll interval if the set of flow entries changed since
+        // the previous poll and otherwise gradually lengthens it again.
+        private void adaptInterval(Collection<FlowEntry> entries) {
+            long fingerprint = 0;
+            for (FlowEntry entry : entries) {
+                fingerprint ^= entry.id().value();
+            }
+            boolean churned = lastCount >= 0 &&
+                    (entries.size() != lastCount || fingerprint != lastFingerprint);
+            lastCount = entries.size();
+            lastFingerprint = fingerprint;
+
+            if (churned) {
+                interval = Math.max(minInterval, interval / 2);
+            } else {
+                interval = Math.min(maxInterval, interval + pollInterval / 4);
+            }
         }
     }
 
@@ -236,17 +442,34 @@ class FlowRuleDriverProvider extends AbstractProvider implements FlowRuleProvide
         @Override
         public boolean isRelevant(DeviceEvent event) {
             Device device = event.subject();
+            if (event.type() == DEVICE_REMOVED) {
+                return devicePollers.containsKey(device.id());
+            }
             return POSITIVE_DEVICE_EVENT.contains(event.type()) &&
                    device.is(FlowRuleProgrammable.class);
         }
 
         private void handleEvent(DeviceEvent event) {
             Device device = event.subject();
+            if (event.type() == DEVICE_REMOVED) {
+                DevicePoller devicePoller = devicePollers.get(device.id());
+                if (devicePoller != null) {
+                    devicePoller.stop();
+                }
+                return;
+            }
             boolean isRelevant = mastershipService.isLocalMaster(device.id()) &&
                     deviceService.isAvailable(device.id());
 
+            // Polls right away on the poll workers, so that a slow device
+            // does not hold up the pollers of the other devices
             if (isRelevant) {
-                pollDeviceFlowEntries(device);
+                DevicePoller devicePoller = devicePollers.get(device.id());
+                if (devicePoller != null) {
+                    devicePoller.pollNow();
+                } else {
+                    startPolling(device.id(), 0);
+                }
             }
         }
     }
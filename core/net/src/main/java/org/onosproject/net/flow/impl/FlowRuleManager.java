@@ -21,6 +21,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
@@ -91,10 +92,14 @@ import static org.onosproject.net.OsgiPropertyConstants.IMPORT_EXTRANEOUS_RULES;
 import static org.onosproject.net.OsgiPropertyConstants.IMPORT_EXTRANEOUS_RULES_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.POLL_FREQUENCY;
 import static org.onosproject.net.OsgiPropertyConstants.POLL_FREQUENCY_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.POLL_NUM_THREADS;
+import static org.onosproject.net.OsgiPropertyConstants.POLL_NUM_THREADS_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.PURGE_ON_DISCONNECTION;
 import static org.onosproject.net.OsgiPropertyConstants.PURGE_ON_DISCONNECTION_DEFAULT;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_ADD_REQUESTED;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_REMOVE_REQUESTED;
+import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_STATS_UPDATED;
+import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_UPDATED;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.FLOWRULE_READ;
 import static org.onosproject.security.AppPermission.Type.FLOWRULE_WRITE;
@@ -113,7 +118,8 @@ import static org.slf4j.LoggerFactory.getLogger;
                 ALLOW_EXTRANEOUS_RULES + ":Boolean=" + ALLOW_EXTRANEOUS_RULES_DEFAULT,
                 IMPORT_EXTRANEOUS_RULES + ":Boolean=" + IMPORT_EXTRANEOUS_RULES_DEFAULT,
                 PURGE_ON_DISCONNECTION + ":Boolean=" + PURGE_ON_DISCONNECTION_DEFAULT,
-                POLL_FREQUENCY + ":Integer=" + POLL_FREQUENCY_DEFAULT
+                POLL_FREQUENCY + ":Integer=" + POLL_FREQUENCY_DEFAULT,
+                POLL_NUM_THREADS + ":Integer=" + POLL_NUM_THREADS_DEFAULT
         }
 )
 public class FlowRuleManager
@@ -138,6 +144,9 @@ public class FlowRuleManager
     /** Frequency (in seconds) for polling flow statistics via fallback provider. */
     private int fallbackFlowPollFrequency = POLL_FREQUENCY_DEFAULT;
 
+    /** Number of threads polling flow statistics via fallback provider. */
+    private int fallbackFlowPollThreads = POLL_NUM_THREADS_DEFAULT;
+
     private final FlowRuleStoreDelegate delegate = new InternalStoreDelegate();
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
@@ -179,6 +188,9 @@ public class FlowRuleManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected NetworkConfigRegistry netCfgService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     @Activate
     public void activate(ComponentContext context) {
         store.setDelegate(delegate);
@@ -209,7 +221,8 @@ public class FlowRuleManager
             readComponentConfiguration(context);
         }
         driverProvider.init(new InternalFlowRuleProviderService(driverProvider),
-                            deviceService, mastershipService, fallbackFlowPollFrequency);
+                            deviceService, mastershipService, metricsService,
+                            fallbackFlowPollFrequency, fallbackFlowPollThreads);
     }
 
     @Override
@@ -272,6 +285,15 @@ public class FlowRuleManager
                          fallbackFlowPollFrequency);
             }
         }
+
+        Integer threads = Tools.getIntegerProperty(properties, POLL_NUM_THREADS);
+        if (threads == null || threads <= 0) {
+            log.info("fallbackFlowPollThreads is not configured or invalid, " +
+                             "using current value of {}", fallbackFlowPollThreads);
+        } else {
+            fallbackFlowPollThreads = threads;
+            log.info("Configured. FallbackFlowPollThreads is {}", fallbackFlowPollThreads);
+        }
     }
 
     @Override
@@ -506,22 +528,34 @@ public class FlowRuleManager
             log.debug("Flow {} is on switch but not in store.", flowRule);
         }
 
-        private boolean flowAdded(FlowEntry flowEntry) {
-            checkNotNull(flowEntry, FLOW_RULE_NULL);
+        // Updates the stats of the given live rules of a device at once, posting
+        // individual events for newly added rules and a single summary event for
+        // the refreshed ones; returns false if the node is no longer the master.
+        private boolean flowStatsUpdated(DeviceId deviceId, List<FlowEntry> rules) {
             checkValidity();
 
-            if (checkRuleLiveness(flowEntry, store.getFlowEntry(flowEntry))) {
-                FlowRuleEvent event = store.addOrUpdateFlowRule(flowEntry);
-                if (event == null) {
-                    log.debug("No flow store event generated.");
-                    return false;
+            List<FlowRuleEvent> events = store.updateFlowStatistics(deviceId, rules);
+            List<FlowEntry> updated = Lists.newArrayListWithCapacity(events.size());
+            for (FlowRuleEvent event : events) {
+                if (event.type() == RULE_UPDATED) {
+                    updated.add((FlowEntry) event.subject());
                 } else {
-                    log.trace("Flow {} {}", flowEntry, event.type());
+                    log.trace("Flow {} {}", event.subject(), event.type());
                     post(event);
                 }
-            } else {
-                log.debug("Removing flow rules....");
-                removeFlowRules(flowEntry);
+            }
+            if (!updated.isEmpty()) {
+                post(new FlowRuleEvent(RULE_STATS_UPDATED, updated));
+            }
+
+            if (events.size() < rules.size()) {
+                log.debug("No flow store event generated for {} rules.", rules.size() - events.size());
+                // Mastership change can occur during this iteration
+                NodeId master = mastershipService.getMasterFor(deviceId);
+                if (!Objects.equals(local, master)) {
+                    log.warn("Tried to update the flow stats while the node was not the master");
+                    return false;
+                }
             }
             return true;
         }
@@ -581,8 +615,8 @@ public class FlowRuleManager
                                              boolean useMissingFlow) {
             Map<FlowEntry, FlowEntry> storedRules = Maps.newHashMap();
             store.getFlowEntries(deviceId).forEach(f -> storedRules.put(f, f));
+            List<FlowEntry> liveRules = Lists.newArrayList();
             NodeId master;
-            boolean done;
 
             // Processing flow rules
             for (FlowEntry rule : flowEntries) {
@@ -590,15 +624,12 @@ public class FlowRuleManager
                     FlowEntry storedRule = storedRules.remove(rule);
                     if (storedRule != null) {
                         if (storedRule.exactMatch(rule)) {
-                            // we both have the rule, let's update some info then.
-                            done = flowAdded(rule);
-                            if (!done) {
-                                // Mastership change can occur during this iteration
-                                master = mastershipService.getMasterFor(deviceId);
-                                if (!Objects.equals(local, master)) {
-                                    log.warn("Tried to update the flow stats while the node was not the master");
-                                    return;
-                                }
+                            // we both have the rule, its stats get updated in bulk below
+                            if (checkRuleLiveness(rule, storedRule)) {
+                                liveRules.add(rule);
+                            } else {
+                                log.debug("Removing flow rules....");
+                                removeFlowRules(rule);
                             }
                         } else {
                             // Mastership change can occur during this iteration
@@ -640,6 +671,10 @@ public class FlowRuleManager
                 }
             }
 
+            if (!liveRules.isEmpty() && !flowStatsUpdated(deviceId, liveRules)) {
+                return;
+            }
+
             // DO NOT reinstall
             if (useMissingFlow) {
                 for (FlowEntry rule : storedRules.keySet()) {
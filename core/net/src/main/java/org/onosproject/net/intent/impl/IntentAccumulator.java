@@ -25,10 +25,14 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Timer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 /**
- * An accumulator for building batches of intent operations. Only one batch should
- * be in process per instance at a time.
+ * An accumulator for building batches of intent operations. By default only one
+ * batch is in process per instance at a time; the delegate must call
+ * {@link #ready()} once it is done with each batch.
  */
 public class IntentAccumulator extends AbstractAccumulator<IntentData> {
 
@@ -42,7 +46,8 @@ public class IntentAccumulator extends AbstractAccumulator<IntentData> {
 
     private final IntentBatchDelegate delegate;
 
-    private volatile boolean ready;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int maxInFlight = 1;
 
     /**
      * Creates an intent operation accumulator.
@@ -52,13 +57,31 @@ public class IntentAccumulator extends AbstractAccumulator<IntentData> {
     protected IntentAccumulator(IntentBatchDelegate delegate) {
         super(TIMER, DEFAULT_MAX_EVENTS, DEFAULT_MAX_BATCH_MS, DEFAULT_MAX_IDLE_MS);
         this.delegate = delegate;
-        // Assume that the delegate is ready for work at the start
-        ready = true; //TODO validate the assumption that delegate is ready
+    }
+
+    /**
+     * Sets the maximum number of batches handed to the delegate which may be
+     * in process at the same time.
+     *
+     * @param maxInFlight maximum number of batches in flight
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        checkArgument(maxInFlight > 0, "maxInFlight must be positive");
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Returns the number of batches currently in process.
+     *
+     * @return number of batches in flight
+     */
+    public int inFlight() {
+        return inFlight.get();
     }
 
     @Override
     public void processItems(List<IntentData> items) {
-        ready = false;
+        inFlight.incrementAndGet();
         delegate.execute(reduce(items));
     }
 
@@ -73,10 +96,13 @@ public class IntentAccumulator extends AbstractAccumulator<IntentData> {
 
     @Override
     public boolean isReady() {
-        return ready;
+        return inFlight.get() < maxInFlight;
     }
 
+    /**
+     * Signals that the delegate has finished processing a batch.
+     */
     public void ready() {
-        ready = true;
+        inFlight.updateAndGet(n -> n > 0 ? n - 1 : 0);
     }
 }
@@ -15,6 +15,8 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.CoreService;
@@ -75,6 +77,8 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.IM_MAX_BATCHES_IN_FLIGHT;
+import static org.onosproject.net.OsgiPropertyConstants.IM_MAX_BATCHES_IN_FLIGHT_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.IM_NUM_THREADS;
 import static org.onosproject.net.OsgiPropertyConstants.IM_NUM_THREADS_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL;
@@ -103,7 +107,8 @@ import static org.slf4j.LoggerFactory.getLogger;
     },
     property = {
         IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL + ":Boolean=" + IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL_DEFAULT,
-        IM_NUM_THREADS + ":Integer=" + IM_NUM_THREADS_DEFAULT
+        IM_NUM_THREADS + ":Integer=" + IM_NUM_THREADS_DEFAULT,
+        IM_MAX_BATCHES_IN_FLIGHT + ":Integer=" + IM_MAX_BATCHES_IN_FLIGHT_DEFAULT
     }
 )
 public class IntentManager
@@ -126,6 +131,9 @@ public class IntentManager
     /** Number of worker threads. */
     private int numThreads = IM_NUM_THREADS_DEFAULT;
 
+    /** Number of intent batches which may be compiled, installed and stored concurrently. */
+    private int maxBatchesInFlight = IM_MAX_BATCHES_IN_FLIGHT_DEFAULT;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected CoreService coreService;
 
@@ -239,6 +247,14 @@ public class IntentManager
             }
             logConfig("Reconfigured number of worker threads");
         }
+
+        s = Tools.get(context.getProperties(), IM_MAX_BATCHES_IN_FLIGHT);
+        int newMaxBatchesInFlight = isNullOrEmpty(s) ? maxBatchesInFlight : Integer.parseInt(s.trim());
+        if (newMaxBatchesInFlight != maxBatchesInFlight && newMaxBatchesInFlight > 0) {
+            maxBatchesInFlight = newMaxBatchesInFlight;
+            accumulator.setMaxInFlight(maxBatchesInFlight);
+            log.info("Reconfigured maximum number of batches in flight to {}", maxBatchesInFlight);
+        }
     }
 
     private void logConfig(String prefix) {
@@ -518,21 +534,30 @@ public class IntentManager
     }
 
     private class InternalBatchDelegate implements IntentBatchDelegate {
+
+        // Store write of the latest batch in flight for each key; a later
+        // batch only starts processing a key once the previous one is stored.
+        private final Map<Key, CompletableFuture<Void>> pendingWrites = Maps.newConcurrentMap();
+
         @Override
         public void execute(Collection<IntentData> operations) {
             log.debug("Execute {} operation(s).", operations.size());
             log.trace("Execute operations: {}", operations);
 
-            // batchExecutor is single-threaded, so only one batch is in flight at a time
-            CompletableFuture.runAsync(() -> {
-                // process intent until the phase reaches one of the final phases
-                List<CompletableFuture<IntentData>> futures = operations.stream()
-                        .map(data -> {
-                            log.debug("Start processing of {} {}@{}", data.request(), data.key(), data.version());
-                            return data;
-                        })
-                        .map(x -> CompletableFuture.completedFuture(x)
-                                .thenApply(IntentManager.this::createInitialPhase)
+            // Several batches may be in flight; initial phases and store
+            // writes run on the single-threaded batchExecutor, the intent
+            // processing itself on the workerExecutor.
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            List<Key> keys = Lists.newArrayListWithCapacity(operations.size());
+
+            // process intent until the phase reaches one of the final phases
+            List<CompletableFuture<IntentData>> futures = operations.stream()
+                    .map(data -> {
+                        log.debug("Start processing of {} {}@{}", data.request(), data.key(), data.version());
+                        keys.add(data.key());
+                        CompletableFuture<Void> previous = pendingWrites.put(data.key(), written);
+                        return (previous != null ? previous : CompletableFuture.<Void>completedFuture(null))
+                                .thenApplyAsync(v -> createInitialPhase(data), batchExecutor)
                                 .thenApplyAsync(IntentProcessPhase::process, workerExecutor)
                                 .thenApply(FinalIntentProcessPhase::data)
                                 .exceptionally(e -> {
@@ -541,36 +566,43 @@ public class IntentManager
                                     // the next round the CleanUp Thread will pick this Intent again.
                                     log.warn("Future failed", e);
                                     log.warn("Intent {} - state {} - request {}",
-                                             x.key(), x.state(), x.request());
-                                    switch (x.state()) {
+                                             data.key(), data.state(), data.request());
+                                    switch (data.state()) {
                                         case INSTALL_REQ:
                                         case INSTALLING:
                                         case WITHDRAW_REQ:
                                         case WITHDRAWING:
                                             // TODO should we swtich based on current
-                                            IntentData current = store.getIntentData(x.key());
+                                            IntentData current = store.getIntentData(data.key());
                                             return IntentData.nextState(current, FAILED);
                                         default:
                                             return null;
                                     }
-                                }))
-                        .collect(Collectors.toList());
-
-                // write multiple data to store in order
-                store.batchWrite(Tools.allOf(futures).join().stream()
-                                         .filter(Objects::nonNull)
-                                         .collect(Collectors.toList()));
-            }, batchExecutor).exceptionally(e -> {
-                log.error("Error submitting batches:", e);
-                // FIXME incomplete Intents should be cleaned up
-                //       (transition to FAILED, etc.)
-
-                // the batch has failed
-                // TODO: maybe we should do more?
-                log.error("Walk the plank, matey...");
-                return null;
-            }).thenRun(accumulator::ready);
-
+                                });
+                    })
+                    .collect(Collectors.toList());
+
+            // write multiple data to store in order
+            Tools.allOf(futures)
+                    .thenAcceptAsync(results -> store.batchWrite(results.stream()
+                                                                     .filter(Objects::nonNull)
+                                                                     .collect(Collectors.toList())),
+                                     batchExecutor)
+                    .exceptionally(e -> {
+                        log.error("Error submitting batches:", e);
+                        // FIXME incomplete Intents should be cleaned up
+                        //       (transition to FAILED, etc.)
+
+                        // the batch has failed
+                        // TODO: maybe we should do more?
+                        log.error("Walk the plank, matey...");
+                        return null;
+                    })
+                    .thenRun(() -> {
+                        keys.forEach(key -> pendingWrites.remove(key, written));
+                        written.complete(null);
+                        accumulator.ready();
+                    });
         }
     }
 
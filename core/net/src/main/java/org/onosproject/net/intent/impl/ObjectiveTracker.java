@@ -15,9 +15,9 @@
  */
 package org.onosproject.net.intent.impl;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.onosproject.event.Event;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.ElementId;
@@ -60,7 +60,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -68,7 +70,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Multimaps.synchronizedSetMultimap;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.onlab.util.Tools.groupedThreads;
@@ -89,12 +90,13 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
 
     private final Logger log = getLogger(getClass());
 
-    private final SetMultimap<LinkKey, Key> intentsByLink =
-            //TODO this could be slow as a point of synchronization
-            synchronizedSetMultimap(HashMultimap.<LinkKey, Key>create());
+    // Indexes are updated per key with compute(), so that topology event
+    // handling can read them without blocking intents being tracked.
+    private final ConcurrentMap<LinkKey, Set<Key>> intentsByLink =
+            Maps.newConcurrentMap();
 
-    private final SetMultimap<ElementId, Key> intentsByDevice =
-            synchronizedSetMultimap(HashMultimap.<ElementId, Key>create());
+    private final ConcurrentMap<ElementId, Set<Key>> intentsByDevice =
+            Maps.newConcurrentMap();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected TopologyService topologyService;
@@ -206,9 +208,9 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                                     Collection<NetworkResource> resources) {
         for (NetworkResource resource : resources) {
             if (resource instanceof Link) {
-                intentsByLink.put(linkKey((Link) resource), intentKey);
+                index(intentsByLink, linkKey((Link) resource), intentKey);
             } else if (resource instanceof ElementId) {
-                intentsByDevice.put((ElementId) resource, intentKey);
+                index(intentsByDevice, (ElementId) resource, intentKey);
             }
         }
     }
@@ -218,13 +220,58 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                                        Collection<NetworkResource> resources) {
         for (NetworkResource resource : resources) {
             if (resource instanceof Link) {
-                intentsByLink.remove(linkKey((Link) resource), intentKey);
+                unindex(intentsByLink, linkKey((Link) resource), intentKey);
             } else if (resource instanceof ElementId) {
-                intentsByDevice.remove(resource, intentKey);
+                unindex(intentsByDevice, (ElementId) resource, intentKey);
             }
         }
     }
 
+    /**
+     * Adds the intent key to the set indexed by the given resource.
+     *
+     * @param index     resource index
+     * @param resource  indexed resource
+     * @param intentKey intent key
+     * @param <K>       resource type
+     */
+    private static <K> void index(ConcurrentMap<K, Set<Key>> index, K resource, Key intentKey) {
+        index.compute(resource, (k, keys) -> {
+            Set<Key> result = keys != null ? keys : Sets.newConcurrentHashSet();
+            result.add(intentKey);
+            return result;
+        });
+    }
+
+    /**
+     * Removes the intent key from the set indexed by the given resource,
+     * dropping the set once it is empty.
+     *
+     * @param index     resource index
+     * @param resource  indexed resource
+     * @param intentKey intent key
+     * @param <K>       resource type
+     */
+    private static <K> void unindex(ConcurrentMap<K, Set<Key>> index, K resource, Key intentKey) {
+        index.computeIfPresent(resource, (k, keys) -> {
+            keys.remove(intentKey);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Returns a snapshot of the intent keys indexed by the given resource.
+     *
+     * @param index    resource index
+     * @param resource indexed resource
+     * @param <K>      resource type
+     * @return intent keys
+     */
+    private static <K> Set<Key> lookup(Map<K, Set<Key>> index, K resource) {
+        Set<Key> keys = index.get(resource);
+        return keys != null ? ImmutableSet.copyOf(keys) : ImmutableSet.of();
+    }
+
     @Override
     public void trackIntent(IntentData intentData) {
 
@@ -241,7 +288,7 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
         if (log.isTraceEnabled()) {
             log.trace("intent {}, old: {}, new: {}, installableCount: {}, resourceCount: {}",
                       key,
-                      intentsByDevice.values().contains(key),
+                      intentsByDevice.values().stream().anyMatch(keys -> keys.contains(key)),
                       isLocal && isInstalled,
                       installables.size(),
                       intent.resources().size() +
@@ -306,12 +353,10 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                     if (reason instanceof LinkEvent) {
                         LinkEvent linkEvent = (LinkEvent) reason;
                         final LinkKey linkKey = linkKey(linkEvent.subject());
-                        synchronized (intentsByLink) {
-                            Set<Key> intentKeys = intentsByLink.get(linkKey);
-                            log.debug("recompile triggered by LinkEvent {} ({}) for {}",
-                                    linkKey, linkEvent.type(), intentKeys);
-                            intentsToRecompile.addAll(intentKeys);
-                        }
+                        Set<Key> intentKeys = intentsByLink.getOrDefault(linkKey, ImmutableSet.of());
+                        log.debug("recompile triggered by LinkEvent {} ({}) for {}",
+                                linkKey, linkEvent.type(), intentKeys);
+                        intentsToRecompile.addAll(intentKeys);
                         dontRecompileAllFailedIntents = dontRecompileAllFailedIntents &&
                                 (linkEvent.type() == LINK_REMOVED ||
                                 (linkEvent.type() == LINK_UPDATED &&
@@ -362,11 +407,7 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
 
             // TODO should we recompile on available==true?
 
-            final ImmutableSet<Key> snapshot;
-            synchronized (intentsByDevice) {
-                snapshot = ImmutableSet.copyOf(intentsByDevice.get(id));
-            }
-            delegate.triggerCompile(snapshot, available);
+            delegate.triggerCompile(lookup(intentsByDevice, id), available);
         }
     }
 
@@ -15,9 +15,20 @@
  */
 package org.onosproject.net.packet.impl;
 
+import com.codahale.metrics.SlidingWindowReservoir;
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.IPv6;
+import org.onlab.packet.VlanId;
 import org.onlab.util.ItemNotFoundException;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.core.ApplicationId;
@@ -32,6 +43,12 @@ import org.onosproject.net.driver.DriverService;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.TrafficSelector;
 import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.EthCriterion;
+import org.onosproject.net.flow.criteria.EthTypeCriterion;
+import org.onosproject.net.flow.criteria.IPProtocolCriterion;
+import org.onosproject.net.flow.criteria.PortCriterion;
+import org.onosproject.net.flow.criteria.VlanIdCriterion;
 import org.onosproject.net.flowobjective.DefaultForwardingObjective;
 import org.onosproject.net.flowobjective.FlowObjectiveService;
 import org.onosproject.net.flowobjective.ForwardingObjective;
@@ -39,6 +56,7 @@ import org.onosproject.net.flowobjective.Objective;
 import org.onosproject.net.flowobjective.ObjectiveContext;
 import org.onosproject.net.flowobjective.ObjectiveError;
 import org.onosproject.net.packet.DefaultPacketRequest;
+import org.onosproject.net.packet.InboundPacket;
 import org.onosproject.net.packet.OutboundPacket;
 import org.onosproject.net.packet.PacketContext;
 import org.onosproject.net.packet.PacketEvent;
@@ -54,9 +72,11 @@ import org.onosproject.net.packet.PacketStore;
 import org.onosproject.net.packet.PacketStoreDelegate;
 import org.onosproject.net.provider.AbstractProviderRegistry;
 import org.onosproject.net.provider.AbstractProviderService;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.onosproject.net.packet.PacketInFilter;
@@ -68,11 +88,17 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.util.BoundedThreadPool.newFixedThreadPool;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.PM_NUM_THREADS;
+import static org.onosproject.net.OsgiPropertyConstants.PM_NUM_THREADS_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.PACKET_EVENT;
 import static org.onosproject.security.AppPermission.Type.PACKET_READ;
@@ -82,7 +108,13 @@ import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Provides a basic implementation of the packet SB &amp; NB APIs.
  */
-@Component(immediate = true, service = { PacketService.class, PacketProviderRegistry.class })
+@Component(
+    immediate = true,
+    service = { PacketService.class, PacketProviderRegistry.class },
+    property = {
+        PM_NUM_THREADS + ":Integer=" + PM_NUM_THREADS_DEFAULT,
+    }
+)
 public class PacketManager
         extends AbstractProviderRegistry<PacketProvider, PacketProviderService>
         implements PacketService, PacketProviderRegistry {
@@ -94,6 +126,11 @@ public class PacketManager
     private static final String ERROR_NULL_APP_ID = "Application ID cannot be null";
     private static final String ERROR_NULL_DEVICE_ID = "Device ID cannot be null";
     private static final String SUPPORT_PACKET_REQUEST_PROPERTY = "supportPacketRequest";
+    private static final String PROCESSOR_PATTERN = "processor-%d";
+    private static final int LATENCY_WINDOW = 1028;
+
+    /** Number of threads running independent packet processors. */
+    private int numThreads = PM_NUM_THREADS_DEFAULT;
 
     private final PacketStoreDelegate delegate = new InternalStoreDelegate();
 
@@ -115,11 +152,19 @@ public class PacketManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected FlowObjectiveService objectiveService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     private ExecutorService eventHandlingExecutor;
+    private ExecutorService processorExecutor;
 
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
     private final List<ProcessorEntry> processors = Lists.newCopyOnWriteArrayList();
+    private final AtomicInteger processorEntryIds = new AtomicInteger();
 
     private final PacketDriverProvider defaultProvider = new PacketDriverProvider();
 
@@ -129,9 +174,13 @@ public class PacketManager
     private List<PacketInFilter> filters = new CopyOnWriteArrayList<>();
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
         eventHandlingExecutor = Executors.newSingleThreadExecutor(
                 groupedThreads("onos/net/packet", "event-handler", log));
+        processorExecutor = newFixedThreadPool(numThreads,
+                groupedThreads("onos/net/packet", PROCESSOR_PATTERN, log));
+        modified(context);
         localNodeId = clusterService.getLocalNode().id();
         appId = coreService.getAppId(CoreService.CORE_APP_NAME);
         store.setDelegate(delegate);
@@ -154,12 +203,33 @@ public class PacketManager
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         store.unsetDelegate(delegate);
         deviceService.removeListener(deviceListener);
         eventHandlingExecutor.shutdown();
+        processorExecutor.shutdown();
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        int newNumThreads = Tools.getIntegerProperty(context.getProperties(), PM_NUM_THREADS, numThreads);
+
+        if (newNumThreads != numThreads && newNumThreads > 0) {
+            numThreads = newNumThreads;
+            ExecutorService oldProcessorExecutor = processorExecutor;
+            processorExecutor = newFixedThreadPool(numThreads,
+                    groupedThreads("onos/net/packet", PROCESSOR_PATTERN, log));
+            if (oldProcessorExecutor != null) {
+                oldProcessorExecutor.shutdown();
+            }
+            log.info("Reconfigured number of packet processor threads to {}", numThreads);
+        }
+    }
+
     @Override
     protected PacketProvider defaultProvider() {
         return defaultProvider;
@@ -167,9 +237,15 @@ public class PacketManager
 
     @Override
     public void addProcessor(PacketProcessor processor, int priority) {
+        addProcessor(processor, priority, null);
+    }
+
+    @Override
+    public void addProcessor(PacketProcessor processor, int priority,
+                             TrafficSelector selector) {
         checkPermission(PACKET_EVENT);
         checkNotNull(processor, ERROR_NULL_PROCESSOR);
-        ProcessorEntry entry = new ProcessorEntry(processor, priority);
+        ProcessorEntry entry = new ProcessorEntry(processor, priority, selector);
 
         // Insert the new processor according to its priority.
         int i = 0;
@@ -189,7 +265,7 @@ public class PacketManager
         // Remove the processor entry.
         for (int i = 0; i < processors.size(); i++) {
             if (processors.get(i).processor() == processor) {
-                processors.remove(i);
+                processors.remove(i).release();
                 break;
             }
         }
@@ -389,6 +465,14 @@ public class PacketManager
         store.emit(packet);
     }
 
+    @Override
+    public void emit(List<OutboundPacket> packets) {
+        checkPermission(PACKET_WRITE);
+        checkNotNull(packets, "Packets cannot be null");
+        packets.forEach(packet -> checkNotNull(packet, "Packet cannot be null"));
+        store.emit(packets);
+    }
+
     @Override
     public List<PacketInFilter> getFilters() {
         return ImmutableList.copyOf(filters);
@@ -476,25 +560,43 @@ public class PacketManager
                 }
                 return;
             }
-            // TODO filter packets sent to processors based on registrations
+            List<ProcessorEntry> independent = null;
             for (ProcessorEntry entry : processors) {
-                try {
-                    if (log.isTraceEnabled()) {
-                        log.trace("Starting packet processing by {}",
-                                entry.processor().getClass().getName());
+                if (entry.processor().isIndependent()) {
+                    if (independent == null) {
+                        independent = Lists.newArrayList();
                     }
+                    independent.add(entry);
+                } else {
+                    process(entry, context);
+                }
+            }
+            if (independent != null) {
+                ExecutorService executor = processorExecutor;
+                independent.forEach(entry -> executor.execute(() -> process(entry, context)));
+            }
+        }
 
-                    long start = System.nanoTime();
-                    entry.processor().process(context);
-                    entry.addNanos(System.nanoTime() - start);
+        private void process(ProcessorEntry entry, PacketContext context) {
+            try {
+                if (!entry.isRelevant(context)) {
+                    return;
+                }
+                if (log.isTraceEnabled()) {
+                    log.trace("Starting packet processing by {}",
+                            entry.processor().getClass().getName());
+                }
 
-                    if (log.isTraceEnabled()) {
-                        log.trace("Finished packet processing by {}",
-                                entry.processor().getClass().getName());
-                    }
-                } catch (Exception e) {
-                    log.warn("Packet processor {} threw an exception", entry.processor(), e);
+                long start = System.nanoTime();
+                entry.processor().process(context);
+                entry.addNanos(System.nanoTime() - start);
+
+                if (log.isTraceEnabled()) {
+                    log.trace("Finished packet processing by {}",
+                            entry.processor().getClass().getName());
                 }
+            } catch (Exception e) {
+                log.warn("Packet processor {} threw an exception", entry.processor(), e);
             }
         }
 
@@ -579,18 +681,110 @@ public class PacketManager
         }
     }
 
+    /**
+     * Indicates whether the inbound packet may match the given selector.
+     * Only the criteria that can be checked against the packet headers are
+     * evaluated; any other criteria are assumed to match.
+     *
+     * @param selector traffic selector
+     * @param packet   inbound packet
+     * @return false if the packet does not match the selector
+     */
+    private static boolean matches(TrafficSelector selector, InboundPacket packet) {
+        Ethernet eth = packet.parsed();
+        for (Criterion criterion : selector.criteria()) {
+            switch (criterion.type()) {
+                case IN_PORT:
+                    if (!((PortCriterion) criterion).port().equals(packet.receivedFrom().port())) {
+                        return false;
+                    }
+                    break;
+                case ETH_TYPE:
+                    if (eth == null ||
+                            ((EthTypeCriterion) criterion).ethType().toShort() != eth.getEtherType()) {
+                        return false;
+                    }
+                    break;
+                case ETH_SRC:
+                    if (eth == null || !((EthCriterion) criterion).mac().equals(eth.getSourceMAC())) {
+                        return false;
+                    }
+                    break;
+                case ETH_DST:
+                    if (eth == null || !((EthCriterion) criterion).mac().equals(eth.getDestinationMAC())) {
+                        return false;
+                    }
+                    break;
+                case VLAN_VID:
+                    if (eth == null ||
+                            !((VlanIdCriterion) criterion).vlanId().equals(VlanId.vlanId(eth.getVlanID()))) {
+                        return false;
+                    }
+                    break;
+                case IP_PROTO:
+                    short protocol = ((IPProtocolCriterion) criterion).protocol();
+                    if (eth == null) {
+                        return false;
+                    } else if (eth.getPayload() instanceof IPv4) {
+                        if (((IPv4) eth.getPayload()).getProtocol() != (byte) protocol) {
+                            return false;
+                        }
+                    } else if (eth.getPayload() instanceof IPv6) {
+                        if (((IPv6) eth.getPayload()).getNextHeader() != (byte) protocol) {
+                            return false;
+                        }
+                    } else {
+                        return false;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+
     /**
      * Entity for tracking stats for a packet processor.
      */
     private class ProcessorEntry implements PacketProcessorEntry {
         private final PacketProcessor processor;
         private final int priority;
-        private long invocations = 0;
-        private long nanos = 0;
+        private final TrafficSelector selector;
+        private final String metricName;
+        private final Timer timer;
+        private final LongAdder nanos = new LongAdder();
 
-        public ProcessorEntry(PacketProcessor processor, int priority) {
+        public ProcessorEntry(PacketProcessor processor, int priority,
+                              TrafficSelector selector) {
             this.processor = processor;
             this.priority = priority;
+            this.selector = selector;
+            // Entries with the same processor class and priority must not share a timer
+            this.metricName = processor.getClass().getName() + "-" + priority + "-" +
+                    processorEntryIds.incrementAndGet();
+            this.timer = metricsService != null
+                    ? metricsService.createTimer(metricsComponent(), metricsFeature(), metricName)
+                    : new Timer(new SlidingWindowReservoir(LATENCY_WINDOW));
+        }
+
+        private MetricsComponent metricsComponent() {
+            return metricsService.registerComponent("PacketManager");
+        }
+
+        private MetricsFeature metricsFeature() {
+            return metricsComponent().registerFeature("processors");
+        }
+
+        boolean isRelevant(PacketContext context) {
+            return (selector == null || matches(selector, context.inPacket())) &&
+                    processor.isRelevant(context);
+        }
+
+        void release() {
+            if (metricsService != null) {
+                metricsService.removeMetric(metricsComponent(), metricsFeature(), metricName);
+            }
         }
 
         @Override
@@ -605,22 +799,28 @@ public class PacketManager
 
         @Override
         public long invocations() {
-            return invocations;
+            return timer.getCount();
         }
 
         @Override
         public long totalNanos() {
-            return nanos;
+            return nanos.sum();
         }
 
         @Override
         public long averageNanos() {
-            return invocations > 0 ? nanos / invocations : 0;
+            long invocations = invocations();
+            return invocations > 0 ? totalNanos() / invocations : 0;
+        }
+
+        @Override
+        public long quantileNanos(double quantile) {
+            return (long) timer.getSnapshot().getValue(quantile);
         }
 
         void addNanos(long nanos) {
-            this.nanos += nanos;
-            this.invocations++;
+            this.nanos.add(nanos);
+            timer.update(nanos, TimeUnit.NANOSECONDS);
         }
     }
 }
@@ -15,6 +15,11 @@
  */
 package org.onosproject.net.topology.impl;
 
+import com.codahale.metrics.Gauge;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onosproject.common.DefaultTopology;
 import org.onosproject.net.DisjointPath;
 import org.onosproject.net.ElementId;
 import org.onosproject.net.Link;
@@ -23,6 +28,7 @@ import org.onosproject.net.host.HostService;
 import org.onosproject.net.topology.AbstractPathService;
 import org.onosproject.net.topology.LinkWeigher;
 import org.onosproject.net.topology.PathService;
+import org.onosproject.net.topology.Topology;
 import org.onosproject.net.topology.TopologyService;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -47,6 +53,11 @@ import static org.slf4j.LoggerFactory.getLogger;
 @Component(immediate = true, service = PathService.class)
 public class PathManager extends AbstractPathService implements PathService {
 
+    private static final String METRICS_COMPONENT = "PathManager";
+    private static final String METRICS_FEATURE = "pathCache";
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+
     private final Logger log = getLogger(getClass());
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -55,19 +66,55 @@ public class PathManager extends AbstractPathService implements PathService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected HostService hostService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     @Activate
     public void activate() {
         // initialize AbstractPathService
         super.topologyService = this.topologyService;
         super.hostService = this.hostService;
+        if (metricsService != null) {
+            removePathCacheMetrics();
+            metricsService.registerMetric(metricsComponent(), metricsFeature(), HITS,
+                                          (Gauge<Long>) () -> pathCacheCount(true));
+            metricsService.registerMetric(metricsComponent(), metricsFeature(), MISSES,
+                                          (Gauge<Long>) () -> pathCacheCount(false));
+        }
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
+        if (metricsService != null) {
+            removePathCacheMetrics();
+        }
         log.info("Stopped");
     }
 
+    private MetricsComponent metricsComponent() {
+        return metricsService.registerComponent(METRICS_COMPONENT);
+    }
+
+    private MetricsFeature metricsFeature() {
+        return metricsComponent().registerFeature(METRICS_FEATURE);
+    }
+
+    // Path cache hit or miss count of the current topology.
+    private long pathCacheCount(boolean hits) {
+        Topology topology = topologyService.currentTopology();
+        if (!(topology instanceof DefaultTopology)) {
+            return 0;
+        }
+        DefaultTopology defaultTopology = (DefaultTopology) topology;
+        return hits ? defaultTopology.pathCacheHits() : defaultTopology.pathCacheMisses();
+    }
+
+    private void removePathCacheMetrics() {
+        metricsService.removeMetric(metricsComponent(), metricsFeature(), HITS);
+        metricsService.removeMetric(metricsComponent(), metricsFeature(), MISSES);
+    }
+
     @Override
     public Set<Path> getPaths(ElementId src, ElementId dst) {
         checkPermission(TOPOLOGY_READ);
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.net.flow.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.junit.NullScheduledExecutor;
+import org.onlab.packet.ChassisId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.mastership.MastershipServiceAdapter;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.driver.AbstractHandlerBehaviour;
+import org.onosproject.net.driver.Behaviour;
+import org.onosproject.net.flow.CompletedBatchOperation;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleProgrammable;
+import org.onosproject.net.flow.FlowRuleProvider;
+import org.onosproject.net.flow.FlowRuleProviderService;
+import org.onosproject.net.flow.TableStatisticsEntry;
+import org.onosproject.net.provider.ProviderId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.NetTestTools.did;
+
+/**
+ * Tests of the per-device polling of the driver-based flow rule provider.
+ */
+public class FlowRuleDriverProviderTest {
+
+    private static final DeviceId DID = did("1");
+    private static final int POLL_FREQUENCY = 10;
+    private static final long POLL_INTERVAL = TimeUnit.SECONDS.toMillis(POLL_FREQUENCY);
+
+    private static List<FlowEntry> flowEntries = ImmutableList.of();
+    private static int polls;
+
+    private final Device device = new TestDevice(DID);
+
+    private TestScheduler scheduler;
+    private TestDeviceService deviceService;
+    private FlowRuleDriverProvider provider;
+
+    @Before
+    public void setUp() {
+        flowEntries = flowEntries(3);
+        polls = 0;
+        scheduler = new TestScheduler();
+        deviceService = new TestDeviceService();
+        provider = new FlowRuleDriverProvider(scheduler) {
+            @Override
+            ExecutorService newPollExecutor(int pollThreads) {
+                return MoreExecutors.newDirectExecutorService();
+            }
+        };
+        provider.init(new TestProviderService(), deviceService, new TestMastershipService(),
+                      null, POLL_FREQUENCY, 1);
+        scheduler.runPending();
+    }
+
+    @After
+    public void tearDown() {
+        provider.terminate();
+    }
+
+    private static List<FlowEntry> flowEntries(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(priority -> new DefaultFlowEntry(DefaultFlowRule.builder()
+                        .forDevice(DID)
+                        .withSelector(DefaultTrafficSelector.emptySelector())
+                        .withTreatment(DefaultTrafficTreatment.emptyTreatment())
+                        .withPriority(priority)
+                        .fromApp(new DefaultApplicationId(1, "test"))
+                        .makePermanent()
+                        .build()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Tests that the poll interval lengthens while the flow entries of the
+     * device do not change, and shortens when they churn.
+     */
+    @Test
+    public void testIntervalAdaptation() {
+        scheduler.runPeriodic();
+        assertTrue("first poll not within poll interval", scheduler.nextDelay() <= POLL_INTERVAL);
+
+        assertDelay(POLL_INTERVAL + POLL_INTERVAL / 4);
+        assertEquals("incorrect number of polls", 1, polls);
+
+        // Lengthens up to twice the poll interval
+        assertDelay(POLL_INTERVAL + POLL_INTERVAL / 2);
+        assertDelay(POLL_INTERVAL + 3 * POLL_INTERVAL / 4);
+        assertDelay(2 * POLL_INTERVAL);
+        assertDelay(2 * POLL_INTERVAL);
+
+        // Halves down to half the poll interval on churn
+        flowEntries = flowEntries(4);
+        assertDelay(POLL_INTERVAL);
+        flowEntries = flowEntries(2);
+        assertDelay(POLL_INTERVAL / 2);
+        flowEntries = flowEntries(5);
+        assertDelay(POLL_INTERVAL / 2);
+
+        assertDelay(POLL_INTERVAL / 2 + POLL_INTERVAL / 4);
+        assertEquals("incorrect number of polls", 9, polls);
+    }
+
+    // Polls the device once and checks the delay of the next poll.
+    private void assertDelay(long interval) {
+        assertEquals("incorrect number of scheduled polls", 1, scheduler.runScheduled());
+        long delay = scheduler.nextDelay();
+        long jitter = (long) (interval * 0.1);
+        assertTrue("delay " + delay + " not within " + interval + " +/- " + jitter,
+                   delay >= interval - jitter && delay <= interval + jitter);
+    }
+
+    /**
+     * Tests that the poller of a device is stopped when the device is removed,
+     * and restarted when it is added back.
+     */
+    @Test
+    public void testPollerStoppedOnDeviceRemoval() {
+        scheduler.runPeriodic();
+        assertDelay(POLL_INTERVAL + POLL_INTERVAL / 4);
+
+        deviceService.removeDevice();
+        scheduler.runPending();
+        assertEquals("poll not cancelled", 0, scheduler.runScheduled());
+        assertEquals("incorrect number of polls", 1, polls);
+
+        deviceService.addDevice();
+        scheduler.runPeriodic();
+        assertEquals("poller not restarted", 1, scheduler.runScheduled());
+        assertEquals("incorrect number of polls", 2, polls);
+    }
+
+    /**
+     * Tests that the poller of a device stops by itself once the device is
+     * no longer available.
+     */
+    @Test
+    public void testPollerStoppedOnDeviceUnavailable() {
+        scheduler.runPeriodic();
+        deviceService.available = false;
+        assertEquals("incorrect number of scheduled polls", 1, scheduler.runScheduled());
+        assertEquals("poller not stopped", 0, scheduler.runScheduled());
+        assertEquals("incorrect number of polls", 0, polls);
+    }
+
+    /**
+     * Tests that a device becoming available is polled right away through its
+     * poller instead of from the device event handler.
+     */
+    @Test
+    public void testDeviceEventPollsThroughPoller() {
+        // A device without poller gets one polling immediately
+        deviceService.postEvent(DeviceEvent.Type.DEVICE_ADDED);
+        scheduler.runPending();
+        assertEquals("device polled by event handler", 0, polls);
+        assertEquals("first poll not immediate", 0, scheduler.nextDelay());
+        assertDelay(POLL_INTERVAL + POLL_INTERVAL / 4);
+        assertEquals("incorrect number of polls", 1, polls);
+
+        // The next poll of a device with a poller is moved forward
+        deviceService.postEvent(DeviceEvent.Type.DEVICE_AVAILABILITY_CHANGED);
+        scheduler.runPending();
+        assertEquals("device polled by event handler", 1, polls);
+        assertEquals("poll not moved forward", 0, scheduler.nextDelay());
+        assertDelay(POLL_INTERVAL + POLL_INTERVAL / 2);
+        assertEquals("incorrect number of polls", 2, polls);
+    }
+
+    /**
+     * Scheduled executor running the tasks submitted to it only on request.
+     */
+    private static class TestScheduler extends NullScheduledExecutor {
+        private final List<Runnable> pending = new ArrayList<>();
+        private final List<Runnable> periodic = new ArrayList<>();
+        private final List<TestFuture> scheduled = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            pending.add(command);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            TestFuture future = new TestFuture(command, unit.toMillis(delay));
+            scheduled.add(future);
+            return future;
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay,
+                                                      long period, TimeUnit unit) {
+            periodic.clear();
+            periodic.add(command);
+            return new TestFuture(command, unit.toMillis(initialDelay));
+        }
+
+        void runPending() {
+            while (!pending.isEmpty()) {
+                pending.remove(0).run();
+            }
+        }
+
+        void runPeriodic() {
+            periodic.forEach(Runnable::run);
+        }
+
+        // Runs the scheduled tasks not cancelled and returns their number.
+        int runScheduled() {
+            List<TestFuture> tasks = scheduled.stream()
+                    .filter(future -> !future.isCancelled())
+                    .collect(Collectors.toList());
+            scheduled.clear();
+            tasks.forEach(future -> future.command.run());
+            return tasks.size();
+        }
+
+        long nextDelay() {
+            List<TestFuture> tasks = scheduled.stream()
+                    .filter(future -> !future.isCancelled())
+                    .collect(Collectors.toList());
+            assertEquals("incorrect number of scheduled polls", 1, tasks.size());
+            return tasks.get(0).delay;
+        }
+    }
+
+    private static class TestFuture implements ScheduledFuture<Object> {
+        private final Runnable command;
+        private final long delay;
+        private boolean cancelled;
+
+        TestFuture(Runnable command, long delay) {
+            this.command = command;
+            this.delay = delay;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(delay, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return cancelled;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+    }
+
+    private static class TestDevice extends DefaultDevice {
+        TestDevice(DeviceId id) {
+            super(new ProviderId("of", "foo"), id, Type.SWITCH, "mfr", "hw", "sw", "serial", new ChassisId());
+        }
+
+        @Override
+        public <B extends Behaviour> boolean is(Class<B> projectionClass) {
+            return projectionClass.equals(FlowRuleProgrammable.class);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <B extends Behaviour> B as(Class<B> projectionClass) {
+            return (B) new TestFlowRuleProgrammable();
+        }
+    }
+
+    private static class TestFlowRuleProgrammable extends AbstractHandlerBehaviour
+            implements FlowRuleProgrammable {
+        @Override
+        public Collection<FlowEntry> getFlowEntries() {
+            polls++;
+            return flowEntries;
+        }
+
+        @Override
+        public Collection<FlowRule> applyFlowRules(Collection<FlowRule> rules) {
+            return rules;
+        }
+
+        @Override
+        public Collection<FlowRule> removeFlowRules(Collection<FlowRule> rules) {
+            return rules;
+        }
+    }
+
+    private class TestDeviceService extends DeviceServiceAdapter {
+        private boolean present = true;
+        private boolean available = true;
+        private DeviceListener listener;
+
+        void removeDevice() {
+            present = false;
+            available = false;
+            DeviceEvent event = new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, device);
+            if (listener.isRelevant(event)) {
+                listener.event(event);
+            }
+        }
+
+        void postEvent(DeviceEvent.Type type) {
+            DeviceEvent event = new DeviceEvent(type, device);
+            if (listener.isRelevant(event)) {
+                listener.event(event);
+            }
+        }
+
+        void addDevice() {
+            present = true;
+            available = true;
+        }
+
+        @Override
+        public Device getDevice(DeviceId deviceId) {
+            return present && deviceId.equals(DID) ? device : null;
+        }
+
+        @Override
+        public boolean isAvailable(DeviceId deviceId) {
+            return available && deviceId.equals(DID);
+        }
+
+        @Override
+        public Iterable<Device> getAvailableDevices() {
+            return available ? ImmutableList.of(device) : ImmutableList.of();
+        }
+
+        @Override
+        public void addListener(DeviceListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(DeviceListener listener) {
+            this.listener = null;
+        }
+    }
+
+    private static class TestMastershipService extends MastershipServiceAdapter {
+        @Override
+        public boolean isLocalMaster(DeviceId deviceId) {
+            return true;
+        }
+    }
+
+    private static class TestProviderService implements FlowRuleProviderService {
+        @Override
+        public void flowRemoved(FlowEntry flowEntry) {
+        }
+
+        @Override
+        public void pushFlowMetrics(DeviceId deviceId, Iterable<FlowEntry> flowEntries) {
+        }
+
+        @Override
+        public void pushFlowMetricsWithoutFlowMissing(DeviceId deviceId, Iterable<FlowEntry> flowEntries) {
+        }
+
+        @Override
+        public void pushTableStatistics(DeviceId deviceId, List<TableStatisticsEntry> tableStatsEntries) {
+        }
+
+        @Override
+        public void batchOperationCompleted(long batchId, CompletedBatchOperation operation) {
+        }
+
+        @Override
+        public FlowRuleProvider provider() {
+            return null;
+        }
+    }
+}
@@ -101,6 +101,7 @@ import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_ADDED;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_ADD_REQUESTED;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_REMOVED;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_REMOVE_REQUESTED;
+import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_STATS_UPDATED;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_UPDATED;
 
 /**
@@ -253,7 +254,9 @@ public class FlowRuleManagerTest {
         assertEquals("should still be 2 rules", 2, flowCount());
 
         providerService.pushFlowMetrics(DID, ImmutableList.of(fe1));
-        validateEvents(RULE_UPDATED, RULE_UPDATED);
+        assertEquals("stats of fe1 should be summarized",
+                     ImmutableList.of(fe1), listener.events.get(0).entries());
+        validateEvents(RULE_STATS_UPDATED, RULE_UPDATED);
     }
 
     private boolean validateState(Map<FlowRule, FlowEntryState> expected) {
@@ -488,7 +491,7 @@ public class FlowRuleManagerTest {
         FlowEntry fe = mgr.getFlowEntries(FOO_DID).iterator().next();
         assertEquals("incorrect state", FlowEntryState.PENDING_ADD, fe.state());
 
-        fallback.init(fallback.providerService, mgr.deviceService, mgr.mastershipService, 1);
+        fallback.init(fallback.providerService, mgr.deviceService, mgr.mastershipService, null, 1, 1);
         TestTools.assertAfter(2000, () -> {
             FlowEntry e = mgr.getFlowEntries(FOO_DID).iterator().next();
             assertEquals("incorrect state", FlowEntryState.ADDED, e.state());
@@ -525,6 +528,11 @@ public class FlowRuleManagerTest {
         public Device getDevice(DeviceId deviceId) {
             return deviceId.equals(FOO_DID) ? FOO_DEV : DEV;
         }
+
+        @Override
+        public boolean isAvailable(DeviceId deviceId) {
+            return true;
+        }
     }
 
     private class TestProvider extends AbstractProvider implements FlowRuleProvider {
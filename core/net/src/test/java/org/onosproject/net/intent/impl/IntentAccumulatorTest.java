@@ -33,6 +33,7 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 
 /**
  * Unit tests for the intent accumulator.
@@ -143,5 +144,29 @@ public class IntentAccumulatorTest extends AbstractIntentTest {
         accumulator.processItems(intentDataItems);
     }
 
-
+    /**
+     * Tests that the accumulator hands out no more batches than allowed in flight.
+     */
+    @Test
+    public void checkBatchesInFlight() {
+        IntentAccumulator accumulator = new IntentAccumulator(operations -> { });
+        List<IntentData> items = ImmutableList.of(
+                new IntentData(intent1, IntentState.INSTALLING, new MockTimestamp(1)));
+
+        assertThat(accumulator.isReady(), is(true));
+        accumulator.processItems(items);
+        assertThat(accumulator.isReady(), is(false));
+
+        accumulator.setMaxInFlight(2);
+        assertThat(accumulator.isReady(), is(true));
+        accumulator.processItems(items);
+        assertThat(accumulator.inFlight(), is(2));
+        assertThat(accumulator.isReady(), is(false));
+
+        accumulator.ready();
+        assertThat(accumulator.isReady(), is(true));
+        accumulator.ready();
+        accumulator.ready();
+        assertThat(accumulator.inFlight(), is(0));
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import org.junit.After;
@@ -45,6 +46,9 @@ import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.easymock.EasyMock.createMock;
@@ -316,5 +320,64 @@ public class ObjectiveTrackerTest extends AbstractIntentTest {
         assertThat(delegate.compileAllFailedFromEvent, is(true));
     }
 
+    /**
+     * Tests that link flaps are matched against the tracked intents while
+     * other intents are being tracked and untracked concurrently.
+     *
+     * @throws Exception if the flaps are not processed
+     */
+    @Test
+    public void testLinkFlapsWhileTracking() throws Exception {
+        final int numLinks = 200;
+        final int numIntents = 10_000;
+        final int pathLength = 5;
+        final int numFlaps = 200;
+
+        List<Link> links = Lists.newArrayList();
+        for (int i = 0; i < numLinks; i++) {
+            links.add(link("s" + i, 1, "s" + (i + 1), 2));
+        }
+        for (int i = 0; i < numIntents; i++) {
+            List<NetworkResource> path = Lists.newArrayList();
+            for (int j = 0; j < pathLength; j++) {
+                path.add(links.get((i + j) % numLinks));
+            }
+            tracker.addTrackedResources(Key.of(i, APP_ID), path);
+        }
+        final int intentsPerLink = numIntents * pathLength / numLinks;
+
+        // Keep tracking and untracking other intents over the same links
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        List<Future<?>> writes = Lists.newArrayList();
+        for (int w = 0; w < 2; w++) {
+            final long base = numIntents * (w + 2L);
+            writes.add(writers.submit(() -> {
+                for (int i = 0; i < numIntents; i++) {
+                    Key key = Key.of(base + i, APP_ID);
+                    Collection<NetworkResource> path = ImmutableSet.of(links.get(i % numLinks));
+                    tracker.addTrackedResources(key, path);
+                    tracker.removeTrackedResources(key, path);
+                }
+            }));
+        }
+
+        delegate.latch = new CountDownLatch(numFlaps);
+        for (int i = 0; i < numFlaps; i++) {
+            LinkEvent.Type type = i % 2 == 0 ? LinkEvent.Type.LINK_REMOVED : LinkEvent.Type.LINK_ADDED;
+            listener.event(new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED, topology,
+                    ImmutableList.<Event>of(new LinkEvent(type, links.get(i % numLinks)))));
+        }
+        assertThat(delegate.latch.await(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS), is(true));
 
+        for (Future<?> write : writes) {
+            write.get(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        writers.shutdown();
+
+        delegate.latch = new CountDownLatch(1);
+        listener.event(new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED, topology,
+                ImmutableList.<Event>of(new LinkEvent(LinkEvent.Type.LINK_REMOVED, links.get(0)))));
+        assertThat(delegate.latch.await(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS), is(true));
+        assertThat(delegate.intentIdsFromEvent, hasSize(intentsPerLink));
+    }
 }
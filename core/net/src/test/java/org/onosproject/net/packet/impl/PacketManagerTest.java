@@ -16,20 +16,27 @@
 
 package org.onosproject.net.packet.impl;
 
+import com.codahale.metrics.MetricFilter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.CoreServiceAdapter;
 import org.onosproject.core.IdGenerator;
 import org.onosproject.event.TestListener;
 import org.onosproject.net.AnnotationKeys;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultAnnotations;
 import org.onosproject.net.DefaultDevice;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
 import org.onosproject.net.config.NetworkConfigServiceAdapter;
 import org.onosproject.net.device.DeviceServiceAdapter;
 import org.onosproject.net.driver.AbstractHandlerBehaviour;
@@ -37,20 +44,35 @@ import org.onosproject.net.driver.DefaultDriver;
 import org.onosproject.net.driver.DriverRegistry;
 import org.onosproject.net.driver.impl.DriverManager;
 import org.onosproject.net.driver.impl.DriverRegistryManager;
+import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.packet.DefaultInboundPacket;
 import org.onosproject.net.packet.DefaultOutboundPacket;
 import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketContextAdapter;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketProcessorEntry;
 import org.onosproject.net.packet.PacketProgrammable;
+import org.onosproject.net.packet.PacketProvider;
 import org.onosproject.net.packet.PacketProviderRegistry;
+import org.onosproject.net.packet.PacketProviderService;
 import org.onosproject.net.pi.PiPipeconfServiceAdapter;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.net.provider.TestProvider;
 import org.onosproject.store.trivial.SimplePacketStore;
 
 import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.onosproject.net.NetTestTools.injectEventDispatcher;
 
 /**
@@ -86,8 +108,9 @@ public class PacketManagerTest {
         mgr.deviceService = new TestDeviceService();
         mgr.deviceService = new TestDeviceService();
         mgr.coreService = new TestCoreService();
+        mgr.cfgService = new ComponentConfigAdapter();
         providerRegistry = mgr;
-        mgr.activate();
+        mgr.activate(null);
 
         DriverRegistryManager driverRegistry = new DriverRegistryManager();
         driverService = new TestDriverManager(driverRegistry);
@@ -108,6 +131,118 @@ public class PacketManagerTest {
         assertEquals("Packet not emitted correctly", packet, emittedPacket);
     }
 
+    /**
+     * Tests that processors only get the packets matching their selector.
+     */
+    @Test
+    public void processorSelectors() {
+        CountingProcessor arpProcessor = new CountingProcessor();
+        CountingProcessor allProcessor = new CountingProcessor();
+        mgr.addProcessor(arpProcessor, PacketProcessor.director(1),
+                         DefaultTrafficSelector.builder().matchEthType(Ethernet.TYPE_ARP).build());
+        mgr.addProcessor(allProcessor, PacketProcessor.director(2));
+
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        providerService.processPacket(packetContext(Ethernet.TYPE_ARP));
+        providerService.processPacket(packetContext(Ethernet.TYPE_IPV4));
+        providerService.processPacket(packetContext(Ethernet.TYPE_LLDP));
+
+        assertEquals(1, arpProcessor.count.get());
+        assertEquals(3, allProcessor.count.get());
+
+        List<PacketProcessorEntry> entries = mgr.getProcessors();
+        assertEquals(2, entries.size());
+        assertEquals(1, entries.get(0).invocations());
+        assertEquals(3, entries.get(1).invocations());
+        assertTrue(entries.get(1).quantileNanos(0.99) >= entries.get(1).quantileNanos(0.5));
+
+        mgr.removeProcessor(arpProcessor);
+        providerService.processPacket(packetContext(Ethernet.TYPE_ARP));
+        assertEquals(1, arpProcessor.count.get());
+        assertEquals(4, allProcessor.count.get());
+    }
+
+    /**
+     * Tests that processors of the same class and priority are timed separately.
+     */
+    @Test
+    public void processorTimers() {
+        mgr.metricsService = new MetricsManager();
+        CountingProcessor processor1 = new CountingProcessor();
+        CountingProcessor processor2 = new CountingProcessor();
+        mgr.addProcessor(processor1, PacketProcessor.director(1));
+        mgr.addProcessor(processor2, PacketProcessor.director(1));
+        assertEquals(2, mgr.metricsService.getTimers(MetricFilter.ALL).size());
+
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        providerService.processPacket(packetContext(Ethernet.TYPE_IPV4));
+        mgr.getProcessors().forEach(entry -> assertEquals(1, entry.invocations()));
+
+        mgr.removeProcessor(processor1);
+        assertEquals(1, mgr.metricsService.getTimers(MetricFilter.ALL).size());
+        providerService.processPacket(packetContext(Ethernet.TYPE_IPV4));
+        assertEquals(2, mgr.getProcessors().get(0).invocations());
+    }
+
+    /**
+     * Tests that independent processors run off the thread delivering packets.
+     */
+    @Test
+    public void independentProcessors() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        mgr.addProcessor(new PacketProcessor() {
+            @Override
+            public void process(PacketContext context) {
+                thread.set(Thread.currentThread());
+                latch.countDown();
+            }
+
+            @Override
+            public boolean isIndependent() {
+                return true;
+            }
+        }, PacketProcessor.observer(1));
+        CountingProcessor processor = new CountingProcessor();
+        mgr.addProcessor(processor, PacketProcessor.director(1));
+
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        providerService.processPacket(packetContext(Ethernet.TYPE_IPV4));
+
+        assertEquals(1, processor.count.get());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread(), thread.get());
+    }
+
+    private static PacketContext packetContext(short ethType) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(ethType)
+                .setSourceMACAddress(MacAddress.valueOf("00:00:00:00:00:01"))
+                .setDestinationMACAddress(MacAddress.BROADCAST);
+        ConnectPoint receivedFrom = new ConnectPoint(FOO_DID, PortNumber.portNumber(1));
+        return new PacketContextAdapter(0, new DefaultInboundPacket(receivedFrom, eth, ByteBuffer.allocate(5)),
+                                        null, false);
+    }
+
+    private static class CountingProcessor implements PacketProcessor {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void process(PacketContext context) {
+            count.incrementAndGet();
+        }
+    }
+
+    private static class TestPacketProvider extends TestProvider implements PacketProvider {
+        TestPacketProvider() {
+            super(FOO_PID);
+        }
+
+        @Override
+        public void emit(OutboundPacket packet) {
+        }
+    }
+
     private static class TestDeviceService extends DeviceServiceAdapter {
         @Override
         public int getDeviceCount() {
@@ -67,4 +67,10 @@ public final class OsgiPropertyConstants {
 
     public static final String MAX_PATHS = "maxPaths";
     public static final int MAX_PATHS_DEFAULT = -1;
+
+    public static final String INCREMENTAL_TOPOLOGY = "incrementalTopology";
+    public static final boolean INCREMENTAL_TOPOLOGY_DEFAULT = false;
+
+    public static final String PATH_CACHE_SIZE = "pathCacheSize";
+    public static final int PATH_CACHE_SIZE_DEFAULT = 1024;
 }
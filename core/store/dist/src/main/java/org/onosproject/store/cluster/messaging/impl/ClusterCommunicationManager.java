@@ -15,9 +15,15 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import com.google.common.base.Objects;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.onlab.util.AbstractAccumulator;
+import org.onlab.util.SharedExecutors;
 import org.onlab.util.Tools;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.ControllerNode;
@@ -37,6 +43,8 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -69,6 +77,9 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
     private static final String NODE_PREFIX = "node:";
     private static final String ROUND_TRIP_SUFFIX = ".rtt";
     private static final String ONE_WAY_SUFFIX = ".oneway";
+    private static final String BATCH_SUFFIX = ".batch";
+    private static final String BATCH_SIZE_SUFFIX = ".batchSize";
+    private static final String FLUSH_SUFFIX = ".flush";
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ClusterService clusterService;
@@ -78,6 +89,9 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
 
     private NodeId localNodeId;
 
+    // batchers of the subjects whose one-way messages are sent in batches
+    private final Map<MessageSubject, MessageBatcher> batchers = Maps.newConcurrentMap();
+
     @Activate
     public void activate() {
         localNodeId = clusterService.getLocalNode().id();
@@ -125,11 +139,12 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                                                NodeId toNodeId) {
         checkPermission(CLUSTER_WRITE);
         try {
-            byte[] payload = new ClusterMessage(
-                    localNodeId,
-                    subject,
-                    timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message)
-                    ).getBytes();
+            byte[] bytes = timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message);
+            MessageBatcher batcher = batchers.get(subject);
+            if (batcher != null) {
+                return batcher.add(toNodeId, bytes);
+            }
+            byte[] payload = new ClusterMessage(localNodeId, subject, bytes).getBytes();
             return doUnicast(subject, payload, toNodeId);
         } catch (Exception e) {
             return Tools.exceptionalFuture(e);
@@ -142,11 +157,13 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                               Function<M, byte[]> encoder,
                               Set<NodeId> nodes) {
         checkPermission(CLUSTER_WRITE);
-        byte[] payload = new ClusterMessage(
-                localNodeId,
-                subject,
-                timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message))
-                .getBytes();
+        byte[] bytes = timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message);
+        MessageBatcher batcher = batchers.get(subject);
+        if (batcher != null) {
+            nodes.forEach(nodeId -> batcher.add(nodeId, bytes));
+            return;
+        }
+        byte[] payload = new ClusterMessage(localNodeId, subject, bytes).getBytes();
         nodes.forEach(nodeId -> doUnicast(subject, payload, nodeId));
     }
 
@@ -203,12 +220,16 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         messagingService.registerHandler(subject.toString(),
                 new InternalClusterMessageHandler(subscriber),
                 executor);
+        messagingService.registerHandler(batchType(subject),
+                new InternalBatchConsumer(subscriber::handle),
+                executor);
     }
 
     @Override
     public void removeSubscriber(MessageSubject subject) {
         checkPermission(CLUSTER_WRITE);
         messagingService.unregisterHandler(subject.toString());
+        messagingService.unregisterHandler(batchType(subject));
     }
 
     @Override
@@ -218,18 +239,17 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Function<R, byte[]> encoder,
             Executor executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
-                new InternalMessageResponder<M, R>(decoder, encoder, m -> {
-                    CompletableFuture<R> responseFuture = new CompletableFuture<>();
-                    executor.execute(() -> {
-                        try {
-                            responseFuture.complete(handler.apply(m));
-                        } catch (Exception e) {
-                            responseFuture.completeExceptionally(e);
-                        }
-                    });
-                    return responseFuture;
-                }));
+        addResponder(subject, new InternalMessageResponder<M, R>(decoder, encoder, m -> {
+            CompletableFuture<R> responseFuture = new CompletableFuture<>();
+            executor.execute(() -> {
+                try {
+                    responseFuture.complete(handler.apply(m));
+                } catch (Exception e) {
+                    responseFuture.completeExceptionally(e);
+                }
+            });
+            return responseFuture;
+        }));
     }
 
     @Override
@@ -238,8 +258,16 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Function<M, CompletableFuture<R>> handler,
             Function<R, byte[]> encoder) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
-                new InternalMessageResponder<>(decoder, encoder, handler));
+        addResponder(subject, new InternalMessageResponder<>(decoder, encoder, handler));
+    }
+
+    // Registers the responder for both single messages and batches, whose
+    // messages are handled as one-way messages.
+    private <M, R> void addResponder(MessageSubject subject, InternalMessageResponder<M, R> responder) {
+        messagingService.registerHandler(subject.toString(), responder);
+        messagingService.registerHandler(batchType(subject),
+                new InternalBatchConsumer(responder::handle),
+                MoreExecutors.directExecutor());
     }
 
     @Override
@@ -248,11 +276,59 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Consumer<M> handler,
             Executor executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
-                new InternalMessageConsumer<>(decoder, handler),
+        InternalMessageConsumer<M> consumer = new InternalMessageConsumer<>(decoder, handler);
+        messagingService.registerHandler(subject.toString(), consumer, executor);
+        messagingService.registerHandler(batchType(subject),
+                new InternalBatchConsumer(consumer::handle),
                 executor);
     }
 
+    @Override
+    public void enableBatching(MessageSubject subject, int maxMessages, Duration maxDelay) {
+        checkPermission(CLUSTER_WRITE);
+        checkArgument(maxMessages > 1, "Maximum number of messages must be > 1");
+        checkArgument(maxDelay.toMillis() > 0, "Maximum delay must be at least a millisecond");
+        batchers.put(subject, new MessageBatcher(subject, maxMessages, (int) maxDelay.toMillis()));
+    }
+
+    @Override
+    public void disableBatching(MessageSubject subject) {
+        checkPermission(CLUSTER_WRITE);
+        batchers.remove(subject);
+    }
+
+    // Returns the messaging type on which batches of the subject are sent.
+    private static String batchType(MessageSubject subject) {
+        return subject.toString() + BATCH_SUFFIX;
+    }
+
+    // Lays out the messages of a batch as a count followed by length-prefixed messages.
+    private static byte[] encodeBatch(List<PendingMessage> messages) {
+        int size = Integer.BYTES;
+        for (PendingMessage message : messages) {
+            size += Integer.BYTES + message.payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(messages.size());
+        for (PendingMessage message : messages) {
+            buffer.putInt(message.payload.length);
+            buffer.put(message.payload);
+        }
+        return buffer.array();
+    }
+
+    private static List<byte[]> decodeBatch(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int count = buffer.getInt();
+        List<byte[]> payloads = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            byte[] payload = new byte[buffer.getInt()];
+            buffer.get(payload);
+            payloads.add(payload);
+        }
+        return payloads;
+    }
+
     /**
      * Performs the timed function, returning the value it would while timing the operation.
      *
@@ -321,6 +397,10 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                     apply(ClusterMessage.fromBytes(bytes).payload())).
                     thenApply(m -> timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(m));
         }
+
+        private void handle(ClusterMessage message) {
+            handler.apply(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).apply(message.payload()));
+        }
     }
 
     private class InternalMessageConsumer<M> implements BiConsumer<Endpoint, byte[]> {
@@ -334,8 +414,99 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
 
         @Override
         public void accept(Endpoint sender, byte[] bytes) {
+            handle(ClusterMessage.fromBytes(bytes));
+        }
+
+        private void handle(ClusterMessage message) {
             consumer.accept(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).
-                    apply(ClusterMessage.fromBytes(bytes).payload()));
+                    apply(message.payload()));
+        }
+    }
+
+    // Unpacks batches of messages, handing them to the subscriber in order.
+    private class InternalBatchConsumer implements BiConsumer<Endpoint, byte[]> {
+        private final Consumer<ClusterMessage> handler;
+
+        public InternalBatchConsumer(Consumer<ClusterMessage> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void accept(Endpoint sender, byte[] bytes) {
+            ClusterMessage batch = ClusterMessage.fromBytes(bytes);
+            for (byte[] payload : decodeBatch(batch.payload())) {
+                try {
+                    handler.accept(new ClusterMessage(batch.sender(), batch.subject(), payload));
+                } catch (Exception e) {
+                    log.warn("Unable to handle batched message on {}", batch.subject(), e);
+                }
+            }
+        }
+    }
+
+    // Message awaiting to be sent as part of a batch.
+    private static final class PendingMessage {
+        private final byte[] payload;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingMessage(byte[] payload) {
+            this.payload = payload;
+        }
+    }
+
+    // Gathers the messages sent on a subject into batches for each node.
+    private final class MessageBatcher {
+        private final MessageSubject subject;
+        private final int maxMessages;
+        private final int maxMillis;
+        private final Map<NodeId, MessageAccumulator> accumulators = Maps.newConcurrentMap();
+
+        private MessageBatcher(MessageSubject subject, int maxMessages, int maxMillis) {
+            this.subject = subject;
+            this.maxMessages = maxMessages;
+            this.maxMillis = maxMillis;
+        }
+
+        private CompletableFuture<Void> add(NodeId toNodeId, byte[] payload) {
+            checkArgument(clusterService.getNode(toNodeId) != null, "Unknown nodeId: %s", toNodeId);
+            PendingMessage message = new PendingMessage(payload);
+            accumulators.computeIfAbsent(toNodeId, MessageAccumulator::new).add(message);
+            return message.future;
+        }
+
+        private final class MessageAccumulator extends AbstractAccumulator<PendingMessage> {
+            private final NodeId nodeId;
+
+            private MessageAccumulator(NodeId nodeId) {
+                super(SharedExecutors.getTimer(), maxMessages, maxMillis, maxMillis);
+                this.nodeId = nodeId;
+            }
+
+            @Override
+            public void processItems(List<PendingMessage> messages) {
+                subjectMeteringAgent.recordValue(subject.toString() + BATCH_SIZE_SUFFIX, messages.size());
+                MeteringAgent.Context context = subjectMeteringAgent.startTimer(subject.toString() + FLUSH_SUFFIX);
+                CompletableFuture<Void> future;
+                try {
+                    ControllerNode node = clusterService.getNode(nodeId);
+                    checkArgument(node != null, "Unknown nodeId: %s", nodeId);
+                    byte[] frame = new ClusterMessage(localNodeId, subject, encodeBatch(messages)).getBytes();
+                    future = messagingService.sendAsync(new Endpoint(node.ip(), node.tcpPort()),
+                                                        batchType(subject), frame);
+                } catch (Exception e) {
+                    future = Tools.exceptionalFuture(e);
+                }
+                future.whenComplete((r, e) -> {
+                    context.stop(e);
+                    messages.forEach(message -> {
+                        if (e == null) {
+                            message.future.complete(null);
+                        } else {
+                            message.future.completeExceptionally(e);
+                        }
+                    });
+                });
+            }
         }
     }
 }
@@ -19,6 +19,7 @@ import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Striped;
 import org.apache.commons.lang3.RandomUtils;
 import org.onlab.packet.ChassisId;
 import org.onlab.util.KryoNamespace;
@@ -29,6 +30,7 @@ import org.onosproject.mastership.MastershipService;
 import org.onosproject.mastership.MastershipTermService;
 import org.onosproject.net.Annotations;
 import org.onosproject.net.AnnotationsUtil;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultAnnotations;
 import org.onosproject.net.DefaultDevice;
 import org.onosproject.net.DefaultPort;
@@ -38,7 +40,6 @@ import org.onosproject.net.DeviceId;
 import org.onosproject.net.MastershipRole;
 import org.onosproject.net.Port;
 import org.onosproject.net.PortNumber;
-import org.onosproject.net.device.DefaultPortStatistics;
 import org.onosproject.net.device.DeviceClockService;
 import org.onosproject.net.device.DeviceDescription;
 import org.onosproject.net.device.DeviceEvent;
@@ -70,6 +71,7 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -87,7 +89,9 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -111,6 +115,7 @@ import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.PORT_STATUS_UPDATE;
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.PORT_UPDATE;
 import static org.onosproject.store.service.EventuallyConsistentMapEvent.Type.PUT;
+import static org.onosproject.store.service.EventuallyConsistentMapEvent.Type.REMOVE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -127,6 +132,10 @@ public class GossipDeviceStore
     private static final String DEVICE_NOT_FOUND = "Device with ID %s not found";
     // Timeout in milliseconds to process device or ports on remote master node
     private static final int REMOTE_MASTER_TIMEOUT = 1000;
+    // Number of locks among which updates of devices are spread
+    private static final int DEVICE_LOCK_STRIPES = 256;
+    // Number of statistics samples retained for each port
+    private static final int PORT_STATS_HISTORY_SIZE = 64;
 
     // innerMap is used to lock a Device, thus instance should never be replaced.
     // collection of Description given from various providers
@@ -137,14 +146,24 @@ public class GossipDeviceStore
     private final ConcurrentMap<DeviceId, Device> devices = Maps.newConcurrentMap();
     private final ConcurrentMap<DeviceId, ConcurrentMap<PortNumber, Port>> devicePorts = Maps.newConcurrentMap();
 
-    private EventuallyConsistentMap<DeviceId, Map<PortNumber, PortStatistics>> devicePortStats;
-    private EventuallyConsistentMap<DeviceId, Map<PortNumber, PortStatistics>> devicePortDeltaStats;
-    private final EventuallyConsistentMapListener<DeviceId, Map<PortNumber, PortStatistics>>
+    // latest statistics of each port, replicated only when they changed
+    private EventuallyConsistentMap<ConnectPoint, PortStatistics> portStats;
+    private final EventuallyConsistentMapListener<ConnectPoint, PortStatistics>
             portStatsListener = new InternalPortStatsListener();
 
+    // local history of the statistics of each port, fed by both local and replicated samples
+    private final ConcurrentMap<DeviceId, ConcurrentMap<PortNumber, PortStatisticsHistory>>
+            portStatsHistories = Maps.newConcurrentMap();
+    // devices with replicated statistics yet to be notified
+    private final Set<DeviceId> pendingPortStats = Sets.newConcurrentHashSet();
+
     // to be updated under Device lock
-    private final Map<DeviceId, Timestamp> offline = Maps.newHashMap();
-    private final Map<DeviceId, Timestamp> removalRequest = Maps.newHashMap();
+    private final Map<DeviceId, Timestamp> offline = Maps.newConcurrentMap();
+    private final Map<DeviceId, Timestamp> removalRequest = Maps.newConcurrentMap();
+
+    // serializes updates of each device requested locally, along with
+    // the notification of peers and delegate about their outcome
+    private final Striped<Lock> deviceLocks = Striped.lock(DEVICE_LOCK_STRIPES);
 
     // available(=UP) devices
     private final Set<DeviceId> availableDevices = Sets.newConcurrentHashSet();
@@ -215,22 +234,14 @@ public class GossipDeviceStore
                 .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
                 .register(MultiValuedTimestamp.class);
 
-        devicePortStats = storageService.<DeviceId, Map<PortNumber, PortStatistics>>eventuallyConsistentMapBuilder()
-                .withName("port-stats")
-                .withSerializer(deviceDataSerializer)
-                .withAntiEntropyPeriod(5, TimeUnit.SECONDS)
-                .withTimestampProvider((k, v) -> new WallClockTimestamp())
-                .withTombstonesDisabled()
-                .build();
-        devicePortDeltaStats = storageService.<DeviceId, Map<PortNumber, PortStatistics>>
-                eventuallyConsistentMapBuilder()
-                .withName("port-stats-delta")
+        portStats = storageService.<ConnectPoint, PortStatistics>eventuallyConsistentMapBuilder()
+                .withName("port-stats-samples")
                 .withSerializer(deviceDataSerializer)
                 .withAntiEntropyPeriod(5, TimeUnit.SECONDS)
                 .withTimestampProvider((k, v) -> new WallClockTimestamp())
                 .withTombstonesDisabled()
                 .build();
-        devicePortStats.addListener(portStatsListener);
+        portStats.addListener(portStatsListener);
         log.info("Started");
     }
 
@@ -240,9 +251,8 @@ public class GossipDeviceStore
 
     @Deactivate
     public void deactivate() {
-        devicePortStats.removeListener(portStatsListener);
-        devicePortStats.destroy();
-        devicePortDeltaStats.destroy();
+        portStats.removeListener(portStatsListener);
+        portStats.destroy();
         executor.shutdownNow();
 
         backgroundExecutor.shutdownNow();
@@ -295,10 +305,26 @@ public class GossipDeviceStore
         return devices.get(deviceId);
     }
 
+    // Runs the given task while holding the lock of the device.
+    private <T> T withDeviceLock(DeviceId deviceId, Supplier<T> task) {
+        Lock lock = deviceLocks.get(deviceId);
+        lock.lock();
+        try {
+            return task.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
-    public synchronized DeviceEvent createOrUpdateDevice(ProviderId providerId,
-                                                         DeviceId deviceId,
-                                                         DeviceDescription deviceDescription) {
+    public DeviceEvent createOrUpdateDevice(ProviderId providerId,
+                                            DeviceId deviceId,
+                                            DeviceDescription deviceDescription) {
+        return withDeviceLock(deviceId, () -> createOrUpdateDeviceLocked(providerId, deviceId, deviceDescription));
+    }
+
+    private DeviceEvent createOrUpdateDeviceLocked(ProviderId providerId, DeviceId deviceId,
+                                                   DeviceDescription deviceDescription) {
         NodeId localNode = clusterService.getLocalNode().id();
         NodeId deviceNode = mastershipService.getMasterFor(deviceId);
         boolean isMaster = localNode.equals(deviceNode);
@@ -561,9 +587,14 @@ public class GossipDeviceStore
     }
 
     @Override
-    public synchronized List<DeviceEvent> updatePorts(ProviderId providerId,
-                                                      DeviceId deviceId,
-                                                      List<PortDescription> portDescriptions) {
+    public List<DeviceEvent> updatePorts(ProviderId providerId,
+                                         DeviceId deviceId,
+                                         List<PortDescription> portDescriptions) {
+        return withDeviceLock(deviceId, () -> updatePortsLocked(providerId, deviceId, portDescriptions));
+    }
+
+    private List<DeviceEvent> updatePortsLocked(ProviderId providerId, DeviceId deviceId,
+                                                List<PortDescription> portDescriptions) {
 
         NodeId localNode = clusterService.getLocalNode().id();
         // TODO: It might be negligible, but this will have negative impact to topology discovery performance,
@@ -729,6 +760,7 @@ public class GossipDeviceStore
 
         log.info("Deleted port: " + deviceId.toString() + "/" + portNumber.toString());
         Port deletedPort = devicePorts.get(deviceId).remove(portNumber);
+        purgePortStatistics(deviceId, portNumber);
 
         descsMap.computeIfPresent(providerId, (provider, deviceDescriptions) -> {
             deviceDescriptions.removePortDesc(portNumber);
@@ -751,6 +783,7 @@ public class GossipDeviceStore
             if (!processed.contains(portNumber)) {
                 events.add(new DeviceEvent(PORT_REMOVED, device, e.getValue()));
                 iterator.remove();
+                purgePortStatistics(device.id(), portNumber);
             }
         }
         return events;
@@ -792,9 +825,14 @@ public class GossipDeviceStore
     }
 
     @Override
-    public synchronized DeviceEvent updatePortStatus(ProviderId providerId,
-                                                     DeviceId deviceId,
-                                                     PortDescription portDescription) {
+    public DeviceEvent updatePortStatus(ProviderId providerId,
+                                        DeviceId deviceId,
+                                        PortDescription portDescription) {
+        return withDeviceLock(deviceId, () -> updatePortStatusLocked(providerId, deviceId, portDescription));
+    }
+
+    private DeviceEvent updatePortStatusLocked(ProviderId providerId, DeviceId deviceId,
+                                               PortDescription portDescription) {
         final Timestamp newTimestamp;
         try {
             newTimestamp = deviceClockService.getTimestamp(deviceId);
@@ -908,106 +946,91 @@ public class GossipDeviceStore
     @Override
     public DeviceEvent updatePortStatistics(ProviderId providerId, DeviceId deviceId,
                                             Collection<PortStatistics> newStatsCollection) {
-
-        Map<PortNumber, PortStatistics> prvStatsMap = devicePortStats.get(deviceId);
-        Map<PortNumber, PortStatistics> newStatsMap = Maps.newHashMap();
-        Map<PortNumber, PortStatistics> deltaStatsMap = Maps.newHashMap();
-
-        if (prvStatsMap != null) {
-            for (PortStatistics newStats : newStatsCollection) {
-                PortNumber port = newStats.portNumber();
-                PortStatistics prvStats = prvStatsMap.get(port);
-                DefaultPortStatistics.Builder builder = DefaultPortStatistics.builder();
-                PortStatistics deltaStats = builder.build();
-                if (prvStats != null) {
-                    deltaStats = calcDeltaStats(deviceId, prvStats, newStats);
-                }
-                deltaStatsMap.put(port, deltaStats);
-                newStatsMap.put(port, newStats);
-            }
-        } else {
-            for (PortStatistics newStats : newStatsCollection) {
-                PortNumber port = newStats.portNumber();
-                newStatsMap.put(port, newStats);
+        long now = System.currentTimeMillis();
+        Map<ConnectPoint, PortStatistics> changedStats = Maps.newHashMap();
+        for (PortStatistics newStats : newStatsCollection) {
+            PortStatisticsHistory history = portStatsHistory(deviceId, newStats.portNumber());
+            // samples of idle ports are kept locally but not replicated,
+            // as replicas derive the same deltas from the earlier ones
+            if (history.record(now, newStats) && !history.isIdle()) {
+                changedStats.put(new ConnectPoint(deviceId, newStats.portNumber()), newStats);
             }
         }
-        devicePortDeltaStats.put(deviceId, deltaStatsMap);
-        devicePortStats.put(deviceId, newStatsMap);
-        // DeviceEvent returns null because of InternalPortStatsListener usage
-        return null;
+        if (!changedStats.isEmpty()) {
+            portStats.putAll(changedStats);
+        }
+        Device device = devices.get(deviceId);
+        return device == null ? null : new DeviceEvent(PORT_STATS_UPDATED, device);
     }
 
-    /**
-     * Calculate delta statistics by subtracting previous from new statistics.
-     *
-     * @param deviceId device identifier
-     * @param prvStats previous port statistics
-     * @param newStats new port statistics
-     * @return PortStatistics
-     */
-    public PortStatistics calcDeltaStats(DeviceId deviceId, PortStatistics prvStats, PortStatistics newStats) {
-        // calculate time difference
-        long deltaStatsSec, deltaStatsNano;
-        if (newStats.durationNano() < prvStats.durationNano()) {
-            deltaStatsNano = newStats.durationNano() - prvStats.durationNano() + TimeUnit.SECONDS.toNanos(1);
-            deltaStatsSec = newStats.durationSec() - prvStats.durationSec() - 1L;
-        } else {
-            deltaStatsNano = newStats.durationNano() - prvStats.durationNano();
-            deltaStatsSec = newStats.durationSec() - prvStats.durationSec();
-        }
-        DefaultPortStatistics.Builder builder = DefaultPortStatistics.builder();
-        DefaultPortStatistics deltaStats = builder.setDeviceId(deviceId)
-                .setPort(newStats.portNumber())
-                .setPacketsReceived(newStats.packetsReceived() - prvStats.packetsReceived())
-                .setPacketsSent(newStats.packetsSent() - prvStats.packetsSent())
-                .setBytesReceived(newStats.bytesReceived() - prvStats.bytesReceived())
-                .setBytesSent(newStats.bytesSent() - prvStats.bytesSent())
-                .setPacketsRxDropped(newStats.packetsRxDropped() - prvStats.packetsRxDropped())
-                .setPacketsTxDropped(newStats.packetsTxDropped() - prvStats.packetsTxDropped())
-                .setPacketsRxErrors(newStats.packetsRxErrors() - prvStats.packetsRxErrors())
-                .setPacketsTxErrors(newStats.packetsTxErrors() - prvStats.packetsTxErrors())
-                .setDurationSec(deltaStatsSec)
-                .setDurationNano(deltaStatsNano)
-                .build();
-        return deltaStats;
+    private PortStatisticsHistory portStatsHistory(DeviceId deviceId, PortNumber portNumber) {
+        return portStatsHistories.computeIfAbsent(deviceId, k -> Maps.newConcurrentMap())
+                .computeIfAbsent(portNumber, k -> new PortStatisticsHistory(PORT_STATS_HISTORY_SIZE));
+    }
+
+    // Forgets the statistics of all ports of a removed device
+    private void purgePortStatistics(DeviceId deviceId) {
+        Map<PortNumber, PortStatisticsHistory> histories = portStatsHistories.remove(deviceId);
+        if (histories != null) {
+            histories.keySet().forEach(portNumber -> portStats.remove(new ConnectPoint(deviceId, portNumber)));
+        }
+    }
+
+    // Forgets the statistics of a removed port
+    private void purgePortStatistics(DeviceId deviceId, PortNumber portNumber) {
+        Map<PortNumber, PortStatisticsHistory> histories = portStatsHistories.get(deviceId);
+        if (histories != null && histories.remove(portNumber) != null) {
+            portStats.remove(new ConnectPoint(deviceId, portNumber));
+        }
     }
 
     @Override
     public List<PortStatistics> getPortStatistics(DeviceId deviceId) {
-        Map<PortNumber, PortStatistics> portStats = devicePortStats.get(deviceId);
-        if (portStats == null) {
+        Map<PortNumber, PortStatisticsHistory> histories = portStatsHistories.get(deviceId);
+        if (histories == null) {
             return Collections.emptyList();
         }
-        return ImmutableList.copyOf(portStats.values());
+        return histories.values().stream()
+                .map(PortStatisticsHistory::latest)
+                .filter(Objects::nonNull)
+                .collect(ImmutableList.toImmutableList());
     }
 
     @Override
     public PortStatistics getStatisticsForPort(DeviceId deviceId, PortNumber portNumber) {
-        Map<PortNumber, PortStatistics> portStatsMap = devicePortStats.get(deviceId);
-        if (portStatsMap == null) {
-            return null;
-        }
-        PortStatistics portStats = portStatsMap.get(portNumber);
-        return portStats;
+        PortStatisticsHistory history = getPortStatsHistory(deviceId, portNumber);
+        return history == null ? null : history.latest();
     }
 
     @Override
     public List<PortStatistics> getPortDeltaStatistics(DeviceId deviceId) {
-        Map<PortNumber, PortStatistics> portStats = devicePortDeltaStats.get(deviceId);
-        if (portStats == null) {
+        Map<PortNumber, PortStatisticsHistory> histories = portStatsHistories.get(deviceId);
+        if (histories == null) {
             return Collections.emptyList();
         }
-        return ImmutableList.copyOf(portStats.values());
+        return histories.entrySet().stream()
+                .map(e -> e.getValue().delta(deviceId, e.getKey()))
+                .filter(Objects::nonNull)
+                .collect(ImmutableList.toImmutableList());
     }
 
     @Override
     public PortStatistics getDeltaStatisticsForPort(DeviceId deviceId, PortNumber portNumber) {
-        Map<PortNumber, PortStatistics> portStatsMap = devicePortDeltaStats.get(deviceId);
-        if (portStatsMap == null) {
-            return null;
-        }
-        PortStatistics portStats = portStatsMap.get(portNumber);
-        return portStats;
+        PortStatisticsHistory history = getPortStatsHistory(deviceId, portNumber);
+        return history == null ? null : history.delta(deviceId, portNumber);
+    }
+
+    @Override
+    public PortStatistics getDeltaStatisticsForPort(DeviceId deviceId, PortNumber portNumber,
+                                                    Duration window) {
+        PortStatisticsHistory history = getPortStatsHistory(deviceId, portNumber);
+        return history == null ? null :
+                history.delta(deviceId, portNumber, System.currentTimeMillis(), window.toMillis());
+    }
+
+    private PortStatisticsHistory getPortStatsHistory(DeviceId deviceId, PortNumber portNumber) {
+        Map<PortNumber, PortStatisticsHistory> histories = portStatsHistories.get(deviceId);
+        return histories == null ? null : histories.get(portNumber);
     }
 
     @Override
@@ -1042,7 +1065,11 @@ public class GossipDeviceStore
     }
 
     @Override
-    public synchronized DeviceEvent removeDevice(DeviceId deviceId) {
+    public DeviceEvent removeDevice(DeviceId deviceId) {
+        return withDeviceLock(deviceId, () -> removeDeviceLocked(deviceId));
+    }
+
+    private DeviceEvent removeDeviceLocked(DeviceId deviceId) {
         final NodeId myId = clusterService.getLocalNode().id();
         NodeId master = mastershipService.getMasterFor(deviceId);
 
@@ -1128,6 +1155,7 @@ public class GossipDeviceStore
             if (ports != null) {
                 ports.clear();
             }
+            purgePortStatistics(deviceId);
             markOfflineInternal(deviceId, timestamp);
             descs.clear();
             // Forget about the device
@@ -1679,14 +1707,29 @@ public class GossipDeviceStore
     }
 
     private class InternalPortStatsListener
-            implements EventuallyConsistentMapListener<DeviceId, Map<PortNumber, PortStatistics>> {
+            implements EventuallyConsistentMapListener<ConnectPoint, PortStatistics> {
         @Override
-        public void event(EventuallyConsistentMapEvent<DeviceId, Map<PortNumber, PortStatistics>> event) {
-            if (event.type() == PUT) {
-                Device device = devices.get(event.key());
-                if (device != null) {
-                    notifyDelegate(new DeviceEvent(PORT_STATS_UPDATED, device));
+        public void event(EventuallyConsistentMapEvent<ConnectPoint, PortStatistics> event) {
+            DeviceId deviceId = event.key().deviceId();
+            if (event.type() == REMOVE) {
+                Map<PortNumber, PortStatisticsHistory> histories = portStatsHistories.get(deviceId);
+                if (histories != null) {
+                    histories.remove(event.key().port());
                 }
+                return;
+            }
+            // local samples were recorded already and are hence ignored here
+            if (portStatsHistory(deviceId, event.key().port())
+                    .record(System.currentTimeMillis(), event.value()) &&
+                    pendingPortStats.add(deviceId)) {
+                // coalesces the updates of the ports of a device replicated together
+                executor.execute(() -> {
+                    pendingPortStats.remove(deviceId);
+                    Device device = devices.get(deviceId);
+                    if (device != null) {
+                        notifyDelegate(new DeviceEvent(PORT_STATS_UPDATED, device));
+                    }
+                });
             }
         }
     }
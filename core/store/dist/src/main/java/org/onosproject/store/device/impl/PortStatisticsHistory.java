@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.device.impl;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DefaultPortStatistics;
+import org.onosproject.net.device.PortStatistics;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Fixed-size history of the statistics samples of a single port.
+ * <p>
+ * Samples are kept in a ring of primitive values, the oldest sample being
+ * overwritten once the history is full. The ring starts small and grows up
+ * to the capacity of the history as samples are recorded, since idle ports
+ * record only a few samples. Counters are assumed to hold their
+ * value between samples, which allows samples with unchanged counters to be
+ * omitted without affecting the deltas computed over time windows.
+ * </p>
+ */
+final class PortStatisticsHistory {
+
+    // Positions of the sample fields, laid out consecutively in the ring
+    private static final int TIME = 0;
+    private static final int PACKETS_RECEIVED = 1;
+    private static final int PACKETS_SENT = 2;
+    private static final int BYTES_RECEIVED = 3;
+    private static final int BYTES_SENT = 4;
+    private static final int PACKETS_RX_DROPPED = 5;
+    private static final int PACKETS_TX_DROPPED = 6;
+    private static final int PACKETS_RX_ERRORS = 7;
+    private static final int PACKETS_TX_ERRORS = 8;
+    private static final int DURATION_SEC = 9;
+    private static final int DURATION_NANO = 10;
+    private static final int FIELDS = 11;
+    private static final int INITIAL_RING_SIZE = 4;
+
+    private long[] ring;
+    private final int capacity;
+    private int next;
+    private int size;
+    private PortStatistics latest;
+
+    /**
+     * Creates a history retaining the specified number of samples.
+     *
+     * @param capacity maximum number of samples
+     */
+    PortStatisticsHistory(int capacity) {
+        checkArgument(capacity > 1, "Capacity must be greater than 1");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records the specified sample, unless it is identical to the latest one.
+     *
+     * @param time  time of the sample in millis since the epoch
+     * @param stats port statistics sample
+     * @return true if the sample was recorded
+     */
+    synchronized boolean record(long time, PortStatistics stats) {
+        if (size > 0 && sameCounters(slot(0), stats) &&
+                ring[slot(0) + DURATION_SEC] == stats.durationSec() &&
+                ring[slot(0) + DURATION_NANO] == stats.durationNano()) {
+            return false;
+        }
+        if (size == ringSize()) {
+            grow();
+        }
+        int base = next * FIELDS;
+        ring[base + TIME] = time;
+        ring[base + PACKETS_RECEIVED] = stats.packetsReceived();
+        ring[base + PACKETS_SENT] = stats.packetsSent();
+        ring[base + BYTES_RECEIVED] = stats.bytesReceived();
+        ring[base + BYTES_SENT] = stats.bytesSent();
+        ring[base + PACKETS_RX_DROPPED] = stats.packetsRxDropped();
+        ring[base + PACKETS_TX_DROPPED] = stats.packetsTxDropped();
+        ring[base + PACKETS_RX_ERRORS] = stats.packetsRxErrors();
+        ring[base + PACKETS_TX_ERRORS] = stats.packetsTxErrors();
+        ring[base + DURATION_SEC] = stats.durationSec();
+        ring[base + DURATION_NANO] = stats.durationNano();
+        next = (next + 1) % ringSize();
+        size = Math.min(size + 1, ringSize());
+        latest = stats;
+        return true;
+    }
+
+    /**
+     * Indicates whether the counters have not changed across the latest three
+     * samples, in which case the latest sample adds nothing to the deltas
+     * observed by replicas that already hold the previous two.
+     *
+     * @return true if the port is idle
+     */
+    synchronized boolean isIdle() {
+        return size > 2 && sameCounters(slot(0), slot(1)) && sameCounters(slot(1), slot(2));
+    }
+
+    /**
+     * Returns the latest recorded sample.
+     *
+     * @return port statistics; null if no samples were recorded
+     */
+    synchronized PortStatistics latest() {
+        return latest;
+    }
+
+    /**
+     * Returns the difference between the latest two samples.
+     *
+     * @param deviceId   device identifier
+     * @param portNumber port number
+     * @return delta port statistics; null if fewer than two samples were recorded
+     */
+    synchronized PortStatistics delta(DeviceId deviceId, PortNumber portNumber) {
+        if (size < 2) {
+            return null;
+        }
+        int end = slot(0);
+        int start = slot(1);
+        long nanos = TimeUnit.SECONDS.toNanos(ring[end + DURATION_SEC] - ring[start + DURATION_SEC]) +
+                ring[end + DURATION_NANO] - ring[start + DURATION_NANO];
+        return delta(deviceId, portNumber, start, end, nanos);
+    }
+
+    /**
+     * Returns the difference between the latest sample and the latest sample
+     * taken at or before the start of the time window ending at the specified
+     * time, or the oldest sample if the history does not reach back that far.
+     * The returned duration is the time elapsed between the two samples.
+     *
+     * @param deviceId   device identifier
+     * @param portNumber port number
+     * @param now        end of the window in millis since the epoch
+     * @param window     length of the window in millis
+     * @return delta port statistics; null if no samples were recorded
+     */
+    synchronized PortStatistics delta(DeviceId deviceId, PortNumber portNumber,
+                                      long now, long window) {
+        if (size == 0) {
+            return null;
+        }
+        long from = now - window;
+        int end = slot(0);
+        int start = slot(size - 1);
+        for (int age = 0; age < size; age++) {
+            if (ring[slot(age) + TIME] <= from) {
+                start = slot(age);
+                break;
+            }
+        }
+        long covered = ring[end + TIME] - ring[start + TIME];
+        return delta(deviceId, portNumber, start, end,
+                     TimeUnit.MILLISECONDS.toNanos(Math.max(covered, 0)));
+    }
+
+    private int ringSize() {
+        return ring == null ? 0 : ring.length / FIELDS;
+    }
+
+    // Grows the ring, unless at capacity, laying out the samples oldest first.
+    private void grow() {
+        int ringSize = ringSize();
+        if (ringSize == capacity) {
+            return;
+        }
+        long[] grown = new long[Math.min(Math.max(ringSize * 2, INITIAL_RING_SIZE), capacity) * FIELDS];
+        for (int age = size - 1; age >= 0; age--) {
+            System.arraycopy(ring, slot(age), grown, (size - 1 - age) * FIELDS, FIELDS);
+        }
+        ring = grown;
+        next = size;
+    }
+
+    // Returns the ring position of the sample of the given age, 0 being the latest.
+    private int slot(int age) {
+        int ringSize = ringSize();
+        return ((next - 1 - age + ringSize) % ringSize) * FIELDS;
+    }
+
+    private boolean sameCounters(int a, int b) {
+        for (int field = PACKETS_RECEIVED; field <= PACKETS_TX_ERRORS; field++) {
+            if (ring[a + field] != ring[b + field]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameCounters(int a, PortStatistics stats) {
+        return ring[a + PACKETS_RECEIVED] == stats.packetsReceived() &&
+                ring[a + PACKETS_SENT] == stats.packetsSent() &&
+                ring[a + BYTES_RECEIVED] == stats.bytesReceived() &&
+                ring[a + BYTES_SENT] == stats.bytesSent() &&
+                ring[a + PACKETS_RX_DROPPED] == stats.packetsRxDropped() &&
+                ring[a + PACKETS_TX_DROPPED] == stats.packetsTxDropped() &&
+                ring[a + PACKETS_RX_ERRORS] == stats.packetsRxErrors() &&
+                ring[a + PACKETS_TX_ERRORS] == stats.packetsTxErrors();
+    }
+
+    private PortStatistics delta(DeviceId deviceId, PortNumber portNumber,
+                                 int start, int end, long nanos) {
+        return DefaultPortStatistics.builder()
+                .setDeviceId(deviceId)
+                .setPort(portNumber)
+                .setPacketsReceived(ring[end + PACKETS_RECEIVED] - ring[start + PACKETS_RECEIVED])
+                .setPacketsSent(ring[end + PACKETS_SENT] - ring[start + PACKETS_SENT])
+                .setBytesReceived(ring[end + BYTES_RECEIVED] - ring[start + BYTES_RECEIVED])
+                .setBytesSent(ring[end + BYTES_SENT] - ring[start + BYTES_SENT])
+                .setPacketsRxDropped(ring[end + PACKETS_RX_DROPPED] - ring[start + PACKETS_RX_DROPPED])
+                .setPacketsTxDropped(ring[end + PACKETS_TX_DROPPED] - ring[start + PACKETS_TX_DROPPED])
+                .setPacketsRxErrors(ring[end + PACKETS_RX_ERRORS] - ring[start + PACKETS_RX_ERRORS])
+                .setPacketsTxErrors(ring[end + PACKETS_TX_ERRORS] - ring[start + PACKETS_TX_ERRORS])
+                .setDurationSec(TimeUnit.NANOSECONDS.toSeconds(nanos))
+                .setDurationNano(nanos % TimeUnit.SECONDS.toNanos(1))
+                .build();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return toStringHelper(this)
+                .add("capacity", capacity)
+                .add("size", size)
+                .toString();
+    }
+}
@@ -16,11 +16,13 @@
 package org.onosproject.store.flow.impl;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -28,6 +30,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -73,6 +76,7 @@ public class DeviceFlowTable {
         .register(BucketId.class)
         .register(FlowBucket.class)
         .register(FlowBucketDigest.class)
+        .register(FlowBucketDelta.class)
         .register(LogicalTimestamp.class)
         .register(Timestamped.class)
         .build());
@@ -83,6 +87,7 @@ public class DeviceFlowTable {
     private final MessageSubject getDigestsSubject;
     private final MessageSubject getBucketSubject;
     private final MessageSubject backupSubject;
+    private final MessageSubject deltaBackupSubject;
     private final MessageSubject getFlowsSubject;
 
     private final DeviceId deviceId;
@@ -143,6 +148,7 @@ public class DeviceFlowTable {
         getDigestsSubject = new MessageSubject(String.format("flow-store-%s-digests", deviceId));
         getBucketSubject = new MessageSubject(String.format("flow-store-%s-bucket", deviceId));
         backupSubject = new MessageSubject(String.format("flow-store-%s-backup", deviceId));
+        deltaBackupSubject = new MessageSubject(String.format("flow-store-%s-backup-delta", deviceId));
         getFlowsSubject = new MessageSubject(String.format("flow-store-%s-flows", deviceId));
 
         addListeners();
@@ -362,6 +368,36 @@ public class DeviceFlowTable {
         return runInTerm(rule.id(), (bucket, term) -> bucket.update(rule, function, term, clock));
     }
 
+    /**
+     * Applies the given update function to each of the given rules, updating all rules of a bucket at once.
+     * <p>
+     * One future is returned per bucket so that the failure of a bucket does not discard the results
+     * of the others. Each future is completed with an entry for every rule of its bucket, whose value is
+     * empty if the rule was not found in the table.
+     *
+     * @param rules    the rules to update
+     * @param function the update function to apply to each rule and its stored entry
+     * @param <R>      the rule type
+     * @param <T>      the result type
+     * @return the futures to be completed with the update results of the rules of each bucket
+     */
+    public <R extends FlowRule, T> List<CompletableFuture<Map<R, Optional<T>>>> update(
+            Collection<R> rules, BiFunction<R, StoredFlowEntry, T> function) {
+        Map<FlowBucket, List<R>> bucketRules = Maps.newHashMap();
+        rules.forEach(rule -> bucketRules.computeIfAbsent(getBucket(rule.id()), b -> new ArrayList<>()).add(rule));
+        return bucketRules.entrySet()
+            .stream()
+            .map(entry -> runInTerm(entry.getKey(), (bucket, term) -> {
+                Map<R, Optional<T>> results = Maps.newHashMapWithExpectedSize(entry.getValue().size());
+                for (R rule : entry.getValue()) {
+                    T result = bucket.update(rule, stored -> function.apply(rule, stored), term, clock);
+                    results.put(rule, Optional.ofNullable(result));
+                }
+                return results;
+            }))
+            .collect(Collectors.toList());
+    }
+
     /**
      * Removes an entry from the table.
      *
@@ -381,13 +417,23 @@ public class DeviceFlowTable {
      * @return a future to be completed with the function result once it has been run
      */
     private <T> CompletableFuture<T> runInTerm(FlowId flowId, BiFunction<FlowBucket, Long, T> function) {
+        return runInTerm(getBucket(flowId), function);
+    }
+
+    /**
+     * Runs the given function on the given bucket in the current term.
+     *
+     * @param bucket   the bucket in which to run the function
+     * @param function the function to execute in the current term
+     * @param <T>      the future result type
+     * @return a future to be completed with the function result once it has been run
+     */
+    private <T> CompletableFuture<T> runInTerm(FlowBucket bucket, BiFunction<FlowBucket, Long, T> function) {
         DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
         if (!replicaInfo.isMaster(localNodeId)) {
             return Tools.exceptionalFuture(new IllegalStateException());
         }
 
-        FlowBucket bucket = getBucket(flowId);
-
         // If the master's term is not currently active (has not been synchronized with prior replicas), enqueue
         // the change to be executed once the master has been synchronized.
         final long term = replicaInfo.term();
@@ -461,6 +507,10 @@ public class DeviceFlowTable {
         // This ensures that the bucket has been synchronized prior to a new master replicating changes to backups.
         // Only replicate if the local node is the current master.
         if (bucket.term() == replicaInfo.term() && replicaInfo.isMaster(localNodeId)) {
+            // Without backups, no delta will ever be computed from the changes made so far.
+            if (replicaInfo.backups().isEmpty()) {
+                bucket.pruneChanges(bucket.timestamp());
+            }
             // Replicate the bucket to each of the backup nodes.
             CompletableFuture<?>[] futures = replicaInfo.backups()
                     .stream()
@@ -484,16 +534,19 @@ public class DeviceFlowTable {
 
         // If the backup can be run (no concurrent backup to the node in progress) then run it.
         BackupOperation operation = new BackupOperation(nodeId, bucket.bucketId().bucket());
+        LogicalTimestamp lastBackupTime = lastBackupTimes.get(operation);
         if (startBackup(operation, timestamp)) {
             CompletableFuture<Void> future = new CompletableFuture<>();
-            backup(bucket, nodeId).whenCompleteAsync((succeeded, error) -> {
+            backup(bucket, nodeId, lastBackupTime).whenCompleteAsync((succeeded, error) -> {
                 if (error != null) {
                     log.debug("Backup operation {} failed", operation, error);
                     failBackup(operation);
                 } else if (succeeded) {
                     succeedBackup(operation, timestamp);
                 } else {
-                    log.debug("Backup operation {} failed: term mismatch", operation);
+                    // The backup diverged from the master; force a full backup on the next attempt.
+                    log.debug("Backup operation {} rejected", operation);
+                    resetBackup(operation);
                     failBackup(operation);
                 }
                 future.complete(null);
@@ -541,6 +594,28 @@ public class DeviceFlowTable {
     private void succeedBackup(BackupOperation operation, LogicalTimestamp timestamp) {
         lastBackupTimes.put(operation, timestamp);
         inFlightUpdates.remove(operation);
+        pruneChanges(operation.bucket());
+    }
+
+    /**
+     * Discards the changes to the given bucket which have been replicated to all backups.
+     *
+     * @param bucketId the bucket for which to discard replicated changes
+     */
+    private void pruneChanges(int bucketId) {
+        LogicalTimestamp oldest = null;
+        for (NodeId nodeId : lifecycleManager.getReplicaInfo().backups()) {
+            LogicalTimestamp lastBackupTime = lastBackupTimes.get(new BackupOperation(nodeId, bucketId));
+            if (lastBackupTime == null) {
+                return;
+            }
+            if (oldest == null || lastBackupTime.isOlderThan(oldest)) {
+                oldest = lastBackupTime;
+            }
+        }
+        if (oldest != null) {
+            getBucket(bucketId).pruneChanges(oldest);
+        }
     }
 
     /**
@@ -554,16 +629,28 @@ public class DeviceFlowTable {
 
     /**
      * Performs the given backup operation.
+     * <p>
+     * If the node has acknowledged an earlier backup of the bucket, only the changes since that backup are
+     * sent. The whole bucket is sent if this is the first backup to the node or the changes are no longer known.
      *
      * @param bucket the bucket to backup
      * @param nodeId the node to which to backup the bucket
+     * @param lastBackupTime the timestamp of the last backup acknowledged by the node, if any
      * @return a future to be completed with a boolean indicating whether the backup operation was successful
      */
-    private CompletableFuture<Boolean> backup(FlowBucket bucket, NodeId nodeId) {
-        if (log.isDebugEnabled()) {
-            log.debug("Backing up {} flow entries in bucket {} to {}", bucket.count(), bucket.bucketId(), nodeId);
-        }
+    private CompletableFuture<Boolean> backup(FlowBucket bucket, NodeId nodeId, LogicalTimestamp lastBackupTime) {
         synchronized (bucket) {
+            FlowBucketDelta delta = lastBackupTime != null ? bucket.delta(lastBackupTime) : null;
+            if (delta != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Backing up {} changed flows in bucket {} to {}",
+                        delta.count(), bucket.bucketId(), nodeId);
+                }
+                return sendWithTimestamp(delta, deltaBackupSubject, nodeId);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Backing up {} flow entries in bucket {} to {}", bucket.count(), bucket.bucketId(), nodeId);
+            }
             return sendWithTimestamp(bucket, backupSubject, nodeId);
         }
     }
@@ -598,6 +685,42 @@ public class DeviceFlowTable {
         }
     }
 
+    /**
+     * Handles a flow bucket delta backup from a remote peer.
+     *
+     * @param delta the changes to back up
+     * @return indicates whether the changes were applied; if not, the master must back up the whole bucket
+     */
+    private boolean onBackupDelta(FlowBucketDelta delta) {
+        if (log.isDebugEnabled()) {
+            log.debug("{} - Received {} changed flows in bucket {} to backup",
+                deviceId, delta.count(), delta.bucketId());
+        }
+
+        try {
+            DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+
+            // If the backup is for a different term, reject the request until we learn about the new term.
+            if (delta.term() != replicaInfo.term()) {
+                log.debug("Term mismatch for device {}: {} != {}", deviceId, delta.term(), replicaInfo);
+                return false;
+            }
+
+            AtomicBoolean applied = new AtomicBoolean();
+            flowBuckets.computeIfPresent(delta.bucketId().bucket(), (id, bucket) -> {
+                applied.set(bucket.apply(delta));
+                return bucket;
+            });
+            if (!applied.get()) {
+                log.debug("Bucket {} diverged from the master, requesting full backup", delta.bucketId());
+            }
+            return applied.get();
+        } catch (Exception e) {
+            log.warn("Failure processing backup request", e);
+            return false;
+        }
+    }
+
     /**
      * Runs the anti-entropy protocol.
      */
@@ -911,6 +1034,7 @@ public class DeviceFlowTable {
         receiveWithTimestamp(getDigestsSubject, v -> getDigests());
         receiveWithTimestamp(getBucketSubject, this::onGetBucket);
         receiveWithTimestamp(backupSubject, this::onBackup);
+        receiveWithTimestamp(deltaBackupSubject, this::onBackupDelta);
         clusterCommunicator.<BucketId, Set<FlowEntry>>addSubscriber(
             getFlowsSubject, SERIALIZER::decode, this::getFlowEntries, SERIALIZER::encode);
     }
@@ -922,6 +1046,7 @@ public class DeviceFlowTable {
         clusterCommunicator.removeSubscriber(getDigestsSubject);
         clusterCommunicator.removeSubscriber(getBucketSubject);
         clusterCommunicator.removeSubscriber(backupSubject);
+        clusterCommunicator.removeSubscriber(deltaBackupSubject);
         clusterCommunicator.removeSubscriber(getFlowsSubject);
     }
 
@@ -15,6 +15,7 @@
 */
 package org.onosproject.store.flow.impl;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashSet;
@@ -22,18 +23,22 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -565,18 +570,7 @@ public class ECFlowRuleStore
     }
 
     private FlowRuleEvent addOrUpdateFlowRuleInternal(FlowEntry rule) {
-        FlowRuleEvent event = flowTable.update(rule, stored -> {
-            stored.setBytes(rule.bytes());
-            stored.setLife(rule.life(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
-            stored.setLiveType(rule.liveType());
-            stored.setPackets(rule.packets());
-            stored.setLastSeen();
-            if (stored.state() == FlowEntryState.PENDING_ADD) {
-                stored.setState(FlowEntryState.ADDED);
-                return new FlowRuleEvent(Type.RULE_ADDED, rule);
-            }
-            return new FlowRuleEvent(Type.RULE_UPDATED, rule);
-        });
+        FlowRuleEvent event = flowTable.update(rule, stored -> updateStoredFlowEntry(rule, stored));
         if (event != null) {
             return event;
         }
@@ -587,6 +581,49 @@ public class ECFlowRuleStore
         return null;
     }
 
+    @Override
+    public List<FlowRuleEvent> updateFlowStatistics(DeviceId deviceId, Collection<FlowEntry> rules) {
+        NodeId master = mastershipService.getMasterFor(deviceId);
+        if (!Objects.equals(local, master)) {
+            log.warn("Tried to update the statistics of FlowRules of {},"
+                + " while the Node was not the master.", deviceId);
+            return Collections.emptyList();
+        }
+
+        Map<FlowEntry, Optional<FlowRuleEvent>> results =
+            flowTable.update(deviceId, rules, this::updateStoredFlowEntry);
+        List<FlowRuleEvent> events = Lists.newArrayListWithCapacity(results.size());
+        for (FlowEntry rule : rules) {
+            Optional<FlowRuleEvent> result = results.get(rule);
+            if (result == null) {
+                // The update of the rule's bucket failed, fall back to updating the rule alone
+                FlowRuleEvent event = addOrUpdateFlowRuleInternal(rule);
+                if (event != null) {
+                    events.add(event);
+                }
+            } else if (result.isPresent()) {
+                events.add(result.get());
+            } else {
+                // As for single updates, entries missing from the store are added
+                flowTable.add(rule);
+            }
+        }
+        return events;
+    }
+
+    private FlowRuleEvent updateStoredFlowEntry(FlowEntry rule, StoredFlowEntry stored) {
+        stored.setBytes(rule.bytes());
+        stored.setLife(rule.life(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        stored.setLiveType(rule.liveType());
+        stored.setPackets(rule.packets());
+        stored.setLastSeen();
+        if (stored.state() == FlowEntryState.PENDING_ADD) {
+            stored.setState(FlowEntryState.ADDED);
+            return new FlowRuleEvent(Type.RULE_ADDED, rule);
+        }
+        return new FlowRuleEvent(Type.RULE_UPDATED, rule);
+    }
+
     @Override
     public FlowRuleEvent removeFlowRule(FlowEntry rule) {
         final DeviceId deviceId = rule.deviceId();
@@ -836,6 +873,30 @@ public class ECFlowRuleStore
                 null);
         }
 
+        /**
+         * Applies the given update function to each of the rules of a device.
+         *
+         * @param deviceId the device whose rules to update
+         * @param rules    the rules to update
+         * @param function the update function to apply
+         * @return the update results of the rules whose bucket was updated, empty if the rule was not found;
+         *     the rules of a bucket whose update failed or timed out are missing
+         */
+        public <R extends FlowRule, T> Map<R, Optional<T>> update(
+                DeviceId deviceId, Collection<R> rules, BiFunction<R, StoredFlowEntry, T> function) {
+            long deadline = System.currentTimeMillis() + FLOW_RULE_STORE_TIMEOUT_MILLIS;
+            Map<R, Optional<T>> results = Maps.newHashMapWithExpectedSize(rules.size());
+            List<CompletableFuture<Map<R, Optional<T>>>> bucketUpdates = getFlowTable(deviceId).update(rules, function);
+            for (CompletableFuture<Map<R, Optional<T>>> bucketResults : bucketUpdates) {
+                results.putAll(Tools.futureGetOrElse(
+                    bucketResults,
+                    Math.max(deadline - System.currentTimeMillis(), 0),
+                    TimeUnit.MILLISECONDS,
+                    Collections.emptyMap()));
+            }
+            return results;
+        }
+
         /**
          * Removes the given flow rule.
          *
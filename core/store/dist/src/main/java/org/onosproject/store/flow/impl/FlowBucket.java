@@ -16,11 +16,13 @@
 package org.onosproject.store.flow.impl;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowId;
@@ -34,15 +36,25 @@ import org.slf4j.LoggerFactory;
  * Container for a bucket of flows assigned to a specific device.
  * <p>
  * The bucket is mutable. When changes are made to the bucket, the term and timestamp in which the change
- * occurred is recorded for ordering changes.
+ * occurred is recorded for ordering changes. The timestamp of the last change to each flow is additionally
+ * kept in a local change log so that replicas can be brought up to date with a {@link FlowBucketDelta}
+ * rather than a copy of the whole bucket.
  */
 public class FlowBucket {
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowBucket.class);
+
+    // Minimum number of flows tracked by the change log before it is truncated
+    private static final int MIN_CHANGE_LOG_SIZE = 128;
+
     private final BucketId bucketId;
     private volatile long term;
     private volatile LogicalTimestamp timestamp;
     private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowBucket;
 
+    // The change log is local to each copy of the bucket and never replicated.
+    private transient volatile Map<FlowId, LogicalTimestamp> changes;
+    private transient volatile LogicalTimestamp changesSince;
+
     FlowBucket(BucketId bucketId) {
         this(bucketId, 0, new LogicalTimestamp(0), Maps.newConcurrentMap());
     }
@@ -142,12 +154,120 @@ public class FlowBucket {
                 .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue())));
     }
 
+    /**
+     * Returns the change log, creating it if this copy of the bucket does not have one yet.
+     * <p>
+     * A new change log is complete from the bucket's current timestamp onward.
+     *
+     * @return the change log
+     */
+    private Map<FlowId, LogicalTimestamp> changes() {
+        Map<FlowId, LogicalTimestamp> changes = this.changes;
+        if (changes == null) {
+            synchronized (this) {
+                changes = this.changes;
+                if (changes == null) {
+                    changesSince = timestamp;
+                    changes = Maps.newConcurrentMap();
+                    this.changes = changes;
+                }
+            }
+        }
+        return changes;
+    }
+
     /**
      * Records an update to the bucket.
+     * <p>
+     * The change log is truncated once it tracks more flows than the bucket holds, e.g. because a backup has
+     * not acknowledged a backup for a long time or the bucket has no backups. A delta would then be larger than
+     * the bucket itself, which is backed up whole instead.
      */
-    private void recordUpdate(long term, LogicalTimestamp timestamp) {
+    private void recordUpdate(FlowId flowId, long term, LogicalTimestamp timestamp) {
+        Map<FlowId, LogicalTimestamp> changes = changes();
+        changes.put(flowId, timestamp);
         this.term = term;
         this.timestamp = timestamp;
+        if (changes.size() > Math.max(flowBucket.size(), MIN_CHANGE_LOG_SIZE)) {
+            pruneChanges(timestamp);
+        }
+    }
+
+    /**
+     * Resets the change log, e.g. when the bucket contents are replaced wholesale.
+     */
+    private synchronized void resetChanges() {
+        changes = null;
+        changesSince = null;
+    }
+
+    /**
+     * Returns the changes made to the bucket since the given timestamp.
+     *
+     * @param since the timestamp since which to return changes
+     * @return the changes since the given timestamp or {@code null} if the change log does not go back that far
+     */
+    synchronized FlowBucketDelta delta(LogicalTimestamp since) {
+        Map<FlowId, LogicalTimestamp> changes = changes();
+        if (since.isOlderThan(changesSince)) {
+            return null;
+        }
+
+        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> updates = Maps.newHashMap();
+        Set<FlowId> removals = Sets.newHashSet();
+        changes.forEach((flowId, changed) -> {
+            if (changed.isNewerThan(since)) {
+                Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(flowId);
+                if (flowEntries != null && !flowEntries.isEmpty()) {
+                    updates.put(flowId, Maps.newHashMap(flowEntries));
+                } else {
+                    removals.add(flowId);
+                }
+            }
+        });
+        return new FlowBucketDelta(bucketId, term, since, timestamp, updates, removals);
+    }
+
+    /**
+     * Applies the given changes to the bucket.
+     * <p>
+     * The changes are only applied if the bucket is in the same term and has seen all changes up to the
+     * delta's base timestamp.
+     *
+     * @param delta the changes to apply
+     * @return indicates whether the changes were applied
+     */
+    synchronized boolean apply(FlowBucketDelta delta) {
+        if (delta.term() != term || timestamp.isOlderThan(delta.base())) {
+            return false;
+        }
+        delta.updates().forEach((flowId, flowEntries) -> {
+            Map<StoredFlowEntry, StoredFlowEntry> entries = Maps.newConcurrentMap();
+            entries.putAll(flowEntries);
+            flowBucket.put(flowId, entries);
+        });
+        delta.removals().forEach(flowBucket::remove);
+        if (delta.timestamp().isNewerThan(timestamp)) {
+            timestamp = delta.timestamp();
+        }
+        return true;
+    }
+
+    /**
+     * Discards change log entries at or before the given timestamp.
+     * <p>
+     * This should be called with the oldest timestamp acknowledged by all replicas of the bucket, after which
+     * deltas can no longer be computed from an earlier timestamp.
+     *
+     * @param before the timestamp up to which to discard changes
+     */
+    synchronized void pruneChanges(LogicalTimestamp before) {
+        Map<FlowId, LogicalTimestamp> changes = changes();
+        if (!before.isNewerThan(changesSince)) {
+            return;
+        }
+        changes.values().removeIf(changed -> !changed.isNewerThan(before));
+        changesSince = before;
     }
 
     /**
@@ -163,7 +283,7 @@ public class FlowBucket {
             flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> Maps.newConcurrentMap());
         }
         flowEntries.put((StoredFlowEntry) rule, (StoredFlowEntry) rule);
-        recordUpdate(term, clock.getTimestamp());
+        recordUpdate(rule.id(), term, clock.getTimestamp());
     }
 
     /**
@@ -184,7 +304,7 @@ public class FlowBucket {
                 if (stored instanceof DefaultFlowEntry) {
                     DefaultFlowEntry storedEntry = (DefaultFlowEntry) stored;
                     if (updated.created() >= storedEntry.created()) {
-                        recordUpdate(term, clock.getTimestamp());
+                        recordUpdate(rule.id(), term, clock.getTimestamp());
                         return updated;
                     } else {
                         LOGGER.debug("Trying to update more recent flow entry {} (stored: {})", updated, stored);
@@ -217,7 +337,7 @@ public class FlowBucket {
             if (stored != null) {
                 T result = function.apply(stored);
                 if (result != null) {
-                    recordUpdate(term, clock.getTimestamp());
+                    recordUpdate(rule.id(), term, clock.getTimestamp());
                     resultRef.set(result);
                 }
             }
@@ -256,7 +376,7 @@ public class FlowBucket {
         });
 
         if (removedRule.get() != null) {
-            recordUpdate(term, clock.getTimestamp());
+            recordUpdate(rule.id(), term, clock.getTimestamp());
             return removedRule.get();
         } else {
             return null;
@@ -268,6 +388,7 @@ public class FlowBucket {
      */
     public void purge() {
         flowBucket.clear();
+        resetChanges();
     }
 
     /**
@@ -277,5 +398,6 @@ public class FlowBucket {
         term = 0;
         timestamp = new LogicalTimestamp(0);
         flowBucket.clear();
+        resetChanges();
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.StoredFlowEntry;
+import org.onosproject.store.LogicalTimestamp;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Changes made to a flow bucket since a given logical timestamp.
+ * <p>
+ * A delta can only be applied to a replica of the bucket which is in the same term and has already seen all
+ * changes up to the delta's base timestamp.
+ */
+public class FlowBucketDelta {
+    private final BucketId bucketId;
+    private final long term;
+    private final LogicalTimestamp base;
+    private final LogicalTimestamp timestamp;
+    private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> updates;
+    private final Set<FlowId> removals;
+
+    FlowBucketDelta(
+        BucketId bucketId,
+        long term,
+        LogicalTimestamp base,
+        LogicalTimestamp timestamp,
+        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> updates,
+        Set<FlowId> removals) {
+        this.bucketId = bucketId;
+        this.term = term;
+        this.base = base;
+        this.timestamp = timestamp;
+        this.updates = updates;
+        this.removals = removals;
+    }
+
+    /**
+     * Returns the flow bucket identifier.
+     *
+     * @return the flow bucket identifier
+     */
+    public BucketId bucketId() {
+        return bucketId;
+    }
+
+    /**
+     * Returns the term in which the changes occurred.
+     *
+     * @return the flow bucket term
+     */
+    public long term() {
+        return term;
+    }
+
+    /**
+     * Returns the timestamp since which changes are included.
+     *
+     * @return the base timestamp
+     */
+    public LogicalTimestamp base() {
+        return base;
+    }
+
+    /**
+     * Returns the flow bucket timestamp once the changes are applied.
+     *
+     * @return the flow bucket timestamp
+     */
+    public LogicalTimestamp timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the current entries of all flows added or updated since the base timestamp.
+     *
+     * @return the updated flow entries
+     */
+    public Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> updates() {
+        return updates;
+    }
+
+    /**
+     * Returns the flows removed since the base timestamp.
+     *
+     * @return the removed flow identifiers
+     */
+    public Set<FlowId> removals() {
+        return removals;
+    }
+
+    /**
+     * Returns the number of changed flows in the delta.
+     *
+     * @return the number of changed flows
+     */
+    public int count() {
+        return updates.size() + removals.size();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+            .add("bucketId", bucketId)
+            .add("term", term)
+            .add("base", base)
+            .add("timestamp", timestamp)
+            .add("updates", updates.size())
+            .add("removals", removals.size())
+            .toString();
+    }
+}
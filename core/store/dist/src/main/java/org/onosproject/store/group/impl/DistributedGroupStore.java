@@ -17,13 +17,14 @@ package org.onosproject.store.group.impl;
 
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.core.GroupId;
+import org.onosproject.core.IdBlock;
+import org.onosproject.core.UnavailableIdException;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.MastershipRole;
@@ -47,6 +48,7 @@ import org.onosproject.net.group.StoredGroupEntry;
 import org.onosproject.store.AbstractStore;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.AtomicCounter;
 import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.DistributedPrimitive.Status;
 import org.onosproject.store.service.MapEvent;
@@ -84,7 +86,6 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -121,6 +122,9 @@ public class DistributedGroupStore
 
     private static final int MAX_FAILED_ATTEMPTS = 3;
 
+    // Number of group identifiers reserved at once by each instance
+    private static final long GROUP_ID_BLOCK_SIZE = 0x10000L;
+
     private final int dummyId = 0xffffffff;
     private final GroupId dummyGroupId = new GroupId(dummyId);
 
@@ -157,6 +161,10 @@ public class DistributedGroupStore
     // Per device group table with (device id + group id) as key
     private final ConcurrentMap<DeviceId, ConcurrentMap<GroupId, StoredGroupEntry>>
             groupEntriesById = new ConcurrentHashMap<>();
+    // Per device local view of the group key table with app cookie as key,
+    // kept up to date by the group key map listener
+    private final ConcurrentMap<DeviceId, ConcurrentMap<GroupKey, StoredGroupEntry>>
+            groupEntriesByKey = new ConcurrentHashMap<>();
     private ConsistentMap<GroupStoreKeyMapKey,
             StoredGroupEntry> auditPendingReqQueue = null;
     private MapEventListener<GroupStoreKeyMapKey, StoredGroupEntry>
@@ -168,7 +176,9 @@ public class DistributedGroupStore
 
     private final HashMap<DeviceId, Boolean> deviceAuditStatus = new HashMap<>();
 
-    private final AtomicInteger groupIdGen = new AtomicInteger();
+    // Cluster-wide counter from which blocks of group identifiers are reserved
+    private AtomicCounter groupIdBlocks;
+    private volatile IdBlock groupIdBlock;
 
     private KryoNamespace clusterMsgSerializer;
 
@@ -244,6 +254,8 @@ public class DistributedGroupStore
         log.debug("Current size of pendinggroupkeymap:{}",
                   auditPendingReqQueue.size());
 
+        groupIdBlocks = storageService.getAtomicCounter("onos-group-id-blocks");
+
         groupTopic = getOrCreateGroupTopic(serializer);
         groupTopic.subscribe(this::processGroupMessage);
 
@@ -295,6 +307,7 @@ public class DistributedGroupStore
         for (Entry<GroupStoreKeyMapKey, StoredGroupEntry> entry : groupStoreEntriesByKey.asJavaMap().entrySet()) {
             StoredGroupEntry group = entry.getValue();
             getGroupIdTable(entry.getKey().deviceId()).put(group.id(), group);
+            getGroupKeyTable(entry.getKey().deviceId()).put(group.appCookie(), group);
         }
     }
 
@@ -305,6 +318,7 @@ public class DistributedGroupStore
             StoredGroupEntry value = entry.getValue();
             ConcurrentMap<GroupId, StoredGroupEntry> groupIdTable = getGroupIdTable(value.deviceId());
             groupIdTable.put(value.id(), value);
+            getGroupKeyTable(value.deviceId()).put(value.appCookie(), value);
         }
     }
 
@@ -328,6 +342,16 @@ public class DistributedGroupStore
         return groupEntriesById.computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>());
     }
 
+    /**
+     * Returns the local view of the group key table for specified device.
+     *
+     * @param deviceId identifier of the device
+     * @return Map representing group key table of given device.
+     */
+    private ConcurrentMap<GroupKey, StoredGroupEntry> getGroupKeyTable(DeviceId deviceId) {
+        return groupEntriesByKey.computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>());
+    }
+
     /**
      * Returns the pending group request table.
      *
@@ -356,8 +380,7 @@ public class DistributedGroupStore
      */
     @Override
     public int getGroupCount(DeviceId deviceId) {
-        return (getGroups(deviceId) != null) ?
-                Iterables.size(getGroups(deviceId)) : 0;
+        return getStoredGroups(deviceId).size();
     }
 
     /**
@@ -372,18 +395,15 @@ public class DistributedGroupStore
         return ImmutableSet.copyOf(getStoredGroups(deviceId));
     }
 
-    private Iterable<StoredGroupEntry> getStoredGroups(DeviceId deviceId) {
+    // Returns a live view of the device groups; callers copy it as needed.
+    private Collection<StoredGroupEntry> getStoredGroups(DeviceId deviceId) {
         NodeId master = mastershipService.getMasterFor(deviceId);
         if (master == null && deviceService.isAvailable(deviceId)) {
             log.debug("Failed to getGroups: No master for {}", deviceId);
             return Collections.emptySet();
         }
 
-        Set<StoredGroupEntry> storedGroups = getGroupStoreKeyMap().values()
-                .stream()
-                .filter(input -> input.deviceId().equals(deviceId))
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(storedGroups);
+        return getGroupKeyTable(deviceId).values();
     }
 
     /**
@@ -415,7 +435,7 @@ public class DistributedGroupStore
     }
 
     private int getFreeGroupIdValue(DeviceId deviceId) {
-        int freeId = groupIdGen.incrementAndGet();
+        int freeId = nextGroupIdValue();
 
         while (true) {
             Group existing = getGroup(deviceId, new GroupId(freeId));
@@ -427,7 +447,7 @@ public class DistributedGroupStore
                         null;
             }
             if (existing != null) {
-                freeId = groupIdGen.incrementAndGet();
+                freeId = nextGroupIdValue();
             } else {
                 break;
             }
@@ -436,6 +456,38 @@ public class DistributedGroupStore
         return freeId;
     }
 
+    /**
+     * Returns the next group identifier from the block reserved by this
+     * instance, reserving a new block once it is exhausted.
+     *
+     * @return group identifier value
+     */
+    private int nextGroupIdValue() {
+        IdBlock block = groupIdBlock;
+        while (true) {
+            if (block != null) {
+                try {
+                    int id = (int) block.getNextId();
+                    if (id != 0 && id != dummyId) {
+                        return id;
+                    }
+                    continue;
+                } catch (UnavailableIdException e) {
+                    log.trace("Group identifier block {} exhausted", block);
+                }
+            }
+            block = reserveGroupIdBlock(block);
+        }
+    }
+
+    private synchronized IdBlock reserveGroupIdBlock(IdBlock exhausted) {
+        if (groupIdBlock == exhausted) {
+            groupIdBlock = new IdBlock(groupIdBlocks.getAndAdd(GROUP_ID_BLOCK_SIZE), GROUP_ID_BLOCK_SIZE);
+            log.debug("Reserved group identifier block {}", groupIdBlock);
+        }
+        return groupIdBlock;
+    }
+
     /**
      * Stores a new group entry using the information from group description.
      *
@@ -583,6 +635,8 @@ public class DistributedGroupStore
                     // avoid any chances of duplication in group id generation
                     getGroupIdTable(groupDesc.deviceId()).
                             put(matchingExtraneousGroup.id(), group);
+                    getGroupKeyTable(groupDesc.deviceId()).
+                            put(groupDesc.appCookie(), group);
                     addOrUpdateGroupEntry(matchingExtraneousGroup);
                     removeExtraneousGroupEntry(matchingExtraneousGroup);
                     return;
@@ -603,6 +657,8 @@ public class DistributedGroupStore
                     // avoid any chances of duplication in group id generation
                     getGroupIdTable(groupDesc.deviceId()).
                             put(matchingExtraneousGroup.id(), modifiedGroup);
+                    getGroupKeyTable(groupDesc.deviceId()).
+                            put(groupDesc.appCookie(), modifiedGroup);
                     removeExtraneousGroupEntry(matchingExtraneousGroup);
                     log.debug("storeGroupDescriptionInternal: Triggering Group "
                                       + "UPDATE request for {} in device {}",
@@ -632,6 +688,8 @@ public class DistributedGroupStore
                 // avoid any chances of duplication in group id generation
                 getGroupIdTable(groupDesc.deviceId()).
                         put(matchingExtraneousGroup.id(), group);
+                getGroupKeyTable(groupDesc.deviceId()).
+                        put(groupDesc.appCookie(), group);
                 addOrUpdateGroupEntry(matchingExtraneousGroup);
                 removeExtraneousGroupEntry(matchingExtraneousGroup);
                 return;
@@ -672,6 +730,8 @@ public class DistributedGroupStore
         // avoid any chances of duplication in group id generation
         getGroupIdTable(groupDesc.deviceId()).
                 put(id, group);
+        getGroupKeyTable(groupDesc.deviceId()).
+                put(groupDesc.appCookie(), group);
         log.debug("storeGroupDescriptionInternal: Processing Group ADD request for Id {} in device {}",
                   id,
                   groupDesc.deviceId());
@@ -1268,10 +1328,7 @@ public class DistributedGroupStore
                                   + "event {} with null entry", mapEvent.type());
                 return;
             } else if (group == null) {
-                group = getGroupIdTable(key.deviceId()).values()
-                        .stream()
-                        .filter((storedGroup) -> (storedGroup.appCookie().equals(key.appCookie)))
-                        .findFirst().orElse(null);
+                group = getGroupKeyTable(key.deviceId()).get(key.appCookie);
                 if (group == null) {
                     log.error("GroupStoreKeyMapListener: Received "
                                       + "event {} with null entry... can not process", mapEvent.type());
@@ -1285,6 +1342,7 @@ public class DistributedGroupStore
             if (mapEvent.type() == MapEvent.Type.INSERT || mapEvent.type() == MapEvent.Type.UPDATE) {
                 // Update the group ID table
                 getGroupIdTable(group.deviceId()).put(group.id(), group);
+                getGroupKeyTable(group.deviceId()).put(group.appCookie(), group);
                 StoredGroupEntry value = Versioned.valueOrNull(mapEvent.newValue());
                 if (value.state() == Group.GroupState.ADDED) {
                     if (value.isGroupStateAddedFirstTime()) {
@@ -1303,6 +1361,7 @@ public class DistributedGroupStore
                 groupEvent = new GroupEvent(Type.GROUP_REMOVED, group);
                 // Remove the entry from the group ID table
                 getGroupIdTable(group.deviceId()).remove(group.id(), group);
+                getGroupKeyTable(group.deviceId()).remove(group.appCookie(), group);
             }
 
             if (groupEvent != null) {
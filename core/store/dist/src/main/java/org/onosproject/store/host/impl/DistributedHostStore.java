@@ -50,7 +50,6 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
@@ -59,7 +58,6 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -84,7 +82,13 @@ public class DistributedHostStore
 
     private ConsistentMap<HostId, DefaultHost> hostsConsistentMap;
     private Map<HostId, DefaultHost> hosts;
-    private Map<IpAddress, Set<Host>> hostsByIp;
+    // Hosts are indexed by their identifier under each key, so that they are updated in constant time
+    private Map<IpAddress, Map<HostId, Host>> hostsByIp;
+    private Map<MacAddress, Map<HostId, Host>> hostsByMac;
+    private Map<VlanId, Map<HostId, Host>> hostsByVlan;
+    private Map<ConnectPoint, Map<HostId, Host>> hostsByLocation;
+    private Map<ConnectPoint, Map<HostId, Host>> hostsByAuxLocation;
+    private Map<DeviceId, Map<HostId, Host>> hostsByDevice;
     MapEventListener<HostId, DefaultHost> hostLocationTracker =
             new HostLocationTracker();
 
@@ -107,11 +111,11 @@ public class DistributedHostStore
         executor = newSingleThreadScheduledExecutor(groupedThreads("onos/hosts", "status-listener", log));
         statusChangeListener = status -> {
             if (status == Status.ACTIVE) {
-                executor.execute(this::loadHostsByIp);
+                executor.execute(this::loadHostIndexes);
             }
         };
         hostsConsistentMap.addStatusChangeListener(statusChangeListener);
-        loadHostsByIp();
+        loadHostIndexes();
         log.info("Started");
     }
 
@@ -123,18 +127,27 @@ public class DistributedHostStore
         log.info("Stopped");
     }
 
-    private void loadHostsByIp() {
-        hostsByIp = new ConcurrentHashMap<IpAddress, Set<Host>>();
+    private void loadHostIndexes() {
+        Map<IpAddress, Map<HostId, Host>> newHostsByIp = new ConcurrentHashMap<>();
+        Map<MacAddress, Map<HostId, Host>> newHostsByMac = new ConcurrentHashMap<>();
+        Map<VlanId, Map<HostId, Host>> newHostsByVlan = new ConcurrentHashMap<>();
+        Map<ConnectPoint, Map<HostId, Host>> newHostsByLocation = new ConcurrentHashMap<>();
+        Map<ConnectPoint, Map<HostId, Host>> newHostsByAuxLocation = new ConcurrentHashMap<>();
+        Map<DeviceId, Map<HostId, Host>> newHostsByDevice = new ConcurrentHashMap<>();
         hostsConsistentMap.asJavaMap().values().forEach(host -> {
-            host.ipAddresses().forEach(ip -> {
-                Set<Host> existingHosts = hostsByIp.get(ip);
-                if (existingHosts == null) {
-                    hostsByIp.put(ip, addHosts(host));
-                } else {
-                    existingHosts.add(host);
-                }
-            });
+            indexHost(newHostsByIp, host.ipAddresses(), host);
+            indexHost(newHostsByMac, keysOf(host.mac()), host);
+            indexHost(newHostsByVlan, keysOf(host.vlan()), host);
+            indexHost(newHostsByLocation, host.locations(), host);
+            indexHost(newHostsByAuxLocation, auxLocationsOf(host), host);
+            indexHost(newHostsByDevice, devicesOf(host), host);
         });
+        hostsByIp = newHostsByIp;
+        hostsByMac = newHostsByMac;
+        hostsByVlan = newHostsByVlan;
+        hostsByLocation = newHostsByLocation;
+        hostsByAuxLocation = newHostsByAuxLocation;
+        hostsByDevice = newHostsByDevice;
     }
 
     private boolean shouldUpdate(DefaultHost existingHost,
@@ -334,18 +347,17 @@ public class DistributedHostStore
 
     @Override
     public Set<Host> getHosts(VlanId vlanId) {
-        return filter(hosts.values(), host -> Objects.equals(host.vlan(), vlanId));
+        return lookup(hostsByVlan, vlanId);
     }
 
     @Override
     public Set<Host> getHosts(MacAddress mac) {
-        return filter(hosts.values(), host -> Objects.equals(host.mac(), mac));
+        return lookup(hostsByMac, mac);
     }
 
     @Override
     public Set<Host> getHosts(IpAddress ip) {
-        Set<Host> hosts = hostsByIp.get(ip);
-        return hosts != null ? ImmutableSet.copyOf(hosts) : ImmutableSet.of();
+        return lookup(hostsByIp, ip);
     }
 
     @Override
@@ -355,31 +367,12 @@ public class DistributedHostStore
 
     @Override
     public Set<Host> getConnectedHosts(ConnectPoint connectPoint, boolean matchAuxLocations) {
-        Predicate<Map.Entry<HostId, DefaultHost>> predicate;
-        if (matchAuxLocations) {
-            predicate = entry -> {
-                Set<HostLocation> auxLocations = entry.getValue().auxLocations();
-                return auxLocations != null && entry.getValue().auxLocations().contains(connectPoint);
-            };
-        } else {
-            predicate = entry -> entry.getValue().locations().contains(connectPoint);
-        }
-
-        Set<Host> filtered = hosts.entrySet().stream()
-                .filter(predicate)
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(filtered);
+        return lookup(matchAuxLocations ? hostsByAuxLocation : hostsByLocation, connectPoint);
     }
 
     @Override
     public Set<Host> getConnectedHosts(DeviceId deviceId) {
-        Set<Host> filtered = hosts.entrySet().stream()
-                .filter(entry -> entry.getValue().locations().stream()
-                        .map(HostLocation::deviceId).anyMatch(dpid -> dpid.equals(deviceId)))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(filtered);
+        return lookup(hostsByDevice, deviceId);
     }
 
     @Override
@@ -430,47 +423,75 @@ public class DistributedHostStore
         });
     }
 
-    private Set<Host> filter(Collection<DefaultHost> collection, Predicate<DefaultHost> predicate) {
-        return collection.stream().filter(predicate).collect(Collectors.toSet());
+    private <K> Set<Host> lookup(Map<K, Map<HostId, Host>> index, K key) {
+        Map<HostId, Host> hosts = index.get(key);
+        return hosts != null ? ImmutableSet.copyOf(hosts.values()) : ImmutableSet.of();
     }
 
-    private Set<Host> addHosts(Host host) {
-        Set<Host> hosts = Sets.newConcurrentHashSet();
-        hosts.add(host);
-        return hosts;
+    private static <K> Set<K> keysOf(K key) {
+        return key != null ? ImmutableSet.of(key) : ImmutableSet.of();
     }
 
-    private Set<Host> updateHosts(Set<Host> existingHosts, Host host) {
-        existingHosts.removeIf(existingHost -> existingHost.id().equals(host.id()));
-        existingHosts.add(host);
-        return existingHosts;
+    private static Set<HostLocation> auxLocationsOf(Host host) {
+        return host.auxLocations() != null ? host.auxLocations() : ImmutableSet.of();
     }
 
-    private Set<Host> removeHosts(Set<Host> existingHosts, Host host) {
+    private static Set<DeviceId> devicesOf(Host host) {
+        return host.locations().stream()
+                .map(HostLocation::deviceId)
+                .collect(Collectors.toSet());
+    }
 
-        if (existingHosts != null) {
-            existingHosts.removeIf(existingHost -> existingHost.id().equals(host.id()));
-        }
+    private Map<HostId, Host> updateHosts(Map<HostId, Host> existingHosts, Host host) {
+        Map<HostId, Host> hosts = existingHosts != null ? existingHosts : new ConcurrentHashMap<>();
+        hosts.put(host.id(), host);
+        return hosts;
+    }
 
-        if (existingHosts == null || existingHosts.isEmpty()) {
-            return null;
-        }
-        return existingHosts;
+    private Map<HostId, Host> removeHosts(Map<HostId, Host> existingHosts, Host host) {
+        existingHosts.remove(host.id());
+        return existingHosts.isEmpty() ? null : existingHosts;
+    }
+
+    private <K> void indexHost(Map<K, Map<HostId, Host>> index, Set<? extends K> keys, DefaultHost host) {
+        keys.forEach(key -> index.compute(key, (k, v) -> updateHosts(v, host)));
+    }
+
+    private <K> void unindexHost(Map<K, Map<HostId, Host>> index, Set<? extends K> keys, DefaultHost host) {
+        keys.forEach(key -> index.computeIfPresent(key, (k, v) -> removeHosts(v, host)));
     }
 
-    private void updateHostsByIp(DefaultHost host, DefaultHost prevHost) {
-        // Let's update first the current ips
-        host.ipAddresses().forEach(
-                ip -> hostsByIp.compute(ip, (k, v) -> v == null ? addHosts(host) : updateHosts(v, host)));
+    private <K> void updateIndex(Map<K, Map<HostId, Host>> index, Set<? extends K> keys,
+                                 Set<? extends K> oldKeys, DefaultHost host) {
+        // Let's update first the current keys
+        indexHost(index, keys, host);
+
+        // Let's remove then each old key
+        unindexHost(index, Sets.difference(oldKeys, keys), host);
+    }
 
-        // Let's remove then each old ip
-        Set<IpAddress> oldIps = prevHost != null ? prevHost.ipAddresses() : Collections.emptySet();
-        Sets.difference(oldIps, host.ipAddresses()).forEach(
-                ip -> hostsByIp.computeIfPresent(ip, (k, v) -> removeHosts(v, host)));
+    private void updateHostIndexes(DefaultHost host, DefaultHost prevHost) {
+        updateIndex(hostsByIp, host.ipAddresses(),
+                    prevHost != null ? prevHost.ipAddresses() : Collections.emptySet(), host);
+        updateIndex(hostsByMac, keysOf(host.mac()),
+                    prevHost != null ? keysOf(prevHost.mac()) : Collections.emptySet(), host);
+        updateIndex(hostsByVlan, keysOf(host.vlan()),
+                    prevHost != null ? keysOf(prevHost.vlan()) : Collections.emptySet(), host);
+        updateIndex(hostsByLocation, host.locations(),
+                    prevHost != null ? prevHost.locations() : Collections.emptySet(), host);
+        updateIndex(hostsByAuxLocation, auxLocationsOf(host),
+                    prevHost != null ? auxLocationsOf(prevHost) : Collections.emptySet(), host);
+        updateIndex(hostsByDevice, devicesOf(host),
+                    prevHost != null ? devicesOf(prevHost) : Collections.emptySet(), host);
     }
 
-    private void removeHostsByIp(DefaultHost host) {
-        host.ipAddresses().forEach(ip -> hostsByIp.computeIfPresent(ip, (k, v) -> removeHosts(v, host)));
+    private void removeHostIndexes(DefaultHost host) {
+        unindexHost(hostsByIp, host.ipAddresses(), host);
+        unindexHost(hostsByMac, keysOf(host.mac()), host);
+        unindexHost(hostsByVlan, keysOf(host.vlan()), host);
+        unindexHost(hostsByLocation, host.locations(), host);
+        unindexHost(hostsByAuxLocation, auxLocationsOf(host), host);
+        unindexHost(hostsByDevice, devicesOf(host), host);
     }
 
     private void removeIpFromHostsByIp(DefaultHost host, IpAddress ip) {
@@ -484,11 +505,11 @@ public class DistributedHostStore
             DefaultHost prevHost = Versioned.valueOrNull(event.oldValue());
             switch (event.type()) {
                 case INSERT:
-                    updateHostsByIp(host, prevHost);
+                    updateHostIndexes(host, prevHost);
                     notifyDelegate(new HostEvent(HOST_ADDED, host));
                     break;
                 case UPDATE:
-                    updateHostsByIp(host, prevHost);
+                    updateHostIndexes(host, prevHost);
                     if (host.suspended() && !prevHost.suspended()) {
                         notifyDelegate(new HostEvent(HOST_SUSPENDED, host, prevHost));
                     } else if (!host.suspended() && prevHost.suspended()) {
@@ -502,7 +523,7 @@ public class DistributedHostStore
                     }
                     break;
                 case REMOVE:
-                    removeHostsByIp(prevHost);
+                    removeHostIndexes(prevHost);
                     notifyDelegate(new HostEvent(HOST_REMOVED, prevHost));
                     break;
                 default:
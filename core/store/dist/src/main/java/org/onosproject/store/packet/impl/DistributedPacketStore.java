@@ -16,11 +16,13 @@
 package org.onosproject.store.packet.impl;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.mastership.MastershipService;
+import org.onosproject.net.DeviceId;
 import org.onosproject.net.flow.TrafficSelector;
 import org.onosproject.net.packet.OutboundPacket;
 import org.onosproject.net.packet.PacketEvent;
@@ -49,6 +51,7 @@ import org.slf4j.Logger;
 import java.util.Collection;
 import java.util.Dictionary;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
@@ -169,9 +172,22 @@ public class DistributedPacketStore
 
     @Override
     public void emit(OutboundPacket packet) {
+        emit(packet, clusterService.getLocalNode().id(),
+             mastershipService.getMasterFor(packet.sendThrough()));
+    }
+
+    @Override
+    public void emit(List<OutboundPacket> packets) {
+        // batches usually go through a single device; look its master up once
         NodeId myId = clusterService.getLocalNode().id();
-        NodeId master = mastershipService.getMasterFor(packet.sendThrough());
+        Map<DeviceId, NodeId> masters = Maps.newHashMap();
+        for (OutboundPacket packet : packets) {
+            emit(packet, myId, masters.computeIfAbsent(packet.sendThrough(),
+                                                       mastershipService::getMasterFor));
+        }
+    }
 
+    private void emit(OutboundPacket packet, NodeId myId, NodeId master) {
         if (master == null) {
             return;
         }
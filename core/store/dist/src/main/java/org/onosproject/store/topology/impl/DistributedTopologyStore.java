@@ -71,6 +71,7 @@ import java.util.stream.Stream;
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
 import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.getIntegerProperty;
 import static org.onlab.util.Tools.isNullOrEmpty;
 import static org.onosproject.net.topology.TopologyEvent.Type.TOPOLOGY_CHANGED;
 import static org.onosproject.store.OsgiPropertyConstants.*;
@@ -91,6 +92,8 @@ import static org.slf4j.LoggerFactory.getLogger;
         property = {
                 LINK_WEIGHT_FUNCTION + "=" + LINK_WEIGHT_FUNCTION_DEFAULT,
                 MAX_PATHS + "=" + MAX_PATHS_DEFAULT,
+                INCREMENTAL_TOPOLOGY + ":Boolean=" + INCREMENTAL_TOPOLOGY_DEFAULT,
+                PATH_CACHE_SIZE + ":Integer=" + PATH_CACHE_SIZE_DEFAULT,
         }
 )
 public class DistributedTopologyStore
@@ -99,7 +102,8 @@ public class DistributedTopologyStore
 
     private final Logger log = getLogger(getClass());
 
-    private static final String FORMAT = "Settings: linkWeightFunction={}";
+    private static final String FORMAT =
+            "Settings: linkWeightFunction={}, incrementalTopology={}, pathCacheSize={}";
 
     private volatile DefaultTopology current =
             new DefaultTopology(ProviderId.NONE,
@@ -132,6 +136,12 @@ public class DistributedTopologyStore
     /** Default max-paths count. */
     private int maxPaths = ALL_PATHS;
 
+    /** Derive new topologies from the current one, recomputing only what changed. */
+    private boolean incrementalTopology = INCREMENTAL_TOPOLOGY_DEFAULT;
+
+    /** Number of computed path sets retained per topology; 0 to disable. */
+    private int pathCacheSize = PATH_CACHE_SIZE_DEFAULT;
+
     // Cluster root to broadcast points bindings to allow convergence to
     // a shared broadcast tree; node that is the master of the cluster root
     // is the primary.
@@ -187,7 +197,20 @@ public class DistributedTopologyStore
                 log.warn("maxPaths must be a number; not {}", newMaxPaths);
             }
         }
-        log.info(FORMAT, linkWeightFunction);
+
+        String newIncrementalTopology = get(properties, INCREMENTAL_TOPOLOGY);
+        if (newIncrementalTopology != null) {
+            incrementalTopology = Boolean.parseBoolean(newIncrementalTopology.trim());
+        }
+
+        int newPathCacheSize = getIntegerProperty(properties, PATH_CACHE_SIZE, pathCacheSize);
+        if (newPathCacheSize >= 0) {
+            pathCacheSize = newPathCacheSize;
+            DefaultTopology.setDefaultPathCacheSize(pathCacheSize);
+        } else {
+            log.warn("pathCacheSize must not be negative; not {}", newPathCacheSize);
+        }
+        log.info(FORMAT, linkWeightFunction, incrementalTopology, pathCacheSize);
     }
 
     @Override
@@ -308,9 +331,11 @@ public class DistributedTopologyStore
     public TopologyEvent updateTopology(ProviderId providerId,
                                         GraphDescription graphDescription,
                                         List<Event> reasons) {
-        // Have the default topology construct self from the description data.
+        // Have the default topology construct self from the description data,
+        // optionally building on top of the current topology.
         DefaultTopology newTopology =
-                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint);
+                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint,
+                                    incrementalTopology ? current : null);
         updateBroadcastPoints(newTopology);
 
         // Promote the new topology to current and return a ready-to-send event.
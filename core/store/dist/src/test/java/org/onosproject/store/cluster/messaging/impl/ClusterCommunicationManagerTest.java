@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.DefaultControllerNode;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.store.cluster.StaticClusterService;
+import org.onosproject.store.cluster.messaging.Endpoint;
+import org.onosproject.store.cluster.messaging.MessageSubject;
+import org.onosproject.store.cluster.messaging.MessagingService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the cluster communication manager.
+ */
+public class ClusterCommunicationManagerTest {
+
+    private static final NodeId NID1 = new NodeId("local");
+    private static final NodeId NID2 = new NodeId("remote");
+    private static final MessageSubject SUBJECT = new MessageSubject("test-subject");
+    private static final Function<String, byte[]> ENCODER = s -> s.getBytes(StandardCharsets.UTF_8);
+    private static final Function<byte[], String> DECODER = b -> new String(b, StandardCharsets.UTF_8);
+
+    private ClusterCommunicationManager manager;
+    private LoopbackMessagingService messagingService;
+
+    @Before
+    public void setUp() {
+        manager = new ClusterCommunicationManager();
+        manager.clusterService = new TestClusterService();
+        messagingService = new LoopbackMessagingService();
+        manager.messagingService = messagingService;
+        manager.activate();
+    }
+
+    @After
+    public void tearDown() {
+        manager.deactivate();
+    }
+
+    @Test
+    public void testUnbatched() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        manager.addSubscriber(SUBJECT, DECODER, received::add, MoreExecutors.directExecutor());
+
+        manager.unicast("a", SUBJECT, ENCODER, NID2).join();
+        manager.multicast("b", SUBJECT, ENCODER, ImmutableSet.of(NID1, NID2));
+
+        assertEquals(Lists.newArrayList("a", "b", "b"), received);
+        assertEquals(3, messagingService.frames);
+    }
+
+    @Test
+    public void testBatchedBySize() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        manager.addSubscriber(SUBJECT, DECODER, received::add, MoreExecutors.directExecutor());
+        manager.enableBatching(SUBJECT, 4, Duration.ofMinutes(1));
+
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        for (int i = 0; i < 4; i++) {
+            futures.add(manager.unicast("m" + i, SUBJECT, ENCODER, NID2));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(Lists.newArrayList("m0", "m1", "m2", "m3"), received);
+        assertEquals(1, messagingService.frames);
+    }
+
+    @Test
+    public void testBatchedByDelay() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        manager.addSubscriber(SUBJECT, DECODER, received::add, MoreExecutors.directExecutor());
+        manager.enableBatching(SUBJECT, 100, Duration.ofMillis(10));
+
+        manager.broadcast("x", SUBJECT, ENCODER);
+        CompletableFuture<Void> future = manager.unicast("y", SUBJECT, ENCODER, NID2);
+        future.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Lists.newArrayList("x", "y"), received);
+        assertEquals(1, messagingService.frames);
+
+        manager.disableBatching(SUBJECT);
+        manager.unicast("z", SUBJECT, ENCODER, NID2).join();
+        assertEquals(Lists.newArrayList("x", "y", "z"), received);
+        assertEquals(2, messagingService.frames);
+    }
+
+    @Test
+    public void testBatchToUnknownNode() {
+        manager.enableBatching(SUBJECT, 4, Duration.ofMinutes(1));
+        CompletableFuture<Void> future = manager.unicast("a", SUBJECT, ENCODER, new NodeId("unknown"));
+        assertTrue("Unknown node accepted", future.isCompletedExceptionally());
+    }
+
+    private static class TestClusterService extends StaticClusterService {
+        TestClusterService() {
+            localNode = new DefaultControllerNode(NID1, IpAddress.valueOf("127.0.0.1"));
+            ControllerNode remote = new DefaultControllerNode(NID2, IpAddress.valueOf("127.0.0.2"));
+            nodes.put(NID1, localNode);
+            nodes.put(NID2, remote);
+        }
+    }
+
+    // Delivers the messages sent to any node to the locally registered handlers.
+    private static class LoopbackMessagingService implements MessagingService {
+        private final Map<String, BiConsumer<Endpoint, byte[]>> handlers = Maps.newConcurrentMap();
+        private volatile int frames;
+
+        @Override
+        public CompletableFuture<Void> sendAsync(Endpoint ep, String type, byte[] payload) {
+            frames++;
+            BiConsumer<Endpoint, byte[]> handler = handlers.get(type);
+            if (handler == null) {
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                future.completeExceptionally(new IllegalStateException("No handler for " + type));
+                return future;
+            }
+            handler.accept(ep, payload);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<byte[]> sendAndReceive(Endpoint ep, String type, byte[] payload,
+                                                        Duration timeout, Executor executor) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void registerHandler(String type, BiConsumer<Endpoint, byte[]> handler, Executor executor) {
+            handlers.put(type, (ep, payload) -> executor.execute(() -> handler.accept(ep, payload)));
+        }
+
+        @Override
+        public void registerHandler(String type, BiFunction<Endpoint, byte[], byte[]> handler,
+                                    Executor executor) {
+            handlers.put(type, (ep, payload) -> executor.execute(() -> handler.apply(ep, payload)));
+        }
+
+        @Override
+        public void registerHandler(String type,
+                                    BiFunction<Endpoint, byte[], CompletableFuture<byte[]>> handler) {
+            handlers.put(type, handler::apply);
+        }
+
+        @Override
+        public void unregisterHandler(String type) {
+            handlers.remove(type);
+        }
+    }
+}
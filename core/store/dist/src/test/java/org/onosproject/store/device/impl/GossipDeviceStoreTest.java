@@ -42,6 +42,7 @@ import org.onosproject.net.PortNumber;
 import org.onosproject.net.SparseAnnotations;
 import org.onosproject.net.device.DefaultDeviceDescription;
 import org.onosproject.net.device.DefaultPortDescription;
+import org.onosproject.net.device.DefaultPortStatistics;
 import org.onosproject.net.device.DeviceClockService;
 import org.onosproject.net.device.DeviceClockServiceAdapter;
 import org.onosproject.net.device.DeviceDescription;
@@ -49,10 +50,12 @@ import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceStore;
 import org.onosproject.net.device.DeviceStoreDelegate;
 import org.onosproject.net.device.PortDescription;
+import org.onosproject.net.device.PortStatistics;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.Timestamp;
 import org.onosproject.store.cluster.StaticClusterService;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
 import org.onosproject.store.cluster.messaging.ClusterMessage;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.impl.MastershipBasedTimestamp;
@@ -61,6 +64,8 @@ import org.onosproject.store.service.EventuallyConsistentMapBuilder;
 import org.onosproject.store.service.StorageService;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -69,6 +74,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
@@ -100,6 +107,7 @@ import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_UPDATED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_ADDED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_REMOVED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_UPDATED;
+import static org.onosproject.net.device.DeviceEvent.Type.PORT_STATS_UPDATED;
 
 
 // TODO add tests for remote replication
@@ -151,6 +159,11 @@ public class GossipDeviceStoreTest {
             new DefaultControllerNode(NID2, IpAddress.valueOf("127.0.0.2"));
     private static final List<SparseAnnotations> NO_ANNOTATION = Collections.emptyList();
 
+    private static final int STRESS_DEVICES = 200;
+    private static final int STRESS_PORTS = 16;
+    private static final int STRESS_ROUNDS = 4;
+    private static final int STRESS_THREADS = 8;
+
     EventuallyConsistentMapBuilder ecMapBuilder;
     EventuallyConsistentMap ecMap;
     StorageService testStorageService;
@@ -628,6 +641,62 @@ public class GossipDeviceStoreTest {
         assertTrue(message.hasCaptured());
     }
 
+    @Test
+    public final void testUpdatePortStatistics() {
+        putDevice(DID1, SW1);
+        List<PortStatistics> first = Arrays.asList(portStatistics(P1, 100, 1), portStatistics(P2, 200, 1));
+        DeviceEvent event = deviceStore.updatePortStatistics(PID, DID1, first);
+        assertEquals(PORT_STATS_UPDATED, event.type());
+        assertDevice(DID1, SW1, event.subject());
+        assertEquals(2, deviceStore.getPortStatistics(DID1).size());
+        assertTrue("Delta without previous sample", deviceStore.getPortDeltaStatistics(DID1).isEmpty());
+
+        deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(portStatistics(P1, 150, 2),
+                                                                   portStatistics(P2, 200, 2)));
+        assertEquals(150, deviceStore.getStatisticsForPort(DID1, P1).bytesReceived());
+        assertEquals(50, deviceStore.getDeltaStatisticsForPort(DID1, P1).bytesReceived());
+        assertEquals(0, deviceStore.getDeltaStatisticsForPort(DID1, P2).bytesReceived());
+        assertEquals(2, deviceStore.getPortDeltaStatistics(DID1).size());
+
+        PortStatistics windowed = deviceStore.getDeltaStatisticsForPort(DID1, P1, Duration.ofMinutes(1));
+        assertEquals(50, windowed.bytesReceived());
+        assertNull(deviceStore.getDeltaStatisticsForPort(DID1, P3, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public final void testRemovePortStatistics() {
+        putDevice(DID1, SW1);
+        deviceStore.updatePorts(PID, DID1, Arrays.asList(
+                DefaultPortDescription.builder().withPortNumber(P1).isEnabled(true).build(),
+                DefaultPortDescription.builder().withPortNumber(P2).isEnabled(true).build()));
+        deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(portStatistics(P1, 100, 1),
+                                                                   portStatistics(P2, 200, 1)));
+        assertEquals(2, deviceStore.getPortStatistics(DID1).size());
+
+        deviceStore.updatePorts(PID, DID1, Arrays.asList(
+                DefaultPortDescription.builder().withPortNumber(P1).isEnabled(true).build()));
+        assertNull("Statistics of removed port", deviceStore.getStatisticsForPort(DID1, P2));
+        assertEquals(1, deviceStore.getPortStatistics(DID1).size());
+
+        Capture<InternalDeviceEvent> message = Capture.newInstance();
+        Capture<MessageSubject> subject = Capture.newInstance();
+        Capture<Function<InternalDeviceEvent, byte[]>> encoder = Capture.newInstance();
+        resetCommunicatorExpectingSingleBroadcast(message, subject, encoder);
+
+        deviceStore.removeDevice(DID1);
+        assertTrue("Statistics of removed device", deviceStore.getPortStatistics(DID1).isEmpty());
+        assertNull(deviceStore.getStatisticsForPort(DID1, P1));
+    }
+
+    private static PortStatistics portStatistics(PortNumber port, long bytesReceived, long durationSec) {
+        return DefaultPortStatistics.builder()
+                .setDeviceId(DID1)
+                .setPort(port)
+                .setBytesReceived(bytesReceived)
+                .setDurationSec(durationSec)
+                .build();
+    }
+
     @Test
     public final void testUpdatePortStatusAncillary() throws IOException {
         putDeviceAncillary(DID1, SW1);
@@ -894,6 +963,62 @@ public class GossipDeviceStoreTest {
         assertTrue("Remove event fired", removeLatch.await(1, TimeUnit.SECONDS));
     }
 
+    @Test
+    public final void testConcurrentPortUpdates() throws InterruptedException {
+        // unlike the mocked communicator, the adapter does not serialize its callers
+        testGossipDeviceStore.clusterCommunicator = new ClusterCommunicationServiceAdapter();
+        testGossipDeviceStore.deviceClockService = new DeviceClockServiceAdapter() {
+            private final AtomicLong ticker = new AtomicLong();
+
+            @Override
+            public Timestamp getTimestamp(DeviceId deviceId) {
+                return new MastershipBasedTimestamp(1, ticker.getAndIncrement());
+            }
+        };
+
+        List<DeviceId> deviceIds = new ArrayList<>();
+        for (int i = 0; i < STRESS_DEVICES; i++) {
+            DeviceId deviceId = deviceId("of:" + i);
+            deviceIds.add(deviceId);
+            deviceStore.createOrUpdateDevice(PID, deviceId,
+                    new DefaultDeviceDescription(deviceId.uri(), SWITCH, MFR, HW, SW1, SN, CID));
+        }
+
+        updatePortsConcurrently(deviceIds);
+
+        // the last update of each device disabled all of its ports
+        for (DeviceId deviceId : deviceIds) {
+            List<Port> ports = deviceStore.getPorts(deviceId);
+            assertEquals("incorrect port count", STRESS_PORTS, ports.size());
+            ports.forEach(port -> assertFalse("port should be disabled", port.isEnabled()));
+        }
+    }
+
+    // Updates the ports of all devices a number of times from several threads.
+    private void updatePortsConcurrently(List<DeviceId> deviceIds) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(STRESS_THREADS);
+        CountDownLatch latch = new CountDownLatch(deviceIds.size());
+        for (DeviceId deviceId : deviceIds) {
+            executor.execute(() -> {
+                for (int round = 0; round < STRESS_ROUNDS; round++) {
+                    deviceStore.updatePorts(PID, deviceId, portDescriptions(round % 2 == 0));
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue("Port updates timed out", latch.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    private static List<PortDescription> portDescriptions(boolean enabled) {
+        List<PortDescription> pds = new ArrayList<>();
+        for (int i = 1; i <= STRESS_PORTS; i++) {
+            pds.add(DefaultPortDescription.builder()
+                            .withPortNumber(PortNumber.portNumber(i)).isEnabled(enabled).build());
+        }
+        return pds;
+    }
+
     private final class TestMastershipService extends MastershipServiceAdapter {
         @Override
         public NodeId getMasterFor(DeviceId deviceId) {
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.device.impl;
+
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DefaultPortStatistics;
+import org.onosproject.net.device.PortStatistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the port statistics history.
+ */
+public class PortStatisticsHistoryTest {
+
+    private static final DeviceId DID = DeviceId.deviceId("of:foo");
+    private static final PortNumber PN = PortNumber.portNumber(1);
+
+    private static PortStatistics stats(long bytes, long durationSec) {
+        return DefaultPortStatistics.builder()
+                .setDeviceId(DID)
+                .setPort(PN)
+                .setBytesReceived(bytes)
+                .setBytesSent(2 * bytes)
+                .setPacketsReceived(bytes / 100)
+                .setDurationSec(durationSec)
+                .build();
+    }
+
+    @Test
+    public void testRecord() {
+        PortStatisticsHistory history = new PortStatisticsHistory(4);
+        assertNull(history.latest());
+        assertNull(history.delta(DID, PN));
+        assertNull(history.delta(DID, PN, 1_000, 1_000));
+
+        PortStatistics first = stats(1_000, 1);
+        assertTrue(history.record(1_000, first));
+        assertFalse("Identical sample recorded", history.record(2_000, stats(1_000, 1)));
+        assertSame(first, history.latest());
+        assertNull(history.delta(DID, PN));
+
+        assertTrue(history.record(6_000, stats(6_000, 6)));
+        PortStatistics delta = history.delta(DID, PN);
+        assertEquals(5_000, delta.bytesReceived());
+        assertEquals(10_000, delta.bytesSent());
+        assertEquals(50, delta.packetsReceived());
+        assertEquals(5, delta.durationSec());
+        assertEquals(PN, delta.portNumber());
+    }
+
+    @Test
+    public void testIdle() {
+        PortStatisticsHistory history = new PortStatisticsHistory(4);
+        history.record(1_000, stats(1_000, 1));
+        history.record(2_000, stats(1_000, 2));
+        assertFalse("Two samples cannot be idle", history.isIdle());
+        history.record(3_000, stats(1_000, 3));
+        assertTrue("Unchanged counters not idle", history.isIdle());
+        history.record(4_000, stats(2_000, 4));
+        assertFalse("Changed counters idle", history.isIdle());
+    }
+
+    @Test
+    public void testWindow() {
+        PortStatisticsHistory history = new PortStatisticsHistory(4);
+        for (int i = 1; i <= 6; i++) {
+            history.record(i * 1_000, stats(i * 1_000, i));
+        }
+
+        PortStatistics delta = history.delta(DID, PN, 6_000, 2_000);
+        assertEquals(2_000, delta.bytesReceived());
+        assertEquals(2, delta.durationSec());
+
+        // counters hold their value between samples
+        delta = history.delta(DID, PN, 6_500, 2_000);
+        assertEquals(2_000, delta.bytesReceived());
+        assertEquals(2, delta.durationSec());
+        delta = history.delta(DID, PN, 20_000, 2_000);
+        assertEquals(0, delta.bytesReceived());
+
+        // the duration is the time between the samples the delta is taken from
+        delta = history.delta(DID, PN, 6_000, 2_500);
+        assertEquals(3_000, delta.bytesReceived());
+        assertEquals(3, delta.durationSec());
+
+        // only the latest four samples are retained
+        delta = history.delta(DID, PN, 6_000, 10_000);
+        assertEquals(3_000, delta.bytesReceived());
+        assertEquals(3, delta.durationSec());
+    }
+
+    @Test
+    public void testGrowth() {
+        PortStatisticsHistory history = new PortStatisticsHistory(10);
+        for (int i = 1; i <= 7; i++) {
+            history.record(i * 1_000, stats(i * 1_000, i));
+        }
+        PortStatistics delta = history.delta(DID, PN, 7_000, 60_000);
+        assertEquals(6_000, delta.bytesReceived());
+        assertEquals(6, delta.durationSec());
+
+        for (int i = 8; i <= 15; i++) {
+            history.record(i * 1_000, stats(i * 1_000, i));
+        }
+        delta = history.delta(DID, PN, 15_000, 60_000);
+        assertEquals(9_000, delta.bytesReceived());
+        assertEquals(9, delta.durationSec());
+        assertEquals(1_000, history.delta(DID, PN).bytesReceived());
+    }
+}
@@ -16,6 +16,7 @@
 package org.onosproject.store.flow.impl;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import org.junit.After;
@@ -38,6 +39,8 @@ import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntry.FlowEntryState;
+import org.onosproject.net.flow.FlowRuleEvent;
 import org.onosproject.net.flow.DefaultFlowRule;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchOperation;
 import org.onosproject.net.intent.IntentTestsMocks;
@@ -51,6 +54,7 @@ import org.onosproject.store.service.TestStorageService;
 
 import org.onlab.packet.Ip4Address;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 import org.osgi.service.component.ComponentContext;
@@ -261,6 +265,34 @@ public class ECFlowRuleStoreTest {
         assertThat(flowStoreImpl.getTableStatistics(deviceId), notNullValue());
     }
 
+    /**
+     * Tests bulk update of flow statistics.
+     */
+    @Test
+    public void testUpdateFlowStatistics() {
+        Multimap<DeviceId, FlowRuleBatchEntry> perDeviceBatches = ArrayListMultimap.create();
+        perDeviceBatches.put(deviceId,
+                new FlowRuleBatchEntry(FlowRuleBatchEntry.FlowRuleOperation.ADD, flowRule));
+        flowStoreImpl.storeBatch(new FlowRuleBatchOperation(perDeviceBatches.get(deviceId), deviceId, 1));
+
+        FlowEntry flowEntry = new DefaultFlowEntry(flowRule, FlowEntryState.ADDED, 1, 10, 100);
+        FlowEntry flowEntry1 = new DefaultFlowEntry(flowRule1, FlowEntryState.ADDED, 1, 20, 200);
+        List<FlowRuleEvent> events = flowStoreImpl.updateFlowStatistics(deviceId,
+                ImmutableList.of(flowEntry, flowEntry1));
+        assertThat(events.size(), is(1));
+        assertEquals(FlowRuleEvent.Type.RULE_ADDED, events.get(0).type());
+        assertThat(flowStoreImpl.getFlowRuleCount(deviceId), is(2));
+
+        flowEntry = new DefaultFlowEntry(flowRule, FlowEntryState.ADDED, 2, 30, 300);
+        flowEntry1 = new DefaultFlowEntry(flowRule1, FlowEntryState.ADDED, 2, 40, 400);
+        events = flowStoreImpl.updateFlowStatistics(deviceId, ImmutableList.of(flowEntry, flowEntry1));
+        assertThat(events.size(), is(2));
+        assertEquals(FlowRuleEvent.Type.RULE_UPDATED, events.get(0).type());
+        assertEquals(FlowRuleEvent.Type.RULE_UPDATED, events.get(1).type());
+        assertThat(flowStoreImpl.getFlowEntry(flowRule).packets(), is(30L));
+        assertThat(flowStoreImpl.getFlowEntry(flowRule1).bytes(), is(400L));
+    }
+
     /**
      * Tests flow removal.
      */
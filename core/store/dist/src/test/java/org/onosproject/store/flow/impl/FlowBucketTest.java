@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.store.LogicalTimestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.onosproject.net.NetTestTools.APP_ID;
+import static org.onosproject.net.NetTestTools.did;
+
+/**
+ * Unit tests for flow bucket delta replication.
+ */
+public class FlowBucketTest {
+
+    private static final long TERM = 1;
+    private final DeviceId deviceId = did("device1");
+    private final LogicalClock clock = new LogicalClock();
+
+    private FlowBucket master;
+
+    @Before
+    public void setUp() {
+        master = new FlowBucket(new BucketId(deviceId, 0));
+    }
+
+    private FlowEntry entry(int priority) {
+        return new DefaultFlowEntry(DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(DefaultTrafficSelector.emptySelector())
+                .withTreatment(DefaultTrafficTreatment.emptyTreatment())
+                .withPriority(priority)
+                .makePermanent()
+                .fromApp(APP_ID)
+                .build());
+    }
+
+    /**
+     * Tests that a delta carries only the flows changed since the given timestamp.
+     */
+    @Test
+    public void deltaContainsOnlyChanges() {
+        for (int i = 1; i <= 100; i++) {
+            master.add(entry(i), TERM, clock);
+        }
+        // initial full backup
+        FlowBucket backup = master.copy();
+        LogicalTimestamp acked = master.timestamp();
+        assertEquals(100, backup.count());
+
+        FlowEntry updated = entry(5);
+        master.update(updated, TERM, clock);
+        master.remove(entry(7), TERM, clock);
+
+        FlowBucketDelta delta = master.delta(acked);
+        assertNotNull(delta);
+        assertEquals(1, delta.updates().size());
+        assertEquals(1, delta.removals().size());
+        assertTrue(delta.updates().containsKey(updated.id()));
+
+        assertTrue(backup.apply(delta));
+        assertEquals(99, backup.count());
+        assertEquals(master.timestamp(), backup.timestamp());
+        assertEquals(master.getFlowBucket().keySet(), backup.getFlowBucket().keySet());
+    }
+
+    /**
+     * Tests that deltas are rejected by diverged replicas.
+     */
+    @Test
+    public void divergedReplicaRejectsDelta() {
+        master.add(entry(1), TERM, clock);
+        FlowBucket backup = master.copy();
+        master.add(entry(2), TERM, clock);
+        LogicalTimestamp acked = master.timestamp();
+        master.add(entry(3), TERM, clock);
+
+        // the backup never saw the change preceding the delta
+        assertFalse(backup.apply(master.delta(acked)));
+
+        // nor can it apply changes from a different term
+        FlowBucket other = master.copy();
+        other.add(entry(4), TERM + 1, clock);
+        assertFalse(other.apply(master.delta(acked)));
+    }
+
+    /**
+     * Tests that no delta is produced from before pruned changes.
+     */
+    @Test
+    public void prunedChanges() {
+        master.add(entry(1), TERM, clock);
+        LogicalTimestamp first = master.timestamp();
+        master.add(entry(2), TERM, clock);
+        LogicalTimestamp second = master.timestamp();
+        master.remove(entry(1), TERM, clock);
+
+        master.pruneChanges(second);
+        assertNull(master.delta(first));
+        FlowBucketDelta delta = master.delta(second);
+        assertEquals(0, delta.updates().size());
+        assertEquals(1, delta.removals().size());
+    }
+
+    /**
+     * Tests that the change log does not outgrow the bucket when changes are never pruned.
+     */
+    @Test
+    public void changeLogIsBounded() {
+        master.add(entry(1), TERM, clock);
+        LogicalTimestamp first = master.timestamp();
+        for (int i = 2; i <= 1000; i++) {
+            master.add(entry(i), TERM, clock);
+            master.remove(entry(i), TERM, clock);
+        }
+        assertEquals(1, master.count());
+
+        // the changes since the first were discarded, a full backup is required
+        assertNull(master.delta(first));
+        LogicalTimestamp last = master.timestamp();
+        master.add(entry(2), TERM, clock);
+        FlowBucketDelta delta = master.delta(last);
+        assertNotNull(delta);
+        assertEquals(1, delta.updates().size());
+        assertEquals(0, delta.removals().size());
+    }
+}
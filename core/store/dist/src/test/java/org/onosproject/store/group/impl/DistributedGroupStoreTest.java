@@ -309,6 +309,33 @@ public class DistributedGroupStoreTest {
         assertThat(groupStore.getGroupCount(deviceId2), is(0));
     }
 
+    /**
+     * Tests allocating identifiers to groups added without one.
+     */
+    @Test
+    public void testAllocateGroupIds() throws Exception {
+        groupStore.deviceInitialAuditCompleted(deviceId1, true);
+        groupStore.storeGroupDescription(groupDescription1);
+
+        List<GroupKey> keys = Lists.newArrayList();
+        for (int i = 0; i < 3; i++) {
+            GroupKey key = new DefaultGroupKey(("auto" + i).getBytes());
+            keys.add(key);
+            groupStore.storeGroupDescription(new DefaultGroupDescription(
+                    deviceId1, ALL, allGroupBuckets, key, null, APP_ID));
+        }
+        assertThat(groupStore.getGroupCount(deviceId1), is(4));
+
+        // identifiers are unique per device and skip the one given explicitly
+        List<GroupId> ids = Lists.newArrayList();
+        keys.forEach(key -> ids.add(groupStore.getGroup(deviceId1, key).id()));
+        assertThat(ids, is(ImmutableList.of(new GroupId(2), new GroupId(3), new GroupId(4))));
+
+        groupStore.removeGroupEntry(groupStore.getGroup(deviceId1, keys.get(0)));
+        assertThat(groupStore.getGroupCount(deviceId1), is(3));
+        assertThat(groupStore.getGroup(deviceId1, new GroupId(2)), nullValue());
+    }
+
     /**
      * Tests adding and removing a group.
      */
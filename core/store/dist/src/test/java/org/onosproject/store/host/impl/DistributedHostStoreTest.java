@@ -420,6 +420,81 @@ public class DistributedHostStoreTest {
                 ecXHostStore.getConnectedHosts(HOST_LOC12, true));
     }
 
+    @Test
+    public void testGetHostsByMacAndVlan() {
+        ecXHostStore.createOrUpdateHost(PID, HOSTID, HOST_DESC_WITHOUT_AUX, false);
+        ecXHostStore.createOrUpdateHost(PID, HOSTID1, HOST_DESC_WITH_AUX, false);
+
+        assertEquals(Sets.newHashSet(HOST_WITHOUT_AUX), ecXHostStore.getHosts(HOSTID.mac()));
+        assertEquals(Sets.newHashSet(HOST_WITH_AUX), ecXHostStore.getHosts(HOSTID1.mac()));
+        assertEquals(Sets.newHashSet(HOST_WITHOUT_AUX, HOST_WITH_AUX), ecXHostStore.getHosts(VlanId.NONE));
+        assertEquals(Sets.newHashSet(), ecXHostStore.getHosts(VlanId.vlanId((short) 10)));
+
+        ecXHostStore.removeHost(HOSTID);
+        assertEquals(Sets.newHashSet(), ecXHostStore.getHosts(HOSTID.mac()));
+        assertEquals(Sets.newHashSet(HOST_WITH_AUX), ecXHostStore.getHosts(VlanId.NONE));
+    }
+
+    @Test
+    public void testGetConnectedHostsByDevice() {
+        ecXHostStore.createOrUpdateHost(PID, HOSTID, HOST_LEARNT_WITH_LOCATIONS, false);
+        assertEquals(1, ecXHostStore.getConnectedHosts(DEV1).size());
+        assertEquals(1, ecXHostStore.getConnectedHosts(CP11).size());
+        assertEquals(1, ecXHostStore.getConnectedHosts(CP12).size());
+
+        // Remove one location; host is still attached to the device
+        ecXHostStore.removeLocation(HOSTID, HOST_LOC12);
+        assertEquals(1, ecXHostStore.getConnectedHosts(DEV1).size());
+        assertEquals(1, ecXHostStore.getConnectedHosts(CP11).size());
+        assertEquals(0, ecXHostStore.getConnectedHosts(CP12).size());
+
+        // Remove the host; it is gone from every index
+        ecXHostStore.removeHost(HOSTID);
+        assertEquals(0, ecXHostStore.getConnectedHosts(DEV1).size());
+        assertEquals(0, ecXHostStore.getConnectedHosts(CP11).size());
+        assertEquals(0, ecXHostStore.getHosts(HOSTID.mac()).size());
+    }
+
+    @Test
+    public void testIndexedLookupsMatchScan() {
+        final int numHosts = 10000;
+        final int numPorts = 64;
+        for (int i = 0; i < numHosts; i++) {
+            HostId hostId = HostId.hostId(MacAddress.valueOf(i + 1), VlanId.vlanId((short) (i % 16)));
+            DeviceId deviceId = DeviceId.deviceId("of:" + String.format("%016x", i % 50));
+            HostLocation location = new HostLocation(deviceId, PortNumber.portNumber(i % numPorts), 0);
+            HostDescription description = new DefaultHostDescription(hostId.mac(), hostId.vlanId(),
+                    location, Sets.newHashSet(IpAddress.valueOf(0x0a000000 + i)), false);
+            ecXHostStore.createOrUpdateHost(PID, hostId, description, false);
+        }
+
+        DeviceId deviceId = DeviceId.deviceId("of:" + String.format("%016x", 7));
+        ConnectPoint connectPoint = new ConnectPoint(deviceId, PortNumber.portNumber(7));
+        VlanId vlanId = VlanId.vlanId((short) 7);
+
+        Set<Host> scanned = new HashSet<>();
+        for (Host host : ecXHostStore.getHosts()) {
+            if (host.locations().contains(connectPoint)) {
+                scanned.add(host);
+            }
+        }
+
+        assertEquals(scanned, ecXHostStore.getConnectedHosts(connectPoint));
+        assertEquals(numHosts / 16, ecXHostStore.getHosts(vlanId).size());
+        assertEquals(numHosts / 50, ecXHostStore.getConnectedHosts(deviceId).size());
+        assertEquals(1, ecXHostStore.getHosts(MacAddress.valueOf(numHosts)).size());
+
+        // Updating a host replaces it under its keys instead of adding it again
+        Host moved = scanned.iterator().next();
+        HostLocation newLocation = new HostLocation(deviceId, PortNumber.portNumber(numPorts), 0);
+        ecXHostStore.createOrUpdateHost(PID, moved.id(), new DefaultHostDescription(
+                moved.mac(), moved.vlan(), newLocation, moved.ipAddresses(), false), false);
+        assertEquals(scanned.size() - 1, ecXHostStore.getConnectedHosts(connectPoint).size());
+        assertEquals(numHosts / 50, ecXHostStore.getConnectedHosts(deviceId).size());
+        assertEquals(numHosts / 16, ecXHostStore.getHosts(moved.vlan()).size());
+        assertEquals(newLocation, ecXHostStore.getHosts(moved.mac()).iterator().next().location());
+    }
+
     private class TestStoreDelegate implements HostStoreDelegate {
         public HostEvent lastEvent;
 
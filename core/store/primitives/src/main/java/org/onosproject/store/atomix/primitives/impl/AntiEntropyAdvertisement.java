@@ -16,9 +16,11 @@
 package org.onosproject.store.atomix.primitives.impl;
 
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.onosproject.cluster.NodeId;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -30,6 +32,7 @@ public class AntiEntropyAdvertisement<K> {
 
     private final NodeId sender;
     private final Map<K, MapValue.Digest> digest;
+    private final Set<Integer> buckets;
 
     /**
      * Creates a new anti entropy advertisement message.
@@ -41,6 +44,23 @@ public class AntiEntropyAdvertisement<K> {
                                     Map<K, MapValue.Digest> digest) {
         this.sender = checkNotNull(sender);
         this.digest = ImmutableMap.copyOf(checkNotNull(digest));
+        this.buckets = null;
+    }
+
+    /**
+     * Creates a new anti entropy advertisement message limited to the given
+     * buckets of the map digest tree.
+     *
+     * @param sender  the sender's node ID
+     * @param digest  for map entries in the given buckets
+     * @param buckets digest tree buckets covered by the advertisement
+     */
+    public AntiEntropyAdvertisement(NodeId sender,
+                                    Map<K, MapValue.Digest> digest,
+                                    Set<Integer> buckets) {
+        this.sender = checkNotNull(sender);
+        this.digest = ImmutableMap.copyOf(checkNotNull(digest));
+        this.buckets = ImmutableSet.copyOf(checkNotNull(buckets));
     }
 
     /**
@@ -61,11 +81,21 @@ public class AntiEntropyAdvertisement<K> {
         return digest;
     }
 
+    /**
+     * Returns the digest tree buckets covered by the advertisement.
+     *
+     * @return set of bucket indexes; null if the advertisement covers all entries
+     */
+    public Set<Integer> buckets() {
+        return buckets;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(getClass())
                 .add("sender", sender)
                 .add("totalEntries", digest.size())
+                .add("buckets", buckets)
                 .toString();
     }
 }
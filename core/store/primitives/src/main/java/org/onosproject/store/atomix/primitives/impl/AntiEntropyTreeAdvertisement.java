@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import com.google.common.base.MoreObjects;
+import org.onosproject.cluster.NodeId;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Anti-entropy advertisement of the hashes of some nodes of one level of the
+ * map digest tree.
+ */
+public class AntiEntropyTreeAdvertisement {
+
+    private final NodeId sender;
+    private final int level;
+    private final int[] nodes;
+    private final long[] hashes;
+
+    /**
+     * Creates a new hash tree advertisement message.
+     *
+     * @param sender the sender's node ID
+     * @param level  tree level of the advertised nodes
+     * @param nodes  positions of the advertised nodes
+     * @param hashes hashes of the advertised nodes, along the same index
+     */
+    public AntiEntropyTreeAdvertisement(NodeId sender, int level, int[] nodes, long[] hashes) {
+        checkArgument(nodes.length == hashes.length, "nodes and hashes differ in length");
+        this.sender = checkNotNull(sender);
+        this.level = level;
+        this.nodes = nodes;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Returns the sender's node ID.
+     *
+     * @return the sender's node ID
+     */
+    public NodeId sender() {
+        return sender;
+    }
+
+    /**
+     * Returns the tree level of the advertised nodes.
+     *
+     * @return tree level
+     */
+    public int level() {
+        return level;
+    }
+
+    /**
+     * Returns the positions of the advertised nodes.
+     *
+     * @return node positions
+     */
+    public int[] nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the hashes of the advertised nodes.
+     *
+     * @return node hashes
+     */
+    public long[] hashes() {
+        return hashes;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("sender", sender)
+                .add("level", level)
+                .add("totalNodes", nodes.length)
+                .toString();
+    }
+
+    @SuppressWarnings("unused")
+    private AntiEntropyTreeAdvertisement() {
+        this.sender = null;
+        this.level = 0;
+        this.nodes = null;
+        this.hashes = null;
+    }
+}
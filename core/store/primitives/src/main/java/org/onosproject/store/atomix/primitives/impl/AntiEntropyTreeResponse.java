@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import com.google.common.base.MoreObjects;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reply to a hash tree advertisement, listing the advertised nodes whose
+ * hashes differ from those of the receiver.
+ */
+public class AntiEntropyTreeResponse {
+
+    private static final int[] NONE = new int[0];
+
+    private final AntiEntropyResponse status;
+    private final int[] mismatches;
+
+    /**
+     * Creates a new hash tree response.
+     *
+     * @param status     status of the exchange
+     * @param mismatches positions of the nodes that differ
+     */
+    public AntiEntropyTreeResponse(AntiEntropyResponse status, int[] mismatches) {
+        this.status = checkNotNull(status);
+        this.mismatches = checkNotNull(mismatches);
+    }
+
+    /**
+     * Creates a new hash tree response with no mismatching nodes.
+     *
+     * @param status status of the exchange
+     */
+    public AntiEntropyTreeResponse(AntiEntropyResponse status) {
+        this(status, NONE);
+    }
+
+    /**
+     * Returns the status of the exchange.
+     *
+     * @return exchange status
+     */
+    public AntiEntropyResponse status() {
+        return status;
+    }
+
+    /**
+     * Returns the positions of the advertised nodes that differ.
+     *
+     * @return node positions
+     */
+    public int[] mismatches() {
+        return mismatches;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("status", status)
+                .add("totalMismatches", mismatches.length)
+                .toString();
+    }
+
+    @SuppressWarnings("unused")
+    private AntiEntropyTreeResponse() {
+        this.status = null;
+        this.mismatches = null;
+    }
+}
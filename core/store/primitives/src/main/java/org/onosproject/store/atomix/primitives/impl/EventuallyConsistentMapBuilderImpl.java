@@ -55,6 +55,7 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
     private TimeUnit antiEntropyTimeUnit = TimeUnit.SECONDS;
     private boolean convergeFaster = false;
     private boolean persistent = false;
+    private boolean hashTreeAntiEntropy = false;
     private boolean persistentMap = false;
     private final PersistenceService persistenceService;
     private Supplier<List<NodeId>> peersSupplier;
@@ -161,6 +162,12 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
         return this;
     }
 
+    @Override
+    public EventuallyConsistentMapBuilder<K, V> withHashTreeAntiEntropy() {
+        hashTreeAntiEntropy = true;
+        return this;
+    }
+
     @Override
     public EventuallyConsistentMap<K, V> build() {
         checkNotNull(name, "name is a mandatory parameter");
@@ -185,6 +192,7 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
                 antiEntropyPeriod,
                 antiEntropyTimeUnit,
                 convergeFaster,
+                hashTreeAntiEntropy,
                 persistent,
                 persistenceService,
                 peersSupplier,
@@ -16,6 +16,7 @@
 package org.onosproject.store.atomix.primitives.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -35,10 +36,12 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
@@ -99,6 +102,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final MessageSubject initializeMessageSubject;
     private final MessageSubject updateMessageSubject;
     private final MessageSubject antiEntropyAdvertisementSubject;
+    private final MessageSubject antiEntropyTreeSubject;
     private final MessageSubject updateRequestSubject;
     private final Set<EventuallyConsistentMapListener<K, V>> listeners
             = Sets.newCopyOnWriteArraySet();
@@ -117,6 +121,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final Supplier<List<NodeId>> peersSupplier;
     private final Supplier<List<NodeId>> bootstrapPeersSupplier;
     private final NodeId localNodeId;
+    private final MapDigestTree<K> digestTree;
     private long previousTombstonePurgeTime;
     private volatile boolean destroyed = false;
     private SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW_SIZE);
@@ -142,6 +147,7 @@ public class EventuallyConsistentMapImpl<K, V>
      * @param antiEntropyPeriod      period that the anti-entropy task should run
      * @param antiEntropyTimeUnit    time unit for anti-entropy period
      * @param convergeFaster         make anti-entropy try to converge faster
+     * @param hashTreeAntiEntropy    make anti-entropy compare hash trees of the entries
      * @param persistent             persist data to disk
      * @param persistenceService     persistence service
      * @param peersSupplier          supplier for peers
@@ -162,6 +168,7 @@ public class EventuallyConsistentMapImpl<K, V>
             long antiEntropyPeriod,
             TimeUnit antiEntropyTimeUnit,
             boolean convergeFaster,
+            boolean hashTreeAntiEntropy,
             boolean persistent,
             PersistenceService persistenceService,
             Supplier<List<NodeId>> peersSupplier,
@@ -182,6 +189,12 @@ public class EventuallyConsistentMapImpl<K, V>
         } else {
             items = Maps.newConcurrentMap();
         }
+        if (hashTreeAntiEntropy) {
+            digestTree = new MapDigestTree<>(MapDigestTree.DEFAULT_DEPTH, serializer::encode);
+            items.forEach((key, value) -> digestTree.update(key, null, value));
+        } else {
+            digestTree = null;
+        }
         senderPending = Maps.newConcurrentMap();
         destroyedMessage = mapName + ERROR_DESTROYED;
 
@@ -273,6 +286,17 @@ public class EventuallyConsistentMapImpl<K, V>
                 this.backgroundExecutor
         );
 
+        antiEntropyTreeSubject = new MessageSubject("ecm-" + mapName + "-anti-entropy-tree");
+        if (digestTree != null) {
+            clusterCommunicator.addSubscriber(
+                    antiEntropyTreeSubject,
+                    serializer::decode,
+                    this::handleAntiEntropyTreeAdvertisement,
+                    serializer::encode,
+                    this.backgroundExecutor
+            );
+        }
+
         updateRequestSubject = new MessageSubject("ecm-" + mapName + "-update-request");
         clusterCommunicator.addSubscriber(
                 updateRequestSubject,
@@ -309,6 +333,8 @@ public class EventuallyConsistentMapImpl<K, V>
                 .register(WallClockTimestamp.class)
                 .register(AntiEntropyAdvertisement.class)
                 .register(AntiEntropyResponse.class)
+                .register(AntiEntropyTreeAdvertisement.class)
+                .register(AntiEntropyTreeResponse.class)
                 .register(UpdateEntry.class)
                 .register(MapValue.class)
                 .register(MapValue.Digest.class)
@@ -429,6 +455,7 @@ public class EventuallyConsistentMapImpl<K, V>
             }
             if (updated.get()) {
                 previousValue.set(existing);
+                updateDigestTree(k, existing, tombstone.orElse(null));
                 return tombstone.orElse(null);
             } else {
                 return existing;
@@ -457,7 +484,9 @@ public class EventuallyConsistentMapImpl<K, V>
                 updated.set(true);
                 // We return a copy to ensure updates to peers can be serialized.
                 // This prevents replica divergence due to serialization failures.
-                return serializer.copy(newValue);
+                MapValue<V> copy = serializer.copy(newValue);
+                updateDigestTree(k, mv, copy);
+                return copy;
             } else {
                 return mv;
             }
@@ -528,6 +557,7 @@ public class EventuallyConsistentMapImpl<K, V>
         items.compute(key, (k, existing) -> {
             if (existing == null || newValue.isNewerThan(existing)) {
                 updated.set(true);
+                updateDigestTree(k, existing, newValue);
                 return newValue;
             }
             return existing;
@@ -569,9 +599,18 @@ public class EventuallyConsistentMapImpl<K, V>
         clusterCommunicator.removeSubscriber(updateMessageSubject);
         clusterCommunicator.removeSubscriber(updateRequestSubject);
         clusterCommunicator.removeSubscriber(antiEntropyAdvertisementSubject);
+        if (digestTree != null) {
+            clusterCommunicator.removeSubscriber(antiEntropyTreeSubject);
+        }
         return CompletableFuture.completedFuture(null);
     }
 
+    private void updateDigestTree(K key, MapValue<V> oldValue, MapValue<V> newValue) {
+        if (digestTree != null) {
+            digestTree.update(key, oldValue, newValue);
+        }
+    }
+
     private void notifyListeners(EventuallyConsistentMapEvent<K, V> event) {
         listeners.forEach(listener -> listener.event(event));
     }
@@ -599,7 +638,11 @@ public class EventuallyConsistentMapImpl<K, V>
             if (underHighLoad() || destroyed) {
                 return;
             }
-            pickRandomActivePeer().ifPresent(this::sendAdvertisementToPeer);
+            if (digestTree != null) {
+                pickRandomActivePeer().ifPresent(this::sendTreeAdvertisementToPeer);
+            } else {
+                pickRandomActivePeer().ifPresent(this::sendAdvertisementToPeer);
+            }
         } catch (Exception e) {
             // Catch all exceptions to avoid scheduled task being suppressed.
             log.error("Exception thrown while sending advertisement", e);
@@ -630,6 +673,94 @@ public class EventuallyConsistentMapImpl<K, V>
                 });
     }
 
+    private void sendTreeAdvertisementToPeer(NodeId peer) {
+        long adCreationTime = System.currentTimeMillis();
+        int[] nodes = IntStream.range(0, MapDigestTree.FANOUT).toArray();
+        compareDigestTree(peer, 1, nodes)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.debug("Failed to send anti-entropy tree advertisement to {}: {}",
+                                peer, error.getMessage());
+                    } else if (result == AntiEntropyResponse.PROCESSED) {
+                        antiEntropyTimes.put(peer, adCreationTime);
+                    }
+                });
+    }
+
+    /**
+     * Compares the given nodes of one level of the local digest tree with
+     * those of the peer, descending into the children of the nodes that
+     * differ until the diverging leaf buckets are known, whose entries are
+     * then advertised to the peer.
+     */
+    private CompletableFuture<AntiEntropyResponse> compareDigestTree(NodeId peer, int level, int[] nodes) {
+        long[] levelHashes = digestTree.hashes(level);
+        long[] hashes = new long[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            hashes[i] = levelHashes[nodes[i]];
+        }
+        AntiEntropyTreeAdvertisement ad = new AntiEntropyTreeAdvertisement(localNodeId, level, nodes, hashes);
+        return clusterCommunicator.<AntiEntropyTreeAdvertisement, AntiEntropyTreeResponse>sendAndReceive(ad,
+                antiEntropyTreeSubject,
+                serializer::encode,
+                serializer::decode,
+                peer)
+                .thenCompose(response -> {
+                    int[] mismatches = response.mismatches();
+                    if (response.status() != AntiEntropyResponse.PROCESSED || mismatches.length == 0) {
+                        return CompletableFuture.completedFuture(response.status());
+                    }
+                    if (level == digestTree.depth()) {
+                        return sendBucketAdvertisementToPeer(peer, mismatches);
+                    }
+                    int[] children = Arrays.stream(mismatches)
+                            .flatMap(node -> IntStream.range(node * MapDigestTree.FANOUT,
+                                    (node + 1) * MapDigestTree.FANOUT))
+                            .toArray();
+                    return compareDigestTree(peer, level + 1, children);
+                });
+    }
+
+    private CompletableFuture<AntiEntropyResponse> sendBucketAdvertisementToPeer(NodeId peer, int[] buckets) {
+        Map<K, MapValue.Digest> digest = Maps.newHashMap();
+        for (int bucket : buckets) {
+            digestTree.keys(bucket).forEach(key -> {
+                MapValue<V> value = items.get(key);
+                if (value != null) {
+                    digest.put(key, value.digest());
+                }
+            });
+        }
+        AntiEntropyAdvertisement<K> ad = new AntiEntropyAdvertisement<>(localNodeId, digest,
+                Arrays.stream(buckets).boxed().collect(Collectors.toSet()));
+        return clusterCommunicator.sendAndReceive(ad,
+                antiEntropyAdvertisementSubject,
+                serializer::encode,
+                serializer::decode,
+                peer);
+    }
+
+    private AntiEntropyTreeResponse handleAntiEntropyTreeAdvertisement(AntiEntropyTreeAdvertisement ad) {
+        if (destroyed || underHighLoad()) {
+            return new AntiEntropyTreeResponse(AntiEntropyResponse.IGNORED);
+        }
+        if (ad.level() < 1 || ad.level() > digestTree.depth()) {
+            log.warn("Received anti-entropy tree advertisement from {} for {} with invalid level {}",
+                    ad.sender(), mapName, ad.level());
+            return new AntiEntropyTreeResponse(AntiEntropyResponse.FAILED);
+        }
+        long[] levelHashes = digestTree.hashes(ad.level());
+        int[] mismatches = IntStream.range(0, ad.nodes().length)
+                .filter(i -> levelHashes[ad.nodes()[i]] != ad.hashes()[i])
+                .map(i -> ad.nodes()[i])
+                .toArray();
+        if (log.isTraceEnabled()) {
+            log.trace("Received anti-entropy tree advertisement from {} for {} with {} of {} nodes differing",
+                    ad.sender(), mapName, mismatches.length, ad.nodes().length);
+        }
+        return new AntiEntropyTreeResponse(AntiEntropyResponse.PROCESSED, mismatches);
+    }
+
     private void sendUpdateRequestToPeer(NodeId peer, Set<K> keys) {
         UpdateRequest<K> request = new UpdateRequest<>(localNodeId, keys);
         clusterCommunicator.unicast(request,
@@ -653,6 +784,9 @@ public class EventuallyConsistentMapImpl<K, V>
         if (destroyed || underHighLoad()) {
             return AntiEntropyResponse.IGNORED;
         }
+        if (ad.buckets() != null && digestTree == null) {
+            return AntiEntropyResponse.IGNORED;
+        }
         try {
             if (log.isTraceEnabled()) {
                 log.trace("Received anti-entropy advertisement from {} for {} with {} entries in it",
@@ -671,6 +805,8 @@ public class EventuallyConsistentMapImpl<K, V>
      * 1. If peer has an old entry, updates peer.
      * 2. If peer indicates an entry is removed and has a more recent
      * timestamp than the local entry, update local state.
+     * If the ad is limited to some buckets of the digest tree, only the local
+     * entries in those buckets are checked.
      */
     private List<EventuallyConsistentMapEvent<K, V>> antiEntropyCheckLocalItems(
             AntiEntropyAdvertisement<K> ad) {
@@ -680,7 +816,7 @@ public class EventuallyConsistentMapImpl<K, V>
         Set<K> staleOrMissing = new HashSet<>();
         Set<K> locallyUnknown = new HashSet<>(ad.digest().keySet());
 
-        items.forEach((key, localValue) -> {
+        BiConsumer<K, MapValue<V>> checkLocalItem = (key, localValue) -> {
             locallyUnknown.remove(key);
             MapValue.Digest remoteValueDigest = ad.digest().get(key);
             if (remoteValueDigest == null || localValue.isNewerThan(remoteValueDigest.timestamp())) {
@@ -699,7 +835,17 @@ public class EventuallyConsistentMapImpl<K, V>
                 // Not a tombstone and remote is newer
                 staleOrMissing.add(key);
             }
-        });
+        };
+        if (ad.buckets() == null) {
+            items.forEach(checkLocalItem);
+        } else {
+            ad.buckets().forEach(bucket -> digestTree.keys(bucket).forEach(key -> {
+                MapValue<V> localValue = items.get(key);
+                if (localValue != null) {
+                    checkLocalItem.accept(key, localValue);
+                }
+            }));
+        }
         // Keys missing in local map
         staleOrMissing.addAll(locallyUnknown);
         // Request updates that we missed out on
@@ -738,7 +884,11 @@ public class EventuallyConsistentMapImpl<K, V>
                 .filter(e -> e.getValue().creationTime() <= currentSafeTombstonePurgeTime)
                 .collect(Collectors.toList());
         previousTombstonePurgeTime = currentSafeTombstonePurgeTime;
-        tombStonesToDelete.forEach(entry -> items.remove(entry.getKey(), entry.getValue()));
+        tombStonesToDelete.forEach(entry -> {
+            if (items.remove(entry.getKey(), entry.getValue())) {
+                updateDigestTree(entry.getKey(), entry.getValue(), null);
+            }
+        });
     }
 
     private void processUpdates(Collection<UpdateEntry<K, V>> updates) {
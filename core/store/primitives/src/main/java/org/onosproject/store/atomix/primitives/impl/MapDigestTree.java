@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bucketed hash tree over the entries of an eventually consistent map.
+ * <p>
+ * Each entry is hashed, using the serialized form of its key and the digest
+ * of its value, into one of the leaf buckets. The hash of a bucket is the sum
+ * of the hashes of its entries, so that it can be updated in place as entries
+ * change, and the hash of every other node is the sum of its children. Two
+ * replicas holding the same entries therefore have the same tree, and
+ * replicas that diverge can narrow the difference down to a few buckets by
+ * comparing nodes level by level.
+ * </p>
+ *
+ * @param <K> key type
+ */
+final class MapDigestTree<K> {
+
+    /**
+     * Number of children of every inner node.
+     */
+    static final int FANOUT = 16;
+
+    /**
+     * Default number of levels below the root; 4096 leaf buckets.
+     */
+    static final int DEFAULT_DEPTH = 3;
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int depth;
+    private final Function<Object, byte[]> encoder;
+    private final AtomicLongArray buckets;
+    private final Set<K>[] bucketKeys;
+
+    /**
+     * Creates a new hash tree.
+     *
+     * @param depth   number of levels below the root
+     * @param encoder function used to serialize keys and timestamps
+     */
+    @SuppressWarnings("unchecked")
+    MapDigestTree(int depth, Function<Object, byte[]> encoder) {
+        checkArgument(depth > 0, "depth must be greater than 0");
+        this.depth = depth;
+        this.encoder = encoder;
+        int bucketCount = nodeCount(depth);
+        this.buckets = new AtomicLongArray(bucketCount);
+        this.bucketKeys = new Set[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            bucketKeys[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * Returns the number of levels below the root; the leaf buckets are at
+     * this level.
+     *
+     * @return tree depth
+     */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of nodes at the given level.
+     *
+     * @param level tree level; 0 is the root
+     * @return number of nodes
+     */
+    static int nodeCount(int level) {
+        int count = 1;
+        for (int i = 0; i < level; i++) {
+            count *= FANOUT;
+        }
+        return count;
+    }
+
+    /**
+     * Records a change of the value of the given key. Changes to a key must
+     * not be recorded concurrently with each other.
+     *
+     * @param key      key of the entry
+     * @param oldValue previous value; null if there was none
+     * @param newValue new value; null if the entry was removed
+     */
+    void update(K key, MapValue<?> oldValue, MapValue<?> newValue) {
+        if (oldValue == newValue) {
+            return;
+        }
+        long keyHash = HASH.hashBytes(encoder.apply(key)).asLong();
+        int bucket = bucket(keyHash);
+        if (oldValue != null) {
+            buckets.addAndGet(bucket, -entryHash(keyHash, oldValue));
+        }
+        if (newValue != null) {
+            buckets.addAndGet(bucket, entryHash(keyHash, newValue));
+            bucketKeys[bucket].add(key);
+        } else {
+            bucketKeys[bucket].remove(key);
+        }
+    }
+
+    /**
+     * Returns the keys whose entries hash into the given leaf bucket.
+     *
+     * @param bucket leaf bucket index
+     * @return set of keys
+     */
+    Set<K> keys(int bucket) {
+        return bucketKeys[bucket];
+    }
+
+    /**
+     * Returns the hashes of all nodes at the given level.
+     *
+     * @param level tree level; 0 is the root
+     * @return node hashes indexed by node position
+     */
+    long[] hashes(int level) {
+        checkArgument(level >= 0 && level <= depth, "invalid level %s", level);
+        long[] hashes = new long[nodeCount(level)];
+        int span = nodeCount(depth - level);
+        for (int i = 0, n = buckets.length(); i < n; i++) {
+            hashes[i / span] += buckets.get(i);
+        }
+        return hashes;
+    }
+
+    private int bucket(long keyHash) {
+        return (int) Long.remainderUnsigned(keyHash, buckets.length());
+    }
+
+    private long entryHash(long keyHash, MapValue<?> value) {
+        return HASH.newHasher()
+                .putLong(keyHash)
+                .putBytes(encoder.apply(value.timestamp()))
+                .putBoolean(value.isTombstone())
+                .hash()
+                .asLong();
+    }
+}
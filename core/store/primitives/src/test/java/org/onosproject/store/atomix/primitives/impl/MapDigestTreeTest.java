@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.onlab.util.KryoNamespace;
+import org.onosproject.store.LogicalTimestamp;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.Serializer;
+
+/**
+ * Unit tests for MapDigestTree.
+ */
+public class MapDigestTreeTest {
+
+    private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.newBuilder()
+            .register(KryoNamespaces.BASIC)
+            .register(LogicalTimestamp.class)
+            .build());
+
+    private static final int ENTRIES = 1000;
+
+    private MapDigestTree<String> newTree() {
+        return new MapDigestTree<>(MapDigestTree.DEFAULT_DEPTH, SERIALIZER::encode);
+    }
+
+    private static MapValue<String> value(long timestamp) {
+        return new MapValue<>("value", new LogicalTimestamp(timestamp));
+    }
+
+    private static void assertSameTree(MapDigestTree<String> a, MapDigestTree<String> b) {
+        for (int level = 0; level <= a.depth(); level++) {
+            assertArrayEquals(a.hashes(level), b.hashes(level));
+        }
+    }
+
+    private static int[] mismatches(MapDigestTree<String> a, MapDigestTree<String> b, int level) {
+        long[] hashesA = a.hashes(level);
+        long[] hashesB = b.hashes(level);
+        return IntStream.range(0, hashesA.length)
+                .filter(i -> hashesA[i] != hashesB[i])
+                .toArray();
+    }
+
+    @Test
+    public void testLevels() {
+        MapDigestTree<String> tree = newTree();
+        assertEquals(1, tree.hashes(0).length);
+        assertEquals(MapDigestTree.FANOUT, tree.hashes(1).length);
+        assertEquals(MapDigestTree.nodeCount(tree.depth()), tree.hashes(tree.depth()).length);
+    }
+
+    @Test
+    public void testOrderIndependence() {
+        MapDigestTree<String> a = newTree();
+        MapDigestTree<String> b = newTree();
+        for (int i = 0; i < ENTRIES; i++) {
+            a.update("key" + i, null, value(i));
+            b.update("key" + (ENTRIES - 1 - i), null, value(ENTRIES - 1 - i));
+        }
+        assertSameTree(a, b);
+        assertFalse(a.hashes(0)[0] == newTree().hashes(0)[0]);
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        MapDigestTree<String> a = newTree();
+        MapDigestTree<String> b = newTree();
+        for (int i = 0; i < ENTRIES; i++) {
+            a.update("key" + i, null, value(i));
+            b.update("key" + i, null, value(i));
+        }
+
+        // A newer value in one replica is narrowed down to a single bucket.
+        b.update("key7", value(7), value(ENTRIES));
+        for (int level = 0; level <= a.depth(); level++) {
+            assertEquals(1, mismatches(a, b, level).length);
+        }
+        int bucket = mismatches(a, b, a.depth())[0];
+        assertTrue(a.keys(bucket).contains("key7"));
+        assertTrue(b.keys(bucket).contains("key7"));
+
+        // Tombstones hash differently from live values.
+        a.update("key7", value(7), MapValue.tombstone(new LogicalTimestamp(ENTRIES)));
+        int[] tombstoneMismatches = mismatches(a, b, a.depth());
+        assertEquals(1, tombstoneMismatches.length);
+        assertEquals(bucket, tombstoneMismatches[0]);
+
+        // Converging restores equal trees.
+        a.update("key7", MapValue.tombstone(new LogicalTimestamp(ENTRIES)), value(ENTRIES));
+        assertSameTree(a, b);
+
+        // Removal undoes the contribution of the entry and its key.
+        a.update("key7", value(ENTRIES), null);
+        b.update("key7", value(ENTRIES), null);
+        assertSameTree(a, b);
+        assertFalse(a.keys(bucket).contains("key7"));
+
+        MapDigestTree<String> empty = newTree();
+        for (int i = 0; i < ENTRIES; i++) {
+            if (i != 7) {
+                a.update("key" + i, value(i), null);
+            }
+        }
+        assertSameTree(a, empty);
+    }
+}
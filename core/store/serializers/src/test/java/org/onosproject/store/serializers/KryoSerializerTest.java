@@ -49,9 +49,11 @@ import org.onosproject.net.LinkKey;
 import org.onosproject.net.MarkerResource;
 import org.onosproject.net.PortNumber;
 import org.onosproject.net.SparseAnnotations;
+import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.DefaultFlowRule;
 import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowId;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry;
@@ -76,9 +78,11 @@ import org.onlab.packet.Ip6Prefix;
 import org.onlab.packet.MacAddress;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.List;
 import java.time.Duration;
 
 import static java.util.Arrays.asList;
@@ -507,4 +511,35 @@ public class KryoSerializerTest {
         testSerializedEquals(bs);
     }
 
+    @Test
+    public void testLargeObject() {
+        List<FlowEntry> entries = flowEntries(10_000);
+        // serialized twice, the second time with a buffer sized from the first
+        for (int i = 0; i < 2; i++) {
+            byte[] bytes = serializer.encode(entries);
+            assertTrue("Unexpectedly small", bytes.length > KryoNamespace.DEFAULT_BUFFER_SIZE);
+            List<FlowEntry> copy = serializer.decode(bytes);
+            assertEquals(entries, copy);
+        }
+    }
+
+    private static List<FlowEntry> flowEntries(int count) {
+        List<FlowEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            FlowRule rule = DefaultFlowRule.builder()
+                    .forDevice(DID1)
+                    .withSelector(DefaultTrafficSelector.builder()
+                                          .matchInPort(P1)
+                                          .matchEthSrc(MacAddress.valueOf(i))
+                                          .build())
+                    .withTreatment(DefaultTrafficTreatment.builder().setOutput(P2).build())
+                    .withPriority(100)
+                    .fromApp(new DefaultApplicationId(1, "1"))
+                    .makePermanent()
+                    .build();
+            entries.add(new DefaultFlowEntry(rule, FlowEntry.FlowEntryState.ADDED, 10, 1000, 100));
+        }
+        return entries;
+    }
+
 }
@@ -51,4 +51,12 @@ public final class P4RuntimeDriverProperties {
     // True if target supports reading and writing table entries.
     public static final String SUPPORT_DEFAULT_TABLE_ENTRY = "supportDefaultTableEntry";
     public static final boolean DEFAULT_SUPPORT_DEFAULT_TABLE_ENTRY = true;
+
+    // If true, when polling flow entries we skip reading tables that have not
+    // been modified since they were last read, and that have no direct
+    // counters to refresh, returning what's known by the ONOS store for them.
+    // Changes made on the device by other clients are then only detected for
+    // the tables that are read.
+    public static final String SKIP_UNCHANGED_TABLES = "tableSkipUnchangedReads";
+    public static final boolean DEFAULT_SKIP_UNCHANGED_TABLES = false;
 }
\ No newline at end of file
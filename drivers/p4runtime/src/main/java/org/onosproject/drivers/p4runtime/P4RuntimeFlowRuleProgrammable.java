@@ -19,6 +19,7 @@ package org.onosproject.drivers.p4runtime;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.Striped;
 import org.onosproject.drivers.p4runtime.mirror.P4RuntimeDefaultEntryMirror;
@@ -31,10 +32,9 @@ import org.onosproject.net.flow.FlowRuleProgrammable;
 import org.onosproject.net.pi.model.PiCounterType;
 import org.onosproject.net.pi.model.PiPipelineModel;
 import org.onosproject.net.pi.model.PiTableId;
+import org.onosproject.net.pi.model.PiTableModel;
 import org.onosproject.net.pi.runtime.PiCounterCell;
 import org.onosproject.net.pi.runtime.PiCounterCellData;
-import org.onosproject.net.pi.runtime.PiCounterCellHandle;
-import org.onosproject.net.pi.runtime.PiCounterCellId;
 import org.onosproject.net.pi.runtime.PiEntityType;
 import org.onosproject.net.pi.runtime.PiHandle;
 import org.onosproject.net.pi.runtime.PiMatchKey;
@@ -54,19 +54,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.DEFAULT_DELETE_BEFORE_UPDATE;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.DEFAULT_READ_COUNTERS_WITH_TABLE_ENTRIES;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.DEFAULT_READ_FROM_MIRROR;
+import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.DEFAULT_SKIP_UNCHANGED_TABLES;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.DEFAULT_SUPPORT_DEFAULT_TABLE_ENTRY;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.DEFAULT_SUPPORT_TABLE_COUNTERS;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.DELETE_BEFORE_UPDATE;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.READ_COUNTERS_WITH_TABLE_ENTRIES;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.READ_FROM_MIRROR;
+import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.SKIP_UNCHANGED_TABLES;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.SUPPORT_DEFAULT_TABLE_ENTRY;
 import static org.onosproject.drivers.p4runtime.P4RuntimeDriverProperties.SUPPORT_TABLE_COUNTERS;
 import static org.onosproject.drivers.p4runtime.P4RuntimeFlowRuleProgrammable.Operation.APPLY;
@@ -118,42 +122,52 @@ public class P4RuntimeFlowRuleProgrammable
             return getFlowEntriesFromMirror();
         }
 
-        final ImmutableList.Builder<FlowEntry> result = ImmutableList.builder();
-        final List<PiTableEntry> inconsistentEntries = Lists.newArrayList();
+        final boolean skipUnchangedTables = driverBoolProperty(
+                SKIP_UNCHANGED_TABLES, DEFAULT_SKIP_UNCHANGED_TABLES);
+        final Queue<PiTableEntry> inconsistentEntries = new ConcurrentLinkedQueue<>();
+        final Set<PiTableId> skippedTables = Sets.newHashSet();
+        final List<PiTableModel> tablesToRead = Lists.newArrayList();
+        final List<CompletableFuture<List<FlowEntry>>> tableReads = Lists.newArrayList();
 
-        // Read table entries from device.
-        final Collection<PiTableEntry> deviceEntries = getAllTableEntriesFromDevice();
-        if (deviceEntries == null) {
-            // Potential error at the client level.
-            return Collections.emptyList();
-        }
-
-        // Synchronize mirror with the device state.
-        tableMirror.sync(deviceId, deviceEntries);
+        // Read entries from all non-constant tables, including default ones.
+        pipelineModel.tables().stream()
+                .filter(t -> !t.isConstantTable())
+                .forEach(t -> {
+                    if (skipUnchangedTables && isTableUnchanged(t)) {
+                        skippedTables.add(t.id());
+                    } else {
+                        tablesToRead.add(t);
+                    }
+                });
 
-        if (deviceEntries.isEmpty()) {
-            // Nothing to do.
-            return Collections.emptyList();
+        if (!tablesToRead.isEmpty()) {
+            // Tables are read with separate requests, issued concurrently, and
+            // the mirror is synchronized with each table as soon as its
+            // entries are received.
+            final P4RuntimeTableMirror.TableSync tableSync =
+                    tableMirror.startSync(deviceId);
+            tablesToRead.forEach(t -> tableReads.add(
+                    readTable(t, tableSync, inconsistentEntries)));
         }
 
-        final Map<PiTableEntryHandle, PiCounterCellData> counterCellMap =
-                readEntryCounters(deviceEntries);
-        // Forge flow entries with counter values.
-        for (PiTableEntry entry : deviceEntries) {
-            final PiTableEntryHandle handle = entry.handle(deviceId);
-            final FlowEntry flowEntry = forgeFlowEntry(
-                    entry, handle, counterCellMap.get(handle));
-            if (flowEntry == null) {
-                // Entry is on device but unknown to translation service or
-                // device mirror. Inconsistent. Mark for removal if this is not
-                // an original default entry (i.e, the same defined in the P4
-                // program via default_action, which cannot be removed.)
-                if (!isOriginalDefaultEntry(entry)) {
-                    inconsistentEntries.add(entry);
-                }
-            } else {
-                result.add(flowEntry);
+        final ImmutableList.Builder<FlowEntry> result = ImmutableList.builder();
+        for (CompletableFuture<List<FlowEntry>> tableRead : tableReads) {
+            final List<FlowEntry> tableEntries = Futures.getUnchecked(tableRead);
+            if (tableEntries == null) {
+                // Potential error at the client level.
+                return Collections.emptyList();
             }
+            result.addAll(tableEntries);
+        }
+
+        if (!skippedTables.isEmpty()) {
+            // Entries of the tables not read from the device come from the mirror.
+            tableMirror.getAll(deviceId).stream()
+                    .filter(timedEntry -> skippedTables.contains(timedEntry.entry().table()))
+                    .map(timedEntry -> forgeFlowEntry(
+                            timedEntry.entry(), timedEntry.entry().handle(deviceId), null))
+                    .filter(Objects::nonNull)
+                    .forEach(result::add);
         }
 
         if (!inconsistentEntries.isEmpty()) {
@@ -162,7 +176,7 @@ public class P4RuntimeFlowRuleProgrammable
                      inconsistentEntries.size(), deviceId);
             // Submit delete request and update mirror when done.
             client.write(p4DeviceId, pipeconf)
-                    .entities(inconsistentEntries, DELETE)
+                    .entities(ImmutableList.copyOf(inconsistentEntries), DELETE)
                     .submit().whenComplete((response, ex) -> {
                 if (ex != null) {
                     log.error("Exception removing inconsistent table entries", ex);
@@ -178,31 +192,68 @@ public class P4RuntimeFlowRuleProgrammable
         return result.build();
     }
 
-    private Collection<PiTableEntry> getAllTableEntriesFromDevice() {
-        final P4RuntimeReadClient.ReadRequest request = client.read(
-                p4DeviceId, pipeconf);
-        // Read entries from all non-constant tables, including default ones.
-        pipelineModel.tables().stream()
-                .filter(t -> !t.isConstantTable())
-                .forEach(t -> {
-                    request.tableEntries(t.id());
-                    if (driverBoolProperty(SUPPORT_DEFAULT_TABLE_ENTRY,
-                                           DEFAULT_SUPPORT_DEFAULT_TABLE_ENTRY) &&
-                            t.constDefaultAction().isEmpty()) {
-                        request.defaultTableEntry(t.id());
+    private CompletableFuture<List<FlowEntry>> readTable(
+            PiTableModel table, P4RuntimeTableMirror.TableSync tableSync,
+            Queue<PiTableEntry> inconsistentEntries) {
+        final P4RuntimeReadClient.ReadRequest request = client
+                .read(p4DeviceId, pipeconf)
+                .tableEntries(table.id());
+        if (driverBoolProperty(SUPPORT_DEFAULT_TABLE_ENTRY,
+                               DEFAULT_SUPPORT_DEFAULT_TABLE_ENTRY) &&
+                table.constDefaultAction().isEmpty()) {
+            request.defaultTableEntry(table.id());
+        }
+        final boolean readCountersWithEntries =
+                driverBoolProperty(SUPPORT_TABLE_COUNTERS,
+                                   DEFAULT_SUPPORT_TABLE_COUNTERS) &&
+                driverBoolProperty(READ_COUNTERS_WITH_TABLE_ENTRIES,
+                                   DEFAULT_READ_COUNTERS_WITH_TABLE_ENTRIES);
+        return request.submit().thenCombine(readDirectCounters(table), (response, counterCells) -> {
+            if (!response.isSuccess()) {
+                return null;
+            }
+            final List<PiTableEntry> deviceEntries = response.all(PiTableEntry.class)
+                    .stream()
+                    // Device implementation might return duplicate entries. For
+                    // example if reading only default ones is not supported and
+                    // non-default entries are returned, by using distinct() we
+                    // are robust against that possibility.
+                    .distinct()
+                    .collect(Collectors.toList());
+            // Synchronize mirror with the device state.
+            tableSync.sync(table.id(), deviceEntries);
+
+            final List<FlowEntry> flowEntries = Lists.newArrayListWithCapacity(deviceEntries.size());
+            // Forge flow entries with counter values.
+            for (PiTableEntry entry : deviceEntries) {
+                final PiTableEntryHandle handle = entry.handle(deviceId);
+                final PiCounterCellData cellData = readCountersWithEntries
+                        ? entry.counter() : counterCells.get(handle);
+                final FlowEntry flowEntry = forgeFlowEntry(entry, handle, cellData);
+                if (flowEntry == null) {
+                    // Entry is on device but unknown to translation service or
+                    // device mirror. Inconsistent. Mark for removal if this is not
+                    // an original default entry (i.e, the same defined in the P4
+                    // program via default_action, which cannot be removed.)
+                    if (!isOriginalDefaultEntry(entry)) {
+                        inconsistentEntries.add(entry);
                     }
-                });
-        final P4RuntimeReadClient.ReadResponse response = request.submitSync();
-        if (!response.isSuccess()) {
-            return null;
+                } else {
+                    flowEntries.add(flowEntry);
+                }
+            }
+            return flowEntries;
+        });
+    }
+
+    private boolean isTableUnchanged(PiTableModel table) {
+        // Tables with direct counters are always read to refresh flow stats.
+        if (driverBoolProperty(SUPPORT_TABLE_COUNTERS,
+                               DEFAULT_SUPPORT_TABLE_COUNTERS) &&
+                !table.counters().isEmpty()) {
+            return false;
         }
-        return response.all(PiTableEntry.class).stream()
-                // Device implementation might return duplicate entries. For
-                // example if reading only default ones is not supported and
-                // non-default entries are returned, by using distinct() we
-                // are robust against that possibility.
-                .distinct()
-                .collect(Collectors.toList());
+        return tableMirror.isUnchangedSinceSync(deviceId, table.id());
     }
 
     @Override
@@ -462,38 +513,28 @@ public class P4RuntimeFlowRuleProgrammable
         return originalDefaultEntry.action().equals(entry.action());
     }
 
-    private Map<PiTableEntryHandle, PiCounterCellData> readEntryCounters(
-            Collection<PiTableEntry> tableEntries) {
+    private CompletableFuture<Map<PiTableEntryHandle, PiCounterCellData>> readDirectCounters(
+            PiTableModel table) {
 
         if (!driverBoolProperty(SUPPORT_TABLE_COUNTERS,
                                 DEFAULT_SUPPORT_TABLE_COUNTERS)
-                || tableEntries.isEmpty()) {
-            return Collections.emptyMap();
+                || driverBoolProperty(READ_COUNTERS_WITH_TABLE_ENTRIES,
+                                      DEFAULT_READ_COUNTERS_WITH_TABLE_ENTRIES)
+                || !tableHasCounter(table.id())) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
         }
 
-        if (driverBoolProperty(READ_COUNTERS_WITH_TABLE_ENTRIES,
-                               DEFAULT_READ_COUNTERS_WITH_TABLE_ENTRIES)) {
-            return tableEntries.stream()
-                    .filter(t -> t.counter() != null)
-                    .collect(Collectors.toMap(
-                            t -> t.handle(deviceId), PiTableEntry::counter));
-        } else {
-            final Set<PiHandle> cellHandles = tableEntries.stream()
-                    .filter(e -> !e.isDefaultAction())
-                    .filter(e -> tableHasCounter(e.table()))
-                    .map(PiCounterCellId::ofDirect)
-                    .map(id -> PiCounterCellHandle.of(deviceId, id))
-                    .collect(Collectors.toSet());
-            // FIXME: We might be sending a very large read request...
-            return client.read(p4DeviceId, pipeconf)
-                    .handles(cellHandles)
-                    .submitSync()
-                    .all(PiCounterCell.class).stream()
-                    .filter(c -> c.cellId().counterType().equals(PiCounterType.DIRECT))
-                    .collect(Collectors.toMap(
-                            c -> c.cellId().tableEntry().handle(deviceId),
-                            PiCounterCell::data));
-        }
+        // Read all direct counter cells of the table at once, rather than
+        // enumerating the cells of each entry in the request.
+        return client.read(p4DeviceId, pipeconf)
+                .directCounterCells(table.id())
+                .submit()
+                .thenApply(response -> response.all(PiCounterCell.class).stream()
+                        .filter(c -> c.cellId().counterType().equals(PiCounterType.DIRECT))
+                        .collect(Collectors.toMap(
+                                c -> c.cellId().tableEntry().handle(deviceId),
+                                PiCounterCell::data,
+                                (a, b) -> b)));
     }
 
     private boolean tableHasCounter(PiTableId tableId) {
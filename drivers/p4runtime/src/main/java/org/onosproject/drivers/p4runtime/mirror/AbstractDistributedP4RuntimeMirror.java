@@ -33,6 +33,7 @@ import org.onosproject.p4runtime.api.P4RuntimeWriteClient.WriteRequest;
 import org.onosproject.p4runtime.api.P4RuntimeWriteClient.WriteResponse;
 import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.EventuallyConsistentMap;
+import org.onosproject.store.service.EventuallyConsistentMapListener;
 import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.WallClockTimestamp;
 import org.osgi.service.component.annotations.Activate;
@@ -84,6 +85,9 @@ public abstract class AbstractDistributedP4RuntimeMirror
     private final PiPipeconfWatchdogListener pipeconfListener =
             new InternalPipeconfWatchdogListener();
 
+    private final EventuallyConsistentMapListener<PiHandle, TimedEntry<E>> mirrorMapListener =
+            event -> entryChanged(event.key());
+
     AbstractDistributedP4RuntimeMirror(PiEntityType entityType) {
         this.entityType = entityType;
         this.flushOnPipelineUnknown = false;
@@ -125,6 +129,7 @@ public abstract class AbstractDistributedP4RuntimeMirror
                 .withTimestampProvider((k, v) -> new WallClockTimestamp())
                 .build();
 
+        mirrorMap.addListener(mirrorMapListener);
         pipeconfWatchdogService.addListener(pipeconfListener);
         log.info("Started");
     }
@@ -132,11 +137,22 @@ public abstract class AbstractDistributedP4RuntimeMirror
     @Deactivate
     public void deactivate() {
         pipeconfWatchdogService.removeListener(pipeconfListener);
+        mirrorMap.removeListener(mirrorMapListener);
         mirrorMap.destroy();
         mirrorMap = null;
         log.info("Stopped");
     }
 
+    /**
+     * Invoked whenever the entry associated to the given handle is added,
+     * updated or removed, by this instance or by others in the cluster. Does
+     * nothing by default.
+     *
+     * @param handle handle
+     */
+    protected void entryChanged(PiHandle handle) {
+    }
+
     @Override
     public Collection<TimedEntry<E>> getAll(DeviceId deviceId) {
         checkNotNull(deviceId);
@@ -191,12 +207,26 @@ public abstract class AbstractDistributedP4RuntimeMirror
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void sync(DeviceId deviceId, Collection<E> entities) {
         checkNotNull(deviceId);
+        sync(deviceId, deviceHandleMap(deviceId), entities);
+    }
+
+    /**
+     * Synchronizes the given mirror entries of the given device ID with the
+     * given collection of PI entities. Mirror entries not in the given local
+     * state are left untouched.
+     *
+     * @param deviceId   device ID
+     * @param localState mirror entries to synchronize, as returned by
+     *                   {@link #deviceHandleMap(DeviceId)} or a subset of it
+     * @param entities   collection of PI entities read from the device
+     */
+    @SuppressWarnings("unchecked")
+    protected void sync(DeviceId deviceId, Map<PiHandle, E> localState,
+                        Collection<E> entities) {
         final Map<PiHandle, E> deviceState = entities.stream()
                 .collect(Collectors.toMap(e -> e.handle(deviceId), e -> e));
-        final Map<PiHandle, E> localState = deviceHandleMap(deviceId);
 
         final AtomicInteger removeCount = new AtomicInteger(0);
         final AtomicInteger updateCount = new AtomicInteger(0);
@@ -238,7 +268,13 @@ public abstract class AbstractDistributedP4RuntimeMirror
                 .collect(Collectors.toSet());
     }
 
-    private Map<PiHandle, E> deviceHandleMap(DeviceId deviceId) {
+    /**
+     * Returns the mirror entries of the given device ID, by handle.
+     *
+     * @param deviceId device ID
+     * @return map of handles to entries
+     */
+    protected Map<PiHandle, E> deviceHandleMap(DeviceId deviceId) {
         final Map<PiHandle, E> deviceMap = Maps.newHashMap();
         mirrorMap.entrySet().stream()
                 .filter(e -> e.getKey().deviceId().equals(deviceId))
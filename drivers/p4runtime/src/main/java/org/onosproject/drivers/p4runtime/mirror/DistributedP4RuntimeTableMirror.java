@@ -16,10 +16,28 @@
 
 package org.onosproject.drivers.p4runtime.mirror;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.pi.model.PiTableId;
 import org.onosproject.net.pi.runtime.PiEntityType;
+import org.onosproject.net.pi.runtime.PiHandle;
 import org.onosproject.net.pi.runtime.PiTableEntry;
 import org.onosproject.net.pi.runtime.PiTableEntryHandle;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Distributed implementation of a P4Runtime table mirror.
@@ -30,12 +48,87 @@ public final class DistributedP4RuntimeTableMirror
                         <PiTableEntryHandle, PiTableEntry>
         implements P4RuntimeTableMirror {
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected DeviceService deviceService;
+
+    // Number of changes observed for each table, and the number observed when
+    // each table was last synchronized.
+    private final Map<DeviceId, Map<PiTableId, Long>> tableVersions =
+            Maps.newConcurrentMap();
+    private final Map<DeviceId, Map<PiTableId, Long>> syncedVersions =
+            Maps.newConcurrentMap();
+
+    private final DeviceListener deviceListener = new InternalDeviceListener();
+
     public DistributedP4RuntimeTableMirror() {
         super(PiEntityType.TABLE_ENTRY);
     }
 
+    @Activate
+    @Override
+    public void activate() {
+        super.activate();
+        deviceService.addListener(deviceListener);
+    }
+
+    @Deactivate
+    @Override
+    public void deactivate() {
+        deviceService.removeListener(deviceListener);
+        super.deactivate();
+    }
+
     @Override
     protected String mapSimpleName() {
         return PiEntityType.TABLE_ENTRY.name().toLowerCase();
     }
+
+    @Override
+    public TableSync startSync(DeviceId deviceId) {
+        checkNotNull(deviceId);
+        final Map<PiTableId, Long> versions = ImmutableMap.copyOf(
+                tableVersions.getOrDefault(deviceId, Collections.emptyMap()));
+        final Map<PiTableId, Map<PiHandle, PiTableEntry>> tables = Maps.newHashMap();
+        deviceHandleMap(deviceId).forEach(
+                (handle, entry) -> tables.computeIfAbsent(
+                        ((PiTableEntryHandle) handle).tableId(), t -> Maps.newHashMap())
+                        .put(handle, entry));
+        return (tableId, entries) -> {
+            checkNotNull(tableId);
+            sync(deviceId, tables.getOrDefault(tableId, Collections.emptyMap()), entries);
+            syncedVersions.computeIfAbsent(deviceId, d -> Maps.newConcurrentMap())
+                    .put(tableId, versions.getOrDefault(tableId, 0L));
+        };
+    }
+
+    @Override
+    public boolean isUnchangedSinceSync(DeviceId deviceId, PiTableId tableId) {
+        checkNotNull(deviceId);
+        checkNotNull(tableId);
+        final Long synced = syncedVersions
+                .getOrDefault(deviceId, Collections.emptyMap()).get(tableId);
+        final long current = tableVersions
+                .getOrDefault(deviceId, Collections.emptyMap()).getOrDefault(tableId, 0L);
+        return Objects.equals(synced, current);
+    }
+
+    @Override
+    protected void entryChanged(PiHandle handle) {
+        tableVersions.computeIfAbsent(handle.deviceId(), d -> Maps.newConcurrentMap())
+                .merge(((PiTableEntryHandle) handle).tableId(), 1L, Long::sum);
+    }
+
+    private class InternalDeviceListener implements DeviceListener {
+        @Override
+        public void event(DeviceEvent event) {
+            final DeviceId deviceId = event.subject().id();
+            tableVersions.remove(deviceId);
+            syncedVersions.remove(deviceId);
+        }
+
+        @Override
+        public boolean isRelevant(DeviceEvent event) {
+            return event.type() == DeviceEvent.Type.DEVICE_REMOVED;
+        }
+    }
 }
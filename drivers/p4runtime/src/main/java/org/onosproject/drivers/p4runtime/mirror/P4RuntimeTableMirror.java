@@ -16,12 +16,54 @@
 
 package org.onosproject.drivers.p4runtime.mirror;
 
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.pi.model.PiTableId;
 import org.onosproject.net.pi.runtime.PiTableEntry;
 import org.onosproject.net.pi.runtime.PiTableEntryHandle;
 
+import java.util.Collection;
+
 /**
  * Mirror of table entries installed on a P4Runtime device.
  */
 public interface P4RuntimeTableMirror
         extends P4RuntimeMirror<PiTableEntryHandle, PiTableEntry> {
+
+    /**
+     * Starts synchronizing the tables of the given device ID with the state of
+     * the device, one table at a time. The mirror entries of the device are
+     * looked up once, when this method is called, and then sliced by table.
+     * This method should be called before reading the tables from the device.
+     *
+     * @param deviceId device ID
+     * @return synchronizer of the tables of the device
+     */
+    TableSync startSync(DeviceId deviceId);
+
+    /**
+     * Returns true if the entries of the given table of the given device ID
+     * have not been added, updated or removed, as observed by this instance,
+     * since the table was last synchronized with a {@link TableSync}.
+     *
+     * @param deviceId device ID
+     * @param tableId  table ID
+     * @return true if the table was synchronized and has not changed since
+     */
+    boolean isUnchangedSinceSync(DeviceId deviceId, PiTableId tableId);
+
+    /**
+     * Synchronizer of the tables of a device with the state of the device.
+     */
+    interface TableSync {
+
+        /**
+         * Synchronizes the entries of the given table with the given
+         * collection of table entries. Entries of other tables are left
+         * untouched. Different tables can be synchronized concurrently.
+         *
+         * @param tableId table ID
+         * @param entries collection of table entries read from the given table
+         */
+        void sync(PiTableId tableId, Collection<PiTableEntry> entries);
+    }
 }
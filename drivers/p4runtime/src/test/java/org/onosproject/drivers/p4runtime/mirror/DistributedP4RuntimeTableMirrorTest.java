@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.drivers.p4runtime.mirror;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.pi.model.PiActionId;
+import org.onosproject.net.pi.model.PiTableId;
+import org.onosproject.net.pi.runtime.PiAction;
+import org.onosproject.net.pi.runtime.PiTableEntry;
+import org.onosproject.net.pi.service.PiPipeconfWatchdogListener;
+import org.onosproject.net.pi.service.PiPipeconfWatchdogService;
+import org.onosproject.store.service.TestStorageService;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.NetTestTools.device;
+
+/**
+ * Unit tests for the distributed P4Runtime table mirror.
+ */
+public class DistributedP4RuntimeTableMirrorTest {
+
+    private static final Device DEVICE = device("1");
+    private static final DeviceId DEVICE_ID = DEVICE.id();
+    private static final PiTableId TABLE_1 = PiTableId.of("table1");
+    private static final PiTableId TABLE_2 = PiTableId.of("table2");
+    private static final PiActionId ACTION_1 = PiActionId.of("action1");
+    private static final PiActionId ACTION_2 = PiActionId.of("action2");
+
+    private DistributedP4RuntimeTableMirror mirror;
+    private TestDeviceService deviceService;
+
+    @Before
+    public void setUp() {
+        deviceService = new TestDeviceService();
+        mirror = new DistributedP4RuntimeTableMirror();
+        mirror.storageService = new TestStorageService();
+        mirror.pipeconfWatchdogService = new TestPipeconfWatchdogService();
+        mirror.deviceService = deviceService;
+        mirror.activate();
+    }
+
+    @After
+    public void tearDown() {
+        mirror.deactivate();
+    }
+
+    private static PiTableEntry entry(PiTableId tableId, int priority, PiActionId actionId) {
+        return PiTableEntry.builder()
+                .forTable(tableId)
+                .withPriority(priority)
+                .withAction(PiAction.builder().withId(actionId).build())
+                .build();
+    }
+
+    private Collection<PiTableEntry> mirrored(PiTableId tableId) {
+        return mirror.getAll(DEVICE_ID).stream()
+                .map(TimedEntry::entry)
+                .filter(e -> e.table().equals(tableId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Tests that synchronizing a table adds, updates and removes entries of
+     * that table only.
+     */
+    @Test
+    public void syncTouchesOnlyItsTable() {
+        final PiTableEntry t1e1 = entry(TABLE_1, 1, ACTION_1);
+        final PiTableEntry t1e2 = entry(TABLE_1, 2, ACTION_1);
+        final PiTableEntry t2e1 = entry(TABLE_2, 1, ACTION_1);
+        mirror.put(t1e1.handle(DEVICE_ID), t1e1);
+        mirror.put(t1e2.handle(DEVICE_ID), t1e2);
+        mirror.put(t2e1.handle(DEVICE_ID), t2e1);
+
+        final PiTableEntry t1e1Updated = entry(TABLE_1, 1, ACTION_2);
+        final PiTableEntry t1e3 = entry(TABLE_1, 3, ACTION_1);
+        mirror.startSync(DEVICE_ID).sync(TABLE_1, ImmutableList.of(t1e1Updated, t1e3));
+
+        assertThat(mirrored(TABLE_1), containsInAnyOrder(t1e1Updated, t1e3));
+        assertThat(mirrored(TABLE_2), containsInAnyOrder(t2e1));
+    }
+
+    /**
+     * Tests that tables read concurrently can be synchronized in any order
+     * against the snapshot taken when the reads started.
+     */
+    @Test
+    public void interleavedTableSyncs() {
+        final PiTableEntry t1e1 = entry(TABLE_1, 1, ACTION_1);
+        final PiTableEntry t2e1 = entry(TABLE_2, 1, ACTION_1);
+        mirror.put(t1e1.handle(DEVICE_ID), t1e1);
+        mirror.put(t2e1.handle(DEVICE_ID), t2e1);
+
+        final P4RuntimeTableMirror.TableSync tableSync = mirror.startSync(DEVICE_ID);
+        final PiTableEntry t2e2 = entry(TABLE_2, 2, ACTION_1);
+        // Table 2 replies first, table 1 (now empty) replies later.
+        tableSync.sync(TABLE_2, ImmutableList.of(t2e1, t2e2));
+        tableSync.sync(TABLE_1, ImmutableList.of());
+
+        assertTrue(mirrored(TABLE_1).isEmpty());
+        assertThat(mirrored(TABLE_2), containsInAnyOrder(t2e1, t2e2));
+        assertFalse(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+        assertFalse(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_2));
+    }
+
+    /**
+     * Tests that a table is reported unchanged only after a sync that found
+     * the mirror consistent, and until the next change to that table.
+     */
+    @Test
+    public void unchangedSinceSync() {
+        final PiTableEntry t1e1 = entry(TABLE_1, 1, ACTION_1);
+        final PiTableEntry t2e1 = entry(TABLE_2, 1, ACTION_1);
+        assertFalse(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+
+        // Sync that modifies the mirror.
+        mirror.startSync(DEVICE_ID).sync(TABLE_1, ImmutableList.of(t1e1));
+        assertFalse(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+
+        // Sync that finds the mirror consistent.
+        mirror.startSync(DEVICE_ID).sync(TABLE_1, ImmutableList.of(t1e1));
+        assertTrue(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+
+        // Changes to other tables are not relevant.
+        mirror.put(t2e1.handle(DEVICE_ID), t2e1);
+        assertTrue(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+        assertFalse(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_2));
+
+        mirror.put(t1e1.handle(DEVICE_ID), entry(TABLE_1, 1, ACTION_2));
+        assertFalse(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+
+        mirror.startSync(DEVICE_ID).sync(TABLE_1, ImmutableList.of(t1e1));
+        mirror.startSync(DEVICE_ID).sync(TABLE_1, ImmutableList.of(t1e1));
+        assertTrue(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+        mirror.remove(t1e1.handle(DEVICE_ID));
+        assertFalse(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+    }
+
+    /**
+     * Tests that sync bookkeeping is purged when the device is removed.
+     */
+    @Test
+    public void deviceRemoved() {
+        mirror.startSync(DEVICE_ID).sync(TABLE_1, ImmutableList.of());
+        assertTrue(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+
+        deviceService.post(new DeviceEvent(DeviceEvent.Type.DEVICE_AVAILABILITY_CHANGED, DEVICE));
+        assertTrue(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+
+        deviceService.post(new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, DEVICE));
+        assertFalse(mirror.isUnchangedSinceSync(DEVICE_ID, TABLE_1));
+    }
+
+    private static class TestDeviceService extends DeviceServiceAdapter {
+        private DeviceListener listener;
+
+        @Override
+        public void addListener(DeviceListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(DeviceListener listener) {
+            assertThat(listener, is(this.listener));
+            this.listener = null;
+        }
+
+        void post(DeviceEvent event) {
+            if (listener.isRelevant(event)) {
+                listener.event(event);
+            }
+        }
+    }
+
+    private static class TestPipeconfWatchdogService implements PiPipeconfWatchdogService {
+        @Override
+        public void triggerProbe(DeviceId deviceId) {
+        }
+
+        @Override
+        public PipelineStatus getStatus(DeviceId deviceId) {
+            return PipelineStatus.READY;
+        }
+
+        @Override
+        public void addListener(PiPipeconfWatchdogListener listener) {
+        }
+
+        @Override
+        public void removeListener(PiPipeconfWatchdogListener listener) {
+        }
+    }
+}
@@ -245,10 +245,12 @@ public class FabricInterpreter extends AbstractFabricHandlerBehavior
     public InboundPacket mapInboundPacket(PiPacketOperation packetIn, DeviceId deviceId) throws PiInterpreterException {
         // Assuming that the packet is ethernet, which is fine since fabric.p4
         // can deparse only ethernet packets.
+        // The lazily parsed frame keeps decoding from this array, so it must
+        // not be shared with the raw view handed out to packet processors
+        byte[] data = packetIn.data().asArray();
         Ethernet ethPkt;
         try {
-            ethPkt = Ethernet.deserializer().deserialize(packetIn.data().asArray(), 0,
-                                                         packetIn.data().size());
+            ethPkt = Ethernet.lazyDeserializer().deserialize(data, 0, data.length);
         } catch (DeserializationException dex) {
             throw new PiInterpreterException(dex.getMessage());
         }
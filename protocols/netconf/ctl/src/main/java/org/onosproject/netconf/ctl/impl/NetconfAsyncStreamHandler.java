@@ -0,0 +1,293 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import org.apache.sshd.client.channel.ClientChannel;
+import org.apache.sshd.common.io.IoInputStream;
+import org.apache.sshd.common.io.IoOutputStream;
+import org.apache.sshd.common.io.IoReadFuture;
+import org.apache.sshd.common.io.IoWriteFuture;
+import org.apache.sshd.common.util.buffer.Buffer;
+import org.apache.sshd.common.util.buffer.ByteArrayBuffer;
+import org.onosproject.netconf.NetconfDeviceInfo;
+import org.onosproject.netconf.NetconfDeviceOutputEvent;
+import org.onosproject.netconf.NetconfDeviceOutputEventListener;
+import org.onosproject.netconf.NetconfException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Stream handler reading and writing the channel of a NETCONF session
+ * without blocking, so that the sessions do not need a thread each.
+ * <p>
+ * Reads are issued on the asynchronous channel streams and completed by the
+ * I/O workers of the shared SSH client; the received bytes are then framed
+ * and dispatched on the event loop the session is pinned to, before the
+ * next read is issued. Requests are pipelined: they are queued and written
+ * back-to-back, coalescing the requests queued while a write is in
+ * progress, and the replies are matched to them by message-id.
+ * </p>
+ */
+public class NetconfAsyncStreamHandler implements NetconfStreamHandler {
+
+    private static final Logger log = LoggerFactory
+            .getLogger(NetconfAsyncStreamHandler.class);
+    private static final String END_PATTERN = "]]>]]>";
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final IoInputStream in;
+    private final IoOutputStream out;
+    private final NetconfDeviceInfo netconfDeviceInfo;
+    private final NetconfMessageDispatcher dispatcher;
+    private final Map<Integer, CompletableFuture<String>> replies;
+    private final Executor loop;
+    private final NetconfFramer framer;
+    private final Buffer readBuffer = new ByteArrayBuffer(READ_BUFFER_SIZE);
+    private final Queue<PendingWrite> pendingWrites = new ArrayDeque<>();
+    // Requests sent through this handler and still waiting for their reply
+    private final Map<Integer, CompletableFuture<String>> outstanding = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private boolean writing;
+
+    /**
+     * Creates a handler for the specified channel, opened in asynchronous
+     * streaming mode, and starts reading from it.
+     *
+     * @param channel    opened channel of the session
+     * @param loop       event loop the session is pinned to
+     * @param deviceInfo device information
+     * @param delegate   session delegate notified of the replies
+     * @param replies    futures waiting for the replies, by message-id
+     */
+    public NetconfAsyncStreamHandler(ClientChannel channel, Executor loop,
+                                     NetconfDeviceInfo deviceInfo,
+                                     NetconfSessionDelegate delegate,
+                                     Map<Integer, CompletableFuture<String>> replies) {
+        this.in = channel.getAsyncOut();
+        this.out = channel.getAsyncIn();
+        this.netconfDeviceInfo = deviceInfo;
+        this.dispatcher = new NetconfMessageDispatcher(deviceInfo, delegate);
+        this.replies = replies;
+        this.loop = loop;
+        this.framer = new NetconfFramer(new NetconfMessage.Assembler(this::dealWithMessage));
+        log.debug("Event loop handler for device {} session started", deviceInfo);
+        read();
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessage(String request) {
+        return sendMessage(request, NetconfStreamThread.getMsgId(request).get());
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessage(String request, int messageId) {
+        log.debug("Sending message {} to device {}", request, netconfDeviceInfo);
+        CompletableFuture<String> cf = new CompletableFuture<>();
+        synchronized (pendingWrites) {
+            if (closed.get()) {
+                cf.completeExceptionally(new EOFException("Session with " + netconfDeviceInfo + " is closed"));
+                return cf;
+            }
+            replies.put(messageId, cf);
+            outstanding.put(messageId, cf);
+            cf.whenComplete((reply, error) -> outstanding.remove(messageId, cf));
+            pendingWrites.add(new PendingWrite(request.getBytes(UTF_8), messageId, cf));
+            if (writing) {
+                return cf;
+            }
+            writing = true;
+        }
+        write();
+        return cf;
+    }
+
+    // Writes all queued requests at once, chaining the next write on the completion of this one.
+    private void write() {
+        List<PendingWrite> batch;
+        synchronized (pendingWrites) {
+            if (pendingWrites.isEmpty()) {
+                writing = false;
+                return;
+            }
+            batch = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+        }
+        int length = 0;
+        for (PendingWrite pending : batch) {
+            length += pending.bytes.length;
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (PendingWrite pending : batch) {
+            System.arraycopy(pending.bytes, 0, bytes, offset, pending.bytes.length);
+            offset += pending.bytes.length;
+        }
+        try {
+            write(new ByteArrayBuffer(bytes)).addListener(future -> {
+                if (!future.isWritten()) {
+                    fail(batch, future.getException());
+                }
+                write();
+            });
+        } catch (IOException | RuntimeException e) {
+            fail(batch, e);
+            write();
+        }
+    }
+
+    private IoWriteFuture write(Buffer buffer) throws IOException {
+        return out.write(buffer);
+    }
+
+    private void fail(List<PendingWrite> batch, Throwable error) {
+        log.error("Writing to {} failed", netconfDeviceInfo, error);
+        batch.forEach(pending -> {
+            replies.remove(pending.messageId, pending.reply);
+            pending.reply.completeExceptionally(error);
+        });
+    }
+
+    private void read() {
+        if (closed.get()) {
+            return;
+        }
+        readBuffer.rpos(0);
+        readBuffer.wpos(0);
+        in.read(readBuffer).addListener(this::readComplete);
+    }
+
+    private void readComplete(IoReadFuture future) {
+        try {
+            loop.execute(() -> process(future));
+        } catch (RejectedExecutionException e) {
+            log.debug("Event loop of device {} was shut down", netconfDeviceInfo);
+        }
+    }
+
+    private void process(IoReadFuture future) {
+        if (closed.get()) {
+            return;
+        }
+        Throwable error = future.getException();
+        if (error != null) {
+            if (error instanceof EOFException) {
+                log.debug("Netconf device {} closed the session, will need to be reopened",
+                          netconfDeviceInfo);
+            } else {
+                log.warn("Error in reading from the session for device {} ", netconfDeviceInfo, error);
+            }
+            if (closed.compareAndSet(false, true)) {
+                failOutstanding();
+                dispatcher.publish(NetconfDeviceOutputEvent.Type.SESSION_CLOSED);
+            }
+            return;
+        }
+        Buffer buffer = future.getBuffer();
+        try {
+            framer.feed(ByteBuffer.wrap(buffer.array(), buffer.rpos(), buffer.available()));
+        } catch (NetconfException e) {
+            log.debug("Netconf device {} send badly framed message: {}",
+                      netconfDeviceInfo, e.getMessage());
+            close(e.getMessage());
+            return;
+        }
+        read();
+    }
+
+    private void dealWithMessage(NetconfMessage message) {
+        if (message.text().isEmpty()) {
+            // end-of-message delimiter alone
+            close(END_PATTERN);
+        } else {
+            dispatcher.dispatch(message);
+        }
+    }
+
+    @Override
+    public void close() {
+        close(NetconfStreamThread.ON_REQUEST);
+    }
+
+    private void close(String deviceReply) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        log.debug("Netconf device {} closed DEVICE_UNREGISTERED {}",
+                  netconfDeviceInfo, deviceReply);
+        failOutstanding();
+        if (!deviceReply.equals(NetconfStreamThread.ON_REQUEST)) {
+            dispatcher.publish(NetconfDeviceOutputEvent.Type.DEVICE_UNREGISTERED);
+        }
+    }
+
+    // Fails the requests not yet replied to, once the handler is closed.
+    private void failOutstanding() {
+        synchronized (pendingWrites) {
+            pendingWrites.clear();
+        }
+        EOFException error = new EOFException("Session with " + netconfDeviceInfo + " is closed");
+        outstanding.forEach((messageId, reply) -> {
+            replies.remove(messageId, reply);
+            reply.completeExceptionally(error);
+        });
+        outstanding.clear();
+    }
+
+    @Override
+    public void addDeviceEventListener(NetconfDeviceOutputEventListener listener) {
+        dispatcher.addDeviceEventListener(listener);
+    }
+
+    @Override
+    public void removeDeviceEventListener(NetconfDeviceOutputEventListener listener) {
+        dispatcher.removeDeviceEventListener(listener);
+    }
+
+    @Override
+    public void setEnableNotifications(boolean enableNotifications) {
+        dispatcher.setEnableNotifications(enableNotifications);
+    }
+
+    // Request queued for writing, with the future waiting for its reply.
+    private static final class PendingWrite {
+        private final byte[] bytes;
+        private final int messageId;
+        private final CompletableFuture<String> reply;
+
+        private PendingWrite(byte[] bytes, int messageId, CompletableFuture<String> reply) {
+            this.bytes = bytes;
+            this.messageId = messageId;
+            this.reply = reply;
+        }
+    }
+}
@@ -104,6 +104,7 @@ import static org.onosproject.netconf.NetconfDeviceInfo.extractIpPortPath;
                 NETCONF_REPLY_TIMEOUT + ":Integer=" + NETCONF_REPLY_TIMEOUT_DEFAULT,
                 NETCONF_IDLE_TIMEOUT + ":Integer=" + NETCONF_IDLE_TIMEOUT_DEFAULT,
                 SSH_LIBRARY + "=" + SSH_LIBRARY_DEFAULT,
+                NETCONF_EVENT_LOOP_THREADS + ":Integer=" + NETCONF_EVENT_LOOP_THREADS_DEFAULT,
         })
 public class NetconfControllerImpl implements NetconfController {
 
@@ -119,6 +120,12 @@ public class NetconfControllerImpl implements NetconfController {
     /** SSH client library to use. */
     protected static String sshLibrary = SSH_LIBRARY_DEFAULT;
 
+    /** Number of event loop threads shared by apache-mina sessions; 0 for a thread per session. */
+    protected static int netconfEventLoopThreads = NETCONF_EVENT_LOOP_THREADS_DEFAULT;
+
+    /** Event loops shared by the new apache-mina sessions; null if disabled. */
+    protected static NetconfEventLoopGroup netconfEventLoopGroup = null;
+
     protected NetconfSshClientLib sshClientLib = NetconfSshClientLib.APACHE_MINA;
 
     private static final MessageSubject SEND_REQUEST_SUBJECT_STRING =
@@ -243,6 +250,7 @@ public class NetconfControllerImpl implements NetconfController {
         cfgService.unregisterProperties(getClass(), false);
         netconfDeviceListeners.clear();
         netconfDeviceMap.clear();
+        updateEventLoopGroup(0);
         Security.removeProvider(BouncyCastleProvider.PROVIDER_NAME);
         log.info("Stopped");
     }
@@ -255,6 +263,7 @@ public class NetconfControllerImpl implements NetconfController {
             netconfIdleTimeout = NETCONF_IDLE_TIMEOUT_DEFAULT;
             sshLibrary = SSH_LIBRARY_DEFAULT;
             sshClientLib = NetconfSshClientLib.APACHE_MINA;
+            updateEventLoopGroup(NETCONF_EVENT_LOOP_THREADS_DEFAULT);
             log.info("No component configuration");
             return;
         }
@@ -269,6 +278,8 @@ public class NetconfControllerImpl implements NetconfController {
                 properties, NETCONF_CONNECT_TIMEOUT, netconfConnectTimeout);
         int newNetconfIdleTimeout = getIntegerProperty(
                 properties, NETCONF_IDLE_TIMEOUT, netconfIdleTimeout);
+        int newNetconfEventLoopThreads = getIntegerProperty(
+                properties, NETCONF_EVENT_LOOP_THREADS, netconfEventLoopThreads);
 
         newSshLibrary = get(properties, SSH_LIBRARY);
 
@@ -281,20 +292,37 @@ public class NetconfControllerImpl implements NetconfController {
         } else if (newNetconfIdleTimeout <= 0) {
             log.warn("netconfIdleTimeout is invalid - 0 or less.");
             return;
+        } else if (newNetconfEventLoopThreads < 0) {
+            log.warn("netconfEventLoopThreads is invalid - less than 0");
+            return;
         }
 
         netconfReplyTimeout = newNetconfReplyTimeout;
         netconfConnectTimeout = newNetconfConnectTimeout;
         netconfIdleTimeout = newNetconfIdleTimeout;
+        updateEventLoopGroup(newNetconfEventLoopThreads);
         if (newSshLibrary != null) {
             sshLibrary = newSshLibrary;
             sshClientLib = NetconfSshClientLib.getEnum(newSshLibrary);
         }
-        log.info("Settings: {} = {}, {} = {}, {} = {}, {} = {}",
+        log.info("Settings: {} = {}, {} = {}, {} = {}, {} = {}, {} = {}",
                  NETCONF_REPLY_TIMEOUT, netconfReplyTimeout,
                  NETCONF_CONNECT_TIMEOUT, netconfConnectTimeout,
                  NETCONF_IDLE_TIMEOUT, netconfIdleTimeout,
-                 SSH_LIBRARY, sshLibrary);
+                 SSH_LIBRARY, sshLibrary,
+                 NETCONF_EVENT_LOOP_THREADS, netconfEventLoopThreads);
+    }
+
+    // Replaces the event loops used by new sessions; existing sessions keep theirs until closed.
+    private static synchronized void updateEventLoopGroup(int threads) {
+        if (threads == netconfEventLoopThreads && (threads == 0) == (netconfEventLoopGroup == null)) {
+            return;
+        }
+        if (netconfEventLoopGroup != null) {
+            netconfEventLoopGroup.retire();
+        }
+        netconfEventLoopThreads = threads;
+        netconfEventLoopGroup = threads > 0 ? new NetconfEventLoopGroup(threads) : null;
     }
 
     @Override
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import org.apache.sshd.client.SshClient;
+import org.apache.sshd.common.FactoryManager;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Fixed set of event loops shared by the non-blocking NETCONF sessions,
+ * together with the SSH client whose I/O workers read and write their
+ * channels.
+ * <p>
+ * Each session is pinned to one loop on which all of its received messages
+ * are framed and dispatched in order, so that the number of threads serving
+ * NETCONF devices no longer grows with the number of devices.
+ * </p>
+ * <p>
+ * A group that is retired, when the number of loops is reconfigured, keeps
+ * serving the sessions it was assigned to and shuts down once the last of
+ * them is released.
+ * </p>
+ */
+public final class NetconfEventLoopGroup {
+
+    private static final Logger log = getLogger(NetconfEventLoopGroup.class);
+
+    private final ExecutorService[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private int sessions;
+    private boolean retired;
+    private boolean shutDown;
+    private SshClient client;
+
+    /**
+     * Creates a group of the specified number of event loops.
+     *
+     * @param size number of event loops, also used as number of SSH I/O workers
+     */
+    public NetconfEventLoopGroup(int size) {
+        checkArgument(size > 0, "Number of event loops must be positive");
+        ThreadFactory threadFactory = groupedThreads("onos/netconf", "event-loop-%d", log);
+        loops = new ExecutorService[size];
+        for (int i = 0; i < size; i++) {
+            loops[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    /**
+     * Returns the number of event loops of the group.
+     *
+     * @return number of event loops
+     */
+    public int size() {
+        return loops.length;
+    }
+
+    /**
+     * Returns the SSH client shared by the sessions of the group, starting
+     * it on first use. Sessions must be registered before using the client,
+     * so that the group does not shut it down while they are connecting.
+     *
+     * @return started SSH client
+     * @throws IOException if the group was shut down
+     */
+    synchronized SshClient sshClient() throws IOException {
+        checkNotShutDown();
+        if (client == null) {
+            client = SshClient.setUpDefaultClient();
+            client.getProperties().put(FactoryManager.NIO_WORKERS, loops.length);
+            client.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+            client.start();
+        }
+        return client;
+    }
+
+    /**
+     * Assigns an event loop to a new session.
+     *
+     * @return event loop of the session
+     * @throws IOException if the group was shut down
+     */
+    synchronized Executor register() throws IOException {
+        checkNotShutDown();
+        sessions++;
+        return loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)];
+    }
+
+    /**
+     * Releases an event loop assigned to a session that was closed.
+     */
+    synchronized void release() {
+        sessions--;
+        if (retired && sessions == 0) {
+            shutdown();
+        }
+    }
+
+    /**
+     * Retires the group, which shuts down as soon as no session uses it.
+     */
+    synchronized void retire() {
+        retired = true;
+        if (sessions == 0) {
+            shutdown();
+        }
+    }
+
+    private void checkNotShutDown() throws IOException {
+        if (shutDown) {
+            throw new IOException("NETCONF event loop group was shut down");
+        }
+    }
+
+    private void shutdown() {
+        shutDown = true;
+        log.info("Shutting down NETCONF event loop group of size {}", loops.length);
+        if (client != null) {
+            client.stop();
+            client = null;
+        }
+        for (ExecutorService loop : loops) {
+            loop.shutdown();
+        }
+    }
+}
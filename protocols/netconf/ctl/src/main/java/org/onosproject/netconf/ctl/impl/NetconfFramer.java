@@ -0,0 +1,267 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import org.onosproject.netconf.NetconfException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Splits the byte stream received from a NETCONF device into messages, as
+ * framed by either the end-of-message or the chunked framing mechanism of
+ * RFC 6242.
+ * <p>
+ * The framing mechanism is detected at the start of every message, as
+ * devices switch from end-of-message to chunked framing once hello messages
+ * have been exchanged. Message content is handed to the consumer as slices
+ * of the buffers fed to the framer, without framing and without copying, so
+ * the consumer must use the slices before the buffers are reused.
+ * </p>
+ * <p>
+ * The framer is not thread-safe and must be fed by a single thread.
+ * </p>
+ */
+public final class NetconfFramer {
+
+    private static final byte[] END_OF_MESSAGE = "]]>]]>".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LF = {'\n'};
+    private static final byte LF_CHAR = '\n';
+    private static final byte HASH_CHAR = '#';
+    private static final long MAX_CHUNK_SIZE = 4294967295L;
+
+    // Length of the end-of-message delimiter prefix which is also a suffix of
+    // the given number of matched delimiter bytes, as for Knuth-Morris-Pratt
+    private static final int[] END_OF_MESSAGE_FALLBACK = fallbacks(END_OF_MESSAGE);
+
+    private enum State {
+        MESSAGE_START,
+        MESSAGE_START_LF,
+        END_OF_MESSAGE_DATA,
+        CHUNK_HEADER,
+        CHUNK_SIZE,
+        CHUNK_DATA,
+        CHUNK_LF,
+        CHUNK_HASH,
+        END_OF_CHUNKS,
+        FAILED
+    }
+
+    /**
+     * Consumer of the framed messages.
+     */
+    public interface MessageConsumer {
+
+        /**
+         * Consumes a part of the current message.
+         *
+         * @param data message content, valid only for the duration of the call
+         */
+        void data(ByteBuffer data);
+
+        /**
+         * Signals that the current message is complete.
+         */
+        void endOfMessage();
+    }
+
+    private final MessageConsumer consumer;
+    private State state = State.MESSAGE_START;
+    private int leadingLineFeeds;
+    private int matched;
+    private int chunks;
+    private long chunkSize;
+
+    /**
+     * Creates a framer handing messages to the specified consumer.
+     *
+     * @param consumer message consumer
+     */
+    public NetconfFramer(MessageConsumer consumer) {
+        this.consumer = checkNotNull(consumer);
+    }
+
+    /**
+     * Feeds the framer with the bytes remaining in the specified buffer,
+     * which are all consumed.
+     *
+     * @param buffer bytes received from the device
+     * @throws NetconfException if the bytes violate the chunked framing, after
+     *                          which the framer rejects any further bytes
+     */
+    public void feed(ByteBuffer buffer) throws NetconfException {
+        while (buffer.hasRemaining()) {
+            byte b;
+            switch (state) {
+                case MESSAGE_START:
+                    if (buffer.get(buffer.position()) == LF_CHAR) {
+                        buffer.get();
+                        leadingLineFeeds = 1;
+                        state = State.MESSAGE_START_LF;
+                    } else {
+                        state = State.END_OF_MESSAGE_DATA;
+                    }
+                    break;
+                case MESSAGE_START_LF:
+                    b = buffer.get(buffer.position());
+                    if (b == HASH_CHAR) {
+                        buffer.get();
+                        chunks = 0;
+                        state = State.CHUNK_HEADER;
+                    } else if (b == LF_CHAR) {
+                        buffer.get();
+                        leadingLineFeeds++;
+                    } else {
+                        // not chunked, so the line feeds are content
+                        for (int i = 0; i < leadingLineFeeds; i++) {
+                            consumer.data(ByteBuffer.wrap(LF));
+                        }
+                        state = State.END_OF_MESSAGE_DATA;
+                    }
+                    break;
+                case END_OF_MESSAGE_DATA:
+                    readEndOfMessageData(buffer);
+                    break;
+                case CHUNK_HEADER:
+                    b = buffer.get();
+                    if (b == HASH_CHAR && chunks > 0) {
+                        state = State.END_OF_CHUNKS;
+                    } else if (b >= '1' && b <= '9') {
+                        chunkSize = b - '0';
+                        state = State.CHUNK_SIZE;
+                    } else {
+                        fail("Invalid chunk header");
+                    }
+                    break;
+                case CHUNK_SIZE:
+                    b = buffer.get();
+                    if (b >= '0' && b <= '9') {
+                        chunkSize = chunkSize * 10 + b - '0';
+                        if (chunkSize > MAX_CHUNK_SIZE) {
+                            fail("Chunk size exceeds " + MAX_CHUNK_SIZE);
+                        }
+                    } else if (b == LF_CHAR) {
+                        chunks++;
+                        state = State.CHUNK_DATA;
+                    } else {
+                        fail("Invalid chunk size");
+                    }
+                    break;
+                case CHUNK_DATA:
+                    int length = (int) Math.min(chunkSize, buffer.remaining());
+                    consumer.data(slice(buffer, buffer.position(), buffer.position() + length));
+                    buffer.position(buffer.position() + length);
+                    chunkSize -= length;
+                    if (chunkSize == 0) {
+                        state = State.CHUNK_LF;
+                    }
+                    break;
+                case CHUNK_LF:
+                    expect(buffer.get(), LF_CHAR, State.CHUNK_HASH);
+                    break;
+                case CHUNK_HASH:
+                    expect(buffer.get(), HASH_CHAR, State.CHUNK_HEADER);
+                    break;
+                case END_OF_CHUNKS:
+                    expect(buffer.get(), LF_CHAR, State.MESSAGE_START);
+                    consumer.endOfMessage();
+                    break;
+                case FAILED:
+                default:
+                    throw new NetconfException("Framer failed on previous input");
+            }
+        }
+    }
+
+    // Consumes message content up to and including the end-of-message
+    // delimiter, or the whole buffer if the delimiter is not found. Delimiter
+    // prefixes at the end of the buffer are held back, as they may turn out
+    // to be content once the next buffer is fed.
+    private void readEndOfMessageData(ByteBuffer buffer) {
+        int start = buffer.position();
+        // number of held back delimiter bytes fed in previous buffers
+        int carried = matched;
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            while (matched > 0 && b != END_OF_MESSAGE[matched]) {
+                int fallback = END_OF_MESSAGE_FALLBACK[matched];
+                int released = Math.min(matched - fallback, carried);
+                if (released > 0) {
+                    consumer.data(ByteBuffer.wrap(END_OF_MESSAGE, 0, released));
+                    carried -= released;
+                }
+                matched = fallback;
+            }
+            if (b == END_OF_MESSAGE[matched]) {
+                matched++;
+            }
+            if (matched == END_OF_MESSAGE.length) {
+                int end = buffer.position() - (END_OF_MESSAGE.length - carried);
+                if (end > start) {
+                    consumer.data(slice(buffer, start, end));
+                }
+                matched = 0;
+                state = State.MESSAGE_START;
+                consumer.endOfMessage();
+                return;
+            }
+        }
+        int end = buffer.position() - (matched - carried);
+        if (end > start) {
+            consumer.data(slice(buffer, start, end));
+        }
+    }
+
+    private void expect(byte b, byte expected, State next) throws NetconfException {
+        if (b != expected) {
+            fail("Invalid chunk delimiter");
+        }
+        state = next;
+    }
+
+    private void fail(String reason) throws NetconfException {
+        state = State.FAILED;
+        throw new NetconfException(reason);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int end) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(end);
+        slice.position(start);
+        return slice;
+    }
+
+    private static int[] fallbacks(byte[] pattern) {
+        int[] prefix = new int[pattern.length];
+        for (int i = 1, k = 0; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) {
+                k = prefix[k - 1];
+            }
+            if (pattern[i] == pattern[k]) {
+                k++;
+            }
+            prefix[i] = k;
+        }
+        int[] fallback = new int[pattern.length];
+        for (int matched = 1; matched < pattern.length; matched++) {
+            fallback[matched] = prefix[matched - 1];
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Message received from a NETCONF device, classified by its root element.
+ * <p>
+ * Only the root element is parsed, with a streaming parser, so classifying
+ * a message costs the same regardless of the size of its content.
+ * </p>
+ */
+public final class NetconfMessage {
+
+    private static final Logger log = LoggerFactory.getLogger(NetconfMessage.class);
+
+    private static final String HELLO = "hello";
+    private static final String RPC_REPLY = "rpc-reply";
+    private static final String RPC_ERROR = "rpc-error";
+    private static final String NOTIFICATION = "notification";
+    private static final Set<String> REPLIES = ImmutableSet.of(HELLO, RPC_REPLY, RPC_ERROR);
+    private static final String MESSAGE_ID = "message-id";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = xmlInputFactory();
+
+    private final String text;
+    private final String root;
+    private final Optional<Integer> messageId;
+
+    private NetconfMessage(String text, String root, Optional<Integer> messageId) {
+        this.text = text;
+        this.root = root;
+        this.messageId = messageId;
+    }
+
+    /**
+     * Returns the message text.
+     *
+     * @return message text
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * Returns the local name of the message root element.
+     *
+     * @return root element name; null if the message could not be parsed
+     */
+    public String root() {
+        return root;
+    }
+
+    /**
+     * Returns the message identifier, which is -1 for hello messages.
+     *
+     * @return message identifier; empty if the message has none
+     */
+    public Optional<Integer> messageId() {
+        return messageId;
+    }
+
+    /**
+     * Indicates whether the message is a reply or a hello message.
+     *
+     * @return true if the message is a reply
+     */
+    public boolean isReply() {
+        if (root == null) {
+            return text.contains(RPC_REPLY) || text.contains(RPC_ERROR) || text.contains("<" + HELLO);
+        }
+        return REPLIES.contains(root);
+    }
+
+    /**
+     * Indicates whether the message is a notification.
+     *
+     * @return true if the message is a notification
+     */
+    public boolean isNotification() {
+        if (root == null) {
+            return text.contains("<" + NOTIFICATION);
+        }
+        return NOTIFICATION.equals(root);
+    }
+
+    /**
+     * Decodes and classifies the specified message.
+     *
+     * @param data   message bytes, encoded in UTF-8
+     * @param offset offset of the message in the array
+     * @param length message length
+     * @return message
+     */
+    public static NetconfMessage parse(byte[] data, int offset, int length) {
+        String text = new String(data, offset, length, StandardCharsets.UTF_8);
+        if (text.isEmpty()) {
+            return new NetconfMessage(text, null, Optional.empty());
+        }
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(
+                    new ByteArrayInputStream(data, offset, length), StandardCharsets.UTF_8.name());
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    String root = reader.getLocalName();
+                    String id = reader.getAttributeValue(null, MESSAGE_ID);
+                    return new NetconfMessage(text, root, messageId(root, id));
+                }
+            }
+        } catch (XMLStreamException e) {
+            log.debug("Unable to parse message root element", e);
+        } finally {
+            close(reader);
+        }
+        return new NetconfMessage(text, null, NetconfStreamThread.getMsgId(text));
+    }
+
+    private static Optional<Integer> messageId(String root, String id) {
+        if (id != null) {
+            try {
+                return Optional.of(Integer.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Failed to parse message-id from {}", id, e);
+            }
+        }
+        return HELLO.equals(root) ? Optional.of(-1) : Optional.empty();
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                log.trace("Unable to close reader", e);
+            }
+        }
+    }
+
+    private static XMLInputFactory xmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("root", root)
+                .add("messageId", messageId)
+                .add("length", text.length())
+                .toString();
+    }
+
+    /**
+     * Assembles the content of framed messages into messages.
+     * <p>
+     * The buffer holding the message content grows with the messages, and is
+     * released after messages larger than {@link #RETAINED_BUFFER_SIZE}, so
+     * that idle sessions do not retain large buffers.
+     * </p>
+     */
+    public static final class Assembler implements NetconfFramer.MessageConsumer {
+
+        /**
+         * Initial size of the message buffer.
+         */
+        static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+        /**
+         * Largest message buffer retained between messages.
+         */
+        static final int RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+        private final Consumer<NetconfMessage> consumer;
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private int length;
+
+        /**
+         * Creates an assembler handing messages to the specified consumer.
+         *
+         * @param consumer message consumer, invoked with empty messages too
+         */
+        public Assembler(Consumer<NetconfMessage> consumer) {
+            this.consumer = checkNotNull(consumer);
+        }
+
+        @Override
+        public void data(ByteBuffer data) {
+            int size = data.remaining();
+            if (length + size > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(length + size, 2 * buffer.length));
+            }
+            data.get(buffer, length, size);
+            length += size;
+        }
+
+        @Override
+        public void endOfMessage() {
+            NetconfMessage message = parse(buffer, 0, length);
+            length = 0;
+            if (buffer.length > RETAINED_BUFFER_SIZE) {
+                buffer = new byte[INITIAL_BUFFER_SIZE];
+            }
+            consumer.accept(message);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import com.google.common.collect.Lists;
+import org.onosproject.netconf.NetconfDeviceInfo;
+import org.onosproject.netconf.NetconfDeviceOutputEvent;
+import org.onosproject.netconf.NetconfDeviceOutputEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Dispatches the messages received on a NETCONF session to the session
+ * delegate and to the device output listeners, independently of how the
+ * session streams are read.
+ */
+final class NetconfMessageDispatcher {
+
+    private static final Logger log = LoggerFactory
+            .getLogger(NetconfMessageDispatcher.class);
+
+    private final NetconfDeviceInfo netconfDeviceInfo;
+    private final NetconfSessionDelegate sessionDelegate;
+    private final List<NetconfDeviceOutputEventListener> netconfDeviceEventListeners
+            = Lists.newCopyOnWriteArrayList();
+    private volatile boolean enableNotifications = true;
+
+    /**
+     * Creates a dispatcher for the session with the specified device.
+     *
+     * @param deviceInfo device information
+     * @param delegate   session delegate notified of the replies
+     */
+    NetconfMessageDispatcher(NetconfDeviceInfo deviceInfo,
+                             NetconfSessionDelegate delegate) {
+        this.netconfDeviceInfo = deviceInfo;
+        this.sessionDelegate = delegate;
+    }
+
+    void addDeviceEventListener(NetconfDeviceOutputEventListener listener) {
+        if (!netconfDeviceEventListeners.contains(listener)) {
+            netconfDeviceEventListeners.add(listener);
+        }
+    }
+
+    void removeDeviceEventListener(NetconfDeviceOutputEventListener listener) {
+        netconfDeviceEventListeners.remove(listener);
+    }
+
+    void setEnableNotifications(boolean enableNotifications) {
+        this.enableNotifications = enableNotifications;
+    }
+
+    /**
+     * Notifies the listeners of an event of the specified type, carrying
+     * no payload.
+     *
+     * @param type event type
+     */
+    void publish(NetconfDeviceOutputEvent.Type type) {
+        NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                type, null, null, Optional.of(-1), netconfDeviceInfo);
+        netconfDeviceEventListeners.forEach(
+                listener -> listener.event(event));
+    }
+
+    /**
+     * Dispatches a reply to the session delegate and the listeners, or a
+     * notification to the listeners if notifications are enabled.
+     *
+     * @param message message received from the device
+     */
+    void dispatch(NetconfMessage message) {
+        String deviceReply = message.text();
+        if (message.isReply()) {
+            log.debug("Netconf device {} sessionDelegate.notify() DEVICE_REPLY {} {}",
+                    netconfDeviceInfo, message.messageId(), deviceReply);
+            NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                    NetconfDeviceOutputEvent.Type.DEVICE_REPLY,
+                    null, deviceReply, message.messageId(), netconfDeviceInfo);
+            sessionDelegate.notify(event);
+            netconfDeviceEventListeners.forEach(
+                    listener -> listener.event(event));
+        } else if (message.isNotification()) {
+            log.debug("Netconf device {} DEVICE_NOTIFICATION {} {} {}",
+                    netconfDeviceInfo, enableNotifications,
+                    message.messageId(), deviceReply);
+            if (enableNotifications) {
+                log.debug("dispatching to {} listeners", netconfDeviceEventListeners.size());
+                netconfDeviceEventListeners.forEach(
+                        listener -> listener.event(new NetconfDeviceOutputEvent(
+                                NetconfDeviceOutputEvent.Type.DEVICE_NOTIFICATION,
+                                null, deviceReply, message.messageId(),
+                                netconfDeviceInfo)));
+            }
+        } else {
+            log.debug("Error on reply from device {} {}", netconfDeviceInfo, deviceReply);
+        }
+    }
+}
@@ -73,6 +73,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -156,6 +157,8 @@ public class NetconfSessionMinaImpl extends AbstractNetconfSession {
     private ClientChannel channel = null;
     private ClientSession session = null;
     private SshClient client = null;
+    private NetconfEventLoopGroup eventLoopGroup = null;
+    private Executor eventLoop = null;
 
     private boolean disconnected = false;
 
@@ -232,15 +235,22 @@ public class NetconfSessionMinaImpl extends AbstractNetconfSession {
         log.info("Creating NETCONF session to {}",
                 deviceInfo.getDeviceId());
 
-        client = SshClient.setUpDefaultClient();
-        if (idleTimeout != NetconfControllerImpl.netconfIdleTimeout) {
-            client.getProperties().putIfAbsent(FactoryManager.IDLE_TIMEOUT,
-                    TimeUnit.SECONDS.toMillis(idleTimeout));
-            client.getProperties().putIfAbsent(FactoryManager.NIO2_READ_TIMEOUT,
-                    TimeUnit.SECONDS.toMillis(idleTimeout + 15L));
+        eventLoopGroup = NetconfControllerImpl.netconfEventLoopGroup;
+        if (eventLoopGroup != null) {
+            // sessions served by event loops share their SSH client
+            registerEventLoop();
+            client = eventLoopGroup.sshClient();
+        } else {
+            client = SshClient.setUpDefaultClient();
+            if (idleTimeout != NetconfControllerImpl.netconfIdleTimeout) {
+                client.getProperties().putIfAbsent(FactoryManager.IDLE_TIMEOUT,
+                        TimeUnit.SECONDS.toMillis(idleTimeout));
+                client.getProperties().putIfAbsent(FactoryManager.NIO2_READ_TIMEOUT,
+                        TimeUnit.SECONDS.toMillis(idleTimeout + 15L));
+            }
+            client.start();
+            client.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
         }
-        client.start();
-        client.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
         startSession();
 
         disconnected = false;
@@ -251,12 +261,17 @@ public class NetconfSessionMinaImpl extends AbstractNetconfSession {
     // FIXME blocking
     @Deprecated
     private void startSession() throws IOException {
+        registerEventLoop();
         final ConnectFuture connectFuture;
         connectFuture = client.connect(deviceInfo.name(),
                 deviceInfo.ip().toString(),
                 deviceInfo.port())
                 .verify(connectTimeout, TimeUnit.SECONDS);
         session = connectFuture.getSession();
+        if (eventLoopGroup != null && idleTimeout != NetconfControllerImpl.netconfIdleTimeout) {
+            session.getProperties().putIfAbsent(FactoryManager.IDLE_TIMEOUT,
+                    TimeUnit.SECONDS.toMillis(idleTimeout));
+        }
         //Using the onos private ssh key at path SSH_KEY_PATH
         if (deviceInfo.password().equals(EMPTY_STRING)) {
             try (PEMParser pemParser = new PEMParser(new FileReader(SSH_KEY_PATH))) {
@@ -286,6 +301,22 @@ public class NetconfSessionMinaImpl extends AbstractNetconfSession {
         openChannel();
     }
 
+    // Registers the session with its event loop group, if not registered
+    // yet, before the SSH client of the group is used, so that the group
+    // cannot be shut down while the session is connecting.
+    private void registerEventLoop() throws IOException {
+        if (eventLoopGroup != null && eventLoop == null) {
+            eventLoop = eventLoopGroup.register();
+        }
+    }
+
+    private void releaseEventLoop() {
+        if (eventLoop != null) {
+            eventLoop = null;
+            eventLoopGroup.release();
+        }
+    }
+
     private PublicKey getPublicKey(byte[] keyBytes, String type)
             throws NoSuchAlgorithmException, InvalidKeySpecException {
 
@@ -299,12 +330,20 @@ public class NetconfSessionMinaImpl extends AbstractNetconfSession {
     @Deprecated
     private void openChannel() throws IOException {
         channel = session.createSubsystemChannel("netconf");
+        if (eventLoopGroup != null) {
+            channel.setStreaming(ClientChannel.Streaming.Async);
+        }
         OpenFuture channelFuture = channel.open();
         if (channelFuture.await(connectTimeout, TimeUnit.SECONDS)) {
             if (channelFuture.isOpened()) {
-                streamHandler = new NetconfStreamThread(channel.getInvertedOut(), channel.getInvertedIn(),
-                        channel.getInvertedErr(), deviceInfo,
-                        new NetconfSessionDelegateImpl(), replies);
+                if (eventLoopGroup != null) {
+                    streamHandler = new NetconfAsyncStreamHandler(channel, eventLoop, deviceInfo,
+                            new NetconfSessionDelegateImpl(), replies);
+                } else {
+                    streamHandler = new NetconfStreamThread(channel.getInvertedOut(), channel.getInvertedIn(),
+                            channel.getInvertedErr(), deviceInfo,
+                            new NetconfSessionDelegateImpl(), replies);
+                }
                 primaryListeners.forEach(l -> streamHandler.addDeviceEventListener(l));
             } else {
                 throw new NetconfException("Failed to open channel with device " +
@@ -419,7 +458,8 @@ public class NetconfSessionMinaImpl extends AbstractNetconfSession {
             }
         }
 
-        if (client != null) {
+        // the client of an event loop group is shared with other sessions
+        if (client != null && eventLoopGroup == null) {
             try {
                 client.close();
             } catch (IOException ex) {
@@ -428,6 +468,7 @@ public class NetconfSessionMinaImpl extends AbstractNetconfSession {
 
             client.stop();
         }
+        releaseEventLoop();
     }
 
     private void sendHello() throws NetconfException {
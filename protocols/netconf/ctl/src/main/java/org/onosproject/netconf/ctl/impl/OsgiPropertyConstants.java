@@ -34,4 +34,7 @@ public final class OsgiPropertyConstants {
 
     public static final String SSH_LIBRARY = "sshLibrary";
     public static final String SSH_LIBRARY_DEFAULT = "apache-mina";
+
+    public static final String NETCONF_EVENT_LOOP_THREADS = "netconfEventLoopThreads";
+    public static final int NETCONF_EVENT_LOOP_THREADS_DEFAULT = 0;
 }
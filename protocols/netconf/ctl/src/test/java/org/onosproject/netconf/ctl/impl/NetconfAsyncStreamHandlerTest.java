@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.netconf.ctl.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.sshd.common.NamedFactory;
+import org.apache.sshd.server.Command;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.onlab.junit.TestTools;
+import org.onlab.junit.TestUtils;
+import org.onlab.osgi.ServiceDirectory;
+import org.onlab.osgi.TestServiceDirectory;
+import org.onlab.packet.Ip4Address;
+import org.onosproject.net.driver.DriverService;
+import org.onosproject.net.driver.DriverServiceAdapter;
+import org.onosproject.netconf.NetconfDeviceInfo;
+import org.onosproject.netconf.NetconfSession;
+
+import java.io.File;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.netconf.DatastoreId.RUNNING;
+import static org.onosproject.netconf.ctl.impl.NetconfSessionMinaImplTest.GET_REPLY_PATTERN;
+
+/**
+ * Tests of NETCONF sessions served by a shared event loop.
+ */
+public class NetconfAsyncStreamHandlerTest {
+
+    private static final String TEST_USERNAME = "netconf";
+    private static final String TEST_PASSWORD = "netconf123";
+    private static final String TEST_HOSTNAME = "127.0.0.1";
+    private static final String TEST_SERFILE =
+            System.getProperty("java.io.tmpdir") + System.getProperty("file.separator") + "testkey.ser";
+    private static final String SAMPLE_REQUEST =
+            "<some-yang-element xmlns=\"some-namespace\">"
+                    + "<some-child-element/>"
+                    + "</some-yang-element>";
+    private static final int REQUESTS = 20;
+
+    private static final ServiceDirectory TEST_DIRECTORY =
+            new TestServiceDirectory()
+                    .add(DriverService.class, new DriverServiceAdapter());
+
+    private static SshServer sshServerNetconf;
+    private static NetconfEventLoopGroup eventLoopGroup;
+    private static NetconfSession session10;
+    private static NetconfSession session11;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+        int portNumber = TestTools.findAvailablePort(50830);
+        sshServerNetconf = SshServer.setUpDefaultServer();
+        sshServerNetconf.setPasswordAuthenticator(
+                (username, password, session) ->
+                        TEST_USERNAME.equals(username) && TEST_PASSWORD.equals(password));
+        TestUtils.setField(NetconfSessionMinaImpl.class, "directory", TEST_DIRECTORY);
+        sshServerNetconf.setPort(portNumber);
+        SimpleGeneratorHostKeyProvider provider = new SimpleGeneratorHostKeyProvider();
+        provider.setFile(new File(TEST_SERFILE));
+        sshServerNetconf.setKeyPairProvider(provider);
+        sshServerNetconf.setSubsystemFactories(
+                Collections.<NamedFactory<Command>>singletonList(new NetconfSshdTestSubsystem.Factory()));
+        sshServerNetconf.open();
+
+        // both sessions share a single event loop
+        eventLoopGroup = new NetconfEventLoopGroup(1);
+        NetconfControllerImpl.netconfEventLoopGroup = eventLoopGroup;
+
+        NetconfDeviceInfo deviceInfo = new NetconfDeviceInfo(
+                TEST_USERNAME, TEST_PASSWORD, Ip4Address.valueOf(TEST_HOSTNAME), portNumber);
+        deviceInfo.setConnectTimeoutSec(OptionalInt.of(30));
+        deviceInfo.setReplyTimeoutSec(OptionalInt.of(30));
+        session10 = new NetconfSessionMinaImpl(deviceInfo, ImmutableList.of("urn:ietf:params:netconf:base:1.0"));
+        session11 = new NetconfSessionMinaImpl(deviceInfo);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (session10 != null) {
+            session10.close();
+        }
+        if (session11 != null) {
+            session11.close();
+        }
+        NetconfControllerImpl.netconfEventLoopGroup = null;
+        eventLoopGroup.retire();
+        TestUtils.setField(NetconfSessionMinaImpl.class, "directory", null);
+        sshServerNetconf.stop();
+    }
+
+    /**
+     * Tests the hello exchange over the event loop.
+     */
+    @Test
+    public void testHello() {
+        assertTrue("Incorrect sessionId", !session10.getSessionId().equals("-1"));
+        assertTrue("Incorrect sessionId", !session11.getSessionId().equals("-1"));
+        assertTrue("Missing capabilities", session11.getDeviceCapabilitiesSet()
+                .contains("urn:ietf:params:netconf:base:1.1"));
+    }
+
+    /**
+     * Tests concurrent requests, pipelined on both sessions.
+     */
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<String>> replies = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                NetconfSession session = i % 2 == 0 ? session10 : session11;
+                replies.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return session.getConfig(RUNNING, SAMPLE_REQUEST);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(replies.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            for (CompletableFuture<String> reply : replies) {
+                assertTrue("Unexpected reply " + reply.join(),
+                           GET_REPLY_PATTERN.matcher(reply.join()).matches());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
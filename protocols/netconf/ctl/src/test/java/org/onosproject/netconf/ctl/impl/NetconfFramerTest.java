@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.netconf.NetconfException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the NETCONF framer and message assembler.
+ */
+public class NetconfFramerTest {
+
+    private static final String EOM = "]]>]]>";
+    private static final String HELLO = "<hello xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"/>";
+    private static final String REPLY = "<rpc-reply message-id=\"7\" " +
+            "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><ok/></rpc-reply>";
+    private static final String NOTIFICATION = "<notification xmlns=" +
+            "\"urn:ietf:params:xml:ns:netconf:notification:1.0\"><eventTime/></notification>";
+    // Replies shaped as those of Ciena Waveserver and Junos devices, with
+    // an XML declaration, prefixed attributes and blank lines
+    private static final List<String> DEVICE_REPLIES = ImmutableList.of(
+            "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+                    "<rpc-reply message-id=\"12\">\n<data>\n" +
+                    "    <waveserver-lldp xmlns=\"urn:ciena:params:xml:ns:yang:ciena-ws:ciena-waveserver-lldp\">\n" +
+                    "        <port>\n" +
+                    "            <port-id>3-1</port-id>\n" +
+                    "            <properties>\n" +
+                    "                <mode>disabled</mode>\n" +
+                    "                <notification>off</notification>\n" +
+                    "            </properties>\n" +
+                    "        </port>\n" +
+                    "    </waveserver-lldp>\n</data>\n</rpc-reply>\n",
+            "<rpc-reply xmlns:junos=\"http://xml.juniper.net/junos/18.4R1/junos\">\n" +
+                    "    <interface-information xmlns=\"http://xml.juniper.net/junos/18.4R1/junos-interface\" " +
+                    "junos:style=\"normal\">\n" +
+                    "        <physical-interface>\n" +
+                    "            <name>jsrv</name>\n" +
+                    "            <admin-status junos:format=\"Enabled\">up</admin-status>\n" +
+                    "            <oper-status>up</oper-status>\n\n" +
+                    "            <current-physical-address junos:format=\"MAC 2c:6b:f5:03:ff:c0\">" +
+                    "2c:6b:f5:03:ff:c0</current-physical-address>\n" +
+                    "        </physical-interface>\n" +
+                    "    </interface-information>\n" +
+                    "    <cli>\n        <banner></banner>\n    </cli>\n</rpc-reply>");
+
+    private List<NetconfMessage> messages;
+    private NetconfFramer framer;
+
+    @Before
+    public void setUp() {
+        messages = new ArrayList<>();
+        framer = new NetconfFramer(new NetconfMessage.Assembler(messages::add));
+    }
+
+    private void feed(String stream, int bufferSize) throws NetconfException {
+        feed(stream.getBytes(StandardCharsets.UTF_8), bufferSize);
+    }
+
+    private void feed(byte[] bytes, int bufferSize) throws NetconfException {
+        for (int i = 0; i < bytes.length; i += bufferSize) {
+            framer.feed(ByteBuffer.wrap(bytes, i, Math.min(bufferSize, bytes.length - i)).slice());
+        }
+    }
+
+    private List<String> texts() {
+        List<String> texts = new ArrayList<>();
+        messages.forEach(message -> texts.add(message.text()));
+        return texts;
+    }
+
+    // Concatenates the specified byte arrays and strings encoded in UTF-8.
+    private static byte[] stream(Object... parts) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (Object part : parts) {
+            byte[] bytes = part instanceof byte[] ?
+                    (byte[]) part : part.toString().getBytes(StandardCharsets.UTF_8);
+            stream.write(bytes, 0, bytes.length);
+        }
+        return stream.toByteArray();
+    }
+
+    private static byte[] chunked(String message, int chunkSize) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - i);
+            byte[] header = ("\n#" + length + "\n").getBytes(StandardCharsets.UTF_8);
+            stream.write(header, 0, header.length);
+            stream.write(bytes, i, length);
+        }
+        byte[] end = "\n##\n".getBytes(StandardCharsets.UTF_8);
+        stream.write(end, 0, end.length);
+        return stream.toByteArray();
+    }
+
+    /**
+     * Tests end-of-message framing, whatever the buffer boundaries.
+     */
+    @Test
+    public void testEndOfMessage() throws Exception {
+        String content = "<data>]]>]]]>]>]]]]>]]</data>";
+        String stream = HELLO + EOM + "\n" + REPLY + EOM + "\n\n" + content + EOM + EOM;
+        for (int bufferSize : new int[]{1, 2, 3, 5, 7, stream.length()}) {
+            setUp();
+            feed(stream, bufferSize);
+            assertEquals("Buffer size " + bufferSize,
+                         ImmutableList.of(HELLO, "\n" + REPLY, "\n\n" + content, ""), texts());
+        }
+    }
+
+    /**
+     * Tests chunked framing, whatever the chunk and buffer boundaries.
+     */
+    @Test
+    public void testChunked() throws Exception {
+        String reply = "<rpc-reply message-id=\"8\"><data>été</data></rpc-reply>";
+        for (int chunkSize : new int[]{1, 4, 1000}) {
+            byte[] stream = stream(HELLO, EOM, chunked(reply, chunkSize), chunked(NOTIFICATION, chunkSize));
+            for (int bufferSize : new int[]{1, 3, 16, stream.length}) {
+                setUp();
+                feed(stream, bufferSize);
+                assertEquals("Chunk size " + chunkSize + ", buffer size " + bufferSize,
+                             ImmutableList.of(HELLO, reply, NOTIFICATION), texts());
+            }
+        }
+    }
+
+    /**
+     * Tests the rejection of badly framed chunks.
+     */
+    @Test
+    public void testBadChunks() {
+        for (String stream : new String[]{"\n##\n", "\n#0\n", "\n#4\n<ok/>\n##\n",
+                "\n#2\nok\n#x\n", "\n#99999999999\n", "\n#2\nok##\n"}) {
+            setUp();
+            try {
+                feed(stream, 1);
+                fail("Accepted " + stream);
+            } catch (NetconfException e) {
+                assertTrue("Message produced", messages.isEmpty());
+            }
+        }
+    }
+
+    /**
+     * Tests the classification of messages by their root element.
+     */
+    @Test
+    public void testMessages() throws Exception {
+        feed("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + REPLY + EOM +
+                     HELLO + EOM + NOTIFICATION + EOM + "not xml" + EOM, 64);
+        assertEquals(4, messages.size());
+
+        NetconfMessage reply = messages.get(0);
+        assertEquals("rpc-reply", reply.root());
+        assertEquals(Optional.of(7), reply.messageId());
+        assertTrue(reply.isReply());
+        assertFalse(reply.isNotification());
+
+        NetconfMessage hello = messages.get(1);
+        assertEquals(Optional.of(-1), hello.messageId());
+        assertTrue(hello.isReply());
+
+        NetconfMessage notification = messages.get(2);
+        assertEquals(Optional.empty(), notification.messageId());
+        assertTrue(notification.isNotification());
+
+        NetconfMessage text = messages.get(3);
+        assertNull(text.root());
+        assertFalse(text.isReply());
+        assertFalse(text.isNotification());
+    }
+
+    /**
+     * Tests framing device replies spanning several chunks and buffers.
+     */
+    @Test
+    public void testDeviceReplies() throws Exception {
+        for (String reply : DEVICE_REPLIES) {
+            setUp();
+            feed(stream(reply, EOM, chunked(reply, 128)), 256);
+            assertEquals(ImmutableList.of(reply, reply), texts());
+            assertTrue(messages.get(1).isReply());
+        }
+    }
+}
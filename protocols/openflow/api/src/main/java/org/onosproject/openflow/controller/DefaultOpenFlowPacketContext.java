@@ -105,8 +105,8 @@ public final class DefaultOpenFlowPacketContext implements OpenFlowPacketContext
         checkPermission(PACKET_READ);
 
         try {
-            return Ethernet.deserializer().deserialize(
-                    pktin.getData(), 0, pktin.getData().length);
+            byte[] data = pktin.getData();
+            return Ethernet.lazyDeserializer().deserialize(data, 0, data.length);
         } catch (BufferUnderflowException | NullPointerException |
                 DeserializationException e) {
             Logger log = LoggerFactory.getLogger(getClass());
@@ -30,6 +30,7 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.ItemNotFoundException;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.config.NetworkConfigRegistry;
@@ -110,6 +111,7 @@ public class Controller {
     protected int workerThreads = 0;
     protected int[] cfgQueueSizes = {FIRST_QUEUE_SIZE, 0, 0, 0, 0, 0, 0, DEFAULT_QUEUE_SIZE};
     protected int[] cfgBulkSizes = new int[8];
+    protected volatile int packetInRateThreshold = 0;
 
     // Start time of the controller
     protected long systemStartTime;
@@ -135,6 +137,7 @@ public class Controller {
 
     private DriverService driverService;
     private NetworkConfigRegistry netCfgService;
+    private MetricsService metricsService;
 
     public Controller() {
         Arrays.fill(cfgBulkSizes, DEFAULT_BULK_SIZE);
@@ -148,6 +151,27 @@ public class Controller {
         return cfgBulkSizes[queueId];
     }
 
+    /**
+     * Returns the per-switch packet-in rate, in packets per second, above
+     * which packet-ins for the default queue are sampled rather than
+     * dispatched; zero disables packet-in admission control.
+     *
+     * @return packet-in rate threshold
+     */
+    public int getPacketInRateThreshold() {
+        return packetInRateThreshold;
+    }
+
+    /**
+     * Returns the metrics service used to publish per-switch dispatch
+     * metrics, if any.
+     *
+     * @return metrics service or null
+     */
+    public MetricsService getMetricsService() {
+        return metricsService;
+    }
+
     // **************
     // Initialization
     // **************
@@ -265,6 +289,7 @@ public class Controller {
         boolean restartRequired = setOpenFlowPorts(properties);
         restartRequired |= setWorkerThreads(properties);
         restartRequired |= setTlsParameters(properties);
+        setPacketInRateThreshold(properties);
         if (restartRequired) {
             restart();
         }
@@ -326,6 +351,25 @@ public class Controller {
         return oldValue != this.workerThreads; // restart if number of threads has changed
     }
 
+    /**
+     * Gets the packet-in admission threshold from property dict; takes effect
+     * on existing connections without a restart.
+     *
+     * @param properties dictionary
+     */
+    private void setPacketInRateThreshold(Dictionary<?, ?> properties) {
+        String threshold = get(properties, "packetInRateThreshold");
+        if (!Strings.isNullOrEmpty(threshold)) {
+            int rate = Integer.parseInt(threshold);
+            if (rate < 0) {
+                throw new IllegalArgumentException(
+                        "packetInRateThreshold value must be a non-negative integer value");
+            }
+            this.packetInRateThreshold = rate;
+        }
+        log.debug("Packet-in rate threshold set to {}", this.packetInRateThreshold);
+    }
+
     static class TlsParams {
         final TlsMode mode;
         final String ksLocation;
@@ -636,10 +680,17 @@ public class Controller {
 
     public void start(OpenFlowAgent ag, DriverService driverService,
                       NetworkConfigRegistry netCfgService) {
+        start(ag, driverService, netCfgService, null);
+    }
+
+    public void start(OpenFlowAgent ag, DriverService driverService,
+                      NetworkConfigRegistry netCfgService,
+                      MetricsService metricsService) {
         log.info("Starting OpenFlow IO");
         this.agent = ag;
         this.driverService = driverService;
         this.netCfgService = netCfgService;
+        this.metricsService = metricsService;
         this.init();
         this.addListeningPorts(this.openFlowPorts);
     }
@@ -670,7 +721,7 @@ public class Controller {
         // only restart if we are already running
         if (cg != null) {
             stop();
-            start(this.agent, this.driverService, this.netCfgService);
+            start(this.agent, this.driverService, this.netCfgService, this.metricsService);
         }
     }
 
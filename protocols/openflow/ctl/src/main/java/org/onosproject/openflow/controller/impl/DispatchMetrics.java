@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.google.common.collect.Sets;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-switch metrics of the OpenFlow message dispatch queues.
+ * <p>
+ * Metrics are published under a component named after the switch, with a
+ * {@code packetIn} feature holding the overall packet-in rate and the number
+ * of packet-ins shed by admission control, and one {@code dispatchQueueN}
+ * feature per queue holding its enqueue rate, depth and drop count. When no
+ * metrics service is available the metrics are still kept, but not published.
+ * </p>
+ */
+final class DispatchMetrics {
+
+    private static final String PACKET_IN_FEATURE = "packetIn";
+    private static final String QUEUE_FEATURE = "dispatchQueue";
+    private static final String RATE = "rate";
+    private static final String SHED = "shed";
+    private static final String DEPTH = "depth";
+    private static final String DROPS = "drops";
+
+    private final MetricsService metricsService;
+    private final MetricsComponent component;
+    // Metrics published by this instance, as opposed to those left in place
+    // because another connection of the same switch published them first
+    private final Set<Metric> published = Sets.newIdentityHashSet();
+
+    private final Meter packetInRate = new Meter();
+    private final Counter packetInShed = new Counter();
+    private final Meter[] queueRates = new Meter[OFChannelHandler.NUM_OF_QUEUES];
+    private final Counter[] queueDrops = new Counter[OFChannelHandler.NUM_OF_QUEUES];
+
+    /**
+     * Creates and publishes the dispatch metrics of a switch.
+     *
+     * @param metricsService metrics service; may be null
+     * @param switchId       switch identifier used as metrics component
+     * @param queues         dispatch queues of the switch, keyed by queue id;
+     *                       queues not configured are absent
+     */
+    DispatchMetrics(MetricsService metricsService, String switchId,
+                    Map<Integer, ? extends LinkedBlockingMessagesQueue<?>> queues) {
+        this.metricsService = metricsService;
+        this.component = metricsService == null ? null : metricsService.registerComponent(switchId);
+
+        MetricsFeature packetInFeature = feature(PACKET_IN_FEATURE);
+        publish(packetInFeature, RATE, packetInRate);
+        publish(packetInFeature, SHED, packetInShed);
+        queues.forEach((queueId, queue) -> {
+            MetricsFeature queueFeature = feature(QUEUE_FEATURE + queueId);
+            queueRates[queueId] = publish(queueFeature, RATE, new Meter());
+            queueDrops[queueId] = publish(queueFeature, DROPS, new Counter());
+            publish(queueFeature, DEPTH, (Gauge<Integer>) queue::size);
+        });
+    }
+
+    private MetricsFeature feature(String name) {
+        return component == null ? null : component.registerFeature(name);
+    }
+
+    private <T extends Metric> T publish(MetricsFeature feature, String name, T metric) {
+        if (metricsService != null) {
+            try {
+                metricsService.registerMetric(component, feature, name, metric);
+                published.add(metric);
+            } catch (IllegalArgumentException e) {
+                // already published by another connection of the switch
+            }
+        }
+        return metric;
+    }
+
+    /**
+     * Records the arrival of a packet-in.
+     */
+    void packetIn() {
+        packetInRate.mark();
+    }
+
+    /**
+     * Records a packet-in shed by admission control.
+     */
+    void shed() {
+        packetInShed.inc();
+    }
+
+    /**
+     * Records a message added to a dispatch queue.
+     *
+     * @param queueId queue id
+     */
+    void enqueued(int queueId) {
+        Meter rate = queueRates[queueId];
+        if (rate != null) {
+            rate.mark();
+        }
+    }
+
+    /**
+     * Records a message dropped because its dispatch queue was full.
+     *
+     * @param queueId queue id
+     */
+    void dropped(int queueId) {
+        Counter drops = queueDrops[queueId];
+        if (drops != null) {
+            drops.inc();
+        }
+    }
+
+    /**
+     * Unpublishes the metrics published by this instance, leaving those of
+     * other connections of the switch in place.
+     */
+    void remove() {
+        if (metricsService == null || published.isEmpty()) {
+            return;
+        }
+        metricsService.removeMatching((name, metric) -> published.contains(metric));
+        published.clear();
+    }
+}
@@ -228,6 +228,17 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
      */
     private Future<?> dispatcherHandle = CompletableFuture.completedFuture(null);
 
+    /**
+     * Packet-in admission control for this switch.
+     */
+    private final PacketInAdmission packetInAdmission;
+
+    /**
+     * Dispatch metrics for this switch.
+     * Created with the first dispatched message, removed on channelInactive.
+     */
+    private DispatchMetrics dispatchMetrics;
+
     /**
      * Dispatch backlog.
      * <p>
@@ -256,6 +267,7 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
                 groupedThreads("onos/of-channel-handler", "port-status-%d", log));
         //Initialize queues and classifiers
         dispatchBacklog = new LinkedBlockingDeque<>(BACKLOG_READ_BUFFER_DEFAULT);
+        packetInAdmission = new PacketInAdmission(controller::getPacketInRateThreshold);
         for (int i = 0; i < NUM_OF_QUEUES; i++) {
             if (controller.getQueueSize(i) > 0) {
                 dispatchQueuesMapProducer.put(i,
@@ -1409,6 +1421,11 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             dispatcher = null;
         }
 
+        if (dispatchMetrics != null) {
+            dispatchMetrics.remove();
+            dispatchMetrics = null;
+        }
+
          if (thisdpid != 0) {
              if (!duplicateDpidFound) {
                  // if the disconnected switch (on this ChannelHandler)
@@ -1599,6 +1616,7 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         if (!dispatchQueuesMapProducer.get(idQueue).offer(message)) {
             return false;
         } else {
+            dispatchMetrics.enqueued(idQueue);
             incrementAndSignal();
             return true;
         }
@@ -1681,10 +1699,21 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
 
     private void dispatchMessage(OFMessage m) {
         log.debug("Begin dispatch OpenFlow Message");
+        if (dispatchMetrics == null) {
+            dispatchMetrics = new DispatchMetrics(controller.getMetricsService(),
+                                                  Dpid.uri(thisdpid).toString(),
+                                                  dispatchQueuesMapProducer);
+        }
         boolean backlogEmpty = processDispatchBacklogQueue();
         if (m.getType() == OFType.PACKET_IN) {
             Ethernet pkt = parsePacketInMessage(m);
-            pushMessageToQueue(m, classifyEthernetPacket(pkt));
+            int idQueue = classifyEthernetPacket(pkt);
+            dispatchMetrics.packetIn();
+            if (!packetInAdmission.admit(idQueue == NUM_OF_QUEUES - 1)) {
+                dispatchMetrics.shed();
+            } else if (!pushMessageToQueue(m, idQueue)) {
+                dispatchMetrics.dropped(idQueue);
+            }
         } else {
             if (!backlogEmpty || !pushMessageToQueue(m, NUM_OF_QUEUES - 1)) {
                 dispatchBacklog.offer(m);
@@ -68,4 +68,7 @@ public final class OsgiPropertyConstants {
     public static final int BULK_SIZE_DEFAULT = 100;
     public static final int QUEUE_SIZE_DEFAULT = 1;
 
+    public static final String PACKET_IN_RATE_THRESHOLD = "packetInRateThreshold";
+    public static final int PACKET_IN_RATE_THRESHOLD_DEFAULT = 0;
+
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-switch packet-in admission control.
+ * <p>
+ * Packet-ins which were not classified into one of the dedicated dispatch
+ * queues are treated as low priority. Once the switch exceeds the configured
+ * packet-in rate, only one in every {@code ceil(rate / threshold)} of those
+ * is admitted and the rest are shed. Classified packet-ins are always
+ * admitted, but still count towards the rate.
+ * </p>
+ * <p>
+ * Instances are not thread-safe; they are meant to be used from the event
+ * loop of a single switch channel.
+ * </p>
+ */
+final class PacketInAdmission {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final IntSupplier threshold;
+    private final LongSupplier clock;
+
+    private long windowStart;
+    private long windowCount;
+    private long lastRate;
+    private long sampleCounter;
+    private long shed;
+
+    /**
+     * Creates an admission controller driven by the system clock.
+     *
+     * @param threshold supplier of the packet-in rate threshold in packets
+     *                  per second; zero or less disables admission control
+     */
+    PacketInAdmission(IntSupplier threshold) {
+        this(threshold, System::nanoTime);
+    }
+
+    /**
+     * Creates an admission controller driven by the given clock.
+     *
+     * @param threshold supplier of the packet-in rate threshold
+     * @param clock     nanosecond clock
+     */
+    PacketInAdmission(IntSupplier threshold, LongSupplier clock) {
+        this.threshold = threshold;
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+    }
+
+    /**
+     * Accounts for a packet-in and decides whether it should be dispatched.
+     *
+     * @param lowPriority true if the packet-in was not classified into a
+     *                    dedicated queue
+     * @return true if the packet-in should be dispatched, false to shed it
+     */
+    boolean admit(boolean lowPriority) {
+        int limit = threshold.getAsInt();
+        if (limit <= 0) {
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        long elapsed = now - windowStart;
+        if (elapsed >= WINDOW_NANOS) {
+            lastRate = windowCount * WINDOW_NANOS / elapsed;
+            windowStart = now;
+            windowCount = 0;
+        }
+        windowCount++;
+
+        if (!lowPriority) {
+            return true;
+        }
+        long rate = Math.max(windowCount, lastRate);
+        if (rate <= limit) {
+            return true;
+        }
+        long interval = (rate + limit - 1) / limit;
+        if (sampleCounter++ % interval == 0) {
+            return true;
+        }
+        shed++;
+        return false;
+    }
+
+    /**
+     * Returns the number of packet-ins shed so far.
+     *
+     * @return shed packet-in count
+     */
+    long shedCount() {
+        return shed;
+    }
+}
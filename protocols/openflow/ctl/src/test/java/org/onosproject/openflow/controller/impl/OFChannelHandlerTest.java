@@ -16,16 +16,22 @@
 
 package org.onosproject.openflow.controller.impl;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricFilter;
 import com.google.common.collect.ImmutableSet;
 import io.netty.channel.ChannelHandlerContext;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.openflow.ChannelHandlerContextAdapter;
 import org.onosproject.openflow.MockOfPortStatus;
 import org.onosproject.openflow.OFDescStatsReplyAdapter;
 import org.onosproject.openflow.OpenflowSwitchDriverAdapter;
 import org.onosproject.openflow.controller.Dpid;
+import org.projectfloodlight.openflow.protocol.OFBarrierReply;
 import org.projectfloodlight.openflow.protocol.OFDescStatsReply;
+import org.projectfloodlight.openflow.protocol.OFFactories;
 
 import static org.easymock.EasyMock.*;
 import static org.hamcrest.CoreMatchers.is;
@@ -41,6 +47,8 @@ import static org.projectfloodlight.openflow.protocol.OFVersion.OF_13;
  */
 public class OFChannelHandlerTest {
 
+    private static final String DEFAULT_QUEUE_RATE = "of:0000000000000000.dispatchQueue7.rate";
+
     private Controller controller;
     private OFChannelHandler channelHandler;
     private ChannelHandlerContext channelHandlerContext;
@@ -157,4 +165,44 @@ public class OFChannelHandlerTest {
         verify(controller);
     }
 
+    // Dispatch with the default queue configuration, with the first and the
+    // default queues only
+    @Test
+    public void testDispatchDefaultQueues() throws Exception {
+        MetricsService metricsService = new MetricsManager();
+        Controller defaultController = new Controller() {
+            @Override
+            public MetricsService getMetricsService() {
+                return metricsService;
+            }
+        };
+        OFBarrierReply reply = OFFactories.getFactory(OF_13).buildBarrierReply().build();
+
+        OFChannelHandler handler = new OFChannelHandler(defaultController);
+        handler.ofVersion = OF_13;
+        handler.channelActive(channelHandlerContext);
+        handler.setState(ACTIVE);
+        handler.channelRead(channelHandlerContext, reply);
+        handler.channelRead(channelHandlerContext, reply);
+
+        Meter rate = metricsService.getMeters((name, metric) -> name.equals(DEFAULT_QUEUE_RATE))
+                .get(DEFAULT_QUEUE_RATE);
+        assertNotNull(rate);
+        assertThat(rate.getCount(), is(2L));
+        assertThat(metricsService.getGauges(MetricFilter.ALL).size(), is(2));
+
+        // a second connection of the same switch does not take over the
+        // metrics, nor unpublishes them when torn down
+        OFChannelHandler duplicate = new OFChannelHandler(defaultController);
+        duplicate.ofVersion = OF_13;
+        duplicate.channelActive(channelHandlerContext);
+        duplicate.setState(ACTIVE);
+        duplicate.channelRead(channelHandlerContext, reply);
+        duplicate.channelInactive(channelHandlerContext);
+        assertThat(rate.getCount(), is(2L));
+        assertThat(metricsService.getMeters(MetricFilter.ALL).get(DEFAULT_QUEUE_RATE), is(rate));
+
+        handler.channelInactive(channelHandlerContext);
+        assertThat(metricsService.getMetrics().isEmpty(), is(true));
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for packet-in admission control.
+ */
+public class PacketInAdmissionTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger threshold = new AtomicInteger();
+    private PacketInAdmission admission;
+
+    @Before
+    public void setUp() {
+        admission = new PacketInAdmission(threshold::get, clock::get);
+    }
+
+    private int admitted(int packets, boolean lowPriority) {
+        int admitted = 0;
+        for (int i = 0; i < packets; i++) {
+            if (admission.admit(lowPriority)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Tests that everything is admitted while admission control is disabled.
+     */
+    @Test
+    public void disabled() {
+        assertEquals(10_000, admitted(10_000, true));
+        assertEquals(0, admission.shedCount());
+    }
+
+    /**
+     * Tests that classified packet-ins are never shed.
+     */
+    @Test
+    public void highPriorityAlwaysAdmitted() {
+        threshold.set(100);
+        assertEquals(10_000, admitted(10_000, false));
+        assertEquals(0, admission.shedCount());
+    }
+
+    /**
+     * Tests that unclassified packet-ins are sampled once over the threshold.
+     */
+    @Test
+    public void lowPrioritySampled() {
+        threshold.set(100);
+        assertEquals(100, admitted(100, true));
+        int overflow = admitted(9_900, true);
+        assertTrue("too many admitted: " + overflow, overflow < 1_000);
+        assertEquals(9_900 - overflow, admission.shedCount());
+
+        // next window: a sustained 10k/s yields one in 100 admitted
+        clock.addAndGet(SECOND);
+        assertEquals(100, admitted(10_000, true));
+
+        // once the rate drops, everything is admitted again
+        clock.addAndGet(SECOND);
+        admitted(50, true);
+        clock.addAndGet(SECOND);
+        assertEquals(50, admitted(50, true));
+    }
+
+    /**
+     * Tests that a high-priority burst still pushes low-priority into sampling.
+     */
+    @Test
+    public void highPriorityCountsTowardsRate() {
+        threshold.set(100);
+        admitted(1_000, false);
+        assertEquals(1, admitted(11, true));
+        assertEquals(10, admission.shedCount());
+    }
+}
@@ -23,6 +23,7 @@ import io.netty.util.internal.StringUtil;
 import org.onlab.packet.Ethernet;
 import org.onlab.packet.MacAddress;
 import org.onlab.packet.ONOSLLDP;
+import org.onlab.packet.ONOSLLDPTemplate;
 import org.onlab.util.Timer;
 import org.onlab.util.Tools;
 import org.onosproject.net.AnnotationKeys;
@@ -35,6 +36,7 @@ import org.onosproject.net.LinkKey;
 import org.onosproject.net.Port;
 import org.onosproject.net.PortNumber;
 import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.flow.TrafficTreatment;
 import org.onosproject.net.link.DefaultLinkDescription;
 import org.onosproject.net.link.LinkDescription;
 import org.onosproject.net.link.ProbedLinkProvider;
@@ -44,6 +46,8 @@ import org.onosproject.net.packet.PacketContext;
 import org.slf4j.Logger;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -75,8 +79,8 @@ public class LinkDiscovery implements TimerTask {
     private final DeviceId deviceId;
     private final LinkDiscoveryContext context;
 
-    private final Ethernet ethPacket;
-    private final Ethernet bddpEth;
+    // Probe frames of the device, rebuilt whenever their invariant fields change
+    private volatile ONOSLLDPTemplate probeTemplate;
 
     private Timeout timeout;
     private volatile boolean isStopped;
@@ -84,8 +88,7 @@ public class LinkDiscovery implements TimerTask {
     // Set of ports to be probed
     private final Map<Long, String> portMap = Maps.newConcurrentMap();
     /**
-     * Instantiates discovery manager for the given physical switch. Creates a
-     * generic LLDP packet that will be customized for the port it is sent out on.
+     * Instantiates discovery manager for the given physical switch.
      * Starts the the timer for the discovery process.
      *
      * @param deviceId  the physical switch
@@ -95,16 +98,6 @@ public class LinkDiscovery implements TimerTask {
         this.deviceId = deviceId;
         this.context = context;
 
-        ethPacket = new Ethernet();
-        ethPacket.setEtherType(Ethernet.TYPE_LLDP);
-        ethPacket.setDestinationMACAddress(MacAddress.ONOS_LLDP);
-        ethPacket.setPad(true);
-
-        bddpEth = new Ethernet();
-        bddpEth.setEtherType(Ethernet.TYPE_BSN);
-        bddpEth.setDestinationMACAddress(MacAddress.BROADCAST);
-        bddpEth.setPad(true);
-
         isStopped = true;
         start();
         log.debug("Started discovery manager for switch {}", deviceId);
@@ -152,7 +145,7 @@ public class LinkDiscovery implements TimerTask {
         boolean isMaster = context.mastershipService().isLocalMaster(deviceId);
         if (newPort && isMaster) {
             log.debug("Sending initial probe to port {}@{}", port.number().toLong(), deviceId);
-            sendProbes(portNum, portName);
+            sendProbes(ImmutableMap.of(portNum, portName));
         }
     }
 
@@ -378,7 +371,7 @@ public class LinkDiscovery implements TimerTask {
             // Verify if we are still the master
             if (context.mastershipService().isLocalMaster(deviceId)) {
                 log.trace("Sending probes from {}", deviceId);
-                ImmutableMap.copyOf(portMap).forEach(this::sendProbes);
+                sendProbes(ImmutableMap.copyOf(portMap));
             }
         } catch (Exception e) {
             // Catch all exceptions to avoid timer task being cancelled
@@ -398,80 +391,58 @@ public class LinkDiscovery implements TimerTask {
     }
 
     /**
-     * Creates packet_out LLDP for specified output port.
+     * Returns the template of the probes sent out of the device, building
+     * it anew if the device chassis, the cluster fingerprint or the LLDP
+     * secret changed since it was last built.
      *
-     * @param portNumber the port
-     * @param portDesc the port description
-     * @return Packet_out message with LLDP data
+     * @return probe template; null if the device cannot be found
      */
-    private OutboundPacket createOutBoundLldp(Long portNumber, String portDesc) {
-        if (portNumber == null) {
+    private ONOSLLDPTemplate probeTemplate() {
+        Device device = context.deviceService().getDevice(deviceId);
+        if (device == null) {
+            log.warn("Cannot find the device {}", deviceId);
             return null;
         }
-        ONOSLLDP lldp = getLinkProbe(portNumber, portDesc);
-        if (lldp == null) {
-            log.warn("Cannot get link probe with portNumber {} and portDesc {} for {} at LLDP packet creation.",
-                    portNumber, portDesc, deviceId);
-            return null;
+        MacAddress source = MacAddress.valueOf(context.fingerprint());
+        String secret = context.lldpSecret();
+        ONOSLLDPTemplate template = probeTemplate;
+        if (template == null || !template.matches(device.chassisId(), source, secret)) {
+            template = new ONOSLLDPTemplate(deviceId.toString(), device.chassisId(), source, secret);
+            probeTemplate = template;
         }
-        ethPacket.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
-        return new DefaultOutboundPacket(deviceId,
-                                         builder().setOutput(portNumber(portNumber)).build(),
-                                         ByteBuffer.wrap(ethPacket.serialize()));
+        return template;
     }
 
     /**
-     * Creates packet_out BDDP for specified output port.
+     * Sends LLDP, and BDDP if enabled, probes out of the specified ports.
+     * All probes of a round share the same timestamp and are emitted as a
+     * single batch.
      *
-     * @param portNumber the port
-     * @param portDesc the port description
-     * @return Packet_out message with LLDP data
+     * @param ports port descriptions keyed by port number
      */
-    private OutboundPacket createOutBoundBddp(Long portNumber, String portDesc) {
-        if (portNumber == null) {
-            return null;
-        }
-        ONOSLLDP lldp = getLinkProbe(portNumber, portDesc);
-        if (lldp == null) {
-            log.warn("Cannot get link probe with portNumber {} and portDesc {} for {} at BDDP packet creation.",
-                    portNumber, portDesc, deviceId);
-            return null;
-        }
-        bddpEth.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
-        return new DefaultOutboundPacket(deviceId,
-                                         builder().setOutput(portNumber(portNumber)).build(),
-                                         ByteBuffer.wrap(bddpEth.serialize()));
-    }
-
-    private ONOSLLDP getLinkProbe(Long portNumber, String portDesc) {
-        Device device = context.deviceService().getDevice(deviceId);
-        if (device == null) {
-            log.warn("Cannot find the device {}", deviceId);
-            return null;
-        }
-        return ONOSLLDP.onosSecureLLDP(deviceId.toString(), device.chassisId(), portNumber.intValue(), portDesc,
-                                       context.lldpSecret());
-    }
-
-    private void sendProbes(Long portNumber, String portDesc) {
-        if (context.packetService() == null) {
+    private void sendProbes(Map<Long, String> ports) {
+        if (context.packetService() == null || ports.isEmpty()) {
             return;
         }
-        log.trace("Sending probes out of {}@{}", portNumber, deviceId);
-        OutboundPacket pkt = createOutBoundLldp(portNumber, portDesc);
-        if (pkt != null) {
-            context.packetService().emit(pkt);
-        } else {
-            log.warn("Cannot send lldp packet due to packet is null {}", deviceId);
+        ONOSLLDPTemplate template = probeTemplate();
+        if (template == null) {
+            log.warn("Cannot send link probes due to missing device {}", deviceId);
+            return;
         }
-        if (context.useBddp()) {
-            OutboundPacket bpkt = createOutBoundBddp(portNumber, portDesc);
-            if (bpkt != null) {
-                context.packetService().emit(bpkt);
-            } else {
-                log.warn("Cannot send bddp packet due to packet is null {}", deviceId);
+        long timestamp = System.currentTimeMillis();
+        boolean useBddp = context.useBddp();
+        List<OutboundPacket> packets = new ArrayList<>(useBddp ? 2 * ports.size() : ports.size());
+        ports.forEach((portNumber, portDesc) -> {
+            log.trace("Sending probes out of {}@{}", portNumber, deviceId);
+            TrafficTreatment treatment = builder().setOutput(portNumber(portNumber)).build();
+            byte[] lldp = template.lldpFrame(portNumber.intValue(), portDesc, timestamp);
+            packets.add(new DefaultOutboundPacket(deviceId, treatment, ByteBuffer.wrap(lldp)));
+            if (useBddp) {
+                packets.add(new DefaultOutboundPacket(deviceId, treatment,
+                                                      ByteBuffer.wrap(template.bddpFrame(lldp))));
             }
-        }
+        });
+        context.packetService().emit(packets);
     }
 
     public boolean containsPort(long portNumber) {
@@ -122,6 +122,12 @@ ATOMIX = [
     "@typesafe_config//jar",
     "@classgraph//jar",
 ]
+JMH = [
+    "@jmh_core//jar",
+    "@jmh_generator_annprocess//jar",
+    "@jopt_simple//jar",
+    "@commons_math3//jar",
+]
 
 def generated_maven_jars():
     if "aopalliance_repackaged" not in native.existing_rules():
@@ -652,6 +658,24 @@ def generated_maven_jars():
             jar_sha256 = "a05f5b8b021802a71919b18702aebdf286148188b3ee9d26e6ec40e8d0071487",
             licenses = ["notice"],
             jar_urls = ["https://repo1.maven.org/maven2/joda-time/joda-time/2.9.3/joda-time-2.9.3.jar"],        )
+    if "jmh_core" not in native.existing_rules():
+        java_import_external(
+            name = "jmh_core",
+            jar_sha256 = "1341c9f7f2d29e5977486f5339d3667c8080ed22d460fbad9443c7accead598c",
+            licenses = ["notice"],
+            jar_urls = ["https://repo1.maven.org/maven2/org/openjdk/jmh/jmh-core/1.26/jmh-core-1.26.jar"],        )
+    if "jmh_generator_annprocess" not in native.existing_rules():
+        java_import_external(
+            name = "jmh_generator_annprocess",
+            jar_sha256 = "9cad80ec7ca538d355d5a307346f6009bc566dcbc00a685876d36f8d7b146d80",
+            licenses = ["notice"],
+            jar_urls = ["https://repo1.maven.org/maven2/org/openjdk/jmh/jmh-generator-annprocess/1.26/jmh-generator-annprocess-1.26.jar"],        )
+    if "jopt_simple" not in native.existing_rules():
+        java_import_external(
+            name = "jopt_simple",
+            jar_sha256 = "3fcfbe3203c2ea521bf7640484fd35d6303186ea2e08e72f032d640ca067ffda",
+            licenses = ["notice"],
+            jar_urls = ["https://repo1.maven.org/maven2/net/sf/jopt-simple/jopt-simple/4.6/jopt-simple-4.6.jar"],        )
     if "jsch" not in native.existing_rules():
         java_import_external(
             name = "jsch",
@@ -1437,6 +1461,9 @@ artifact_map["@jetty_http//:jetty_http"] = "mvn:org.eclipse.jetty:jetty-http:jar
 artifact_map["@jetty_io//:jetty_io"] = "mvn:org.eclipse.jetty:jetty-io:jar:9.4.11.v20180605"
 artifact_map["@javax_servlet_api//:javax_servlet_api"] = "mvn:javax.servlet:javax.servlet-api:jar:3.1.0"
 artifact_map["@joda_time//:joda_time"] = "mvn:joda-time:joda-time:jar:2.9.3"
+artifact_map["@jmh_core//:jmh_core"] = "mvn:org.openjdk.jmh:jmh-core:jar:NON-OSGI:1.26"
+artifact_map["@jmh_generator_annprocess//:jmh_generator_annprocess"] = "mvn:org.openjdk.jmh:jmh-generator-annprocess:jar:NON-OSGI:1.26"
+artifact_map["@jopt_simple//:jopt_simple"] = "mvn:net.sf.jopt-simple:jopt-simple:jar:NON-OSGI:4.6"
 artifact_map["@jsch//:jsch"] = "mvn:com.jcraft:jsch:jar:NON-OSGI:0.1.53"
 artifact_map["@com_google_code_findbugs_jsr305//:com_google_code_findbugs_jsr305"] = "mvn:com.google.code.findbugs:jsr305:jar:3.0.2"
 artifact_map["@junit//:junit"] = "mvn:junit:junit:jar:NON-OSGI:4.12"
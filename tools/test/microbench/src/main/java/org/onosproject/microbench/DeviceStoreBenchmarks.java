@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.microbench;
+
+import org.onlab.packet.ChassisId;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.mastership.MastershipServiceAdapter;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DefaultDeviceDescription;
+import org.onosproject.net.device.DefaultPortDescription;
+import org.onosproject.net.device.DeviceClockServiceAdapter;
+import org.onosproject.net.device.PortDescription;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.store.Timestamp;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+import org.onosproject.store.cluster.messaging.MessageSubject;
+import org.onosproject.store.device.impl.GossipDeviceStore;
+import org.onosproject.store.impl.MastershipBasedTimestamp;
+import org.onosproject.store.service.TestStorageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.onosproject.net.Device.Type.SWITCH;
+
+/**
+ * Benchmarks of port updates for many devices, applied by a varying number
+ * of threads; with per-device locking the updates should scale with the
+ * thread count.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DeviceStoreBenchmarks {
+
+    private static final ProviderId PID = new ProviderId("of", "org.onosproject.microbench");
+    private static final int DEVICES = 1000;
+    private static final int PORTS = 16;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private BenchmarkDeviceStore store;
+    private ExecutorService executor;
+    private List<DeviceId> deviceIds;
+    private List<PortDescription> enabledPorts;
+    private List<PortDescription> disabledPorts;
+    private boolean enabled;
+
+    /**
+     * Creates the benchmark inputs.
+     */
+    @Setup
+    public void setUp() {
+        store = new BenchmarkDeviceStore();
+        store.activate();
+
+        deviceIds = new ArrayList<>();
+        for (int i = 0; i < DEVICES; i++) {
+            DeviceId deviceId = DeviceId.deviceId(String.format("of:%016x", i));
+            deviceIds.add(deviceId);
+            store.createOrUpdateDevice(PID, deviceId, new DefaultDeviceDescription(
+                    deviceId.uri(), SWITCH, "whitebox", "1.1.x", "3.8.1", "43311-12345", new ChassisId(i)));
+        }
+        enabledPorts = portDescriptions(true);
+        disabledPorts = portDescriptions(false);
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Stops the update threads and deactivates the device store.
+     */
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        store.deactivate();
+    }
+
+    /**
+     * Updates the ports of every device once, toggling their enabled state so
+     * that each update produces port events.
+     *
+     * @throws InterruptedException if interrupted while waiting for the updates
+     */
+    @Benchmark
+    public void updatePorts() throws InterruptedException {
+        enabled = !enabled;
+        List<PortDescription> ports = enabled ? enabledPorts : disabledPorts;
+        CountDownLatch latch = new CountDownLatch(deviceIds.size());
+        for (DeviceId deviceId : deviceIds) {
+            executor.execute(() -> {
+                store.updatePorts(PID, deviceId, ports);
+                latch.countDown();
+            });
+        }
+        latch.await();
+    }
+
+    private static List<PortDescription> portDescriptions(boolean enabled) {
+        List<PortDescription> ports = new ArrayList<>();
+        for (int i = 1; i <= PORTS; i++) {
+            ports.add(DefaultPortDescription.builder()
+                              .withPortNumber(PortNumber.portNumber(i)).isEnabled(enabled).build());
+        }
+        return ports;
+    }
+
+    /**
+     * Gossip device store mastering all of its devices, whose peer updates
+     * are encoded but not sent.
+     */
+    private static final class BenchmarkDeviceStore extends GossipDeviceStore {
+
+        private BenchmarkDeviceStore() {
+            AtomicLong ticker = new AtomicLong();
+            ClusterServiceAdapter clusterService = new ClusterServiceAdapter();
+            NodeId localNodeId = clusterService.getLocalNode().id();
+
+            this.clusterService = clusterService;
+            this.storageService = new TestStorageService();
+            this.deviceClockService = new DeviceClockServiceAdapter() {
+                @Override
+                public Timestamp getTimestamp(DeviceId deviceId) {
+                    return new MastershipBasedTimestamp(1, ticker.getAndIncrement());
+                }
+            };
+            this.mastershipService = new MastershipServiceAdapter() {
+                @Override
+                public NodeId getMasterFor(DeviceId deviceId) {
+                    return localNodeId;
+                }
+            };
+            this.clusterCommunicator = new ClusterCommunicationServiceAdapter() {
+                @Override
+                public <M> void broadcast(M message, MessageSubject subject,
+                                          Function<M, byte[]> encoder) {
+                    encoder.apply(message);
+                }
+            };
+        }
+    }
+}
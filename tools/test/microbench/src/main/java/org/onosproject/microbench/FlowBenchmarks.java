@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.microbench;
+
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.TpPort;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the flow rule model, which is hashed, compared and rebuilt
+ * for every flow rule operation and statistics reply.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FlowBenchmarks {
+
+    // Number of distinct inputs, a power of two so that they can be cycled
+    // through by masking the invocation number
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final DeviceId DEVICE_ID = DeviceId.deviceId("of:0000000000000001");
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.onosproject.microbench");
+    private static final TrafficTreatment TREATMENT =
+            DefaultTrafficTreatment.builder().setOutput(PortNumber.portNumber(2)).build();
+
+    private final FlowRule[] rules = new FlowRule[SIZE];
+    private final FlowRule[] copies = new FlowRule[SIZE];
+    private final TrafficSelector[] selectors = new TrafficSelector[SIZE];
+    private int next;
+
+    /**
+     * Creates the benchmark inputs.
+     */
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SIZE; i++) {
+            selectors[i] = selector(i);
+            rules[i] = rule(selectors[i]);
+            copies[i] = rule(selector(i));
+        }
+    }
+
+    @Benchmark
+    public int flowRuleHashCode() {
+        return rules[next++ & MASK].hashCode();
+    }
+
+    @Benchmark
+    public boolean flowRuleEquals() {
+        int i = next++ & MASK;
+        return rules[i].equals(copies[i]);
+    }
+
+    @Benchmark
+    public boolean flowRuleEqualsDistinct() {
+        int i = next++;
+        return rules[i & MASK].equals(copies[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public FlowRule flowRuleBuild() {
+        return rule(selectors[next++ & MASK]);
+    }
+
+    @Benchmark
+    public TrafficSelector selectorBuild() {
+        return selector(next++);
+    }
+
+    @Benchmark
+    public TrafficSelector selectorCopy() {
+        return DefaultTrafficSelector.builder(selectors[next++ & MASK]).build();
+    }
+
+    @Benchmark
+    public int selectorHashCode() {
+        return selectors[next++ & MASK].hashCode();
+    }
+
+    // Criteria are added in reverse type order, leaving the selector to sort them.
+    private static TrafficSelector selector(int i) {
+        return DefaultTrafficSelector.builder()
+                .matchUdpDst(TpPort.tpPort(i & 0xffff))
+                .matchIPDst(IpPrefix.valueOf(0x0a000000 | (i & 0xffffff), 32))
+                .matchIPSrc(IpPrefix.valueOf(0x0b000000, 8))
+                .matchIPProtocol((byte) 17)
+                .matchEthType(Ethernet.TYPE_IPV4)
+                .matchEthSrc(MacAddress.valueOf(i))
+                .matchInPort(PortNumber.portNumber(1 + (i & 0xf)))
+                .build();
+    }
+
+    private static FlowRule rule(TrafficSelector selector) {
+        return DefaultFlowRule.builder()
+                .forDevice(DEVICE_ID)
+                .withSelector(selector)
+                .withTreatment(TREATMENT)
+                .withPriority(40000)
+                .fromApp(APP_ID)
+                .makePermanent()
+                .build();
+    }
+}
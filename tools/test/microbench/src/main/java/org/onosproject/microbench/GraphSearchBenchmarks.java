@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.microbench;
+
+import org.onlab.graph.AdjacencyListsGraph;
+import org.onlab.graph.DijkstraGraphSearch;
+import org.onlab.graph.EdgeWeigher;
+import org.onlab.graph.Graph;
+import org.onlab.graph.GraphPathSearch;
+import org.onlab.graph.IndexedDijkstraGraphSearch;
+import org.onlab.graph.KShortestPathsSearch;
+import org.onlab.graph.SuurballeGraphSearch;
+import org.onlab.graph.TestDoubleWeight;
+import org.onlab.graph.TestEdge;
+import org.onlab.graph.TestVertex;
+import org.onlab.graph.Weight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the path searches between random pairs of vertexes of
+ * random graphs. Searches other than the indexed one take up to seconds on
+ * the largest graphs, hence the few iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphSearchBenchmarks {
+
+    private static final int DEGREE = 4;
+    private static final int MAX_WEIGHT = 10;
+    private static final int PAIRS = 64;
+    private static final long SEED = 42;
+
+    private static final EdgeWeigher<TestVertex, TestEdge> WEIGHER = new EdgeWeigher<TestVertex, TestEdge>() {
+        @Override
+        public Weight weight(TestEdge edge) {
+            return edge.weight();
+        }
+
+        @Override
+        public Weight getInitialWeight() {
+            return new TestDoubleWeight(0);
+        }
+
+        @Override
+        public Weight getNonViableWeight() {
+            return TestDoubleWeight.NON_VIABLE_WEIGHT;
+        }
+    };
+
+    @Param({"1000", "5000", "10000"})
+    private int vertexes;
+
+    private Graph<TestVertex, TestEdge> graph;
+    private final TestVertex[] sources = new TestVertex[PAIRS];
+    private final TestVertex[] destinations = new TestVertex[PAIRS];
+    private final GraphPathSearch<TestVertex, TestEdge> dijkstra = new DijkstraGraphSearch<>();
+    private final GraphPathSearch<TestVertex, TestEdge> indexedDijkstra = new IndexedDijkstraGraphSearch<>();
+    private final GraphPathSearch<TestVertex, TestEdge> kShortestPaths = new KShortestPathsSearch<>();
+    private final GraphPathSearch<TestVertex, TestEdge> suurballe = new SuurballeGraphSearch<>();
+    private int next;
+
+    /**
+     * Creates a random graph whose vertexes each have a few egress edges of
+     * random weights, and the pairs of vertexes searched.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        List<TestVertex> vertexList = new ArrayList<>(vertexes);
+        for (int i = 0; i < vertexes; i++) {
+            vertexList.add(new TestVertex("v" + i));
+        }
+        Set<TestEdge> edges = new HashSet<>();
+        for (TestVertex src : vertexList) {
+            for (int i = 0; i < DEGREE; i++) {
+                TestVertex dst = vertexList.get(random.nextInt(vertexes));
+                if (!dst.equals(src)) {
+                    edges.add(new TestEdge(src, dst, new TestDoubleWeight(1 + random.nextInt(MAX_WEIGHT))));
+                }
+            }
+        }
+        graph = new AdjacencyListsGraph<>(new HashSet<>(vertexList), edges);
+        for (int i = 0; i < PAIRS; i++) {
+            sources[i] = vertexList.get(random.nextInt(vertexes));
+            destinations[i] = vertexList.get(random.nextInt(vertexes));
+        }
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> dijkstra() {
+        return search(dijkstra, 1);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> indexedDijkstra() {
+        return search(indexedDijkstra, 1);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> kShortestPaths() {
+        return search(kShortestPaths, 3);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> suurballe() {
+        return search(suurballe, 1);
+    }
+
+    private GraphPathSearch.Result<TestVertex, TestEdge> search(GraphPathSearch<TestVertex, TestEdge> search,
+                                                              int maxPaths) {
+        int i = next++ % PAIRS;
+        return search.search(graph, sources[i], destinations[i], WEIGHER, maxPaths);
+    }
+}
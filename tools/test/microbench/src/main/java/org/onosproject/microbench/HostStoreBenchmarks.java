@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.microbench;
+
+import com.google.common.collect.ImmutableSet;
+import org.onlab.junit.TestUtils;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.host.DefaultHostDescription;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.store.host.impl.DistributedHostStore;
+import org.onosproject.store.service.TestStorageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Benchmarks of the indexed host store lookups, against scans of all the
+ * hosts as the store used to do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HostStoreBenchmarks {
+
+    private static final ProviderId PID = new ProviderId("of", "org.onosproject.microbench");
+    private static final int VLANS = 16;
+    private static final int PORTS = 64;
+    private static final int HOSTS_PER_DEVICE = 200;
+
+    @Param({"10000", "50000", "200000"})
+    private int hosts;
+
+    private DistributedHostStore store;
+    private int devices;
+    private int next;
+
+    /**
+     * Creates a host store holding the benchmarked number of hosts.
+     *
+     * @throws TestUtils.TestUtilsException if the store cannot be set up
+     */
+    @Setup
+    public void setUp() throws TestUtils.TestUtilsException {
+        store = new DistributedHostStore();
+        TestUtils.setField(store, "storageService", new TestStorageService());
+        store.activate();
+
+        devices = hosts / HOSTS_PER_DEVICE;
+        for (int i = 0; i < hosts; i++) {
+            HostId hostId = HostId.hostId(mac(i), vlan(i));
+            HostLocation location = new HostLocation(connectPoint(i), 0);
+            store.createOrUpdateHost(PID, hostId, new DefaultHostDescription(
+                    hostId.mac(), hostId.vlanId(), location, ImmutableSet.of(ip(i)), false), false);
+        }
+    }
+
+    /**
+     * Deactivates the host store.
+     */
+    @TearDown
+    public void tearDown() {
+        store.deactivate();
+    }
+
+    @Benchmark
+    public Set<Host> getHostsByMacIndexed() {
+        return store.getHosts(mac(next++ % hosts));
+    }
+
+    @Benchmark
+    public Set<Host> getHostsByMacScan() {
+        MacAddress mac = mac(next++ % hosts);
+        return scan(host -> host.mac().equals(mac));
+    }
+
+    @Benchmark
+    public Set<Host> getHostsByIpIndexed() {
+        return store.getHosts(ip(next++ % hosts));
+    }
+
+    @Benchmark
+    public Set<Host> getHostsByIpScan() {
+        IpAddress ip = ip(next++ % hosts);
+        return scan(host -> host.ipAddresses().contains(ip));
+    }
+
+    @Benchmark
+    public Set<Host> getHostsByVlanIndexed() {
+        return store.getHosts(vlan(next++));
+    }
+
+    @Benchmark
+    public Set<Host> getHostsByVlanScan() {
+        VlanId vlan = vlan(next++);
+        return scan(host -> host.vlan().equals(vlan));
+    }
+
+    @Benchmark
+    public Set<Host> getConnectedHostsByConnectPointIndexed() {
+        return store.getConnectedHosts(connectPoint(next++ % hosts));
+    }
+
+    @Benchmark
+    public Set<Host> getConnectedHostsByConnectPointScan() {
+        ConnectPoint connectPoint = connectPoint(next++ % hosts);
+        return scan(host -> host.locations().contains(connectPoint));
+    }
+
+    @Benchmark
+    public Set<Host> getConnectedHostsByDeviceIndexed() {
+        return store.getConnectedHosts(connectPoint(next++ % hosts).deviceId());
+    }
+
+    @Benchmark
+    public Set<Host> getConnectedHostsByDeviceScan() {
+        DeviceId deviceId = connectPoint(next++ % hosts).deviceId();
+        return scan(host -> host.locations().stream().anyMatch(location -> location.deviceId().equals(deviceId)));
+    }
+
+    private Set<Host> scan(Predicate<Host> predicate) {
+        ImmutableSet.Builder<Host> matches = ImmutableSet.builder();
+        for (Host host : store.getHosts()) {
+            if (predicate.test(host)) {
+                matches.add(host);
+            }
+        }
+        return matches.build();
+    }
+
+    private static MacAddress mac(int i) {
+        return MacAddress.valueOf(i + 1L);
+    }
+
+    private static VlanId vlan(int i) {
+        return VlanId.vlanId((short) (1 + i % VLANS));
+    }
+
+    private static IpAddress ip(int i) {
+        return IpAddress.valueOf(0x0a000000 + i);
+    }
+
+    private ConnectPoint connectPoint(int i) {
+        return new ConnectPoint(DeviceId.deviceId(String.format("of:%016x", i % devices)),
+                                PortNumber.portNumber(1 + i % PORTS));
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.microbench;
+
+import com.google.common.io.ByteStreams;
+import org.onosproject.netconf.NetconfException;
+import org.onosproject.netconf.ctl.impl.NetconfFramer;
+import org.onosproject.netconf.ctl.impl.NetconfMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks of the framing of recorded device replies by the NETCONF framer
+ * and message assembler, against the per-character reading and regular
+ * expressions the stream thread used to apply.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NetconfFramingBenchmarks {
+
+    private static final int MESSAGES = 16;
+    private static final int CHUNK_SIZE = 4096;
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final String END_PATTERN = "]]>]]>";
+
+    @Param({"waveserver-lldp", "junos-interface-information"})
+    private String reply;
+
+    @Param({"true", "false"})
+    private boolean chunked;
+
+    private byte[] stream;
+
+    /**
+     * Creates the benchmark inputs.
+     *
+     * @throws IOException if the recorded reply cannot be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        byte[] message;
+        try (InputStream in = getClass().getResourceAsStream("/replies/" + reply + ".xml")) {
+            message = ByteStreams.toByteArray(in);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < MESSAGES; i++) {
+            if (chunked) {
+                for (int offset = 0; offset < message.length; offset += CHUNK_SIZE) {
+                    int length = Math.min(CHUNK_SIZE, message.length - offset);
+                    out.write(("\n#" + length + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.write(message, offset, length);
+                }
+                out.write("\n##\n".getBytes(StandardCharsets.UTF_8));
+            } else {
+                out.write(message);
+                out.write(END_PATTERN.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        stream = out.toByteArray();
+    }
+
+    /**
+     * Frames the replies with the framer and message assembler, fed with
+     * buffers as large as those of the stream thread.
+     *
+     * @param blackhole sink of the framed messages
+     * @throws NetconfException if the replies are badly framed
+     */
+    @Benchmark
+    public void framer(Blackhole blackhole) throws NetconfException {
+        NetconfFramer framer = new NetconfFramer(new NetconfMessage.Assembler(message -> {
+            blackhole.consume(message.text());
+            blackhole.consume(message.messageId());
+        }));
+        for (int offset = 0; offset < stream.length; offset += READ_BUFFER_SIZE) {
+            framer.feed(ByteBuffer.wrap(stream, offset, Math.min(READ_BUFFER_SIZE, stream.length - offset)));
+        }
+    }
+
+    /**
+     * Frames the replies as the stream thread used to.
+     *
+     * @param blackhole sink of the framed messages
+     * @throws IOException if the replies cannot be read
+     */
+    @Benchmark
+    public void legacy(Blackhole blackhole) throws IOException {
+        LegacyFraming.read(new ByteArrayInputStream(stream), blackhole);
+    }
+
+    /**
+     * Former framing of the stream thread, reading one character at a time
+     * and validating and stripping chunked framing with regular expressions.
+     */
+    private static final class LegacyFraming {
+
+        private static final Pattern MSGID_PATTERN = Pattern.compile("message-id=\"(\\d+)\"");
+        private static final String MSGLEN_REGEX_PATTERN = "\n#\\d+\n";
+        private static final Pattern CHUNKED_FRAMING_PATTERN =
+                Pattern.compile("(\\n#([1-9][0-9]*)\\n(.+))+\\n##\\n", Pattern.DOTALL);
+        private static final String CHUNKED_END_REGEX_PATTERN = "\n##\n";
+        private static final Pattern CHUNKED_SIZE_PATTERN = Pattern.compile("\\n#([1-9][0-9]*)\\n");
+
+        private enum State {
+            NO_MATCHING_PATTERN, FIRST_BRACKET, SECOND_BRACKET, FIRST_BIGGER, THIRD_BRACKET,
+            ENDING_BIGGER, FIRST_LF, FIRST_HASH, SECOND_HASH, END_CHUNKED_PATTERN, END_PATTERN;
+
+            State evaluateChar(char c) {
+                switch (this) {
+                    case NO_MATCHING_PATTERN:
+                        return c == ']' ? FIRST_BRACKET : c == '\n' ? FIRST_LF : this;
+                    case FIRST_BRACKET:
+                        return c == ']' ? SECOND_BRACKET : NO_MATCHING_PATTERN;
+                    case SECOND_BRACKET:
+                        return c == '>' ? FIRST_BIGGER : NO_MATCHING_PATTERN;
+                    case FIRST_BIGGER:
+                        return c == ']' ? THIRD_BRACKET : NO_MATCHING_PATTERN;
+                    case THIRD_BRACKET:
+                        return c == ']' ? ENDING_BIGGER : NO_MATCHING_PATTERN;
+                    case ENDING_BIGGER:
+                        return c == '>' ? END_PATTERN : NO_MATCHING_PATTERN;
+                    case FIRST_LF:
+                        return c == '#' ? FIRST_HASH : c == ']' ? FIRST_BRACKET : c == '\n' ? this
+                                : NO_MATCHING_PATTERN;
+                    case FIRST_HASH:
+                        return c == '#' ? SECOND_HASH : NO_MATCHING_PATTERN;
+                    case SECOND_HASH:
+                        return c == '\n' ? END_CHUNKED_PATTERN : NO_MATCHING_PATTERN;
+                    default:
+                        return NO_MATCHING_PATTERN;
+                }
+            }
+        }
+
+        private LegacyFraming() {
+        }
+
+        static void read(InputStream in, Blackhole blackhole) throws IOException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            State state = State.NO_MATCHING_PATTERN;
+            int c;
+            while ((c = reader.read()) != -1) {
+                state = state.evaluateChar((char) c);
+                builder.append((char) c);
+                if (state == State.END_PATTERN) {
+                    deal(builder.toString().replace(END_PATTERN, ""), blackhole);
+                    builder.setLength(0);
+                } else if (state == State.END_CHUNKED_PATTERN) {
+                    String reply = builder.toString();
+                    if (!validateChunkedFraming(reply)) {
+                        throw new IOException("Badly framed reply");
+                    }
+                    reply = reply.replaceAll(MSGLEN_REGEX_PATTERN, "");
+                    reply = reply.replaceAll(CHUNKED_END_REGEX_PATTERN, "");
+                    deal(reply, blackhole);
+                    builder.setLength(0);
+                }
+            }
+        }
+
+        private static void deal(String reply, Blackhole blackhole) {
+            blackhole.consume(reply);
+            blackhole.consume(getMsgId(reply));
+        }
+
+        private static boolean validateChunkedFraming(String reply) {
+            if (!CHUNKED_FRAMING_PATTERN.matcher(reply).matches()) {
+                return false;
+            }
+            Matcher chunkM = CHUNKED_SIZE_PATTERN.matcher(reply);
+            int end = 0;
+            String chunkdataStr = "";
+            while (chunkM.find()) {
+                end = chunkM.end();
+                int bytes = Integer.parseInt(chunkM.group(1));
+                byte[] chunkdata = reply.substring(chunkM.end()).getBytes(StandardCharsets.UTF_8);
+                if (bytes > chunkdata.length
+                        || chunkdata[bytes] != '\n' || chunkdata[bytes + 1] != '#') {
+                    return false;
+                }
+                chunkdataStr = new String(chunkdata, 0, bytes, StandardCharsets.UTF_8);
+                chunkM.region(chunkM.end() + chunkdataStr.length(), reply.length());
+            }
+            return "\n##\n".equals(reply.substring(end + chunkdataStr.length()));
+        }
+
+        private static Optional<Integer> getMsgId(String reply) {
+            Matcher matcher = MSGID_PATTERN.matcher(reply);
+            if (matcher.find()) {
+                return Optional.of(Integer.valueOf(matcher.group(1)));
+            }
+            return reply.contains("<hello") ? Optional.of(-1) : Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.microbench;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import org.onlab.junit.TestUtils;
+import org.onosproject.event.Event;
+import org.onosproject.net.Link;
+import org.onosproject.net.NetTestTools;
+import org.onosproject.net.NetworkResource;
+import org.onosproject.net.intent.IntentData;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.IntentTestsMocks.MockIntent;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.MockIdGenerator;
+import org.onosproject.net.intent.impl.ObjectiveTracker;
+import org.onosproject.net.link.LinkEvent;
+import org.onosproject.net.topology.TopologyEvent;
+import org.onosproject.net.topology.TopologyListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmarks of the objective tracker processing link flaps against a large
+ * set of tracked intents, alone and while other intents are concurrently
+ * tracked and untracked over the same links.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ObjectiveTrackerBenchmarks {
+
+    private static final int LINKS = 200;
+    private static final int PATH_LENGTH = 5;
+    // Number of intents tracked and untracked in turn by each writer thread
+    private static final int CHURN_INTENTS = 1024;
+
+    @Param({"10000", "100000"})
+    private int intents;
+
+    private final List<Link> links = new ArrayList<>();
+    private final BlockingQueue<Integer> recompiled = new LinkedBlockingQueue<>();
+    private final AtomicInteger writers = new AtomicInteger();
+    private ObjectiveTracker tracker;
+    private TopologyListener listener;
+    private int next;
+
+    /**
+     * Tracks the benchmarked number of intents, each over a path of links.
+     *
+     * @throws TestUtils.TestUtilsException if the tracker cannot be set up
+     */
+    @Setup
+    public void setUp() throws TestUtils.TestUtilsException {
+        MockIdGenerator.cleanBind();
+        tracker = new ObjectiveTracker();
+        TestUtils.setField(tracker, "intentService", new IntentServiceAdapter() {
+            @Override
+            public boolean isLocal(Key intentKey) {
+                return true;
+            }
+        });
+        tracker.setDelegate((intentKeys, compileAllFailed) -> recompiled.add(Iterables.size(intentKeys)));
+        listener = TestUtils.getField(tracker, "listener");
+
+        for (int i = 0; i < LINKS; i++) {
+            links.add(NetTestTools.link("s" + i, 1, "s" + (i + 1), 2));
+        }
+        for (int i = 0; i < intents; i++) {
+            List<NetworkResource> path = new ArrayList<>();
+            for (int j = 0; j < PATH_LENGTH; j++) {
+                path.add(links.get((i + j) % LINKS));
+            }
+            tracker.addTrackedResources(Key.of(i, NetTestTools.APP_ID), path);
+        }
+    }
+
+    /**
+     * Unbinds the intent identifier generator.
+     */
+    @TearDown
+    public void tearDown() {
+        MockIdGenerator.unbind();
+    }
+
+    /**
+     * Intents tracked and untracked in turn by a writer thread.
+     */
+    @State(Scope.Thread)
+    public static class Churn {
+        private final List<IntentData> installed = new ArrayList<>();
+        private final List<IntentData> withdrawn = new ArrayList<>();
+        private int next;
+
+        /**
+         * Creates the intents of the writer thread, each over a single link.
+         *
+         * @param benchmark benchmark state of the thread group
+         */
+        @Setup
+        public void setUp(ObjectiveTrackerBenchmarks benchmark) {
+            long base = (benchmark.writers.incrementAndGet() + 1L) * Integer.MAX_VALUE;
+            for (int i = 0; i < CHURN_INTENTS; i++) {
+                MockIntent intent = new MockIntent(base + i,
+                                                   ImmutableList.of(benchmark.links.get(i % LINKS)));
+                IntentData data = IntentData.nextState(
+                        IntentData.compiled(IntentData.submit(intent), ImmutableList.of()),
+                        IntentState.INSTALLED);
+                installed.add(data);
+                withdrawn.add(IntentData.nextState(data, IntentState.WITHDRAWN));
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("linkFlap")
+    @GroupThreads(1)
+    public int linkFlap() throws InterruptedException {
+        return flap();
+    }
+
+    @Benchmark
+    @Group("linkFlapWhileTracking")
+    @GroupThreads(1)
+    public int linkFlapWhileTracking() throws InterruptedException {
+        return flap();
+    }
+
+    @Benchmark
+    @Group("linkFlapWhileTracking")
+    @GroupThreads(2)
+    public void trackAndUntrack(Churn churn) {
+        int i = churn.next++ % CHURN_INTENTS;
+        tracker.trackIntent(churn.installed.get(i));
+        tracker.trackIntent(churn.withdrawn.get(i));
+    }
+
+    // Posts a link event and waits for the intents it affects to be handed
+    // out for recompilation.
+    private int flap() throws InterruptedException {
+        int i = next++;
+        LinkEvent.Type type = i % 2 == 0 ? LinkEvent.Type.LINK_REMOVED : LinkEvent.Type.LINK_ADDED;
+        listener.event(new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED, null,
+                ImmutableList.<Event>of(new LinkEvent(type, links.get(i % LINKS)))));
+        return recompiled.take();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.microbench;
+
+import org.onlab.packet.Data;
+import org.onlab.packet.DeserializationException;
+import org.onlab.packet.Deserializer;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPacket;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.UDP;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of address parsing and of the packet codecs used on the
+ * packet-in and packet-out paths. The packet-in benchmarks are meant to be
+ * run with {@code -prof gc}, which reports the bytes allocated per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PacketBenchmarks {
+
+    // Number of distinct inputs, a power of two so that they can be cycled
+    // through by masking the invocation number
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final int PAYLOAD_LENGTH = 64;
+
+    private final String[] ip4Prefixes = new String[SIZE];
+    private final String[] ip6Prefixes = new String[SIZE];
+    private final Ethernet[] frames = new Ethernet[SIZE];
+    private final byte[][] frameBytes = new byte[SIZE][];
+    private final Deserializer<Ethernet> deserializer = Ethernet.deserializer();
+    private final Deserializer<Ethernet> lazyDeserializer = Ethernet.lazyDeserializer();
+    private int next;
+
+    /**
+     * Creates the benchmark inputs.
+     */
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SIZE; i++) {
+            ip4Prefixes[i] = String.format("10.%d.%d.0/24", (i >> 8) & 0xff, i & 0xff);
+            ip6Prefixes[i] = String.format("2001:db8:%x::/48", i);
+            frames[i] = frame(i);
+            frameBytes[i] = frames[i].serialize();
+        }
+    }
+
+    @Benchmark
+    public IpPrefix ipPrefixValueOfIp4() {
+        return IpPrefix.valueOf(ip4Prefixes[next++ & MASK]);
+    }
+
+    @Benchmark
+    public IpPrefix ipPrefixValueOfIp6() {
+        return IpPrefix.valueOf(ip6Prefixes[next++ & MASK]);
+    }
+
+    @Benchmark
+    public Ethernet ethernetDeserialize() throws DeserializationException {
+        byte[] bytes = frameBytes[next++ & MASK];
+        return deserializer.deserialize(bytes, 0, bytes.length);
+    }
+
+    // A packet-in whose processors only look at the Ethernet header, as when
+    // the frame is not of a type they handle
+    @Benchmark
+    public short packetInEager() throws DeserializationException {
+        byte[] bytes = frameBytes[next++ & MASK];
+        return deserializer.deserialize(bytes, 0, bytes.length).getEtherType();
+    }
+
+    @Benchmark
+    public short packetInLazy() throws DeserializationException {
+        byte[] bytes = frameBytes[next++ & MASK];
+        return lazyDeserializer.deserialize(bytes, 0, bytes.length).getEtherType();
+    }
+
+    // A packet-in whose processors decode the whole frame
+    @Benchmark
+    public IPacket packetInLazyPayload() throws DeserializationException {
+        byte[] bytes = frameBytes[next++ & MASK];
+        return lazyDeserializer.deserialize(bytes, 0, bytes.length).getPayload().getPayload();
+    }
+
+    @Benchmark
+    public byte[] ethernetSerialize() {
+        return frames[next++ & MASK].serialize();
+    }
+
+    private static Ethernet frame(int i) {
+        UDP udp = new UDP();
+        udp.setSourcePort(1024 + (i & 0xfff));
+        udp.setDestinationPort(4789);
+        udp.setPayload(new Data(new byte[PAYLOAD_LENGTH]));
+
+        IPv4 ip = new IPv4();
+        ip.setSourceAddress(0x0a000000 | i);
+        ip.setDestinationAddress(0x0b000000 | i);
+        ip.setProtocol(IPv4.PROTOCOL_UDP);
+        ip.setTtl((byte) 64);
+        ip.setPayload(udp);
+
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(MacAddress.valueOf(i));
+        eth.setDestinationMACAddress(MacAddress.valueOf(i + 1L));
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        eth.setPayload(ip);
+        return eth;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.microbench;
+
+import com.google.common.collect.ImmutableSet;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultAnnotations;
+import org.onosproject.net.DefaultHost;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.Link;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the Kryo serialization of the entities most frequently
+ * replicated by the distributed stores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SerializerBenchmarks {
+
+    private static final ProviderId PID = new ProviderId("of", "org.onosproject.microbench");
+    private static final ConnectPoint CP1 =
+            new ConnectPoint(DeviceId.deviceId("of:0000000000000001"), PortNumber.portNumber(1));
+    private static final ConnectPoint CP2 =
+            new ConnectPoint(DeviceId.deviceId("of:0000000000000002"), PortNumber.portNumber(2));
+    private static final DefaultAnnotations ANNOTATIONS = DefaultAnnotations.builder()
+            .set("durable", "true")
+            .set("latency", "10")
+            .build();
+
+    private Serializer serializer;
+    private FlowEntry flowEntry;
+    private Link link;
+    private Host host;
+    private byte[] flowEntryBytes;
+    private byte[] linkBytes;
+    private byte[] hostBytes;
+
+    /**
+     * Creates the benchmark inputs.
+     */
+    @Setup
+    public void setUp() {
+        serializer = Serializer.using(KryoNamespaces.API);
+        flowEntry = new DefaultFlowEntry(
+                DefaultFlowRule.builder()
+                        .forDevice(CP1.deviceId())
+                        .withSelector(DefaultTrafficSelector.builder()
+                                              .matchInPort(CP1.port())
+                                              .matchEthSrc(MacAddress.valueOf(1L))
+                                              .build())
+                        .withTreatment(DefaultTrafficTreatment.builder().setOutput(CP2.port()).build())
+                        .withPriority(40000)
+                        .fromApp(new DefaultApplicationId(1, "org.onosproject.microbench"))
+                        .makePermanent()
+                        .build(),
+                FlowEntry.FlowEntryState.ADDED, 10, 1000, 100);
+        link = DefaultLink.builder()
+                .providerId(PID)
+                .src(CP1)
+                .dst(CP2)
+                .type(Link.Type.DIRECT)
+                .annotations(ANNOTATIONS)
+                .build();
+        host = new DefaultHost(PID, HostId.hostId(MacAddress.valueOf(1L), VlanId.vlanId((short) 100)),
+                               MacAddress.valueOf(1L), VlanId.vlanId((short) 100), new HostLocation(CP1, 0L),
+                               ImmutableSet.of(IpAddress.valueOf("10.0.0.1")), ANNOTATIONS);
+        flowEntryBytes = serializer.encode(flowEntry);
+        linkBytes = serializer.encode(link);
+        hostBytes = serializer.encode(host);
+    }
+
+    @Benchmark
+    public byte[] flowEntryEncode() {
+        return serializer.encode(flowEntry);
+    }
+
+    @Benchmark
+    public FlowEntry flowEntryDecode() {
+        return serializer.decode(flowEntryBytes);
+    }
+
+    @Benchmark
+    public byte[] linkEncode() {
+        return serializer.encode(link);
+    }
+
+    @Benchmark
+    public Link linkDecode() {
+        return serializer.decode(linkBytes);
+    }
+
+    @Benchmark
+    public byte[] hostEncode() {
+        return serializer.encode(host);
+    }
+
+    @Benchmark
+    public Host hostDecode() {
+        return serializer.decode(hostBytes);
+    }
+}
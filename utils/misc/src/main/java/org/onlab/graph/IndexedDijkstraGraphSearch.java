@@ -0,0 +1,252 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Dijkstra shortest-path graph search algorithm which, like
+ * {@link DijkstraGraphSearch}, finds all shortest paths between the source
+ * and destinations, but operates on an integer-indexed snapshot of the graph.
+ * <p>
+ * Costs and parent edges are tracked in arrays indexed by vertex number and
+ * the nearest vertex is selected using a binary heap supporting decrease-key,
+ * which yields O((V + E) log V) searches rather than the O(V<sup>2</sup>) of
+ * re-heapifying all vertexes after each extraction. Snapshots of immutable
+ * graphs, such as topology graphs, are retained for use by subsequent
+ * searches over the same graph.
+ * </p>
+ */
+public class IndexedDijkstraGraphSearch<V extends Vertex, E extends Edge<V>>
+        extends AbstractGraphPathSearch<V, E> {
+
+    private static final int NONE = -1;
+
+    private volatile IndexedGraph<V, E> snapshot;
+
+    @Override
+    protected Result<V, E> internalSearch(Graph<V, E> graph, V src, V dst,
+                                          EdgeWeigher<V, E> weigher, int maxPaths) {
+        IndexedGraph<V, E> indexed = snapshot(graph);
+        Search search = new Search(indexed, weigher, maxPaths);
+        search.run(indexed.index(src), dst != null ? indexed.index(dst) : NONE);
+        return search.result(src, dst);
+    }
+
+    // Returns the retained snapshot of the graph or creates a new one.
+    private IndexedGraph<V, E> snapshot(Graph<V, E> graph) {
+        IndexedGraph<V, E> current = snapshot;
+        if (current != null && current.graph() == graph) {
+            return current;
+        }
+        IndexedGraph<V, E> indexed = new IndexedGraph<>(graph);
+        if (graph instanceof AdjacencyListsGraph) {
+            snapshot = indexed;
+        }
+        return indexed;
+    }
+
+    // State of a single search over an indexed graph.
+    private final class Search {
+        private final IndexedGraph<V, E> graph;
+        private final EdgeWeigher<V, E> weigher;
+        private final int maxPaths;
+
+        private final Weight[] costs;
+        private final IndexedHeap queue;
+
+        // Parent edge positions of each vertex, kept as linked lists in a pool
+        private final int[] parentHeads;
+        private final int[] parentCounts;
+        private int[] parentEdges = new int[16];
+        private int[] parentNexts = new int[16];
+        private int parentPoolSize;
+
+        private Search(IndexedGraph<V, E> graph, EdgeWeigher<V, E> weigher, int maxPaths) {
+            this.graph = graph;
+            this.weigher = weigher;
+            this.maxPaths = maxPaths;
+            int vertexCount = graph.vertexCount();
+            costs = new Weight[vertexCount];
+            queue = new IndexedHeap(costs);
+            parentHeads = new int[vertexCount];
+            parentCounts = new int[vertexCount];
+            Arrays.fill(parentHeads, NONE);
+        }
+
+        private void run(int src, int dst) {
+            costs[src] = weigher.getInitialWeight();
+            queue.update(src);
+            while (!queue.isEmpty()) {
+                int nearest = queue.extract();
+                if (nearest == dst) {
+                    break;
+                }
+                Weight cost = costs[nearest];
+                for (int p = graph.firstEdge(nearest), end = graph.firstEdge(nearest + 1); p < end; p++) {
+                    relaxEdge(p, cost);
+                }
+            }
+        }
+
+        // Relaxes the edge at the given position, forbidding negative weights.
+        private void relaxEdge(int position, Weight cost) {
+            Weight hopCost = weigher.weight(graph.edge(position));
+            if (!hopCost.isViable() || hopCost.isNegative()) {
+                return;
+            }
+            Weight newCost = cost.merge(hopCost);
+
+            int v = graph.target(position);
+            int compareResult = costs[v] == null ? -1 : newCost.compareTo(costs[v]);
+            if (compareResult > 0) {
+                return;
+            }
+            costs[v] = newCost;
+            if (compareResult < 0) {
+                parentHeads[v] = NONE;
+                parentCounts[v] = 0;
+                queue.update(v);
+            }
+            if (maxPaths == ALL_PATHS || parentCounts[v] < maxPaths) {
+                addParent(v, position);
+            }
+        }
+
+        private void addParent(int v, int position) {
+            if (parentPoolSize == parentEdges.length) {
+                parentEdges = Arrays.copyOf(parentEdges, parentPoolSize * 2);
+                parentNexts = Arrays.copyOf(parentNexts, parentPoolSize * 2);
+            }
+            parentEdges[parentPoolSize] = position;
+            parentNexts[parentPoolSize] = parentHeads[v];
+            parentHeads[v] = parentPoolSize++;
+            parentCounts[v]++;
+        }
+
+        // Converts the indexed costs and parents into a search result.
+        private Result<V, E> result(V src, V dst) {
+            DefaultResult result = new DefaultResult(src, dst, maxPaths);
+            for (int v = 0; v < costs.length; v++) {
+                if (costs[v] == null) {
+                    continue;
+                }
+                V vertex = graph.vertex(v);
+                result.costs.put(vertex, costs[v]);
+                if (parentHeads[v] != NONE) {
+                    Set<E> edges = new HashSet<>();
+                    for (int i = parentHeads[v]; i != NONE; i = parentNexts[i]) {
+                        edges.add(graph.edge(parentEdges[i]));
+                    }
+                    result.parents.put(vertex, edges);
+                }
+            }
+            result.buildPaths();
+            return result;
+        }
+    }
+
+    /**
+     * Binary min-heap of vertex numbers ordered by their costs, which tracks
+     * the heap position of each vertex to support decreasing its cost.
+     */
+    private static final class IndexedHeap {
+        private static final int UNSEEN = -1;
+        private static final int EXTRACTED = -2;
+
+        private final Weight[] costs;
+        private final int[] heap;
+        private final int[] positions;
+        private int size;
+
+        private IndexedHeap(Weight[] costs) {
+            this.costs = costs;
+            this.heap = new int[costs.length];
+            this.positions = new int[costs.length];
+            Arrays.fill(positions, UNSEEN);
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        // Inserts the vertex or restores its position after its cost decreased;
+        // vertexes already extracted are not inserted again.
+        private void update(int v) {
+            int position = positions[v];
+            if (position == EXTRACTED) {
+                return;
+            }
+            if (position == UNSEEN) {
+                position = size++;
+                heap[position] = v;
+                positions[v] = position;
+            }
+            siftUp(position);
+        }
+
+        private int extract() {
+            int top = heap[0];
+            positions[top] = EXTRACTED;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                positions[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int position) {
+            int v = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (costs[heap[parent]].compareTo(costs[v]) <= 0) {
+                    break;
+                }
+                move(heap[parent], position);
+                position = parent;
+            }
+            move(v, position);
+        }
+
+        private void siftDown(int position) {
+            int v = heap[position];
+            int half = size >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                int right = child + 1;
+                if (right < size && costs[heap[right]].compareTo(costs[heap[child]]) < 0) {
+                    child = right;
+                }
+                if (costs[v].compareTo(costs[heap[child]]) <= 0) {
+                    break;
+                }
+                move(heap[child], position);
+                position = child;
+            }
+            move(v, position);
+        }
+
+        private void move(int v, int position) {
+            heap[position] = v;
+            positions[v] = position;
+        }
+    }
+
+}
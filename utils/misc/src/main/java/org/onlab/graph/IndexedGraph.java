@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.collect.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Compact snapshot of a graph in which vertexes are numbered consecutively
+ * and the egress edges of all vertexes are laid out in a single array, in
+ * the order of their source vertex numbers.
+ * <p>
+ * The snapshot reflects the graph at the time of its creation and is
+ * therefore only worth retaining for immutable graphs.
+ * </p>
+ *
+ * @param <V> vertex type
+ * @param <E> edge type
+ */
+final class IndexedGraph<V extends Vertex, E extends Edge<V>> {
+
+    private final Graph<V, E> graph;
+    private final Map<V, Integer> indexes;
+    private final Object[] vertexes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final Object[] edges;
+
+    /**
+     * Creates a snapshot of the specified graph.
+     *
+     * @param graph graph to be indexed
+     */
+    IndexedGraph(Graph<V, E> graph) {
+        this.graph = graph;
+        int vertexCount = graph.getVertexes().size();
+        indexes = Maps.newHashMapWithExpectedSize(vertexCount);
+        vertexes = new Object[vertexCount];
+        for (V vertex : graph.getVertexes()) {
+            vertexes[indexes.size()] = vertex;
+            indexes.put(vertex, indexes.size());
+        }
+
+        offsets = new int[vertexCount + 1];
+        List<E> egress = new ArrayList<>(graph.getEdges().size());
+        List<Integer> dsts = new ArrayList<>(graph.getEdges().size());
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i] = egress.size();
+            for (E edge : graph.getEdgesFrom(vertex(i))) {
+                Integer dst = indexes.get(edge.dst());
+                if (dst != null) {
+                    egress.add(edge);
+                    dsts.add(dst);
+                }
+            }
+        }
+        offsets[vertexCount] = egress.size();
+
+        edges = egress.toArray();
+        targets = new int[dsts.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = dsts.get(i);
+        }
+    }
+
+    /**
+     * Returns the graph from which the snapshot was created.
+     *
+     * @return indexed graph
+     */
+    Graph<V, E> graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of vertexes.
+     *
+     * @return vertex count
+     */
+    int vertexCount() {
+        return vertexes.length;
+    }
+
+    /**
+     * Returns the number of the specified vertex.
+     *
+     * @param vertex vertex
+     * @return vertex number; -1 if the vertex is not part of the graph
+     */
+    int index(V vertex) {
+        Integer index = indexes.get(vertex);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the vertex with the specified number.
+     *
+     * @param index vertex number
+     * @return vertex
+     */
+    @SuppressWarnings("unchecked")
+    V vertex(int index) {
+        return (V) vertexes[index];
+    }
+
+    /**
+     * Returns the position of the first egress edge of the specified vertex;
+     * its egress edges end at the first egress edge of the next vertex.
+     *
+     * @param index vertex number
+     * @return position of the first egress edge
+     */
+    int firstEdge(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Returns the edge at the specified position.
+     *
+     * @param position edge position
+     * @return edge
+     */
+    @SuppressWarnings("unchecked")
+    E edge(int position) {
+        return (E) edges[position];
+    }
+
+    /**
+     * Returns the number of the destination vertex of the edge at the
+     * specified position.
+     *
+     * @param position edge position
+     * @return destination vertex number
+     */
+    int target(int position) {
+        return targets[position];
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("vertexes", vertexes.length)
+                .add("edges", edges.length)
+                .toString();
+    }
+}
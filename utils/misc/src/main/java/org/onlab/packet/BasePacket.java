@@ -60,8 +60,9 @@ public abstract class BasePacket implements IPacket {
     public int hashCode() {
         final int prime = 6733;
         int result = 1;
+        final IPacket payload = this.getPayload();
         result = prime * result
-                + (this.payload == null ? 0 : this.payload.hashCode());
+                + (payload == null ? 0 : payload.hashCode());
         return result;
     }
 
@@ -77,11 +78,12 @@ public abstract class BasePacket implements IPacket {
             return false;
         }
         final BasePacket other = (BasePacket) obj;
-        if (this.payload == null) {
-            if (other.payload != null) {
+        final IPacket payload = this.getPayload();
+        if (payload == null) {
+            if (other.getPayload() != null) {
                 return false;
             }
-        } else if (!this.payload.equals(other.payload)) {
+        } else if (!payload.equals(other.getPayload())) {
             return false;
         }
         return true;
@@ -85,6 +85,11 @@ public class Ethernet extends BasePacket {
     protected short etherType;
     protected boolean pad = false;
 
+    // Frame the payload is still to be decoded from; null once decoded
+    private volatile byte[] undecodedData;
+    private int undecodedOffset;
+    private int undecodedLength;
+
     /**
      * By default, set Ethernet to untagged.
      */
@@ -354,10 +359,53 @@ public class Ethernet extends BasePacket {
         return this;
     }
 
+    @Override
+    public IPacket getPayload() {
+        if (undecodedData != null) {
+            decodePayload();
+        }
+        return this.payload;
+    }
+
+    @Override
+    public synchronized IPacket setPayload(final IPacket payload) {
+        undecodedData = null;
+        return super.setPayload(payload);
+    }
+
+    /**
+     * Decodes the payload left undecoded by the lazy deserializer. Payloads
+     * that fail to decode are left undecoded, so that every access fails.
+     *
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    private synchronized void decodePayload() {
+        byte[] data = undecodedData;
+        if (data == null) {
+            return;
+        }
+        Deserializer<? extends IPacket> deserializer =
+                ETHERTYPE_DESERIALIZER_MAP.getOrDefault(etherType, Data.deserializer());
+        IPacket decoded;
+        try {
+            decoded = deserializer.deserialize(data, undecodedOffset, undecodedLength);
+        } catch (DeserializationException e) {
+            throw new IllegalArgumentException(e);
+        }
+        decoded.setParent(this);
+        this.payload = decoded;
+        undecodedData = null;
+    }
+
     @Override
     public byte[] serialize() {
         byte[] payloadData = null;
-        if (this.payload != null) {
+        byte[] undecoded = undecodedData;
+        if (undecoded != null) {
+            // The payload has not been looked at; reuse its original bytes
+            payloadData = Arrays.copyOfRange(undecoded, undecodedOffset,
+                                             undecodedOffset + undecodedLength);
+        } else if (this.payload != null) {
             this.payload.setParent(this);
             payloadData = this.payload.serialize();
         }
@@ -726,59 +774,13 @@ public class Ethernet extends BasePacket {
         return (data, offset, length) -> {
             checkInput(data, offset, length, ETHERNET_HEADER_LENGTH);
 
-            byte[] addressBuffer = new byte[DATALAYER_ADDRESS_LENGTH];
-
             ByteBuffer bb = ByteBuffer.wrap(data, offset, length);
-            Ethernet eth = new Ethernet();
-            // Read destination MAC address into buffer
-            bb.get(addressBuffer);
-            eth.setDestinationMACAddress(addressBuffer);
-
-            // Read source MAC address into buffer
-            bb.get(addressBuffer);
-            eth.setSourceMACAddress(addressBuffer);
-
-            short ethType = bb.getShort();
-            if (ethType == TYPE_QINQ) {
-                // in this case we excpect 2 VLAN headers
-                checkHeaderLength(length, ETHERNET_HEADER_LENGTH + VLAN_HEADER_LENGTH + VLAN_HEADER_LENGTH);
-                final short tci = bb.getShort();
-                eth.setQinQPriorityCode((byte) (tci >> 13 & 0x07));
-                eth.setQinQVID((short) (tci & 0x0fff));
-                eth.setQinQTPID(TYPE_QINQ);
-                ethType = bb.getShort();
-            }
-            if (ethType == TYPE_VLAN) {
-                checkHeaderLength(length, ETHERNET_HEADER_LENGTH + VLAN_HEADER_LENGTH);
-                final short tci = bb.getShort();
-                eth.setPriorityCode((byte) (tci >> 13 & 0x07));
-                eth.setVlanID((short) (tci & 0x0fff));
-                ethType = bb.getShort();
-
-                if (ethType == TYPE_VLAN) {
-                    // We handle only double tagged packets here and assume that in this case
-                    // TYPE_QINQ above was not hit
-                    // We put the values retrieved above with TYPE_VLAN in
-                    // qInQ fields
-                    checkHeaderLength(length, ETHERNET_HEADER_LENGTH + VLAN_HEADER_LENGTH);
-                    eth.setQinQPriorityCode(eth.getPriorityCode());
-                    eth.setQinQVID(eth.getVlanID());
-                    eth.setQinQTPID(TYPE_VLAN);
-
-                    final short innerTci = bb.getShort();
-                    eth.setPriorityCode((byte) (innerTci >> 13 & 0x07));
-                    eth.setVlanID((short) (innerTci & 0x0fff));
-                    ethType = bb.getShort();
-                }
-            } else {
-                eth.setVlanID(Ethernet.VLAN_UNTAGGED);
-            }
-            eth.setEtherType(ethType);
+            Ethernet eth = deserializeHeader(bb, length);
 
             IPacket payload;
             Deserializer<? extends IPacket> deserializer;
-            if (Ethernet.ETHERTYPE_DESERIALIZER_MAP.containsKey(ethType)) {
-                deserializer = Ethernet.ETHERTYPE_DESERIALIZER_MAP.get(ethType);
+            if (Ethernet.ETHERTYPE_DESERIALIZER_MAP.containsKey(eth.etherType)) {
+                deserializer = Ethernet.ETHERTYPE_DESERIALIZER_MAP.get(eth.etherType);
             } else {
                 deserializer = Data.deserializer();
             }
@@ -791,6 +793,83 @@ public class Ethernet extends BasePacket {
         };
     }
 
+    /**
+     * Deserializer function for Ethernet packets that decodes only the
+     * Ethernet header up front. The payload is decoded from the given array,
+     * without copying it, when it is first accessed; the array must therefore
+     * not be modified afterwards. A payload that {@link #deserializer()} would
+     * reject makes {@link #getPayload()} throw an unchecked exception instead:
+     * {@link IllegalArgumentException} in place of a
+     * {@link DeserializationException}, and any other exception as is.
+     *
+     * @return lazy deserializer function
+     */
+    public static Deserializer<Ethernet> lazyDeserializer() {
+        return (data, offset, length) -> {
+            checkInput(data, offset, length, ETHERNET_HEADER_LENGTH);
+
+            ByteBuffer bb = ByteBuffer.wrap(data, offset, length);
+            Ethernet eth = deserializeHeader(bb, length);
+            eth.undecodedOffset = bb.position();
+            eth.undecodedLength = bb.limit() - bb.position();
+            eth.undecodedData = data;
+
+            return eth;
+        };
+    }
+
+    private static Ethernet deserializeHeader(ByteBuffer bb, int length) throws DeserializationException {
+        byte[] addressBuffer = new byte[DATALAYER_ADDRESS_LENGTH];
+
+        Ethernet eth = new Ethernet();
+        // Read destination MAC address into buffer
+        bb.get(addressBuffer);
+        eth.setDestinationMACAddress(addressBuffer);
+
+        // Read source MAC address into buffer
+        bb.get(addressBuffer);
+        eth.setSourceMACAddress(addressBuffer);
+
+        short ethType = bb.getShort();
+        if (ethType == TYPE_QINQ) {
+            // in this case we excpect 2 VLAN headers
+            checkHeaderLength(length, ETHERNET_HEADER_LENGTH + VLAN_HEADER_LENGTH + VLAN_HEADER_LENGTH);
+            final short tci = bb.getShort();
+            eth.setQinQPriorityCode((byte) (tci >> 13 & 0x07));
+            eth.setQinQVID((short) (tci & 0x0fff));
+            eth.setQinQTPID(TYPE_QINQ);
+            ethType = bb.getShort();
+        }
+        if (ethType == TYPE_VLAN) {
+            checkHeaderLength(length, ETHERNET_HEADER_LENGTH + VLAN_HEADER_LENGTH);
+            final short tci = bb.getShort();
+            eth.setPriorityCode((byte) (tci >> 13 & 0x07));
+            eth.setVlanID((short) (tci & 0x0fff));
+            ethType = bb.getShort();
+
+            if (ethType == TYPE_VLAN) {
+                // We handle only double tagged packets here and assume that in this case
+                // TYPE_QINQ above was not hit
+                // We put the values retrieved above with TYPE_VLAN in
+                // qInQ fields
+                checkHeaderLength(length, ETHERNET_HEADER_LENGTH + VLAN_HEADER_LENGTH);
+                eth.setQinQPriorityCode(eth.getPriorityCode());
+                eth.setQinQVID(eth.getVlanID());
+                eth.setQinQTPID(TYPE_VLAN);
+
+                final short innerTci = bb.getShort();
+                eth.setPriorityCode((byte) (innerTci >> 13 & 0x07));
+                eth.setVlanID((short) (innerTci & 0x0fff));
+                ethType = bb.getShort();
+            }
+        } else {
+            eth.setVlanID(Ethernet.VLAN_UNTAGGED);
+        }
+        eth.setEtherType(ethType);
+
+        return eth;
+    }
+
     /**
      * Make an exact copy of the ethernet packet.
      *
@@ -799,6 +878,10 @@ public class Ethernet extends BasePacket {
     public Ethernet duplicate() {
         try {
             byte[] data = serialize();
+            if (undecodedData != null) {
+                // Leave the payload to be decoded, and to fail, on access as in the original
+                return lazyDeserializer().deserialize(data, 0, data.length);
+            }
             return deserializer().deserialize(data, 0, data.length);
         } catch (DeserializationException dex) {
             // If we can't make an object out of the serialized data, its a defect
@@ -66,10 +66,15 @@ public class ONOSLLDP extends LLDP {
     private static final byte CHASSIS_TLV_SUBTYPE = 4;
 
     private static final byte TTL_TLV_TYPE = 3;
-    private static final byte PORT_DESC_TLV_TYPE = 4;
+    static final byte PORT_DESC_TLV_TYPE = 4;
 
     private final byte[] ttlValue = new byte[] {0, 0x78};
 
+    private static final String SIG_ALGORITHM = "HmacSHA256";
+
+    // Per-thread MAC, along with the secret it was last initialized with
+    private static final ThreadLocal<SigningMac> SIGNING_MACS = new ThreadLocal<>();
+
     // Only needs to be accessed from LinkProbeFactory.
     public ONOSLLDP(byte... subtype) {
         super();
@@ -488,22 +493,51 @@ public class ONOSLLDP extends LLDP {
         byte[] pnb = ByteBuffer.allocate(8).putLong(portNum).array();
         byte[] tmb = ByteBuffer.allocate(8).putLong(timestamp).array();
 
-        try {
-            SecretKeySpec signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(signingKey);
-            mac.update(deviceId.getBytes());
-            mac.update(pnb);
-            mac.update(tmb);
-            byte[] sig = mac.doFinal();
-            return sig;
-        } catch (NoSuchAlgorithmException e) {
+        Mac mac = signingMac(secret);
+        if (mac == null) {
             return null;
-        } catch (InvalidKeyException e) {
+        }
+        mac.update(deviceId.getBytes());
+        mac.update(pnb);
+        mac.update(tmb);
+        return mac.doFinal();
+    }
+
+    /**
+     * Returns the MAC of the current thread used to sign probes, initialized
+     * with the given secret. The MAC is reset after each signature, and only
+     * re-initialized when the secret changes.
+     *
+     * @param secret LLDP secret
+     * @return signing MAC, or null if unavailable
+     */
+    static Mac signingMac(String secret) {
+        SigningMac signingMac = SIGNING_MACS.get();
+        try {
+            if (signingMac == null) {
+                signingMac = new SigningMac(Mac.getInstance(SIG_ALGORITHM));
+                SIGNING_MACS.set(signingMac);
+            }
+            if (!secret.equals(signingMac.secret)) {
+                signingMac.secret = null;
+                signingMac.mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), SIG_ALGORITHM));
+                signingMac.secret = secret;
+            }
+            return signingMac.mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
             return null;
         }
     }
 
+    private static final class SigningMac {
+        private final Mac mac;
+        private String secret;
+
+        private SigningMac(Mac mac) {
+            this.mac = mac;
+        }
+    }
+
     private static boolean verifySig(byte[] sig, String deviceId, int portNum, long timestamp, String secret) {
         byte[] nsig = createSig(deviceId, portNum, timestamp, secret);
         if (nsig == null) {
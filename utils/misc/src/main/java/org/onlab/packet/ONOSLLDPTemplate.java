@@ -0,0 +1,224 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Precomputed frame of the ONOS link probes sent out of the ports of a
+ * device, equivalent to an {@link Ethernet} frame carrying an
+ * {@link ONOSLLDP} built by
+ * {@link ONOSLLDP#onosSecureLLDP(String, ChassisId, int, String, String)}.
+ * <p>
+ * The TLVs that do not depend on the port are serialized once; the frame of
+ * a port is assembled from them around its port TLV, and its timestamp and
+ * signature are then written in place. Signatures are computed with a MAC
+ * held by the calling thread.
+ * </p>
+ */
+public final class ONOSLLDPTemplate {
+
+    private static final int ETHERNET_HEADER_LENGTH = 14;
+    private static final int MIN_FRAME_LENGTH = 60;
+    private static final int TLV_HEADER_LENGTH = 2;
+    private static final int ORG_TLV_HEADER_LENGTH = LLDPOrganizationalTLV.OUI_LENGTH +
+            LLDPOrganizationalTLV.SUBTYPE_LENGTH;
+    private static final int LONG_LENGTH = 8;
+
+    private final String deviceId;
+    private final byte[] deviceIdBytes;
+    private final ChassisId chassisId;
+    private final MacAddress source;
+    private final String secret;
+
+    // Chassis TLV, preceding the port TLV
+    private final byte[] head;
+    // TTL and ONOS TLVs, following the port TLV
+    private final byte[] tail;
+    // Offsets of the timestamp and signature values in the tail; -1 if unsigned
+    private final int timestampOffset;
+    private final int sigOffset;
+
+    /**
+     * Creates the probe template of the specified device.
+     *
+     * @param deviceId  device identifier as a string
+     * @param chassisId chassis identifier of the device
+     * @param source    source MAC address of the probes
+     * @param secret    LLDP secret; null for unsigned probes
+     * @throws IllegalStateException if probes cannot be signed
+     */
+    public ONOSLLDPTemplate(String deviceId, ChassisId chassisId, MacAddress source, String secret) {
+        this.deviceId = deviceId;
+        this.deviceIdBytes = deviceId.getBytes();
+        this.chassisId = chassisId;
+        this.source = source;
+        this.secret = secret;
+
+        ONOSLLDP probe = ONOSLLDP.onosSecureLLDP(deviceId, chassisId, 0, secret);
+        if (probe == null) {
+            throw new IllegalStateException("Cannot sign link probes of " + deviceId);
+        }
+        byte[] lldp = probe.serialize();
+        int portStart = tlvEnd(lldp, 0);
+        int tailStart = tlvEnd(lldp, portStart);
+        // the end of LLDPDU is written along with the optional port description
+        head = Arrays.copyOf(lldp, portStart);
+        tail = Arrays.copyOfRange(lldp, tailStart, lldp.length - TLV_HEADER_LENGTH);
+        timestampOffset = secret == null ? -1 : orgTlvValue(tail, ONOSLLDP.TIMESTAMP_SUBTYPE);
+        sigOffset = secret == null ? -1 : orgTlvValue(tail, ONOSLLDP.SIG_SUBTYPE);
+    }
+
+    /**
+     * Indicates whether the template was built for the specified values.
+     *
+     * @param chassisId chassis identifier of the device
+     * @param source    source MAC address of the probes
+     * @param secret    LLDP secret
+     * @return true if the template produces probes for these values
+     */
+    public boolean matches(ChassisId chassisId, MacAddress source, String secret) {
+        return Objects.equals(this.chassisId, chassisId) &&
+                Objects.equals(this.source, source) &&
+                Objects.equals(this.secret, secret);
+    }
+
+    /**
+     * Returns a new LLDP frame probing the specified port.
+     *
+     * @param portNum   port number of port to send probe out of
+     * @param portDesc  port description of port to send probe out of; may be null
+     * @param timestamp probe timestamp in millis since the epoch
+     * @return serialized Ethernet frame
+     */
+    public byte[] lldpFrame(int portNum, String portDesc, long timestamp) {
+        byte[] port = String.valueOf(portNum).getBytes(StandardCharsets.UTF_8);
+        byte[] desc = portDesc == null ? new byte[0] : portDesc.getBytes(StandardCharsets.UTF_8);
+        int descLength = Math.min(desc.length, LLDPTLV.MAX_LENGTH);
+
+        int length = ETHERNET_HEADER_LENGTH + head.length + TLV_HEADER_LENGTH + 1 + port.length +
+                tail.length + (descLength > 0 ? TLV_HEADER_LENGTH + descLength : 0) + TLV_HEADER_LENGTH;
+        byte[] frame = new byte[Math.max(length, MIN_FRAME_LENGTH)];
+        int offset = writeHeader(frame, MacAddress.ONOS_LLDP, Ethernet.TYPE_LLDP);
+        System.arraycopy(head, 0, frame, offset, head.length);
+        offset += head.length;
+        offset = writeTlvHeader(frame, offset, LLDP.PORT_TLV_TYPE, 1 + port.length);
+        frame[offset++] = LLDP.PORT_TLV_COMPONENT_SUBTYPE;
+        System.arraycopy(port, 0, frame, offset, port.length);
+        offset += port.length;
+        int tailOffset = offset;
+        System.arraycopy(tail, 0, frame, offset, tail.length);
+        offset += tail.length;
+        if (descLength > 0) {
+            offset = writeTlvHeader(frame, offset, ONOSLLDP.PORT_DESC_TLV_TYPE, descLength);
+            System.arraycopy(desc, 0, frame, offset, descLength);
+        }
+        // end of LLDPDU and padding are left zeroed
+
+        if (secret != null) {
+            writeLong(frame, tailOffset + timestampOffset, timestamp);
+            sign(frame, tailOffset + sigOffset, portNum, tailOffset + timestampOffset);
+        }
+        return frame;
+    }
+
+    /**
+     * Returns a new BDDP frame carrying the same probe as the specified
+     * LLDP frame.
+     *
+     * @param lldpFrame frame returned by {@link #lldpFrame(int, String, long)}
+     * @return serialized Ethernet frame
+     */
+    public byte[] bddpFrame(byte[] lldpFrame) {
+        byte[] frame = lldpFrame.clone();
+        writeHeader(frame, MacAddress.BROADCAST, Ethernet.TYPE_BSN);
+        return frame;
+    }
+
+    private int writeHeader(byte[] frame, MacAddress destination, short etherType) {
+        System.arraycopy(destination.toBytes(), 0, frame, 0, MacAddress.MAC_ADDRESS_LENGTH);
+        System.arraycopy(source.toBytes(), 0, frame, MacAddress.MAC_ADDRESS_LENGTH,
+                         MacAddress.MAC_ADDRESS_LENGTH);
+        frame[12] = (byte) (etherType >>> 8);
+        frame[13] = (byte) etherType;
+        return ETHERNET_HEADER_LENGTH;
+    }
+
+    // Signs the probe the same way as ONOSLLDP, reading the timestamp from the frame.
+    private void sign(byte[] frame, int offset, int portNum, int timestampOffset) {
+        Mac mac = ONOSLLDP.signingMac(secret);
+        if (mac == null) {
+            throw new IllegalStateException("Cannot sign link probes of " + deviceId);
+        }
+        byte[] port = new byte[LONG_LENGTH];
+        writeLong(port, 0, portNum);
+        mac.update(deviceIdBytes);
+        mac.update(port);
+        mac.update(frame, timestampOffset, LONG_LENGTH);
+        try {
+            mac.doFinal(frame, offset);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException("Unexpected signature length", e);
+        }
+    }
+
+    private static int writeTlvHeader(byte[] frame, int offset, byte type, int length) {
+        frame[offset] = (byte) ((type << 1) | (length >>> 8 & 0x1));
+        frame[offset + 1] = (byte) length;
+        return offset + TLV_HEADER_LENGTH;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = LONG_LENGTH - 1; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    // Returns the offset following the TLV starting at the given offset.
+    private static int tlvEnd(byte[] bytes, int offset) {
+        int length = (bytes[offset] & 0x1) << 8 | bytes[offset + 1] & 0xff;
+        return offset + TLV_HEADER_LENGTH + length;
+    }
+
+    // Returns the offset of the information string of an organizational TLV.
+    private static int orgTlvValue(byte[] bytes, byte subtype) {
+        for (int offset = 0; offset < bytes.length; offset = tlvEnd(bytes, offset)) {
+            byte type = (byte) ((bytes[offset] & 0xff) >>> 1);
+            if (type == LLDPOrganizationalTLV.ORGANIZATIONAL_TLV_TYPE &&
+                    bytes[offset + TLV_HEADER_LENGTH + LLDPOrganizationalTLV.OUI_LENGTH] == subtype) {
+                return offset + TLV_HEADER_LENGTH + ORG_TLV_HEADER_LENGTH;
+            }
+        }
+        throw new IllegalStateException("Missing organizational TLV " + subtype);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("deviceId", deviceId)
+                .add("chassisId", chassisId)
+                .add("source", source)
+                .add("signed", secret != null)
+                .toString();
+    }
+}
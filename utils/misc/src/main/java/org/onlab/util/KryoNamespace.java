@@ -33,15 +33,15 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 import org.slf4j.Logger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -74,6 +74,9 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
 
     private static final Logger log = getLogger(KryoNamespace.class);
 
+    // serialized sizes of the classes of objects exceeding the default buffer size
+    private final Map<Class<?>, Integer> sizeHints = new ConcurrentHashMap<>();
+
     private final KryoPool pool = new KryoPool.Builder(this)
                                         .softReferences()
                                         .build();
@@ -299,19 +302,40 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
 
     /**
      * Serializes given object to byte array using Kryo instance in pool.
+     * <p>
+     * The object is written into a pooled buffer, initially sized after
+     * earlier objects of the same class if they exceeded the given size.
      *
      * @param obj Object to serialize
-     * @param bufferSize maximum size of serialized bytes
+     * @param bufferSize initial size of the buffer for serialized bytes
      * @return serialized bytes
      */
     public byte[] serialize(final Object obj, final int bufferSize) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bufferSize);
-        Output out = new Output(outputStream);
-        return pool.run(kryo -> {
+        Output out = KryoOutputPool.borrow(Math.max(bufferSize, sizeHint(obj)));
+        Kryo kryo = borrow();
+        try {
             kryo.writeClassAndObject(out, obj);
-            out.flush();
-            return outputStream.toByteArray();
-        });
+            learnSize(obj, out.position());
+            return out.toBytes();
+        } finally {
+            release(kryo);
+            KryoOutputPool.release(out);
+        }
+    }
+
+    // Returns the size which objects of the same class were last found to
+    // exceed the default buffer size with.
+    private int sizeHint(Object obj) {
+        if (obj == null) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+        return sizeHints.getOrDefault(obj.getClass(), DEFAULT_BUFFER_SIZE);
+    }
+
+    private void learnSize(Object obj, int size) {
+        if (obj != null && (size > DEFAULT_BUFFER_SIZE || sizeHints.containsKey(obj.getClass()))) {
+            sizeHints.put(obj.getClass(), Math.max(size, DEFAULT_BUFFER_SIZE));
+        }
     }
 
     /**
@@ -367,7 +391,7 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return deserialized Object
      */
     public <T> T deserialize(final byte[] bytes) {
-        Input in = new Input(new ByteArrayInputStream(bytes));
+        Input in = new Input(bytes);
         Kryo kryo = borrow();
         try {
             @SuppressWarnings("unchecked")
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import com.esotericsoftware.kryo.io.Output;
+
+import java.lang.ref.SoftReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Pool of Kryo outputs whose buffers are reused across serializations,
+ * shared by all namespaces as their buffers do not depend on registrations.
+ * <p>
+ * Outputs whose buffers grew beyond {@link #MAX_POOLED_BUFFER_SIZE} are not
+ * retained, and retained outputs are only softly reachable, so the pool never
+ * pins more memory than the garbage collector is willing to leave it.
+ * </p>
+ */
+final class KryoOutputPool {
+
+    /**
+     * Largest buffer retained by the pool.
+     */
+    static final int MAX_POOLED_BUFFER_SIZE = 512 * 1024;
+
+    private static final Queue<SoftReference<Output>> OUTPUTS = new ConcurrentLinkedQueue<>();
+
+    private KryoOutputPool() {
+    }
+
+    /**
+     * Borrows an empty output, whose buffer can initially hold at least the
+     * specified number of bytes and may grow up to
+     * {@link KryoNamespace#MAX_BUFFER_SIZE}.
+     *
+     * @param bufferSize initial buffer size
+     * @return output
+     */
+    static Output borrow(int bufferSize) {
+        SoftReference<Output> reference;
+        while ((reference = OUTPUTS.poll()) != null) {
+            Output output = reference.get();
+            if (output != null) {
+                if (output.getBuffer().length < bufferSize) {
+                    output.setBuffer(new byte[bufferSize], KryoNamespace.MAX_BUFFER_SIZE);
+                }
+                return output;
+            }
+        }
+        return new Output(bufferSize, KryoNamespace.MAX_BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the specified output to the pool, unless its buffer grew too
+     * large to be retained.
+     *
+     * @param output output previously borrowed
+     */
+    static void release(Output output) {
+        if (output.getBuffer().length <= MAX_POOLED_BUFFER_SIZE) {
+            output.clear();
+            OUTPUTS.offer(new SoftReference<>(output));
+        }
+    }
+}
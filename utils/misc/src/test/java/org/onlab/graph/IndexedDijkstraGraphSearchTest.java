@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.collect.Iterables;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test of the indexed Dijkstra algorithm.
+ */
+public class IndexedDijkstraGraphSearchTest extends DijkstraGraphSearchTest {
+
+    private static final int SEARCHES = 5;
+
+    @Override
+    protected AbstractGraphPathSearch<TestVertex, TestEdge> graphSearch() {
+        return new IndexedDijkstraGraphSearch<>();
+    }
+
+    // Creates a random graph with the given number of vertexes, each with
+    // a few egress edges of random weights.
+    private Graph<TestVertex, TestEdge> randomGraph(int vertexCount, int degree, long seed) {
+        Random random = new Random(seed);
+        List<TestVertex> vertexes = new ArrayList<>(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            vertexes.add(new TestVertex("v" + i));
+        }
+        Set<TestEdge> edges = new HashSet<>();
+        for (TestVertex src : vertexes) {
+            for (int i = 0; i < degree; i++) {
+                TestVertex dst = vertexes.get(random.nextInt(vertexCount));
+                if (!dst.equals(src)) {
+                    edges.add(new TestEdge(src, dst, new TestDoubleWeight(1 + random.nextInt(10))));
+                }
+            }
+        }
+        return new AdjacencyListsGraph<>(new HashSet<>(vertexes), edges);
+    }
+
+    @Test
+    public void sameCostsAsDijkstra() {
+        graph = randomGraph(1_000, 4, 42);
+        GraphPathSearch<TestVertex, TestEdge> dijkstra = new DijkstraGraphSearch<>();
+        GraphPathSearch<TestVertex, TestEdge> indexed = graphSearch();
+
+        for (TestVertex src : Iterables.limit(graph.getVertexes(), SEARCHES)) {
+            GraphPathSearch.Result<TestVertex, TestEdge> expected =
+                    dijkstra.search(graph, src, null, weigher, GraphPathSearch.ALL_PATHS);
+            GraphPathSearch.Result<TestVertex, TestEdge> actual =
+                    indexed.search(graph, src, null, weigher, GraphPathSearch.ALL_PATHS);
+            assertEquals("incorrect costs", expected.costs(), actual.costs());
+            assertEquals("incorrect paths count", expected.paths().size(), actual.paths().size());
+        }
+    }
+
+}
@@ -23,7 +23,10 @@ import java.nio.ByteBuffer;
 
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Unit tests for the Ethernet class.
@@ -173,4 +176,105 @@ public class EthernetTest {
         assertEquals(Arrays.toString(encoded), Arrays.toString(qinqHeaderExpected));
     }
 
+    private Ethernet udpFrame(int payloadLength) {
+        UDP udp = new UDP();
+        udp.setSourcePort(5000);
+        udp.setDestinationPort(6000);
+        udp.setPayload(new Data(new byte[payloadLength]));
+        IPv4 ipv4 = new IPv4();
+        ipv4.setSourceAddress("10.0.0.1");
+        ipv4.setDestinationAddress("10.0.0.2");
+        ipv4.setProtocol(IPv4.PROTOCOL_UDP);
+        ipv4.setTtl((byte) 64);
+        ipv4.setPayload(udp);
+        Ethernet eth = new Ethernet();
+        eth.setDestinationMACAddress(dstMac);
+        eth.setSourceMACAddress(srcMac);
+        eth.setVlanID(vlan);
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        eth.setPayload(ipv4);
+        return eth;
+    }
+
+    @Test
+    public void testLazyDeserialize() throws Exception {
+        byte[] frame = udpFrame(64).serialize();
+        Ethernet eager = deserializer.deserialize(frame, 0, frame.length);
+        Ethernet lazy = Ethernet.lazyDeserializer().deserialize(frame, 0, frame.length);
+
+        assertEquals(dstMac, lazy.getDestinationMAC());
+        assertEquals(srcMac, lazy.getSourceMAC());
+        assertEquals(vlan, lazy.getVlanID());
+        assertEquals(Ethernet.TYPE_IPV4, lazy.getEtherType());
+
+        // Serializing an undecoded frame reuses its original bytes.
+        assertArrayEquals(frame, lazy.serialize());
+
+        IPv4 ipv4 = (IPv4) lazy.getPayload();
+        assertEquals(lazy, ipv4.getParent());
+        assertEquals(IPv4.PROTOCOL_UDP, ipv4.getProtocol());
+        assertEquals(6000, ((UDP) ipv4.getPayload()).getDestinationPort());
+        assertEquals(eager, lazy);
+        assertEquals(eager.hashCode(), lazy.hashCode());
+        assertArrayEquals(frame, lazy.serialize());
+    }
+
+    @Test
+    public void testLazyDeserializeSetPayload() throws Exception {
+        byte[] frame = udpFrame(64).serialize();
+        Ethernet lazy = Ethernet.lazyDeserializer().deserialize(frame, 0, frame.length);
+        Data data = new Data(new byte[]{1, 2, 3});
+        lazy.setPayload(data);
+
+        assertEquals(data, lazy.getPayload());
+        assertEquals(Ethernet.ETHERNET_HEADER_LENGTH + Ethernet.VLAN_HEADER_LENGTH + 3,
+                     lazy.serialize().length);
+    }
+
+    private byte[] malformedIpv4Frame() {
+        byte[] frame = Arrays.copyOf(vlanByteHeader, vlanByteHeader.length + 3);
+        frame[vlanByteHeader.length - 2] = (byte) (Ethernet.TYPE_IPV4 >> 8);
+        frame[vlanByteHeader.length - 1] = (byte) Ethernet.TYPE_IPV4;
+        return frame;
+    }
+
+    @Test(expected = DeserializationException.class)
+    public void testDeserializeMalformedPayload() throws Exception {
+        byte[] frame = malformedIpv4Frame();
+        deserializer.deserialize(frame, 0, frame.length);
+    }
+
+    @Test
+    public void testLazyDeserializeMalformedPayload() throws Exception {
+        byte[] frame = malformedIpv4Frame();
+        Ethernet lazy = Ethernet.lazyDeserializer().deserialize(frame, 0, frame.length);
+
+        assertEquals(Ethernet.TYPE_IPV4, lazy.getEtherType());
+        assertArrayEquals(frame, lazy.serialize());
+        for (int i = 0; i < 2; i++) {
+            try {
+                lazy.getPayload();
+                fail("Malformed payload was decoded");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getCause() instanceof DeserializationException);
+            }
+        }
+    }
+
+    @Test
+    public void testLazyDeserializeDuplicate() throws Exception {
+        byte[] frame = udpFrame(64).serialize();
+        Ethernet lazy = Ethernet.lazyDeserializer().deserialize(frame, 0, frame.length);
+        Ethernet copy = lazy.duplicate();
+        assertArrayEquals(frame, copy.serialize());
+        assertEquals(lazy, copy);
+
+        frame = malformedIpv4Frame();
+        lazy = Ethernet.lazyDeserializer().deserialize(frame, 0, frame.length);
+        copy = lazy.duplicate();
+        assertEquals(lazy.getDestinationMAC(), copy.getDestinationMAC());
+        assertEquals(lazy.getVlanID(), copy.getVlanID());
+        assertArrayEquals(frame, copy.serialize());
+    }
+
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the ONOSLLDPTemplate class.
+ */
+public class ONOSLLDPTemplateTest {
+
+    private static final String DEVICE_ID = "of:c0a80a6e00000001";
+    private static final ChassisId CHASSIS_ID = new ChassisId(67890);
+    private static final MacAddress SOURCE = MacAddress.valueOf("a2:87:0b:f2:3c:11");
+    private static final int PORT_NUMBER = 2;
+    private static final int PORT_NUMBER_2 = 98761234;
+    private static final String PORT_DESC = "Ethernet1";
+    private static final String TEST_SECRET = "test";
+
+    // Serializes a probe the way link discovery did before templates.
+    private static byte[] reference(ONOSLLDP probe, MacAddress destination, short etherType) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(etherType);
+        eth.setDestinationMACAddress(destination);
+        eth.setSourceMACAddress(SOURCE);
+        eth.setPad(true);
+        eth.setPayload(probe);
+        return eth.serialize();
+    }
+
+    private static void assertSameFrames(ONOSLLDPTemplate template, int portNum, String portDesc, String secret) {
+        ONOSLLDP probe = ONOSLLDP.onosSecureLLDP(DEVICE_ID, CHASSIS_ID, portNum, portDesc, secret);
+        byte[] lldp = template.lldpFrame(portNum, portDesc, probe.getTimestamp());
+        assertArrayEquals(reference(probe, MacAddress.ONOS_LLDP, Ethernet.TYPE_LLDP), lldp);
+        assertArrayEquals(reference(probe, MacAddress.BROADCAST, Ethernet.TYPE_BSN), template.bddpFrame(lldp));
+    }
+
+    /**
+     * Tests that templates produce the same frames as serialized probes.
+     */
+    @Test
+    public void testFrames() {
+        ONOSLLDPTemplate template = new ONOSLLDPTemplate(DEVICE_ID, CHASSIS_ID, SOURCE, TEST_SECRET);
+        assertSameFrames(template, PORT_NUMBER, PORT_DESC, TEST_SECRET);
+        assertSameFrames(template, PORT_NUMBER_2, PORT_DESC, TEST_SECRET);
+        assertSameFrames(template, PORT_NUMBER, null, TEST_SECRET);
+        assertSameFrames(template, PORT_NUMBER, "", TEST_SECRET);
+
+        ONOSLLDPTemplate unsigned = new ONOSLLDPTemplate(DEVICE_ID, CHASSIS_ID, SOURCE, null);
+        assertSameFrames(unsigned, PORT_NUMBER, PORT_DESC, null);
+        assertSameFrames(unsigned, PORT_NUMBER_2, null, null);
+    }
+
+    /**
+     * Tests that probes built from templates are verified.
+     */
+    @Test
+    public void testVerify() throws Exception {
+        ONOSLLDPTemplate template = new ONOSLLDPTemplate(DEVICE_ID, CHASSIS_ID, SOURCE, TEST_SECRET);
+        byte[] frame = template.lldpFrame(PORT_NUMBER_2, PORT_DESC, System.currentTimeMillis());
+
+        Ethernet eth = Ethernet.deserializer().deserialize(frame, 0, frame.length);
+        ONOSLLDP probe = ONOSLLDP.parseONOSLLDP(eth);
+        assertNotNull(probe);
+        assertEquals(SOURCE, eth.getSourceMAC());
+        assertEquals(DEVICE_ID, probe.getDeviceString());
+        assertEquals(Integer.valueOf(PORT_NUMBER_2), probe.getPort());
+        assertEquals(PORT_DESC, probe.getPortDescString());
+        assertTrue(ONOSLLDP.verify(probe, TEST_SECRET, 1000));
+        assertFalse(ONOSLLDP.verify(probe, "other", 1000));
+    }
+
+    /**
+     * Tests matching templates with the values they were built for.
+     */
+    @Test
+    public void testMatches() {
+        ONOSLLDPTemplate template = new ONOSLLDPTemplate(DEVICE_ID, CHASSIS_ID, SOURCE, TEST_SECRET);
+        assertTrue(template.matches(CHASSIS_ID, SOURCE, TEST_SECRET));
+        assertFalse(template.matches(new ChassisId(1), SOURCE, TEST_SECRET));
+        assertFalse(template.matches(CHASSIS_ID, MacAddress.NONE, TEST_SECRET));
+        assertFalse(template.matches(CHASSIS_ID, SOURCE, null));
+    }
+}
@@ -15,8 +15,11 @@
  */
 package org.onosproject.rest.resources;
 
+import java.time.Duration;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import javax.ws.rs.GET;
@@ -49,6 +52,7 @@ import org.onosproject.rest.AbstractWebResource;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static org.onosproject.net.DeviceId.deviceId;
 import static org.onosproject.net.PortNumber.portNumber;
 
@@ -57,6 +61,8 @@ import static org.onosproject.net.PortNumber.portNumber;
  */
 @Path("statistics")
 public class StatisticsWebResource  extends AbstractWebResource {
+    private static final String INVALID_WINDOW = "Window must be a positive number of seconds";
+
     @Context
     private UriInfo uriInfo;
 
@@ -279,15 +285,26 @@ public class StatisticsWebResource  extends AbstractWebResource {
      * Gets port delta statistics of a specified devices.
      * @onos.rsModel StatisticsPorts
      * @param deviceId device ID
-     * @return 200 OK with JSON encoded array of port delta statistics
+     * @param window (optional) number of most recent seconds over which to accumulate
+     *               the statistics, instead of since the previous sample
+     * @return 200 OK with JSON encoded array of port delta statistics,
+     * BAD_REQUEST if the window is not positive
      */
     @GET
     @Path("delta/ports/{deviceId}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getPortDeltaStatisticsByDeviceId(@PathParam("deviceId") String deviceId) {
+    public Response getPortDeltaStatisticsByDeviceId(@PathParam("deviceId") String deviceId,
+                                                     @QueryParam("window") Long window) {
+        final Duration windowDuration = window(window);
         final DeviceService service = get(DeviceService.class);
-        final Iterable<PortStatistics> portStatsEntries =
-                service.getPortDeltaStatistics(DeviceId.deviceId(deviceId));
+        final DeviceId did = DeviceId.deviceId(deviceId);
+        final Iterable<PortStatistics> portStatsEntries = windowDuration == null ?
+                service.getPortDeltaStatistics(did) :
+                service.getPortStatistics(did).stream()
+                        .map(stats -> service.getDeltaStatisticsForPort(did, stats.portNumber(),
+                                                                          windowDuration))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
         final ObjectNode root = mapper().createObjectNode();
         final ArrayNode rootArrayNode = root.putArray("statistics");
         final ObjectNode deviceStatsNode = mapper().createObjectNode();
@@ -308,17 +325,24 @@ public class StatisticsWebResource  extends AbstractWebResource {
      * @onos.rsModel StatisticsPorts
      * @param deviceId device ID
      * @param port port
-     * @return 200 OK with JSON encoded array of port delta statistics for the specified port
+     * @param window (optional) number of most recent seconds over which to accumulate
+     *               the statistics, instead of since the previous sample
+     * @return 200 OK with JSON encoded array of port delta statistics for the specified port,
+     * BAD_REQUEST if the window is not positive
      */
     @GET
     @Path("delta/ports/{deviceId}/{port}")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getPortDeltaStatisticsByDeviceIdAndPort(@PathParam("deviceId") String deviceId,
-                                                       @PathParam("port") String port) {
+                                                       @PathParam("port") String port,
+                                                       @QueryParam("window") Long window) {
+        final Duration windowDuration = window(window);
         final DeviceService service = get(DeviceService.class);
         final PortNumber portNumber = portNumber(port);
-        final PortStatistics portStatsEntry =
-                service.getDeltaStatisticsForPort(DeviceId.deviceId(deviceId), portNumber);
+        final PortStatistics portStatsEntry = windowDuration == null ?
+                service.getDeltaStatisticsForPort(DeviceId.deviceId(deviceId), portNumber) :
+                service.getDeltaStatisticsForPort(DeviceId.deviceId(deviceId), portNumber,
+                                                  windowDuration);
         final ObjectNode root = mapper().createObjectNode();
         final ArrayNode rootArrayNode = root.putArray("statistics");
         final ObjectNode deviceStatsNode = mapper().createObjectNode();
@@ -356,4 +380,19 @@ public class StatisticsWebResource  extends AbstractWebResource {
 
         return ok(root).build();
     }
+
+    /**
+     * Returns the statistics window of the given length.
+     *
+     * @param seconds length of the window in seconds; null for none
+     * @return window duration; null if no length was given
+     * @throws IllegalArgumentException if the length is not positive
+     */
+    private static Duration window(Long seconds) {
+        if (seconds == null) {
+            return null;
+        }
+        checkArgument(seconds > 0, INVALID_WINDOW);
+        return Duration.ofSeconds(seconds);
+    }
 }
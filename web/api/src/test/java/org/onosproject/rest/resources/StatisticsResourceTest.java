@@ -32,7 +32,9 @@ import org.onosproject.net.statistic.DefaultLoad;
 import org.onosproject.net.statistic.StatisticService;
 
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
 import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
 import java.net.URLDecoder;
 import java.util.HashMap;
 import java.util.stream.IntStream;
@@ -178,4 +180,23 @@ public class StatisticsResourceTest extends ResourceTest {
         checkValues(load3, 111, 222, true, "src3");
 
     }
+
+    /**
+     * Tests GET of port delta statistics with a window that is not positive.
+     */
+    @Test
+    public void testDeltaStatisticsBadWindow() {
+        final WebTarget wt = target();
+        Response response = wt.path("statistics/delta/ports/of:0000000000000001")
+                .queryParam("window", "0")
+                .request()
+                .get();
+        assertThat(response.getStatus(), is(HttpURLConnection.HTTP_BAD_REQUEST));
+
+        response = wt.path("statistics/delta/ports/of:0000000000000001/1")
+                .queryParam("window", "-5")
+                .request()
+                .get();
+        assertThat(response.getStatus(), is(HttpURLConnection.HTTP_BAD_REQUEST));
+    }
 }